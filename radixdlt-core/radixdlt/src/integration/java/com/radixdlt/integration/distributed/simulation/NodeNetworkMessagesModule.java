@@ -38,6 +38,8 @@ import com.radixdlt.sync.messages.remote.StatusResponse;
 import com.radixdlt.sync.messages.remote.SyncRequest;
 import com.radixdlt.sync.messages.remote.SyncResponse;
 import com.radixdlt.mempool.MempoolAdd;
+import com.radixdlt.mempool.MempoolAnnounce;
+import com.radixdlt.mempool.MempoolPull;
 
 public class NodeNetworkMessagesModule extends AbstractModule {
 	private final SimulationNetwork simulationNetwork;
@@ -61,6 +63,16 @@ public class NodeNetworkMessagesModule extends AbstractModule {
 		return RxRemoteDispatcher.create(MempoolAdd.class, network.remoteEventDispatcher(MempoolAdd.class));
 	}
 
+	@ProvidesIntoSet
+	private RxRemoteDispatcher<?> mempoolAnnounce(SimulatedNetworkImpl network) {
+		return RxRemoteDispatcher.create(MempoolAnnounce.class, network.remoteEventDispatcher(MempoolAnnounce.class));
+	}
+
+	@ProvidesIntoSet
+	private RxRemoteDispatcher<?> mempoolPull(SimulatedNetworkImpl network) {
+		return RxRemoteDispatcher.create(MempoolPull.class, network.remoteEventDispatcher(MempoolPull.class));
+	}
+
 	@ProvidesIntoSet
 	private RxRemoteDispatcher<?> vertexRequestDispatcher(SimulatedNetworkImpl network) {
 		return RxRemoteDispatcher.create(GetVerticesRequest.class, network.remoteEventDispatcher(GetVerticesRequest.class));
@@ -0,0 +1,100 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.integration.distributed.simulation.tests.full_function;
+
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.integration.distributed.simulation.monitors.consensus.ConsensusMonitors;
+import com.radixdlt.integration.distributed.simulation.monitors.ledger.LedgerMonitors;
+import com.radixdlt.integration.distributed.simulation.NetworkLatencies;
+import com.radixdlt.integration.distributed.simulation.NetworkOrdering;
+import com.radixdlt.integration.distributed.simulation.SimulationTest;
+import com.radixdlt.integration.distributed.simulation.application.RadixEngineUniqueGenerator;
+import com.radixdlt.integration.distributed.simulation.monitors.radix_engine.RadixEngineMonitors;
+import com.radixdlt.mempool.MempoolConfig;
+import com.radixdlt.statecomputer.forks.ForksModule;
+import com.radixdlt.statecomputer.forks.MainnetForkConfigsModule;
+import com.radixdlt.statecomputer.forks.RadixEngineForksLatestOnlyModule;
+import com.radixdlt.sync.SyncConfig;
+import org.assertj.core.api.AssertionsForClassTypes;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+/**
+ * Measures the bytes relayed between mempools for each transaction accepted into a mempool.
+ */
+public class MempoolRelayBandwidthTest {
+	private static final int NUM_NODES = 4;
+
+	private final SimulationTest.Builder bftTestBuilder = SimulationTest.builder()
+		.numNodes(NUM_NODES)
+		.pacemakerTimeout(3000)
+		.networkModules(
+			NetworkOrdering.inOrder(),
+			NetworkLatencies.fixed()
+		)
+		.fullFunctionNodes(SyncConfig.of(400L, 10, 2000L))
+		.addRadixEngineConfigModules(
+			new MainnetForkConfigsModule(),
+			new RadixEngineForksLatestOnlyModule(),
+			new ForksModule()
+		)
+		.addNodeModule(MempoolConfig.asModule(1000, 10, 60000, 60000, 100, MempoolConfig.DEFAULT_MAX_AGE_MS, true))
+		.addTestModules(
+			ConsensusMonitors.safety(),
+			ConsensusMonitors.liveness(1, TimeUnit.SECONDS),
+			LedgerMonitors.consensusToLedger(),
+			LedgerMonitors.ordered(),
+			RadixEngineMonitors.noInvalidProposedCommands()
+		)
+		.addMempoolSubmissionsSteadyState(RadixEngineUniqueGenerator.class);
+
+	@Test
+	public void each_transaction_is_relayed_about_once_per_accepting_node() {
+		SimulationTest simulationTest = bftTestBuilder
+			.build();
+
+		final var runningTest = simulationTest.run();
+		final var results = runningTest.awaitCompletion();
+		assertThat(results).allSatisfy((name, err) -> AssertionsForClassTypes.assertThat(err).isEmpty());
+
+		final var counters = runningTest.getNetwork().getSystemCounters().values();
+		final long accepted = sum(counters, CounterType.MEMPOOL_ADD_SUCCESS);
+		final long sentBytes = sum(counters, CounterType.MEMPOOL_RELAYER_SENT_BYTES);
+		final long sentIds = sum(counters, CounterType.MEMPOOL_RELAYER_SENT_COUNT)
+			+ sum(counters, CounterType.MEMPOOL_RELAYER_REQUESTED_COUNT);
+		final long served = sum(counters, CounterType.MEMPOOL_RELAYER_SERVED_COUNT);
+		assertThat(accepted).isPositive();
+		assertThat(served).isPositive();
+
+		// Pushing every transaction to every other node costs (NUM_NODES - 1) payloads for the
+		// submitting node plus (NUM_NODES - 2) for each other node, more than twice the payload
+		final long averagePayload = (sentBytes - sentIds * AID.BYTES) / served;
+		final long bytesPerAccepted = sentBytes / accepted;
+		assertThat(bytesPerAccepted).isLessThan(2 * averagePayload);
+	}
+
+	private static long sum(Collection<SystemCounters> counters, CounterType counterType) {
+		return counters.stream().mapToLong(c -> c.get(counterType)).sum();
+	}
+}
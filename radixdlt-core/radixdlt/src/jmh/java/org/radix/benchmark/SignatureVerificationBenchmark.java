@@ -0,0 +1,154 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package org.radix.benchmark;
+
+import com.google.common.hash.HashCode;
+import com.radixdlt.crypto.ECDSASignature;
+import com.radixdlt.crypto.ECDSAVerifier;
+import com.radixdlt.crypto.ECDSAVerifier.SignedHash;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.ECPublicKey;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.crypto.exception.PublicKeyException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.radix.serialization.TestSetupUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH driven benchmarks comparing signature verification through {@link ECPublicKey#verify}
+ * with verification through {@link ECDSAVerifier}, for signatures made by validator keys.
+ * <p>
+ * Keys are deserialized on every verification, as they are when received from the network.
+ * Run with:
+ * <pre>
+ *    $ gradle --no-daemon clean jmh -Pjmh.include=SignatureVerificationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SignatureVerificationBenchmark {
+	private static final int NUM_VALIDATORS = 100;
+	private static final int SIGNATURES_PER_VALIDATOR = 10;
+
+	@State(Scope.Benchmark)
+	public static class Signatures {
+		final List<byte[]> keys = new ArrayList<>();
+		final List<HashCode> hashes = new ArrayList<>();
+		final List<ECDSASignature> signatures = new ArrayList<>();
+		// Not caching, so that only the effect of precomputation is measured
+		final ECDSAVerifier precomputed = new ECDSAVerifier(0);
+		final ECDSAVerifier cached = new ECDSAVerifier(NUM_VALIDATORS * SIGNATURES_PER_VALIDATOR);
+		int next;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			TestSetupUtils.installBouncyCastleProvider();
+
+			var validatorKeys = new ArrayList<ECPublicKey>();
+			for (int i = 0; i < NUM_VALIDATORS; i++) {
+				var keyPair = ECKeyPair.generateNew();
+				validatorKeys.add(keyPair.getPublicKey());
+				for (int j = 0; j < SIGNATURES_PER_VALIDATOR; j++) {
+					var hash = HashUtils.random256();
+					keys.add(keyPair.getPublicKey().getCompressedBytes());
+					hashes.add(hash);
+					signatures.add(keyPair.sign(hash));
+				}
+			}
+			precomputed.precompute(validatorKeys);
+			cached.precompute(validatorKeys);
+			for (int i = 0; i < signatures.size(); i++) {
+				cached.verify(validatorKeys.get(i / SIGNATURES_PER_VALIDATOR), hashes.get(i), signatures.get(i));
+			}
+		}
+
+		int next() {
+			next = (next + 1) % signatures.size();
+			return next;
+		}
+
+		// One signature of each validator, like the signatures on a ledger proof
+		List<Integer> quorum() {
+			var offset = next() % SIGNATURES_PER_VALIDATOR;
+			var quorum = new ArrayList<Integer>(NUM_VALIDATORS);
+			for (int i = 0; i < NUM_VALIDATORS; i++) {
+				quorum.add(i * SIGNATURES_PER_VALIDATOR + offset);
+			}
+			return quorum;
+		}
+
+		ECPublicKey key(int i) {
+			try {
+				return ECPublicKey.fromBytes(keys.get(i));
+			} catch (PublicKeyException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	@Benchmark
+	public void publicKeyVerify(Signatures s, Blackhole bh) {
+		var i = s.next();
+		bh.consume(s.key(i).verify(s.hashes.get(i), s.signatures.get(i)));
+	}
+
+	@Benchmark
+	public void precomputedVerify(Signatures s, Blackhole bh) {
+		var i = s.next();
+		bh.consume(s.precomputed.verify(s.key(i), s.hashes.get(i), s.signatures.get(i)));
+	}
+
+	@Benchmark
+	public void cachedVerify(Signatures s, Blackhole bh) {
+		var i = s.next();
+		bh.consume(s.cached.verify(s.key(i), s.hashes.get(i), s.signatures.get(i)));
+	}
+
+	@Benchmark
+	public void publicKeyVerifyQuorum(Signatures s, Blackhole bh) {
+		var valid = true;
+		for (var i : s.quorum()) {
+			valid &= s.key(i).verify(s.hashes.get(i), s.signatures.get(i));
+		}
+		bh.consume(valid);
+	}
+
+	@Benchmark
+	public void precomputedVerifyQuorum(Signatures s, Blackhole bh) {
+		var batch = new ArrayList<SignedHash>(NUM_VALIDATORS);
+		for (var i : s.quorum()) {
+			batch.add(SignedHash.of(s.key(i), s.hashes.get(i), s.signatures.get(i)));
+		}
+		bh.consume(s.precomputed.verifyAll(batch));
+	}
+}
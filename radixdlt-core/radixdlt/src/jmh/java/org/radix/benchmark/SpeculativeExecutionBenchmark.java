@@ -0,0 +1,166 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package org.radix.benchmark;
+
+import com.radixdlt.application.system.construction.CreateSystemConstructorV2;
+import com.radixdlt.application.system.construction.FeeReservePutConstructor;
+import com.radixdlt.application.system.scrypt.SystemConstraintScrypt;
+import com.radixdlt.application.tokens.construction.CreateMutableTokenConstructor;
+import com.radixdlt.application.tokens.construction.MintTokenConstructor;
+import com.radixdlt.application.tokens.construction.TransferTokensConstructorV2;
+import com.radixdlt.application.tokens.scrypt.TokensConstraintScryptV3;
+import com.radixdlt.atom.REConstructor;
+import com.radixdlt.atom.Txn;
+import com.radixdlt.atom.TxnConstructionRequest;
+import com.radixdlt.atom.actions.CreateMutableToken;
+import com.radixdlt.atom.actions.CreateSystem;
+import com.radixdlt.atom.actions.FeeReservePut;
+import com.radixdlt.atom.actions.MintToken;
+import com.radixdlt.atom.actions.TransferToken;
+import com.radixdlt.atomos.CMAtomOS;
+import com.radixdlt.constraintmachine.ConstraintMachine;
+import com.radixdlt.constraintmachine.PermissionLevel;
+import com.radixdlt.constraintmachine.meter.FixedFeeMeter;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.engine.RadixEngine;
+import com.radixdlt.engine.RadixEngineResult;
+import com.radixdlt.engine.parser.REParser;
+import com.radixdlt.identifiers.REAddr;
+import com.radixdlt.store.InMemoryEngineStore;
+import com.radixdlt.utils.UInt256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH driven benchmarks measuring the throughput of mempool style speculative
+ * executions on a {@link RadixEngine} as the number of submitting threads grows.
+ * <p>
+ * Run with:
+ * <pre>
+ *    $ gradle --no-daemon clean jmh -Pjmh.include=SpeculativeExecutionBenchmark
+ * </pre>
+ * Results are reported as operations per second, one line per thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SpeculativeExecutionBenchmark {
+	private static final int NUM_TXNS = 1_000;
+
+	@State(Scope.Benchmark)
+	public static class EngineState {
+		RadixEngine<Void> engine;
+		List<Txn> txns;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			var cmAtomOS = new CMAtomOS();
+			cmAtomOS.load(new TokensConstraintScryptV3());
+			cmAtomOS.load(new SystemConstraintScrypt(Set.of()));
+			var cm = new ConstraintMachine(
+				cmAtomOS.getProcedures(),
+				cmAtomOS.buildSubstateDeserialization(),
+				cmAtomOS.buildVirtualSubstateDeserialization(),
+				FixedFeeMeter.create(UInt256.ONE)
+			);
+			this.engine = new RadixEngine<>(
+				new REParser(cmAtomOS.buildSubstateDeserialization()),
+				cmAtomOS.buildSubstateSerialization(),
+				REConstructor.newBuilder()
+					.put(CreateSystem.class, new CreateSystemConstructorV2())
+					.put(TransferToken.class, new TransferTokensConstructorV2())
+					.put(CreateMutableToken.class, new CreateMutableTokenConstructor())
+					.put(MintToken.class, new MintTokenConstructor())
+					.put(FeeReservePut.class, new FeeReservePutConstructor())
+					.build(),
+				cm,
+				new InMemoryEngineStore<>()
+			);
+
+			var keys = new ArrayList<ECKeyPair>();
+			var genesis = TxnConstructionRequest.create()
+				.action(new CreateSystem(0))
+				.action(new CreateMutableToken(null, "xrd", "xrd", "", "", ""));
+			for (int i = 0; i < NUM_TXNS; i++) {
+				var key = ECKeyPair.generateNew();
+				keys.add(key);
+				genesis.action(new MintToken(REAddr.ofNativeToken(), REAddr.ofPubKeyAccount(key.getPublicKey()), UInt256.TEN));
+			}
+			var genesisTxn = engine.construct(genesis).buildWithoutSignature();
+			engine.execute(List.of(genesisTxn), null, PermissionLevel.SYSTEM);
+
+			// Every transfer spends a different account so they are all valid against the same state
+			this.txns = new ArrayList<>();
+			for (var key : keys) {
+				var from = REAddr.ofPubKeyAccount(key.getPublicKey());
+				var to = REAddr.ofPubKeyAccount(ECKeyPair.generateNew().getPublicKey());
+				var txn = engine.construct(
+					TxnConstructionRequest.create()
+						.action(new FeeReservePut(from, UInt256.FIVE))
+						.action(new TransferToken(REAddr.ofNativeToken(), from, to, UInt256.ONE))
+				).signAndBuild(key::sign);
+				txns.add(txn);
+			}
+		}
+
+		RadixEngineResult admitRandom() throws Exception {
+			var txn = txns.get(ThreadLocalRandom.current().nextInt(txns.size()));
+			return engine.speculate(branch -> branch.execute(List.of(txn)));
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public RadixEngineResult admit1Thread(EngineState state) throws Exception {
+		return state.admitRandom();
+	}
+
+	@Benchmark
+	@Threads(2)
+	public RadixEngineResult admit2Threads(EngineState state) throws Exception {
+		return state.admitRandom();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public RadixEngineResult admit4Threads(EngineState state) throws Exception {
+		return state.admitRandom();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public RadixEngineResult admit8Threads(EngineState state) throws Exception {
+		return state.admitRandom();
+	}
+}
@@ -24,11 +24,16 @@ import com.google.inject.Singleton;
 import com.radixdlt.consensus.HashVerifier;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.crypto.ECDSASignature;
+import com.radixdlt.crypto.ECDSAVerifier;
+import com.radixdlt.crypto.ECDSAVerifier.SignedHash;
+import com.radixdlt.crypto.ECPublicKey;
 import com.radixdlt.crypto.Hasher;
 import com.radixdlt.consensus.Sha256Hasher;
-import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.Serialization;
 
+import java.util.Collection;
+
 /**
  * Module which maintains crypto primitives for consensus
  */
@@ -41,36 +46,35 @@ public final class CryptoModule extends AbstractModule {
 
 
 	@Provides
+	@Singleton
 	Hasher hasher(Serialization serialization, SystemCounters counters) {
-		return new Hasher() {
-			private Sha256Hasher hasher = new Sha256Hasher(serialization);
+		// Singleton, so that memoized hashes are shared by everything hashing consensus objects
+		return new Sha256Hasher(serialization, bytes -> counters.add(CounterType.HASHED_BYTES, bytes));
+	}
 
-			@Override
-			public int bytes() {
-				return 32;
-			}
+	@Provides
+	@Singleton
+	ECDSAVerifier ecdsaVerifier() {
+		// Singleton, so that verified signatures and precomputed keys are shared by all verifications
+		return new ECDSAVerifier(ECDSAVerifier.DEFAULT_CACHE_SIZE);
+	}
 
+	@Provides
+	@Singleton
+	HashVerifier hashVerifier(SystemCounters counters, ECDSAVerifier verifier) {
+		return new HashVerifier() {
 			@Override
-			public HashCode hash(Object o) {
-				// Call hashBytes to ensure counters incremented
-				return this.hashBytes(serialization.toDson(o, Output.HASH));
+			public boolean verify(ECPublicKey pubKey, HashCode hash, ECDSASignature sig) {
+				counters.increment(CounterType.SIGNATURES_VERIFIED);
+				return verifier.verify(pubKey, hash, sig);
 			}
 
 			@Override
-			public HashCode hashBytes(byte[] bytes) {
-				counters.add(CounterType.HASHED_BYTES, bytes.length);
-				return hasher.hashBytes(bytes);
+			public boolean verifyAll(Collection<SignedHash> signatures) {
+				counters.add(CounterType.SIGNATURES_VERIFIED, signatures.size());
+				return verifier.verifyAll(signatures);
 			}
 		};
 	}
 
-	@Provides
-	@Singleton
-	HashVerifier hashVerifier(SystemCounters counters) {
-		return (pubKey, hash, signature) -> {
-			counters.increment(CounterType.SIGNATURES_VERIFIED);
-			return pubKey.verify(hash, signature);
-		};
-	}
-
 }
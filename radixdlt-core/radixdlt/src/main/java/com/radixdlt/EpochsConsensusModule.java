@@ -61,6 +61,7 @@ import com.radixdlt.consensus.sync.VertexRequestTimeout;
 import com.radixdlt.consensus.sync.VertexStoreBFTSyncRequestProcessor;
 import com.radixdlt.consensus.sync.BFTSync;
 import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.crypto.ECDSAVerifier;
 import com.radixdlt.crypto.Hasher;
 import com.radixdlt.environment.EventDispatcher;
 import com.radixdlt.environment.EventProcessor;
@@ -79,6 +80,7 @@ import com.radixdlt.store.LastEpochProof;
 import com.radixdlt.sync.messages.local.LocalSyncRequest;
 import java.util.Comparator;
 import java.util.Random;
+import java.util.stream.Collectors;
 
 /**
  * Module which allows for consensus to have multiple epochs
@@ -157,6 +159,34 @@ public class EpochsConsensusModule extends AbstractModule {
 		);
     }
 
+	@ProvidesIntoSet
+	private StartProcessorOnRunner initialValidatorKeysPrecomputer(ECDSAVerifier verifier, EpochChange initialEpoch) {
+		return new StartProcessorOnRunner(
+			Runners.CONSENSUS,
+			() -> precomputeValidatorKeys(verifier, initialEpoch)
+		);
+	}
+
+	@ProvidesIntoSet
+	private EventProcessorOnRunner<?> validatorKeysPrecomputer(ECDSAVerifier verifier) {
+		return new EventProcessorOnRunner<>(
+			Runners.CONSENSUS,
+			LedgerUpdate.class,
+			ledgerUpdate -> {
+				var epochChange = ledgerUpdate.getStateComputerOutput().getInstance(EpochChange.class);
+				if (epochChange != null) {
+					precomputeValidatorKeys(verifier, epochChange);
+				}
+			}
+		);
+	}
+
+	private static void precomputeValidatorKeys(ECDSAVerifier verifier, EpochChange epochChange) {
+		// Validator keys are used for most verifications during the epoch
+		var validatorSet = epochChange.getBFTConfiguration().getValidatorSet();
+		verifier.precompute(validatorSet.nodes().stream().map(BFTNode::getKey).collect(Collectors.toList()));
+	}
+
     @ProvidesIntoSet
 	private RemoteEventProcessorOnRunner<?> localGetVerticesRequestRemoteEventProcessor(EpochManager epochManager) {
 		return new RemoteEventProcessorOnRunner<>(
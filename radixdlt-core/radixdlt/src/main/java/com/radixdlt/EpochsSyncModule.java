@@ -38,6 +38,7 @@ import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.network.p2p.PeersView;
 import com.radixdlt.sync.RemoteSyncService;
 import com.radixdlt.sync.SyncConfig;
+import com.radixdlt.sync.SyncVerificationExecutor;
 import com.radixdlt.sync.LocalSyncService;
 import com.radixdlt.sync.LocalSyncService.InvalidSyncResponseSender;
 import com.radixdlt.sync.LocalSyncService.VerifiedSyncResponseSender;
@@ -196,6 +197,7 @@ public class EpochsSyncModule extends AbstractModule {
 		Comparator<AccumulatorState> accComparator,
 		RemoteSyncResponseSignaturesVerifier signaturesVerifier,
 		LedgerAccumulatorVerifier accumulatorVerifier,
+		SyncVerificationExecutor verificationExecutor,
 		VerifiedSyncResponseSender verifiedSender,
 		InvalidSyncResponseSender invalidSyncedCommandsSender
 	) {
@@ -213,6 +215,7 @@ public class EpochsSyncModule extends AbstractModule {
 				remoteSyncResponseValidatorSetVerifier,
 				signaturesVerifier,
 				accumulatorVerifier,
+				verificationExecutor,
 				verifiedSender,
 				invalidSyncedCommandsSender,
 				syncState
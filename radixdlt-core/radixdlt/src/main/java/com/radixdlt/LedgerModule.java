@@ -21,6 +21,7 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.OptionalBinder;
 import com.google.inject.multibindings.ProvidesIntoSet;
 import com.radixdlt.consensus.Ledger;
 import com.radixdlt.consensus.LedgerProof;
@@ -31,9 +32,10 @@ import com.radixdlt.environment.ProcessOnDispatch;
 import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.LedgerAccumulator;
 import com.radixdlt.ledger.LedgerAccumulatorVerifier;
-import com.radixdlt.ledger.SimpleLedgerAccumulatorAndVerifier;
+import com.radixdlt.ledger.MerkleLedgerAccumulatorAndVerifier;
 import com.radixdlt.ledger.StateComputerLedger;
 import com.radixdlt.ledger.VerifiedTxnsAndProof;
+import com.radixdlt.statecomputer.forks.Forks;
 import java.util.Comparator;
 
 /**
@@ -44,8 +46,10 @@ public class LedgerModule extends AbstractModule {
 	protected void configure() {
 		bind(Ledger.class).to(StateComputerLedger.class);
 		bind(new TypeLiteral<Comparator<LedgerProof>>() { }).to(OrderByEpochAndVersionComparator.class).in(Scopes.SINGLETON);
-		bind(LedgerAccumulator.class).to(SimpleLedgerAccumulatorAndVerifier.class);
-		bind(LedgerAccumulatorVerifier.class).to(SimpleLedgerAccumulatorAndVerifier.class);
+		// Without forks, as with a mocked state computer, transactions are always hash chained
+		OptionalBinder.newOptionalBinder(binder(), Forks.class);
+		bind(LedgerAccumulator.class).to(MerkleLedgerAccumulatorAndVerifier.class);
+		bind(LedgerAccumulatorVerifier.class).to(MerkleLedgerAccumulatorAndVerifier.class);
 		bind(StateComputerLedger.class).in(Scopes.SINGLETON);
 	}
 
@@ -176,11 +176,14 @@ public final class RadixNodeModule extends AbstractModule {
 
 		// Mempool configuration
 		var mempoolMaxSize = properties.get("mempool.maxSize", 10000);
-		install(MempoolConfig.asModule(mempoolMaxSize, 5, 60000, 60000, 100));
+		var mempoolMaxAge = properties.get("mempool.maxAge", MempoolConfig.DEFAULT_MAX_AGE_MS);
+		var mempoolRelayByAnnouncement = properties.get("mempool.relay_by_announcement", false);
+		install(MempoolConfig.asModule(mempoolMaxSize, 5, 60000, 60000, 100, mempoolMaxAge, mempoolRelayByAnnouncement));
 
 		// Sync configuration
 		final long syncPatience = properties.get("sync.patience", 5000L);
-		bind(SyncConfig.class).toInstance(SyncConfig.of(syncPatience, 10, 3000L));
+		final int syncPipelineDepth = properties.get("sync.pipeline_depth", 4);
+		bind(SyncConfig.class).toInstance(SyncConfig.of(syncPatience, 10, 3000L, 10, 50, syncPipelineDepth));
 
 		// System (e.g. time, random)
 		install(new SystemModule());
@@ -228,7 +231,7 @@ public final class RadixNodeModule extends AbstractModule {
 
 		// Storage
 		install(new DatabasePropertiesModule());
-		install(new PersistenceModule());
+		install(new PersistenceModule(properties.get("db.txn_log.block_compression", false)));
 		install(new ConsensusRecoveryModule());
 		install(new LedgerRecoveryModule());
 
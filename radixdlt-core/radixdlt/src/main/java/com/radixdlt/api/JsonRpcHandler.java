@@ -25,4 +25,29 @@ import org.json.JSONObject;
  */
 public interface JsonRpcHandler {
 	JSONObject execute(JSONObject request);
+
+	/**
+	 * Whether requests only read state. Calls of a batch to read only handlers run in parallel.
+	 */
+	default boolean isReadOnly() {
+		return true;
+	}
+
+	/**
+	 * Marks a handler whose requests change state. Calls of a batch to such handlers
+	 * run one after another in batch order.
+	 */
+	static JsonRpcHandler stateChanging(JsonRpcHandler handler) {
+		return new JsonRpcHandler() {
+			@Override
+			public JSONObject execute(JSONObject request) {
+				return handler.execute(request);
+			}
+
+			@Override
+			public boolean isReadOnly() {
+				return false;
+			}
+		};
+	}
 }
@@ -18,13 +18,20 @@
 
 package com.radixdlt.api;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import com.google.common.io.CharStreams;
 import com.radixdlt.crypto.exception.PublicKeyException;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
@@ -36,11 +43,14 @@ import io.undertow.util.StatusCodes;
 import static com.radixdlt.api.JsonRpcUtil.jsonObject;
 
 public final class RestUtils {
+	private static final Logger log = LogManager.getLogger();
+
 	public static final String CONTENT_TYPE_JSON = "application/json";
 
 	public static final HttpString METHOD_HEADER = HttpString.tryFromString("X-Radixdlt-Method");
 	public static final HttpString CORRELATION_HEADER = HttpString.tryFromString("X-Radixdlt-Correlation-Id");
 	private static final long DEFAULT_MAX_REQUEST_SIZE = 1024L * 1024L;
+	private static final int RESPONSE_BUFFER_SIZE = 16 * 1024;
 
 	private RestUtils() {
 		throw new IllegalStateException("Can't construct");
@@ -54,10 +64,44 @@ public final class RestUtils {
 		}
 	}
 
+	/**
+	 * Same as {@link #withBody(HttpServerExchange, ThrowingConsumer)}, but the body may be any JSON value.
+	 * The value is parsed directly from the request stream, without reading the body into a string first.
+	 */
+	public static void withJsonBody(HttpServerExchange exchange, ThrowingConsumer<Object> bodyHandler) {
+		if (exchange.isInIoThread()) {
+			exchange.dispatch(() -> safeHandle(exchange, () -> handleJsonBody(exchange, bodyHandler)));
+		} else {
+			safeHandle(exchange, () -> handleJsonBody(exchange, bodyHandler));
+		}
+	}
+
 	public static void respond(HttpServerExchange exchange, Object object) {
 		respondWithCode(exchange, StatusCodes.OK, object.toString());
 	}
 
+	/**
+	 * Writes a {@link JSONObject} or {@link JSONArray} to the response as it is serialized,
+	 * without building the whole response text in memory. Requires blocking mode, which
+	 * is entered by {@link #withJsonBody(HttpServerExchange, ThrowingConsumer)}.
+	 * <p>
+	 * The response is only completed once serialization succeeds. If it fails after
+	 * part of the response is sent, the connection is closed by the failure handling.
+	 */
+	public static void respondJson(HttpServerExchange exchange, Object json) throws IOException {
+		exchange.getResponseHeaders().add(Headers.CONTENT_TYPE, CONTENT_TYPE_JSON);
+		exchange.setStatusCode(StatusCodes.OK);
+
+		var output = exchange.getOutputStream();
+		var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), RESPONSE_BUFFER_SIZE);
+		if (json instanceof JSONArray) {
+			((JSONArray) json).write(writer);
+		} else {
+			((JSONObject) json).write(writer);
+		}
+		writer.close();
+	}
+
 	public static String sanitizeBaseUrl(String baseUrl) {
 		return !baseUrl.endsWith("/")
 			   ? baseUrl
@@ -65,8 +109,12 @@ public final class RestUtils {
 	}
 
 	private static void safeHandleBody(HttpServerExchange exchange, ThrowingConsumer<JSONObject> bodyHandler) {
+		safeHandle(exchange, () -> handleBody(exchange, bodyHandler));
+	}
+
+	private static void safeHandle(HttpServerExchange exchange, Runnable handler) {
 		try {
-			handleBody(exchange, bodyHandler);
+			handler.run();
 			sendStatusResponse(exchange, null);
 		} catch (Exception e) {
 			sendStatusResponse(exchange, e);
@@ -81,6 +129,13 @@ public final class RestUtils {
 			return;
 		}
 
+		if (exchange.isResponseStarted()) {
+			// Status and part of the body are sent already, so the truncated response is only signalled by closing
+			log.warn("Closing connection after failure while sending response", err);
+			closeConnection(exchange);
+			return;
+		}
+
 		if (!(err instanceof RuntimeException)) {
 			sendError(exchange, StatusCodes.INTERNAL_SERVER_ERROR, "Unable to handle request", err);
 			return;
@@ -110,6 +165,20 @@ public final class RestUtils {
 		}
 	}
 
+	private static void handleJsonBody(HttpServerExchange exchange, ThrowingConsumer<Object> bodyHandler) {
+		copyHeader(exchange, METHOD_HEADER);
+		copyHeader(exchange, CORRELATION_HEADER);
+
+		exchange.setMaxEntitySize(DEFAULT_MAX_REQUEST_SIZE);
+		exchange.startBlocking();
+
+		try (var httpStreamReader = new InputStreamReader(exchange.getInputStream(), StandardCharsets.UTF_8)) {
+			bodyHandler.accept(new JSONTokener(httpStreamReader).nextValue());
+		} catch (Exception t) {
+			throw new RuntimeException(t);
+		}
+	}
+
 	private static String readBody(HttpServerExchange exchange, long maxRequestSize) {
 		exchange.setMaxEntitySize(maxRequestSize);
 		exchange.startBlocking();
@@ -127,6 +196,14 @@ public final class RestUtils {
 		}
 	}
 
+	private static void closeConnection(HttpServerExchange exchange) {
+		try {
+			exchange.getConnection().close();
+		} catch (IOException e) {
+			log.debug("Error while closing connection", e);
+		}
+	}
+
 	private static void sendError(HttpServerExchange exchange, int statusCode, String message, Throwable error) {
 		respondWithCode(exchange, statusCode, message + " (" + error.getMessage() + ")");
 	}
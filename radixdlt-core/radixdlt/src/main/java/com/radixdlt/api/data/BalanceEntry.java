@@ -165,6 +165,13 @@ public class BalanceEntry {
 		}
 	}
 
+	/**
+	 * Returns the compressed bytes of the delegate key, without parsing the key.
+	 */
+	public byte[] getDelegateBytes() {
+		return delegate;
+	}
+
 	public String rri() {
 		return rri;
 	}
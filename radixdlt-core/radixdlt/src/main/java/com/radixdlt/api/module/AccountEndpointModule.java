@@ -28,6 +28,7 @@ import com.radixdlt.api.controller.JsonRpcController;
 import com.radixdlt.api.handler.AccountHandler;
 import com.radixdlt.api.qualifier.AccountEndpoint;
 import com.radixdlt.api.qualifier.NodeServer;
+import com.radixdlt.api.server.JsonRpcBatchExecutor;
 import com.radixdlt.api.server.JsonRpcServer;
 
 import java.util.Map;
@@ -47,8 +48,8 @@ public class AccountEndpointModule extends AbstractModule {
 
 	@AccountEndpoint
 	@Provides
-	public JsonRpcServer rpcServer(@AccountEndpoint Map<String, JsonRpcHandler> additionalHandlers) {
-		return new JsonRpcServer(additionalHandlers);
+	public JsonRpcServer rpcServer(@AccountEndpoint Map<String, JsonRpcHandler> additionalHandlers, JsonRpcBatchExecutor batchExecutor) {
+		return new JsonRpcServer(additionalHandlers, batchExecutor);
 	}
 
 	@AccountEndpoint
@@ -62,6 +63,6 @@ public class AccountEndpointModule extends AbstractModule {
 	@ProvidesIntoMap
 	@StringMapKey("account.submit_transaction_single_step")
 	public JsonRpcHandler accountSubmitTransactionSingleStep(AccountHandler accountHandler) {
-		return accountHandler::handleAccountSubmitTransactionSingleStep;
+		return JsonRpcHandler.stateChanging(accountHandler::handleAccountSubmitTransactionSingleStep);
 	}
 }
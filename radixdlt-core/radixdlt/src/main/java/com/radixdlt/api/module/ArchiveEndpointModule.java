@@ -32,6 +32,7 @@ import com.radixdlt.api.handler.ArchiveTransactionsHandler;
 import com.radixdlt.api.handler.ArchiveValidationHandler;
 import com.radixdlt.api.qualifier.ArchiveEndpoint;
 import com.radixdlt.api.qualifier.ArchiveServer;
+import com.radixdlt.api.server.JsonRpcBatchExecutor;
 import com.radixdlt.api.server.JsonRpcServer;
 
 import java.util.Map;
@@ -51,8 +52,8 @@ public class ArchiveEndpointModule extends AbstractModule {
 
 	@ArchiveEndpoint
 	@Provides
-	public JsonRpcServer rpcServer(@ArchiveEndpoint Map<String, JsonRpcHandler> additionalHandlers) {
-		return new JsonRpcServer(additionalHandlers);
+	public JsonRpcServer rpcServer(@ArchiveEndpoint Map<String, JsonRpcHandler> additionalHandlers, JsonRpcBatchExecutor batchExecutor) {
+		return new JsonRpcServer(additionalHandlers, batchExecutor);
 	}
 
 	@ArchiveEndpoint
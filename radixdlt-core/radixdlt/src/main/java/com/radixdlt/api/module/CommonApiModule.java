@@ -26,9 +26,11 @@ import com.radixdlt.api.data.ScheduledQueueFlush;
 import com.radixdlt.api.service.NetworkInfoService;
 import com.radixdlt.api.service.ScheduledCacheCleanup;
 import com.radixdlt.api.service.ScheduledStatsCollecting;
+import com.radixdlt.api.service.ValidatorInfoService;
 import com.radixdlt.environment.EventProcessorOnRunner;
 import com.radixdlt.environment.LocalEvents;
 import com.radixdlt.environment.Runners;
+import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.mempool.MempoolAddFailure;
 import com.radixdlt.statecomputer.AtomsRemovedFromMempool;
 import com.radixdlt.statecomputer.REOutput;
@@ -47,6 +49,7 @@ public class CommonApiModule extends AbstractModule {
 		eventBinder.addBinding().toInstance(ScheduledStatsCollecting.class);
 
 		bind(NetworkInfoService.class).in(Scopes.SINGLETON);
+		bind(ValidatorInfoService.class).in(Scopes.SINGLETON);
 	}
 
 	@ProvidesIntoSet
@@ -57,4 +60,13 @@ public class CommonApiModule extends AbstractModule {
 			networkInfoService.updateStats()
 		);
 	}
+
+	@ProvidesIntoSet
+	public EventProcessorOnRunner<?> ledgerUpdateToValidatorInfoService(ValidatorInfoService validatorInfoService) {
+		return new EventProcessorOnRunner<>(
+			Runners.APPLICATION,
+			LedgerUpdate.class,
+			validatorInfoService.ledgerUpdateProcessor()
+		);
+	}
 }
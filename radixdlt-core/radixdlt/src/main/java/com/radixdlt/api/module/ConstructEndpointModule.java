@@ -28,6 +28,7 @@ import com.radixdlt.api.controller.JsonRpcController;
 import com.radixdlt.api.handler.ConstructionHandler;
 import com.radixdlt.api.qualifier.ArchiveServer;
 import com.radixdlt.api.qualifier.ConstructionEndpoint;
+import com.radixdlt.api.server.JsonRpcBatchExecutor;
 import com.radixdlt.api.server.JsonRpcServer;
 
 import java.util.Map;
@@ -47,8 +48,8 @@ public class ConstructEndpointModule extends AbstractModule {
 
 	@ConstructionEndpoint
 	@Provides
-	public JsonRpcServer rpcServer(@ConstructionEndpoint Map<String, JsonRpcHandler> additionalHandlers) {
-		return new JsonRpcServer(additionalHandlers);
+	public JsonRpcServer rpcServer(@ConstructionEndpoint Map<String, JsonRpcHandler> additionalHandlers, JsonRpcBatchExecutor batchExecutor) {
+		return new JsonRpcServer(additionalHandlers, batchExecutor);
 	}
 
 	@ConstructionEndpoint
@@ -69,6 +70,6 @@ public class ConstructEndpointModule extends AbstractModule {
 	@ProvidesIntoMap
 	@StringMapKey("construction.submit_transaction")
 	public JsonRpcHandler constructionSubmitTransaction(ConstructionHandler constructionHandler) {
-		return constructionHandler::handleConstructionSubmitTransaction;
+		return JsonRpcHandler.stateChanging(constructionHandler::handleConstructionSubmitTransaction);
 	}
 }
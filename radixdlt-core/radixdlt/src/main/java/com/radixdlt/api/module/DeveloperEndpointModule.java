@@ -29,6 +29,7 @@ import com.radixdlt.api.controller.JsonRpcController;
 import com.radixdlt.api.handler.DeveloperHandler;
 import com.radixdlt.api.qualifier.DeveloperEndpoint;
 import com.radixdlt.api.qualifier.NodeServer;
+import com.radixdlt.api.server.JsonRpcBatchExecutor;
 import com.radixdlt.api.server.JsonRpcServer;
 
 import java.util.Map;
@@ -48,8 +49,8 @@ public class DeveloperEndpointModule extends AbstractModule {
 
 	@DeveloperEndpoint
 	@Provides
-	public JsonRpcServer rpcServer(@DeveloperEndpoint Map<String, JsonRpcHandler> additionalHandlers) {
-		return new JsonRpcServer(additionalHandlers);
+	public JsonRpcServer rpcServer(@DeveloperEndpoint Map<String, JsonRpcHandler> additionalHandlers, JsonRpcBatchExecutor batchExecutor) {
+		return new JsonRpcServer(additionalHandlers, batchExecutor);
 	}
 
 	@DeveloperEndpoint
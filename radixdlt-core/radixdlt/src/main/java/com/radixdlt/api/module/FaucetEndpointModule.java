@@ -28,6 +28,7 @@ import com.radixdlt.api.controller.JsonRpcController;
 import com.radixdlt.api.handler.FaucetHandler;
 import com.radixdlt.api.qualifier.NodeServer;
 import com.radixdlt.api.qualifier.FaucetEndpoint;
+import com.radixdlt.api.server.JsonRpcBatchExecutor;
 import com.radixdlt.api.server.JsonRpcServer;
 
 import java.util.Map;
@@ -47,14 +48,14 @@ public class FaucetEndpointModule extends AbstractModule {
 
 	@FaucetEndpoint
 	@Provides
-	public JsonRpcServer jsonRpcServer(@FaucetEndpoint Map<String, JsonRpcHandler> handlers) {
-		return new JsonRpcServer(handlers);
+	public JsonRpcServer jsonRpcServer(@FaucetEndpoint Map<String, JsonRpcHandler> handlers, JsonRpcBatchExecutor batchExecutor) {
+		return new JsonRpcServer(handlers, batchExecutor);
 	}
 
 	@FaucetEndpoint
 	@ProvidesIntoMap
 	@StringMapKey("faucet.request_tokens")
 	public JsonRpcHandler faucetRequestTokens(FaucetHandler faucetHandler) {
-		return faucetHandler::requestTokens;
+		return JsonRpcHandler.stateChanging(faucetHandler::requestTokens);
 	}
 }
@@ -28,6 +28,7 @@ import com.radixdlt.api.controller.JsonRpcController;
 import com.radixdlt.api.handler.SystemHandler;
 import com.radixdlt.api.qualifier.NodeServer;
 import com.radixdlt.api.qualifier.SystemEndpoint;
+import com.radixdlt.api.server.JsonRpcBatchExecutor;
 import com.radixdlt.api.server.JsonRpcServer;
 
 import java.util.Map;
@@ -40,8 +41,8 @@ public class SystemEndpointModule extends AbstractModule {
 
 	@SystemEndpoint
 	@Provides
-	public JsonRpcServer rpcServer(@SystemEndpoint Map<String, JsonRpcHandler> additionalHandlers) {
-		return new JsonRpcServer(additionalHandlers);
+	public JsonRpcServer rpcServer(@SystemEndpoint Map<String, JsonRpcHandler> additionalHandlers, JsonRpcBatchExecutor batchExecutor) {
+		return new JsonRpcServer(additionalHandlers, batchExecutor);
 	}
 
 	@NodeServer
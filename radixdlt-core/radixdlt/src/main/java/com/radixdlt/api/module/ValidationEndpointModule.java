@@ -28,6 +28,7 @@ import com.radixdlt.api.controller.JsonRpcController;
 import com.radixdlt.api.handler.ValidationHandler;
 import com.radixdlt.api.qualifier.NodeServer;
 import com.radixdlt.api.qualifier.ValidationEndpoint;
+import com.radixdlt.api.server.JsonRpcBatchExecutor;
 import com.radixdlt.api.server.JsonRpcServer;
 
 import java.util.Map;
@@ -47,8 +48,8 @@ public class ValidationEndpointModule extends AbstractModule {
 
 	@ValidationEndpoint
 	@Provides
-	public JsonRpcServer rpcServer(@ValidationEndpoint Map<String, JsonRpcHandler> additionalHandlers) {
-		return new JsonRpcServer(additionalHandlers);
+	public JsonRpcServer rpcServer(@ValidationEndpoint Map<String, JsonRpcHandler> additionalHandlers, JsonRpcBatchExecutor batchExecutor) {
+		return new JsonRpcServer(additionalHandlers, batchExecutor);
 	}
 
 	@ValidationEndpoint
@@ -48,11 +48,19 @@ public class AbstractHttpServer implements ModuleRunner {
 	private final String name;
 	private final int port;
 	private final String bindAddress;
+	private final JsonRpcBatchExecutor batchExecutor;
 
 	private Undertow server;
 
-	public AbstractHttpServer(Map<String, Controller> controllers, RuntimeProperties properties, String name, int defaultPort) {
+	public AbstractHttpServer(
+		Map<String, Controller> controllers,
+		RuntimeProperties properties,
+		JsonRpcBatchExecutor batchExecutor,
+		String name,
+		int defaultPort
+	) {
 		this.controllers = controllers;
+		this.batchExecutor = batchExecutor;
 		this.name = name.toLowerCase(Locale.US);
 		this.port = properties.get("api." + name + ".port", defaultPort);
 		this.bindAddress = properties.get("api." + name + ".bind.address", DEFAULT_BIND_ADDRESS);
@@ -74,6 +82,7 @@ public class AbstractHttpServer implements ModuleRunner {
 
 	@Override
 	public void start() {
+		batchExecutor.start();
 		server = Undertow.builder()
 			.addHttpListener(port, bindAddress)
 			.setHandler(configureRoutes())
@@ -86,6 +95,7 @@ public class AbstractHttpServer implements ModuleRunner {
 	@Override
 	public void stop() {
 		server.stop();
+		batchExecutor.stop();
 	}
 
 	private HttpHandler configureRoutes() {
@@ -29,7 +29,11 @@ public final class ArchiveHttpServer extends AbstractHttpServer {
 	private static final int DEFAULT_PORT = 8080;
 
 	@Inject
-	public ArchiveHttpServer(@ArchiveServer Map<String, Controller> controllers, RuntimeProperties properties) {
-		super(controllers, properties, "archive", DEFAULT_PORT);
+	public ArchiveHttpServer(
+		@ArchiveServer Map<String, Controller> controllers,
+		RuntimeProperties properties,
+		JsonRpcBatchExecutor batchExecutor
+	) {
+		super(controllers, properties, batchExecutor, "archive", DEFAULT_PORT);
 	}
 }
@@ -0,0 +1,74 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ */
+
+package com.radixdlt.api.server;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.radixdlt.utils.ThreadFactories;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the calls of JSON-RPC batches. The worker pool is shared by the HTTP servers of all
+ * endpoints, it is started with the first of them and shut down once all of them are stopped.
+ */
+@Singleton
+public final class JsonRpcBatchExecutor implements Executor {
+	private final Object lock = new Object();
+	private ExecutorService executor;
+	private int runningServers;
+
+	@Inject
+	public JsonRpcBatchExecutor() {
+		// Pool is created once a server starts
+	}
+
+	public void start() {
+		synchronized (lock) {
+			if (runningServers++ == 0) {
+				executor = Executors.newFixedThreadPool(
+					Runtime.getRuntime().availableProcessors(),
+					ThreadFactories.daemonThreads("JsonRpcBatch-%d")
+				);
+			}
+		}
+	}
+
+	public void stop() {
+		synchronized (lock) {
+			if (runningServers > 0 && --runningServers == 0) {
+				executor.shutdown();
+				executor = null;
+			}
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		synchronized (lock) {
+			if (executor == null) {
+				throw new RejectedExecutionException("JSON-RPC batch executor is not running");
+			}
+			executor.execute(command);
+		}
+	}
+}
@@ -20,40 +20,72 @@ package com.radixdlt.api.server;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
-import com.google.inject.Inject;
 import com.radixdlt.api.JsonRpcHandler;
+import com.radixdlt.api.JsonRpcUtil.RpcError;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 
+import static com.radixdlt.api.JsonRpcUtil.extendedError;
 import static com.radixdlt.api.JsonRpcUtil.invalidParamsError;
+import static com.radixdlt.api.JsonRpcUtil.jsonArray;
 import static com.radixdlt.api.JsonRpcUtil.methodNotFound;
-import static com.radixdlt.api.RestUtils.respond;
-import static com.radixdlt.api.RestUtils.withBody;
+import static com.radixdlt.api.JsonRpcUtil.protocolError;
+import static com.radixdlt.api.RestUtils.respondJson;
+import static com.radixdlt.api.RestUtils.withJsonBody;
 
 import static java.util.Optional.ofNullable;
 
 /**
  * Stateless Json Rpc 2.0 Server
+ * <p>
+ * Besides single calls, batches of calls are accepted. Calls of a batch run in parallel,
+ * except calls to handlers which are not {@link JsonRpcHandler#isReadOnly() read only},
+ * which run one after another in batch order.
  */
 public final class JsonRpcServer implements HttpHandler {
 	private static final Logger log = LogManager.getLogger();
+	private static final int MAX_BATCH_SIZE = 1000;
 
 	private final Map<String, JsonRpcHandler> handlers = new HashMap<>();
+	private final Executor batchExecutor;
 
-	@Inject
-	public JsonRpcServer(Map<String, JsonRpcHandler> additionalHandlers) {
+	public JsonRpcServer(Map<String, JsonRpcHandler> additionalHandlers, Executor batchExecutor) {
+		this.batchExecutor = batchExecutor;
 		fillHandlers(additionalHandlers);
 	}
 
 	@Override
 	public void handleRequest(HttpServerExchange exchange) {
-		withBody(exchange, request -> respond(exchange, handle(request)));
+		withJsonBody(exchange, request -> respondJson(exchange, handle(request)));
+	}
+
+	/**
+	 * Handles a single call or a batch of calls.
+	 *
+	 * @param request parsed request body, either a {@link JSONObject} or a {@link JSONArray}
+	 *
+	 * @return response to the call or, for a batch, the array of responses in batch order
+	 */
+	public Object handle(Object request) {
+		if (request instanceof JSONObject) {
+			return handle((JSONObject) request);
+		}
+
+		if (request instanceof JSONArray) {
+			return handleBatch((JSONArray) request);
+		}
+
+		return protocolError(RpcError.INVALID_REQUEST, "The request must be an object or an array");
 	}
 
 	public JSONObject handle(JSONObject request) {
@@ -72,6 +104,60 @@ public final class JsonRpcServer implements HttpHandler {
 			.orElseGet(() -> methodNotFound(request));
 	}
 
+	private Object handleBatch(JSONArray batch) {
+		if (batch.length() == 0) {
+			return protocolError(RpcError.INVALID_REQUEST, "The batch must not be empty");
+		}
+
+		if (batch.length() > MAX_BATCH_SIZE) {
+			return protocolError(RpcError.INVALID_REQUEST, "The batch must not contain more than " + MAX_BATCH_SIZE + " calls");
+		}
+
+		var responses = new ArrayList<CompletableFuture<JSONObject>>(batch.length());
+		for (var call : batch) {
+			if (isParallel(call)) {
+				responses.add(CompletableFuture.supplyAsync(() -> handleCall(call), batchExecutor));
+			} else {
+				responses.add(null);
+			}
+		}
+
+		// State changing calls run here, in batch order, while read only calls proceed in parallel
+		for (int i = 0; i < batch.length(); i++) {
+			if (responses.get(i) == null) {
+				responses.set(i, CompletableFuture.completedFuture(handleCall(batch.get(i))));
+			}
+		}
+
+		var result = jsonArray();
+		responses.forEach(response -> result.put(response.join()));
+		return result;
+	}
+
+	private boolean isParallel(Object call) {
+		if (!(call instanceof JSONObject)) {
+			return false;
+		}
+
+		var handler = handlers.get(((JSONObject) call).optString("method"));
+		return handler == null || handler.isReadOnly();
+	}
+
+	private JSONObject handleCall(Object call) {
+		if (!(call instanceof JSONObject)) {
+			return protocolError(RpcError.INVALID_REQUEST, "The call must be an object");
+		}
+
+		var request = (JSONObject) call;
+		try {
+			return handle(request);
+		} catch (RuntimeException e) {
+			// A failing call must not fail the remaining calls of the batch
+			log.error("RPC: error while handling {}", request, e);
+			return extendedError(request, RpcError.SERVER_ERROR.code(), "Unable to handle request: " + e.getMessage());
+		}
+	}
+
 	private void fillHandlers(Map<String, JsonRpcHandler> additionalHandlers) {
 		handlers.putAll(additionalHandlers);
 		handlers.keySet().forEach(name -> log.trace("Registered JSON RPC method: {}", name));
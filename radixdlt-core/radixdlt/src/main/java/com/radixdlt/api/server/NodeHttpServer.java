@@ -29,7 +29,11 @@ public final class NodeHttpServer extends AbstractHttpServer {
 	private static final int DEFAULT_PORT = 3333;
 
 	@Inject
-	public NodeHttpServer(@NodeServer Map<String, Controller> controllers, RuntimeProperties properties) {
-		super(controllers, properties, "node", DEFAULT_PORT);
+	public NodeHttpServer(
+		@NodeServer Map<String, Controller> controllers,
+		RuntimeProperties properties,
+		JsonRpcBatchExecutor batchExecutor
+	) {
+		super(controllers, properties, batchExecutor, "node", DEFAULT_PORT);
 	}
 }
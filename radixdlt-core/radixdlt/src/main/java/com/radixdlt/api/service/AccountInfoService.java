@@ -65,9 +65,7 @@ public class AccountInfoService {
 	}
 
 	public JSONObject getValidatorInfo() {
-		var validator = validatorInfoService.getAllValidators().stream()
-			.filter(validatorInfoDetails -> validatorInfoDetails.getValidatorKey().equals(bftKey))
-			.findAny();
+		var validator = validatorInfoService.getValidator(bftKey).toOptional();
 
 		var validatorStakes = getValidatorStakes();
 
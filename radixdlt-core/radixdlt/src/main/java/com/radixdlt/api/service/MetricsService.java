@@ -116,6 +116,9 @@ public class MetricsService {
 		CounterType.MEMPOOL_COUNT,
 		CounterType.MEMPOOL_MAXCOUNT,
 		CounterType.MEMPOOL_RELAYER_SENT_COUNT,
+		CounterType.MEMPOOL_RELAYER_SENT_BYTES,
+		CounterType.MEMPOOL_RELAYER_REQUESTED_COUNT,
+		CounterType.MEMPOOL_RELAYER_SERVED_COUNT,
 		CounterType.MEMPOOL_ADD_SUCCESS,
 		CounterType.MEMPOOL_PROPOSED_TRANSACTION,
 		CounterType.MEMPOOL_ERRORS_HOOK,
@@ -57,6 +57,8 @@ public class SystemConfigService {
 	static final List<CounterType> API_COUNTERS = List.of(
 		CounterType.COUNT_APIDB_QUEUE_SIZE,
 		CounterType.COUNT_APIDB_FLUSH_COUNT,
+		CounterType.COUNT_APIDB_REBUILD_PROCESSED,
+		CounterType.COUNT_APIDB_REBUILD_TARGET,
 		CounterType.COUNT_APIDB_BALANCE_TOTAL,
 		CounterType.COUNT_APIDB_BALANCE_READ,
 		CounterType.COUNT_APIDB_BALANCE_WRITE,
@@ -97,7 +99,11 @@ public class SystemConfigService {
 		CounterType.BFT_VERTEX_STORE_REBUILDS,
 		CounterType.BFT_VOTE_QUORUMS,
 		CounterType.BFT_SYNC_REQUESTS_SENT,
-		CounterType.BFT_SYNC_REQUEST_TIMEOUTS
+		CounterType.BFT_SYNC_REQUEST_TIMEOUTS,
+		CounterType.BFT_VERIFY_COUNT,
+		CounterType.BFT_VERIFY_ELAPSED,
+		CounterType.BFT_VERIFY_QUEUE_SIZE,
+		CounterType.BFT_VERIFY_STALE
 	);
 
 	@VisibleForTesting
@@ -105,6 +111,9 @@ public class SystemConfigService {
 		CounterType.MEMPOOL_COUNT,
 		CounterType.MEMPOOL_MAXCOUNT,
 		CounterType.MEMPOOL_RELAYER_SENT_COUNT,
+		CounterType.MEMPOOL_RELAYER_SENT_BYTES,
+		CounterType.MEMPOOL_RELAYER_REQUESTED_COUNT,
+		CounterType.MEMPOOL_RELAYER_SERVED_COUNT,
 		CounterType.MEMPOOL_ADD_SUCCESS,
 		CounterType.MEMPOOL_PROPOSED_TRANSACTION,
 		CounterType.MEMPOOL_ERRORS_HOOK,
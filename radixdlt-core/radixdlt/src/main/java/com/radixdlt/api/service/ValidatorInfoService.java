@@ -27,12 +27,16 @@ import com.radixdlt.application.validators.state.ValidatorMetaData;
 import com.radixdlt.application.validators.state.ValidatorOwnerCopy;
 import com.radixdlt.application.validators.state.ValidatorRakeCopy;
 import com.radixdlt.atom.SubstateTypeId;
+import com.radixdlt.constraintmachine.REProcessedTxn;
 import com.radixdlt.constraintmachine.SubstateDeserialization;
 import com.radixdlt.constraintmachine.SubstateIndex;
 import com.radixdlt.crypto.ECPublicKey;
+import com.radixdlt.environment.EventProcessor;
+import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.networks.Addressing;
 import com.radixdlt.serialization.DeserializeException;
 import com.radixdlt.statecomputer.LedgerAndBFTProof;
+import com.radixdlt.statecomputer.REOutput;
 import com.radixdlt.statecomputer.forks.Forks;
 import com.radixdlt.store.EngineStore;
 import com.radixdlt.systeminfo.InMemorySystemInfo;
@@ -41,19 +45,45 @@ import com.radixdlt.utils.functional.Result;
 import com.radixdlt.utils.functional.Result.Mapper2;
 
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.radixdlt.api.data.ApiErrors.UNKNOWN_VALIDATOR;
-import static com.radixdlt.utils.functional.FunctionalUtils.skipUntil;
 import static com.radixdlt.utils.functional.Tuple.tuple;
 
+/**
+ * Provides information about registered validators. The validators are read from the engine
+ * store into an immutable snapshot, sorted by total stake, which is kept until a ledger update
+ * changes any validator related substate. Pages and lookups by key are served from the snapshot.
+ */
 public class ValidatorInfoService {
+	private static final List<SubstateIndex<?>> INDICES = List.of(
+		SubstateIndex.create(SubstateTypeId.VALIDATOR_STAKE_DATA.id(), ValidatorStakeData.class),
+		SubstateIndex.create(SubstateTypeId.PREPARED_STAKE.id(), PreparedStake.class),
+		SubstateIndex.create(SubstateTypeId.VALIDATOR_OWNER_COPY.id(), ValidatorOwnerCopy.class),
+		SubstateIndex.create(SubstateTypeId.VALIDATOR_ALLOW_DELEGATION_FLAG.id(), AllowDelegationFlag.class),
+		SubstateIndex.create(SubstateTypeId.VALIDATOR_META_DATA.id(), ValidatorMetaData.class),
+		SubstateIndex.create(SubstateTypeId.VALIDATOR_RAKE_COPY.id(), ValidatorRakeCopy.class)
+	);
+	private static final Set<Byte> VALIDATOR_SUBSTATE_TYPES = Set.of(
+		SubstateTypeId.VALIDATOR_STAKE_DATA.id(),
+		SubstateTypeId.PREPARED_STAKE.id(),
+		SubstateTypeId.VALIDATOR_OWNER_COPY.id(),
+		SubstateTypeId.VALIDATOR_ALLOW_DELEGATION_FLAG.id(),
+		SubstateTypeId.VALIDATOR_META_DATA.id(),
+		SubstateTypeId.VALIDATOR_RAKE_COPY.id()
+	);
+
 	private final EngineStore<LedgerAndBFTProof> entryStore;
 	private final Forks forks;
 	private final InMemorySystemInfo inMemorySystemInfo;
 	private final Addressing addressing;
+	private final AtomicLong generation = new AtomicLong();
+	private volatile ValidatorDirectory directory;
 
 	@Inject
 	public ValidatorInfoService(
@@ -68,44 +98,64 @@ public class ValidatorInfoService {
 		this.addressing = addressing;
 	}
 
+	public EventProcessor<LedgerUpdate> ledgerUpdateProcessor() {
+		return update -> {
+			var output = update.getStateComputerOutput().getInstance(REOutput.class);
+			if (output == null || changesValidators(output)) {
+				generation.incrementAndGet();
+			}
+		};
+	}
+
 	public Mapper2<Optional<ECPublicKey>, List<ValidatorInfoDetails>> getValidators(int size, Optional<ECPublicKey> cursor) {
-		var result = getAllValidators();
-		var paged = cursor
-			.map(key -> skipUntil(result, v -> v.getValidatorKey().equals(key)))
-			.orElse(result);
+		var current = getDirectory();
+		var count = current.validators.size();
+		// Unknown cursor yields an empty page
+		var start = cursor
+			.map(key -> current.positions.containsKey(key) ? current.positions.get(key) + 1 : count)
+			.orElse(0);
 
-		var list = paged.stream().limit(size).collect(Collectors.toList());
+		var list = current.validators.subList(start, Math.min(count, start + Math.max(size, 0)));
 		var newCursor = list.stream().reduce(FunctionalUtils::findLast).map(ValidatorInfoDetails::getValidatorKey);
 
 		return () -> Result.ok(tuple(newCursor, list));
 	}
 
 	public long getValidatorsCount() {
-		return getAllValidators().size();
+		return getDirectory().validators.size();
 	}
 
 	public Result<ValidatorInfoDetails> getValidator(ECPublicKey validatorPublicKey) {
-		return getAllValidators()
-			.stream()
-			.filter(validatorInfoDetails -> validatorInfoDetails.getValidatorKey().equals(validatorPublicKey))
-			.findFirst()
+		var current = getDirectory();
+		return Optional.ofNullable(current.positions.get(validatorPublicKey))
+			.map(current.validators::get)
 			.map(Result::ok)
 			.orElseGet(() -> UNKNOWN_VALIDATOR.with(addressing.forValidators().of(validatorPublicKey)).result());
 	}
 
 	public List<ValidatorInfoDetails> getAllValidators() {
+		return getDirectory().validators;
+	}
+
+	private ValidatorDirectory getDirectory() {
+		var current = directory;
+		var expected = generation.get();
+
+		if (current != null && current.generation == expected) {
+			return current;
+		}
+
+		// Built from the generation seen before reading, so a concurrent update forces another rebuild
+		var rebuilt = new ValidatorDirectory(expected, loadValidators());
+		directory = rebuilt;
+		return rebuilt;
+	}
+
+	private List<ValidatorInfoDetails> loadValidators() {
 		// TODO: Use NextEpoch action to compute all of this
-		var indices = List.of(
-			SubstateIndex.create(SubstateTypeId.VALIDATOR_STAKE_DATA.id(), ValidatorStakeData.class),
-			SubstateIndex.create(SubstateTypeId.PREPARED_STAKE.id(), PreparedStake.class),
-			SubstateIndex.create(SubstateTypeId.VALIDATOR_OWNER_COPY.id(), ValidatorOwnerCopy.class),
-			SubstateIndex.create(SubstateTypeId.VALIDATOR_ALLOW_DELEGATION_FLAG.id(), AllowDelegationFlag.class),
-			SubstateIndex.create(SubstateTypeId.VALIDATOR_META_DATA.id(), ValidatorMetaData.class),
-			SubstateIndex.create(SubstateTypeId.VALIDATOR_RAKE_COPY.id(), ValidatorRakeCopy.class)
-		);
 		var nextEpochValidators = NextEpochValidators.create();
 		var deserialization = retrieveEpochParser();
-		for (var index : indices) {
+		for (var index : INDICES) {
 			try (var cursor = entryStore.openIndexedCursor(index)) {
 				while (cursor.hasNext()) {
 					try {
@@ -121,7 +171,13 @@ public class ValidatorInfoService {
 		var result = nextEpochValidators.map(ValidatorInfoDetails::create);
 		result.sort(Comparator.comparing(ValidatorInfoDetails::getTotalStake).reversed());
 
-		return result;
+		return List.copyOf(result);
+	}
+
+	private static boolean changesValidators(REOutput output) {
+		return output.getProcessedTxns().stream()
+			.flatMap(REProcessedTxn::stateUpdates)
+			.anyMatch(update -> VALIDATOR_SUBSTATE_TYPES.contains(update.typeByte()));
 	}
 
 	private SubstateDeserialization retrieveEpochParser() {
@@ -129,4 +185,21 @@ public class ValidatorInfoService {
 			.getParser()
 			.getSubstateDeserialization();
 	}
+
+	private static final class ValidatorDirectory {
+		private final long generation;
+		private final List<ValidatorInfoDetails> validators;
+		private final Map<ECPublicKey, Integer> positions;
+
+		private ValidatorDirectory(long generation, List<ValidatorInfoDetails> validators) {
+			this.generation = generation;
+			this.validators = validators;
+
+			var map = new HashMap<ECPublicKey, Integer>();
+			for (int i = 0; i < validators.size(); i++) {
+				map.put(validators.get(i).getValidatorKey(), i);
+			}
+			this.positions = Map.copyOf(map);
+		}
+	}
 }
@@ -21,6 +21,10 @@ package com.radixdlt.api.store;
  * Client API DB exception.
  */
 public class ClientApiStoreException extends RuntimeException {
+	public ClientApiStoreException(String message) {
+		super(message);
+	}
+
 	public ClientApiStoreException(String message, Exception exception) {
 		super(message, exception);
 	}
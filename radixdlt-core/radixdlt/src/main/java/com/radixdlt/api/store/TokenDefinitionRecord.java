@@ -188,6 +188,18 @@ public class TokenDefinitionRecord {
 		return name;
 	}
 
+	public String getDescription() {
+		return description;
+	}
+
+	public String getIconUrl() {
+		return iconUrl;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
 	public boolean isMutable() {
 		return mutable;
 	}
@@ -18,6 +18,7 @@
 package com.radixdlt.api.store.berkeley;
 
 import com.radixdlt.application.tokens.ResourceCreatedEvent;
+import com.radixdlt.consensus.LedgerProof;
 import com.radixdlt.constraintmachine.REEvent;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.networks.Addressing;
@@ -47,11 +48,9 @@ import com.radixdlt.application.system.state.RoundData;
 import com.radixdlt.application.tokens.Bucket;
 import com.radixdlt.constraintmachine.REProcessedTxn;
 import com.radixdlt.constraintmachine.REStateUpdate;
-import com.radixdlt.engine.parser.exceptions.TxnParseException;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.counters.SystemCounters.CounterType;
 import com.radixdlt.crypto.ECPublicKey;
-import com.radixdlt.engine.parser.REParser;
 import com.radixdlt.environment.EventProcessor;
 import com.radixdlt.environment.ScheduledEventDispatcher;
 import com.radixdlt.identifiers.AID;
@@ -60,6 +59,7 @@ import com.radixdlt.serialization.Serialization;
 import com.radixdlt.statecomputer.REOutput;
 import com.radixdlt.store.DatabaseEnvironment;
 import com.radixdlt.store.berkeley.BerkeleyLedgerEntryStore;
+import com.radixdlt.utils.ThreadFactories;
 import com.radixdlt.utils.UInt384;
 import com.radixdlt.utils.functional.Failure;
 import com.radixdlt.utils.functional.Result;
@@ -67,18 +67,27 @@ import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseConfig;
 import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
 
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -89,7 +98,6 @@ import io.netty.buffer.Unpooled;
 import static com.google.common.primitives.UnsignedBytes.lexicographicalComparator;
 import static com.radixdlt.api.data.ApiErrors.INVALID_PAGE_SIZE;
 import static com.radixdlt.api.data.ApiErrors.SYMBOL_DOES_NOT_MATCH;
-import static com.radixdlt.api.data.ApiErrors.UNABLE_TO_RESTORE_CREATOR;
 import static com.radixdlt.api.data.ApiErrors.UNKNOWN_ACCOUNT_ADDRESS;
 import static com.radixdlt.api.data.ApiErrors.UNKNOWN_RRI;
 import static com.radixdlt.api.data.ApiErrors.UNKNOWN_TX_ID;
@@ -100,6 +108,8 @@ import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_BALAN
 import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_BALANCE_WRITE;
 import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_FLUSH_COUNT;
 import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_QUEUE_SIZE;
+import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_REBUILD_PROCESSED;
+import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_REBUILD_TARGET;
 import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_TOKEN_BYTES_READ;
 import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_TOKEN_BYTES_WRITE;
 import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_TOKEN_READ;
@@ -118,7 +128,6 @@ import static com.radixdlt.counters.SystemCounters.CounterType.ELAPSED_APIDB_TOK
 import static com.radixdlt.counters.SystemCounters.CounterType.ELAPSED_APIDB_TRANSACTION_READ;
 import static com.radixdlt.counters.SystemCounters.CounterType.ELAPSED_APIDB_TRANSACTION_WRITE;
 import static com.radixdlt.identifiers.CommonErrors.INVALID_ACCOUNT_ADDRESS;
-import static com.radixdlt.serialization.DsonOutput.Output;
 import static com.radixdlt.serialization.SerializationUtils.restore;
 import static com.radixdlt.utils.functional.Result.wrap;
 
@@ -129,20 +138,27 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 	private static final String ADDRESS_BALANCE_DB = "radix.address.balance_db";
 	private static final String SUPPLY_BALANCE_DB = "radix.supply.balance_db";
 	private static final String TOKEN_DEFINITION_DB = "radix.token_definition_db";
+	private static final String REBUILD_PROGRESS_DB = "radix.api_rebuild_progress_db";
+	private static final String TRANSACTION_INDEX_DB = "radix.transaction_index_db";
 
 	//Make sure this array contains all listed above DB names
 	private static final String[] DB_NAMES = {
 		EXECUTED_TRANSACTIONS_DB,
 		ADDRESS_BALANCE_DB,
 		SUPPLY_BALANCE_DB,
-		TOKEN_DEFINITION_DB
+		TOKEN_DEFINITION_DB,
+		REBUILD_PROGRESS_DB,
+		TRANSACTION_INDEX_DB
 	};
 
 	private static final long DEFAULT_FLUSH_INTERVAL = 250L;
 	private static final int KEY_BUFFER_INITIAL_CAPACITY = 1024;
 	private static final int TIMESTAMP_SIZE = Long.BYTES + Integer.BYTES;
 	private static final Instant NOW = Instant.ofEpochMilli(Instant.now().toEpochMilli());
-	private static final Failure IGNORED = Failure.failure(0, "Ignored");
+	private static final DatabaseEntry REBUILD_PROGRESS_KEY = entry("rebuild_progress".getBytes(StandardCharsets.UTF_8));
+	private static final DatabaseEntry INDEX_BACKFILL_KEY = entry("index_backfill".getBytes(StandardCharsets.UTF_8));
+	private static final DatabaseEntry RECORD_FORMAT_KEY = entry("record_format".getBytes(StandardCharsets.UTF_8));
+	private static final int REBUILD_BATCH_SIZE = 128;
 
 	private final DatabaseEnvironment dbEnv;
 	private final BerkeleyLedgerEntryStore store;
@@ -155,7 +171,6 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 	private final AtomicLong currentRound = new AtomicLong(0);
 	private final TxnParser txnParser;
 	private final TransactionParser transactionParser;
-	private final REParser parser;
 	private final Addressing addressing;
 	private final Forks forks;
 
@@ -163,14 +178,21 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 	private Database tokenDefinitions;
 	private Database addressBalances;
 	private Database supplyBalances;
+	private Database rebuildProgress;
+	private Database transactionIndex;
+
+	// Balances changed by the batch being stored, null for balances which are to be removed
+	private final Map<BalanceKey, BalanceEntry> pendingBalances = new HashMap<>();
 
 	private final Cache<REAddr, String> rriCache = CacheBuilder.newBuilder()
 		.maximumSize(1024)
 		.build();
 
+	// Rris resolved by the batch being stored, cached only once the batch is committed
+	private final Map<REAddr, String> pendingRris = new HashMap<>();
+
 	public BerkeleyClientApiStore(
 		DatabaseEnvironment dbEnv,
-		REParser parser,
 		TxnParser txnParser,
 		BerkeleyLedgerEntryStore store,
 		Serialization serialization,
@@ -182,7 +204,6 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		Forks forks
 	) {
 		this.dbEnv = dbEnv;
-		this.parser = parser;
 		this.txnParser = txnParser;
 		this.store = store;
 		this.serialization = serialization;
@@ -198,7 +219,6 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 	@Inject
 	public BerkeleyClientApiStore(
 		DatabaseEnvironment dbEnv,
-		REParser parser,
 		TxnParser txnParser,
 		BerkeleyLedgerEntryStore store,
 		Serialization serialization,
@@ -208,7 +228,7 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		Addressing addressing,
 		Forks forks
 	) {
-		this(dbEnv, parser, txnParser, store, serialization, systemCounters,
+		this(dbEnv, txnParser, store, serialization, systemCounters,
 			 scheduledFlushEventDispatcher, transactionParser, false, addressing, forks
 		);
 	}
@@ -224,20 +244,16 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 			));
 	}
 
-	private UInt384 computeStakeFromOwnership(ECPublicKey delegateKey, UInt384 ownership) {
-		var key = asAddrBalanceValidatorStakeKey(delegateKey);
-		var data = entry();
-		var status = addressBalances.get(null, key, data, null);
-		if (status == OperationStatus.NOTFOUND) {
+	private UInt384 computeStakeFromOwnership(Transaction dbTxn, ECPublicKey delegateKey, UInt384 ownership) {
+		var key = asAddrBalanceValidatorStakeKey(dbTxn, delegateKey);
+		var totalStake = loadBalance(dbTxn, BalanceKey.of(false, key));
+		if (totalStake == null) {
 			// For pre-betanet3
 			return ownership;
 		}
-		var totalStake = restore(serialization, data.getData(), BalanceEntry.class).toOptional().orElseThrow();
 
 		var key2 = asAddrBalanceValidatorStakeOwnership(delegateKey);
-		var data2 = entry();
-		addressBalances.get(null, key2, data2, null);
-		var totalOwnership = restore(serialization, data2.getData(), BalanceEntry.class).toOptional().orElseThrow();
+		var totalOwnership = Objects.requireNonNull(loadBalance(dbTxn, BalanceKey.of(false, key2)));
 		return totalStake.getAmount().multiply(ownership).divide(totalOwnership.getAmount());
 	}
 
@@ -246,7 +262,7 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 			entry.getOwner(),
 			entry.getDelegate(),
 			getRriOrFail(REAddr.ofNativeToken()),
-			computeStakeFromOwnership(entry.getDelegate(), entry.getAmount()),
+			computeStakeFromOwnership(null, entry.getDelegate(), entry.getAmount()),
 			false,
 			entry.getEpochUnlocked(),
 			entry.getTxId()
@@ -271,7 +287,7 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 			var list = new ArrayList<BalanceEntry>();
 
 			do {
-				restore(serialization, data.getData(), BalanceEntry.class)
+				toBalanceEntry(data.getData())
 					.onFailureDo(
 						() -> log.error("Error deserializing existing balance while scanning DB for address {}", addr)
 					)
@@ -305,7 +321,7 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 				return UNKNOWN_RRI.with(rri).result();
 			}
 
-			return restore(serialization, data.getData(), BalanceEntry.class)
+			return toBalanceEntry(data.getData())
 				.onSuccess(entry -> log.trace("Stored token supply balance: {}", entry))
 				.map(BalanceEntry::getAmount);
 		}
@@ -313,7 +329,11 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 
 	@Override
 	public Result<TokenDefinitionRecord> getTokenDefinition(REAddr addr) {
-		try (var cursor = tokenDefinitions.openCursor(null, null)) {
+		return getTokenDefinition(null, addr);
+	}
+
+	private Result<TokenDefinitionRecord> getTokenDefinition(Transaction dbTxn, REAddr addr) {
+		try (var cursor = tokenDefinitions.openCursor(dbTxn, null)) {
 			var key = asAddrBalanceKey(addr);
 			var data = entry();
 
@@ -327,33 +347,81 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 				return UNKNOWN_ACCOUNT_ADDRESS.with(addr).result();
 			}
 
-			return restore(serialization, data.getData(), TokenDefinitionRecord.class)
+			return toTokenDefinitionRecord(data.getData())
 				.onFailure(log::error);
 		}
 	}
 
 	private String getRriOrFail(REAddr addr) {
+		return getRriOrFail(null, addr);
+	}
+
+	private String getRriOrFail(Transaction dbTxn, REAddr addr) {
+		var cached = rriCache.getIfPresent(addr);
+		if (cached != null) {
+			return cached;
+		}
+
+		// Token definitions read within a transaction disappear if the transaction is aborted
+		if (dbTxn != null) {
+			return pendingRris.computeIfAbsent(addr, a -> loadRriOrFail(dbTxn, a));
+		}
+
+		var rri = loadRriOrFail(null, addr);
+		rriCache.put(addr, rri);
+		return rri;
+	}
+
+	private String loadRriOrFail(Transaction dbTxn, REAddr addr) {
+		return getTokenDefinition(dbTxn, addr)
+			.toOptional()
+			.orElseThrow(() -> {
+				log.error("Unable to find rri of token at address {}", addr);
+				return new IllegalStateException("Unable to find rri of token at address " + addr);
+			})
+			.rri(addressing);
+	}
+
+	private void commitBatch(Transaction dbTxn) {
+		dbTxn.commit();
+		rriCache.putAll(pendingRris);
+		pendingRris.clear();
+	}
+
+	private void abortBatch(Transaction dbTxn) {
+		pendingBalances.clear();
+		pendingRris.clear();
+		dbTxn.abort();
+	}
+
+	private int storeCollectedInTransaction() {
+		var dbTxn = dbEnv.getEnvironment().beginTransaction(null, null);
 		try {
-			return rriCache.get(addr, () -> getTokenDefinition(addr).toOptional().orElseThrow().rri(addressing));
-		} catch (ExecutionException e) {
-			log.error("Unable to find rri of token at address {}", addr);
-			throw new IllegalStateException(e);
+			var count = txCollector.consumeCollected(output -> storeTransactionBatch(dbTxn, output));
+			flushBalances(dbTxn);
+			commitBatch(dbTxn);
+			return count;
+		} catch (RuntimeException e) {
+			abortBatch(dbTxn);
+			throw e;
 		}
 	}
 
 	@Override
 	public Result<TxHistoryEntry> getTransaction(AID txId) {
-		return retrieveTx(txId)
-			.flatMap(txn -> extractCreator(txn)
-				.map(REAddr::ofPubKeyAccount)
-				.map(Result::ok)
-				.orElseGet(() -> UNABLE_TO_RESTORE_CREATOR.with(txn.getId()).result())
-				.flatMap(creator -> lookupTransactionInHistory(creator, txn)));
+		var data = entry();
+		var status = readTxHistory(() -> transactionIndex.get(null, asTxnIndexKey(txId), data, null), data);
+
+		if (status != OperationStatus.SUCCESS) {
+			return UNKNOWN_TX_ID.with(txId).result();
+		}
+
+		return toTxHistoryEntry(data.getData());
 	}
 
 	private void storeCollected() {
 		var count = withTime(
-			() -> txCollector.consumeCollected(this::storeTransactionBatch),
+			this::storeCollectedInTransaction,
 			() -> systemCounters.increment(COUNT_APIDB_FLUSH_COUNT),
 			ELAPSED_APIDB_FLUSH_TIME
 		);
@@ -361,32 +429,6 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		systemCounters.add(COUNT_APIDB_QUEUE_SIZE, -count);
 	}
 
-	private Result<TxHistoryEntry> lookupTransactionInHistory(REAddr addr, Txn txn) {
-		var key = asTxnHistoryKey(addr, Instant.EPOCH);
-		var data = entry();
-
-		try (var cursor = transactionHistory.openCursor(null, null)) {
-			var status = readTxHistory(() -> cursor.getSearchKeyRange(key, data, null), data);
-
-			if (status != OperationStatus.SUCCESS) {
-				return UNKNOWN_TX_ID.with(txn.getId()).result();
-			}
-
-			do {
-				var result = restore(serialization, data.getData(), TxHistoryEntry.class)
-					.filter(txHistoryEntry -> sameTxId(txn, txHistoryEntry), IGNORED);
-
-				if (result.isSuccess()) {
-					return result;
-				}
-
-				status = readTxHistory(() -> cursor.getNext(key, data, null), data);
-			}
-			while (status == OperationStatus.SUCCESS);
-		}
-		return UNKNOWN_TX_ID.with(txn.getId()).result();
-	}
-
 	@Override
 	public Result<List<TxHistoryEntry>> getTransactionHistory(REAddr addr, int size, Optional<Instant> ptr) {
 		if (size <= 0) {
@@ -430,7 +472,7 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 				var reAddr = addrFromKey(key).fold(__ -> REAddr.ofSystem(), v -> v);
 
 				if (reAddr.equals(addr)) {
-					restore(serialization, data.getData(), TxHistoryEntry.class).onSuccess(list::add);
+					toTxHistoryEntry(data.getData()).onSuccess(list::add);
 					rangeStarted = true;
 				} else {
 					if (rangeStarted) {
@@ -465,10 +507,6 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		closeAll();
 	}
 
-	private boolean sameTxId(Txn txn, TxHistoryEntry txHistoryEntry) {
-		return txHistoryEntry.getTxId().equals(txn.getId());
-	}
-
 	private Instant instantFromKey(DatabaseEntry key) {
 		var buf = Unpooled.wrappedBuffer(key.getData(), key.getSize() - TIMESTAMP_SIZE, TIMESTAMP_SIZE);
 		return Instant.ofEpochSecond(buf.readLong(), buf.readInt());
@@ -479,12 +517,6 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		return wrap(INVALID_ACCOUNT_ADDRESS, () -> REAddr.of(buf));
 	}
 
-	private Result<Txn> retrieveTx(AID id) {
-		return store.get(id)
-			.map(Result::ok)
-			.orElseGet(() -> UNKNOWN_TX_ID.with(id).result());
-	}
-
 	private <T> T readBalance(Supplier<T> supplier, DatabaseEntry data) {
 		return withTime(supplier, () -> addBalanceReadBytes(data), ELAPSED_APIDB_BALANCE_READ);
 	}
@@ -554,7 +586,10 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 				//TODO: Implement recovery, basically should be the same as fresh DB handling
 			}
 
-			if (isTest) {
+			var interruptedRebuild = loadRebuildProgress();
+			if (interruptedRebuild.isPresent()) {
+				rebuildFromLog(interruptedRebuild.get());
+			} else if (isTest) {
 				//FIXME: still not working properly
 				if (tokenDefinitions.count() == 0) {
 					//Fresh DB, rebuild from log
@@ -562,6 +597,14 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 				}
 			}
 
+			if (!isRecordFormatCurrent()) {
+				migrateRecordFormat();
+			}
+
+			if (needsIndexBackfill()) {
+				backfillTransactionIndex();
+			}
+
 			scheduledFlushEventDispatcher.dispatch(ScheduledQueueFlush.create(), DEFAULT_FLUSH_INTERVAL);
 			log.info("Client API Store opened");
 		} catch (Exception e) {
@@ -578,6 +621,8 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		supplyBalances = env.openDatabase(null, SUPPLY_BALANCE_DB, uniqueConfig);
 		tokenDefinitions = env.openDatabase(null, TOKEN_DEFINITION_DB, uniqueConfig);
 		transactionHistory = env.openDatabase(null, EXECUTED_TRANSACTIONS_DB, uniqueConfig);
+		rebuildProgress = env.openDatabase(null, REBUILD_PROGRESS_DB, uniqueConfig);
+		transactionIndex = env.openDatabase(null, TRANSACTION_INDEX_DB, uniqueConfig);
 	}
 
 	private void closeAll() {
@@ -585,6 +630,8 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		safeClose(tokenDefinitions);
 		safeClose(addressBalances);
 		safeClose(supplyBalances);
+		safeClose(rebuildProgress);
+		safeClose(transactionIndex);
 	}
 
 	private DatabaseConfig createUniqueConfig() {
@@ -612,11 +659,240 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		resetAll();
 		openAll();
 
-		store.forEach(txn -> txnParser.parseTxn(txn).onSuccess(this::processRETransaction));
+		rebuildFromLog(0L);
+	}
+
+	/**
+	 * Replays the transaction log starting from the given number of already applied transactions.
+	 * Batches of transactions are parsed, including signature recovery, on a worker pool while
+	 * earlier batches are applied in log order. Every batch is applied in a single database
+	 * transaction together with the rebuild progress, so an interrupted rebuild resumes from
+	 * the last applied batch on next start, without reading the transactions applied before.
+	 */
+	private void rebuildFromLog(long appliedVersion) {
+		log.info("Rebuilding from transaction log, skipping {} already applied transactions", appliedVersion);
+
+		systemCounters.set(COUNT_APIDB_REBUILD_TARGET, store.getLastProof().map(LedgerProof::getStateVersion).orElse(0L));
+		systemCounters.set(COUNT_APIDB_REBUILD_PROCESSED, appliedVersion);
+		putRebuildProgress(null, appliedVersion);
+
+		var threads = Runtime.getRuntime().availableProcessors();
+		var executor = Executors.newFixedThreadPool(threads, ThreadFactories.daemonThreads("ApiDbRebuild-%d"));
+		try {
+			var pending = new ArrayDeque<Future<List<Result<REProcessedTxn>>>>();
+			var batch = new ArrayList<Txn>(REBUILD_BATCH_SIZE);
+			var applied = new AtomicLong(appliedVersion);
+
+			store.forEach(appliedVersion, txn -> {
+				batch.add(txn);
+				if (batch.size() == REBUILD_BATCH_SIZE) {
+					pending.add(parseBatch(executor, batch));
+					batch.clear();
+				}
+				while (pending.size() > threads) {
+					applyRebuildBatch(pending.remove(), applied);
+				}
+			});
+
+			if (!batch.isEmpty()) {
+				pending.add(parseBatch(executor, batch));
+			}
+			while (!pending.isEmpty()) {
+				applyRebuildBatch(pending.remove(), applied);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		var status = rebuildProgress.delete(null, REBUILD_PROGRESS_KEY);
+		if (status != OperationStatus.SUCCESS) {
+			log.error("Error {} while clearing rebuild progress", status);
+		}
 
 		log.info("Database rebuilding is finished successfully");
 	}
 
+	private Future<List<Result<REProcessedTxn>>> parseBatch(ExecutorService executor, List<Txn> batch) {
+		var txns = List.copyOf(batch);
+		return executor.submit(() -> txns.stream().map(txnParser::parseTxn).collect(Collectors.toList()));
+	}
+
+	private void applyRebuildBatch(Future<List<Result<REProcessedTxn>>> parsed, AtomicLong applied) {
+		final List<Result<REProcessedTxn>> txns;
+		try {
+			txns = parsed.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ClientApiStoreException("Interrupted while rebuilding database", e);
+		} catch (ExecutionException e) {
+			throw new ClientApiStoreException("Error while parsing transactions", e);
+		}
+
+		var dbTxn = dbEnv.getEnvironment().beginTransaction(null, null);
+		try {
+			txns.forEach(txn -> txn.onSuccess(processed -> processRETransaction(dbTxn, processed)));
+			flushBalances(dbTxn);
+			putRebuildProgress(dbTxn, applied.get() + txns.size());
+			commitBatch(dbTxn);
+		} catch (RuntimeException e) {
+			abortBatch(dbTxn);
+			throw e;
+		}
+		systemCounters.set(COUNT_APIDB_REBUILD_PROCESSED, applied.addAndGet(txns.size()));
+	}
+
+	private boolean needsIndexBackfill() {
+		// Either interrupted, or the database was created before the index was introduced
+		return rebuildProgress.get(null, INDEX_BACKFILL_KEY, entry(), null) == OperationStatus.SUCCESS
+			|| (isEmpty(transactionIndex) && !isEmpty(transactionHistory));
+	}
+
+	/**
+	 * Fills the transaction index from the stored transaction history. This is cheaper than
+	 * a rebuild from the transaction log, as no transaction is parsed again. Until the backfill
+	 * finishes, a marker is kept in the rebuild progress database, so an interrupted backfill
+	 * is started again on next start.
+	 */
+	private void backfillTransactionIndex() {
+		log.info("Backfilling transaction index from transaction history");
+
+		var status = rebuildProgress.put(null, INDEX_BACKFILL_KEY, entry(new byte[0]));
+		if (status != OperationStatus.SUCCESS) {
+			throw new ClientApiStoreException("Unable to store index backfill progress: " + status);
+		}
+
+		var key = entry();
+		var data = entry();
+		var count = 0L;
+		var dbTxn = dbEnv.getEnvironment().beginTransaction(null, null);
+		try (var cursor = transactionHistory.openCursor(null, null)) {
+			while (readTxHistory(() -> cursor.getNext(key, data, null), data) == OperationStatus.SUCCESS) {
+				var txHistoryEntry = toTxHistoryEntry(data.getData());
+				if (txHistoryEntry.isSuccess()) {
+					var txId = txHistoryEntry.toOptional().orElseThrow().getTxId();
+					transactionIndex.putNoOverwrite(dbTxn, asTxnIndexKey(txId), data);
+				}
+
+				if (++count % REBUILD_BATCH_SIZE == 0) {
+					dbTxn.commit();
+					dbTxn = dbEnv.getEnvironment().beginTransaction(null, null);
+				}
+			}
+			dbTxn.commit();
+		} catch (RuntimeException e) {
+			dbTxn.abort();
+			throw e;
+		}
+
+		status = rebuildProgress.delete(null, INDEX_BACKFILL_KEY);
+		if (status != OperationStatus.SUCCESS) {
+			log.error("Error {} while clearing index backfill progress", status);
+		}
+
+		log.info("Transaction index backfilled from {} history records", count);
+	}
+
+	private boolean isRecordFormatCurrent() {
+		var data = entry();
+		return rebuildProgress.get(null, RECORD_FORMAT_KEY, data, null) == OperationStatus.SUCCESS
+			&& data.getSize() == 1
+			&& data.getData()[0] == RecordCodec.VERSION;
+	}
+
+	/**
+	 * Re-encodes records stored as DSON with {@link RecordCodec}. Records are migrated in place,
+	 * in batches committed separately, and records already re-encoded are skipped, so an
+	 * interrupted migration continues on next start. Until the migration completes, records
+	 * in both formats are readable.
+	 */
+	private void migrateRecordFormat() {
+		log.info("Migrating API database records to record format {}", RecordCodec.VERSION);
+
+		var count = migrateRecords(transactionHistory, TxHistoryEntry.class, RecordCodec::write)
+			+ migrateRecords(transactionIndex, TxHistoryEntry.class, RecordCodec::write)
+			+ migrateRecords(addressBalances, BalanceEntry.class, RecordCodec::write)
+			+ migrateRecords(supplyBalances, BalanceEntry.class, RecordCodec::write)
+			+ migrateRecords(tokenDefinitions, TokenDefinitionRecord.class, RecordCodec::write);
+
+		var status = rebuildProgress.put(null, RECORD_FORMAT_KEY, entry(new byte[] {RecordCodec.VERSION}));
+		if (status != OperationStatus.SUCCESS) {
+			throw new ClientApiStoreException("Unable to store record format: " + status);
+		}
+
+		log.info("Migrated {} API database records", count);
+	}
+
+	private <T> long migrateRecords(Database database, Class<T> type, BiFunction<ByteBuf, T, ByteBuf> writer) {
+		var key = entry();
+		var data = entry();
+		var count = 0L;
+		var status = OperationStatus.SUCCESS;
+		var first = true;
+
+		while (status == OperationStatus.SUCCESS) {
+			// Cursors can't outlive the transaction, so every batch positions a new one
+			var dbTxn = dbEnv.getEnvironment().beginTransaction(null, null);
+			try (var cursor = database.openCursor(dbTxn, null)) {
+				status = first ? cursor.getFirst(key, data, null) : cursor.getSearchKeyRange(key, data, null);
+				first = false;
+
+				for (int i = 0; status == OperationStatus.SUCCESS && i < REBUILD_BATCH_SIZE; i++) {
+					if (!RecordCodec.isEncoded(data.getData())) {
+						var record = restore(serialization, data.getData(), type);
+						if (record.isSuccess()) {
+							cursor.putCurrent(entry(writer.apply(buffer(), record.toOptional().orElseThrow())));
+							count++;
+						} else {
+							log.error("Unable to migrate record in {}", database.getDatabaseName());
+						}
+					}
+					status = cursor.getNext(key, data, null);
+				}
+			} catch (RuntimeException e) {
+				dbTxn.abort();
+				throw e;
+			}
+			dbTxn.commit();
+		}
+
+		return count;
+	}
+
+	private static boolean isEmpty(Database database) {
+		try (var cursor = database.openCursor(null, null)) {
+			return cursor.getFirst(entry(), entry(), null) != OperationStatus.SUCCESS;
+		}
+	}
+
+	private Optional<Long> loadRebuildProgress() {
+		var data = entry();
+		if (rebuildProgress.get(null, REBUILD_PROGRESS_KEY, data, null) != OperationStatus.SUCCESS) {
+			return Optional.empty();
+		}
+
+		var buf = Unpooled.wrappedBuffer(data.getData(), 0, data.getSize());
+		var appliedVersion = buf.readLong();
+		currentEpoch.set(buf.readLong());
+		currentRound.set(buf.readLong());
+		currentTimestamp.set(Instant.ofEpochSecond(buf.readLong(), buf.readInt()));
+		return Optional.of(appliedVersion);
+	}
+
+	private void putRebuildProgress(Transaction dbTxn, long appliedVersion) {
+		// Derived state is persisted along with the version, so replay can continue where it stopped
+		var timestamp = currentTimestamp.get();
+		var value = entry(buffer()
+			.writeLong(appliedVersion)
+			.writeLong(currentEpoch.get())
+			.writeLong(currentRound.get())
+			.writeLong(timestamp.getEpochSecond())
+			.writeInt(timestamp.getNano()));
+		var status = rebuildProgress.put(dbTxn, REBUILD_PROGRESS_KEY, value);
+		if (status != OperationStatus.SUCCESS) {
+			throw new ClientApiStoreException("Unable to store rebuild progress: " + status);
+		}
+	}
+
 	private void resetAll() {
 		var transaction = dbEnv.getEnvironment()
 			.beginTransaction(null, null);
@@ -649,11 +925,12 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		systemCounters.increment(COUNT_APIDB_QUEUE_SIZE);
 	}
 
-	private void storeTransactionBatch(REOutput act) {
-		act.getProcessedTxns().forEach(this::processRETransaction);
+	private void storeTransactionBatch(Transaction dbTxn, REOutput act) {
+		act.getProcessedTxns().forEach(txn -> processRETransaction(dbTxn, txn));
 	}
 
 	private JSONObject accountingJson(
+		Transaction dbTxn,
 		long epoch,
 		REProcessedTxn reTxn,
 		List<REResourceAccounting> accountingObjects
@@ -690,7 +967,7 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 					bucketJson.put("validator", addressing.forValidators().of(b.getValidatorKey()));
 				}
 				bucketJson.put("delta", i.toString());
-				bucketJson.put("asset", b.resourceAddr() == null ? "stake_ownership" : getRriOrFail(b.resourceAddr()));
+				bucketJson.put("asset", b.resourceAddr() == null ? "stake_ownership" : getRriOrFail(dbTxn, b.resourceAddr()));
 				bucketAccounting.put(bucketJson);
 			});
 			entry.put("entries", bucketAccounting);
@@ -699,14 +976,14 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		return txnJson;
 	}
 
-	private void processRETransaction(REProcessedTxn reTxn) {
+	private void processRETransaction(Transaction dbTxn, REProcessedTxn reTxn) {
 		// TODO: cur epoch retrieval a bit hacky but needs to be like this for now
 		// TODO: as epoch get updated at the end of an epoch transition
 		var curEpoch = currentEpoch.get();
-		processEvents(reTxn.getEvents());
+		processEvents(dbTxn, reTxn.getEvents());
 
 		var accountingObjects = reTxn.getGroupedStateUpdates().stream()
-			.map(updates -> processGroupedStateUpdates(updates, reTxn.getTxn().getId()))
+			.map(updates -> processGroupedStateUpdates(dbTxn, updates, reTxn.getTxn().getId()))
 			.collect(Collectors.toList());
 
 		var actions = accountingObjects.stream()
@@ -726,14 +1003,20 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 			reTxn,
 			actions,
 			currentTimestamp.get(),
-			this::getRriOrFail,
-			this::computeStakeFromOwnership
-		).onSuccess(parsed -> addresses.forEach(address -> storeSingleTransaction(parsed, address)));
+			addr -> getRriOrFail(dbTxn, addr),
+			(delegateKey, ownership) -> computeStakeFromOwnership(dbTxn, delegateKey, ownership)
+		).onSuccess(parsed -> {
+			var data = entry(RecordCodec.write(buffer(), parsed));
+			addresses.forEach(address -> storeSingleTransaction(dbTxn, parsed, data, address));
+			if (!addresses.isEmpty()) {
+				storeTransactionIndex(dbTxn, parsed, data);
+			}
+		});
 
-		log.debug("TRANSACTION_LOG: {}", () -> accountingJson(curEpoch, reTxn, accountingObjects));
+		log.debug("TRANSACTION_LOG: {}", () -> accountingJson(dbTxn, curEpoch, reTxn, accountingObjects));
 	}
 
-	private void processEvents(List<REEvent> events) {
+	private void processEvents(Transaction dbTxn, List<REEvent> events) {
 		for (var event : events) {
 			if (event instanceof ResourceCreatedEvent) {
 				var resourceCreated = (ResourceCreatedEvent) event;
@@ -747,12 +1030,12 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 					resourceCreated.getMetadata().getUrl(),
 					resourceCreated.getTokenResource().isMutable()
 				);
-				storeTokenDefinition(record);
+				storeTokenDefinition(dbTxn, record);
 			}
 		}
 	}
 
-	private REResourceAccounting processGroupedStateUpdates(List<REStateUpdate> updates, AID txId) {
+	private REResourceAccounting processGroupedStateUpdates(Transaction dbTxn, List<REStateUpdate> updates, AID txId) {
 		var curEpoch = currentEpoch.get();
 		for (var update : updates) {
 			var substate = update.getParsed();
@@ -776,7 +1059,7 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 			.map(e -> {
 				var r = e.getKey();
 				var i = e.getValue();
-				var rri = r.resourceAddr() != null ? getRriOrFail(r.resourceAddr()) : "stake-ownership";
+				var rri = r.resourceAddr() != null ? getRriOrFail(dbTxn, r.resourceAddr()) : "stake-ownership";
 				var epochUnlock = r.getEpochUnlock();
 				var entry = BalanceEntry.create(
 					r.getOwner(),
@@ -805,45 +1088,50 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		var resourceEntries = accounting.resourceAccounting().entrySet().stream()
 			.filter(e -> !e.getValue().equals(BigInteger.ZERO))
 			.map(e -> {
-				var rri = getRriOrFail(e.getKey());
+				var rri = getRriOrFail(dbTxn, e.getKey());
 				var amt = UInt384.from(e.getValue().abs().toByteArray());
 				var isNegative = e.getValue().signum() == -1;
 				return BalanceEntry.resource(rri, amt, isNegative);
 			});
 		Streams.concat(bucketEntries, stakeOwnershipEntries, resourceEntries)
-			.forEach(this::storeBalanceEntry);
+			.forEach(entry -> storeBalanceEntry(dbTxn, entry));
 
 		return accounting;
 	}
 
-	private Optional<ECPublicKey> extractCreator(Txn tx) {
-		try {
-			return parser.parse(tx).getSignedBy();
-		} catch (TxnParseException e) {
-			throw new IllegalStateException("Creator extraction failure", e);
+	private void storeSingleTransaction(Transaction dbTxn, TxHistoryEntry txn, DatabaseEntry data, REAddr address) {
+		var key = asTxnHistoryKey(address, txn.timestamp());
+
+		var status = withTime(
+			() -> transactionHistory.put(dbTxn, key, data),
+			() -> addTxHistoryWriteBytes(data),
+			ELAPSED_APIDB_TRANSACTION_WRITE
+		);
+
+		if (status != OperationStatus.SUCCESS) {
+			log.error("Error while storing transaction {} for {}", txn.getTxId(), address);
 		}
 	}
 
-	private void storeSingleTransaction(TxHistoryEntry txn, REAddr address) {
-		var key = asTxnHistoryKey(address, txn.timestamp());
-		var data = serializeTo(entry(), txn);
+	private void storeTransactionIndex(Transaction dbTxn, TxHistoryEntry txn, DatabaseEntry data) {
+		var key = asTxnIndexKey(txn.getTxId());
 
 		var status = withTime(
-			() -> transactionHistory.put(null, key, data),
+			() -> transactionIndex.put(dbTxn, key, data),
 			() -> addTxHistoryWriteBytes(data),
 			ELAPSED_APIDB_TRANSACTION_WRITE
 		);
 
 		if (status != OperationStatus.SUCCESS) {
-			log.error("Error while storing transaction {} for {}", txn.getTxId(), address);
+			log.error("Error while indexing transaction {}", txn.getTxId());
 		}
 	}
 
-	private void storeTokenDefinition(TokenDefinitionRecord tokenDefinition) {
+	private void storeTokenDefinition(Transaction dbTxn, TokenDefinitionRecord tokenDefinition) {
 		var key = asAddrBalanceKey(tokenDefinition.addr());
-		var value = serializeTo(entry(), tokenDefinition);
+		var value = entry(RecordCodec.write(buffer(), tokenDefinition));
 		var status = withTime(
-			() -> tokenDefinitions.putNoOverwrite(null, key, value),
+			() -> tokenDefinitions.putNoOverwrite(dbTxn, key, value),
 			() -> addTokenWriteBytes(value),
 			ELAPSED_APIDB_TOKEN_WRITE
 		);
@@ -853,46 +1141,89 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		}
 	}
 
-	private void storeBalanceEntry(BalanceEntry entry) {
+	private void storeBalanceEntry(Transaction dbTxn, BalanceEntry entry) {
 		var key = entry.isSupply() ? asKey(entry.rri()) : asAddrBalanceKey(entry);
-		mergeBalances(key, entry(), entry, entry.isUnstake() || entry.isStake());
-	}
-
-	private void mergeBalances(DatabaseEntry key, DatabaseEntry value, BalanceEntry balanceEntry, boolean deleteIfZero) {
-		var database = balanceEntry.isSupply() ? supplyBalances : addressBalances;
-		var oldValue = entry();
-		var status = readBalance(() -> database.get(null, key, oldValue, null), oldValue);
-
-		if (status == OperationStatus.NOTFOUND) {
-			serializeTo(value, balanceEntry);
-		} else if (status == OperationStatus.SUCCESS) {
-			// Merge with existing balance
-			restore(serialization, oldValue.getData(), BalanceEntry.class)
-				.map(existingBalance -> existingBalance.add(balanceEntry))
-				.onSuccess(entry -> {
-					if (deleteIfZero && entry.getAmount().isZero()) {
-						value.setData(null);
-					} else {
-						serializeTo(value, entry);
-					}
-				})
-				.onFailure(this::reportError);
-		}
+		mergeBalances(dbTxn, BalanceKey.of(entry.isSupply(), key), entry, entry.isUnstake() || entry.isStake());
+	}
 
-		if (value.getData() == null) {
-			status = database.delete(null, key);
+	/**
+	 * Folds the balance change into the balances of the batch being stored. Balances are
+	 * written to the database once per batch by {@link #flushBalances(Transaction)}.
+	 */
+	private void mergeBalances(
+		Transaction dbTxn,
+		BalanceKey key,
+		BalanceEntry balanceEntry,
+		boolean deleteIfZero
+	) {
+		var existingBalance = loadBalance(dbTxn, key);
+
+		if (existingBalance == null) {
+			pendingBalances.put(key, balanceEntry);
 		} else {
-			status = writeBalance(() -> database.put(null, key, value), value);
+			var merged = existingBalance.add(balanceEntry);
+			pendingBalances.put(key, deleteIfZero && merged.getAmount().isZero() ? null : merged);
 		}
+	}
+
+	/**
+	 * Loads a balance, including changes of the batch being stored, if called while storing a batch.
+	 * Reads outside of a batch, i.e. without database transaction, only see stored balances.
+	 */
+	private BalanceEntry loadBalance(Transaction dbTxn, BalanceKey key) {
+		if (dbTxn != null && pendingBalances.containsKey(key)) {
+			return pendingBalances.get(key);
+		}
+
+		var database = key.isSupply() ? supplyBalances : addressBalances;
+		var data = entry();
+		var status = readBalance(() -> database.get(dbTxn, key.asEntry(), data, null), data);
 
 		if (status != OperationStatus.SUCCESS) {
-			log.error("Error while calculating merged balance {}", balanceEntry);
+			return null;
 		}
+
+		return toBalanceEntry(data.getData())
+			.onFailure(this::reportError)
+			.toOptional()
+			.orElse(null);
+	}
+
+	private void flushBalances(Transaction dbTxn) {
+		pendingBalances.forEach((key, balanceEntry) -> {
+			var database = key.isSupply() ? supplyBalances : addressBalances;
+			final OperationStatus status;
+
+			if (balanceEntry == null) {
+				status = database.delete(dbTxn, key.asEntry());
+			} else {
+				var value = entry(RecordCodec.write(buffer(), balanceEntry));
+				status = writeBalance(() -> database.put(dbTxn, key.asEntry(), value), value);
+			}
+
+			// Balances created and removed within the same batch are not found
+			if (status != OperationStatus.SUCCESS && status != OperationStatus.NOTFOUND) {
+				log.error("Error {} while storing merged balance {}", status, balanceEntry);
+			}
+		});
+		pendingBalances.clear();
+	}
+
+	private Result<TxHistoryEntry> toTxHistoryEntry(byte[] data) {
+		return decode(data, RecordCodec::readTxHistoryEntry, TxHistoryEntry.class);
 	}
 
-	private DatabaseEntry serializeTo(DatabaseEntry value, Object entry) {
-		value.setData(serialization.toDson(entry, Output.ALL));
-		return value;
+	private Result<BalanceEntry> toBalanceEntry(byte[] data) {
+		return decode(data, RecordCodec::readBalanceEntry, BalanceEntry.class);
+	}
+
+	private Result<TokenDefinitionRecord> toTokenDefinitionRecord(byte[] data) {
+		return decode(data, RecordCodec::readTokenDefinitionRecord, TokenDefinitionRecord.class);
+	}
+
+	private <T> Result<T> decode(byte[] data, Function<ByteBuf, T> reader, Class<T> type) {
+		// Records not migrated yet are still stored as DSON
+		return RecordCodec.isEncoded(data) ? RecordCodec.decode(data, reader) : restore(serialization, data, type);
 	}
 
 	private static DatabaseEntry asKey(String rri) {
@@ -928,10 +1259,10 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 		return entry(addr.getBytes());
 	}
 
-	private DatabaseEntry asAddrBalanceValidatorStakeKey(ECPublicKey validatorKey) {
+	private DatabaseEntry asAddrBalanceValidatorStakeKey(Transaction dbTxn, ECPublicKey validatorKey) {
 		var buf = buffer();
 		buf.writeZero(ECPublicKey.COMPRESSED_BYTES + 1);
-		var rri = getRriOrFail(REAddr.ofNativeToken());
+		var rri = getRriOrFail(dbTxn, REAddr.ofNativeToken());
 		buf.writeBytes(rri.getBytes(StandardCharsets.UTF_8));
 		buf.writeBytes(validatorKey.getBytes());
 		buf.writeZero(Long.BYTES);
@@ -954,6 +1285,10 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 						 .writeInt(timestamp.getNano()));
 	}
 
+	private static DatabaseEntry asTxnIndexKey(AID txId) {
+		return entry(txId.getBytes());
+	}
+
 	private static ByteBuf buffer() {
 		return Unpooled.buffer(KEY_BUFFER_INITIAL_CAPACITY);
 	}
@@ -969,4 +1304,42 @@ public class BerkeleyClientApiStore implements ClientApiStore {
 	private static DatabaseEntry entry() {
 		return new DatabaseEntry();
 	}
+
+	private static final class BalanceKey {
+		private final boolean supply;
+		private final byte[] key;
+
+		private BalanceKey(boolean supply, byte[] key) {
+			this.supply = supply;
+			this.key = key;
+		}
+
+		static BalanceKey of(boolean supply, DatabaseEntry entry) {
+			var key = Arrays.copyOfRange(entry.getData(), entry.getOffset(), entry.getOffset() + entry.getSize());
+			return new BalanceKey(supply, key);
+		}
+
+		boolean isSupply() {
+			return supply;
+		}
+
+		DatabaseEntry asEntry() {
+			return entry(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Boolean.hashCode(supply) + Arrays.hashCode(key);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof BalanceKey)) {
+				return false;
+			}
+
+			var other = (BalanceKey) o;
+			return supply == other.supply && Arrays.equals(key, other.key);
+		}
+	}
 }
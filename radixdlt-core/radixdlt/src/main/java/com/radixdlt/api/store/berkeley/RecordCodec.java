@@ -0,0 +1,265 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.api.store.berkeley;
+
+import com.radixdlt.api.data.ActionEntry;
+import com.radixdlt.api.data.ActionType;
+import com.radixdlt.api.data.BalanceEntry;
+import com.radixdlt.api.data.TxHistoryEntry;
+import com.radixdlt.api.store.TokenDefinitionRecord;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.identifiers.REAddr;
+import com.radixdlt.utils.UInt256;
+import com.radixdlt.utils.UInt384;
+import com.radixdlt.utils.functional.Result;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import static com.radixdlt.identifiers.CommonErrors.UNABLE_TO_DESERIALIZE;
+
+/**
+ * Fixed schema binary encoding of the records stored in the API databases.
+ * <p>
+ * Every encoded record starts with a format version byte. Records stored before this
+ * encoding was introduced are DSON, which never starts with the version byte, so both
+ * can be told apart while existing databases are migrated. Optional values and byte
+ * strings are prefixed with their length plus one as a varint, where zero stands for
+ * {@code null}. Amounts are stored as big-endian magnitudes without leading zeros.
+ * Ordinals of {@link ActionType} are part of the format.
+ */
+final class RecordCodec {
+	static final byte VERSION = 1;
+
+	private static final ActionType[] ACTION_TYPES = ActionType.values();
+	private static final byte NEGATIVE = 0x01;
+	private static final byte HAS_EPOCH_UNLOCKED = 0x02;
+	private static final byte HAS_TX_ID = 0x04;
+
+	private RecordCodec() {
+		throw new IllegalStateException("Cannot instantiate.");
+	}
+
+	/**
+	 * Checks whether the stored value is in the current encoding.
+	 */
+	static boolean isEncoded(byte[] data) {
+		return data.length > 0 && data[0] == VERSION;
+	}
+
+	static <T> Result<T> decode(byte[] data, Function<ByteBuf, T> reader) {
+		return Result.wrap(UNABLE_TO_DESERIALIZE, () -> {
+			var buf = Unpooled.wrappedBuffer(data);
+			if (buf.readByte() != VERSION) {
+				throw new IllegalArgumentException("Unsupported record version " + data[0]);
+			}
+			return reader.apply(buf);
+		});
+	}
+
+	static ByteBuf write(ByteBuf buf, TxHistoryEntry entry) {
+		buf.writeByte(VERSION);
+		buf.writeBytes(entry.getTxId().getBytes());
+		writeInstant(buf, entry.timestamp());
+		writeAmount(buf, entry.getFee().toByteArray());
+		writeString(buf, entry.getMessage());
+		writeVarInt(buf, entry.getActions().size());
+		for (var action : entry.getActions()) {
+			buf.writeByte(action.getType().ordinal());
+			writeString(buf, action.getFrom());
+			writeString(buf, action.getTo());
+			writeAmount(buf, action.getAmount() == null ? null : action.getAmount().toByteArray());
+			writeString(buf, action.getRri());
+		}
+		return buf;
+	}
+
+	static TxHistoryEntry readTxHistoryEntry(ByteBuf buf) {
+		var txId = AID.from(readFixed(buf, AID.BYTES));
+		var timestamp = readInstant(buf);
+		var fee = UInt256.from(readAmount(buf));
+		var message = readString(buf);
+		var count = readVarInt(buf);
+		var actions = new ArrayList<ActionEntry>(count);
+		for (int i = 0; i < count; i++) {
+			var type = ACTION_TYPES[buf.readByte()];
+			var from = readString(buf);
+			var to = readString(buf);
+			var amount = readAmount(buf);
+			var rri = readString(buf);
+			actions.add(ActionEntry.create(type, from, to, amount == null ? null : UInt256.from(amount), rri));
+		}
+		return TxHistoryEntry.create(txId, timestamp, fee, message, actions);
+	}
+
+	static ByteBuf write(ByteBuf buf, BalanceEntry entry) {
+		var flags = (entry.isNegative() ? NEGATIVE : 0)
+			| (entry.getEpochUnlocked() != null ? HAS_EPOCH_UNLOCKED : 0)
+			| (entry.getTxId() != null ? HAS_TX_ID : 0);
+
+		buf.writeByte(VERSION);
+		buf.writeByte(flags);
+		writeBytes(buf, entry.getOwner() == null ? null : entry.getOwner().getBytes());
+		writeBytes(buf, entry.getDelegateBytes());
+		writeString(buf, entry.rri());
+		writeAmount(buf, entry.getAmount().toByteArray());
+		if (entry.getEpochUnlocked() != null) {
+			buf.writeLong(entry.getEpochUnlocked());
+		}
+		if (entry.getTxId() != null) {
+			buf.writeBytes(entry.getTxId().getBytes());
+		}
+		return buf;
+	}
+
+	static BalanceEntry readBalanceEntry(ByteBuf buf) {
+		var flags = buf.readByte();
+		var owner = readBytes(buf);
+		var delegate = readBytes(buf);
+		var rri = readString(buf);
+		var amount = UInt384.from(readAmount(buf));
+		var epochUnlocked = (flags & HAS_EPOCH_UNLOCKED) != 0 ? (Long) buf.readLong() : null;
+		var txId = (flags & HAS_TX_ID) != 0 ? AID.from(readFixed(buf, AID.BYTES)) : null;
+
+		return BalanceEntry.createFull(
+			owner == null ? null : REAddr.of(owner),
+			delegate,
+			rri,
+			amount,
+			(flags & NEGATIVE) != 0,
+			epochUnlocked,
+			txId
+		);
+	}
+
+	static ByteBuf write(ByteBuf buf, TokenDefinitionRecord record) {
+		buf.writeByte(VERSION);
+		writeString(buf, record.getSymbol());
+		writeString(buf, record.getName());
+		writeBytes(buf, record.addr().getBytes());
+		writeString(buf, record.getDescription());
+		writeAmount(buf, record.currentSupply().toByteArray());
+		writeString(buf, record.getIconUrl());
+		writeString(buf, record.getUrl());
+		buf.writeBoolean(record.isMutable());
+		return buf;
+	}
+
+	static TokenDefinitionRecord readTokenDefinitionRecord(ByteBuf buf) {
+		var symbol = readString(buf);
+		var name = readString(buf);
+		var addr = REAddr.of(readBytes(buf));
+		var description = readString(buf);
+		var currentSupply = UInt384.from(readAmount(buf));
+		var iconUrl = readString(buf);
+		var url = readString(buf);
+		var mutable = buf.readBoolean();
+
+		return TokenDefinitionRecord.create(symbol, name, addr, description, currentSupply, iconUrl, url, mutable);
+	}
+
+	private static void writeInstant(ByteBuf buf, Instant instant) {
+		buf.writeLong(instant.getEpochSecond());
+		buf.writeInt(instant.getNano());
+	}
+
+	private static Instant readInstant(ByteBuf buf) {
+		return Instant.ofEpochSecond(buf.readLong(), buf.readInt());
+	}
+
+	private static void writeAmount(ByteBuf buf, byte[] magnitude) {
+		if (magnitude == null) {
+			writeBytes(buf, null);
+			return;
+		}
+
+		var start = 0;
+		while (start < magnitude.length && magnitude[start] == 0) {
+			start++;
+		}
+		writeVarInt(buf, magnitude.length - start + 1);
+		buf.writeBytes(magnitude, start, magnitude.length - start);
+	}
+
+	private static byte[] readAmount(ByteBuf buf) {
+		var magnitude = readBytes(buf);
+		// Zero is stored without any bytes
+		return magnitude == null || magnitude.length > 0 ? magnitude : new byte[1];
+	}
+
+	private static void writeString(ByteBuf buf, String value) {
+		writeBytes(buf, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String readString(ByteBuf buf) {
+		var length = readVarInt(buf) - 1;
+		if (length < 0) {
+			return null;
+		}
+
+		var value = buf.toString(buf.readerIndex(), length, StandardCharsets.UTF_8);
+		buf.skipBytes(length);
+		return value;
+	}
+
+	private static void writeBytes(ByteBuf buf, byte[] value) {
+		if (value == null) {
+			writeVarInt(buf, 0);
+		} else {
+			writeVarInt(buf, value.length + 1);
+			buf.writeBytes(value);
+		}
+	}
+
+	private static byte[] readBytes(ByteBuf buf) {
+		var length = readVarInt(buf) - 1;
+		return length < 0 ? null : readFixed(buf, length);
+	}
+
+	private static byte[] readFixed(ByteBuf buf, int length) {
+		var start = buf.readerIndex();
+		buf.skipBytes(length);
+		return Arrays.copyOfRange(buf.array(), buf.arrayOffset() + start, buf.arrayOffset() + start + length);
+	}
+
+	private static void writeVarInt(ByteBuf buf, int value) {
+		while ((value & ~0x7F) != 0) {
+			buf.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buf.writeByte(value);
+	}
+
+	private static int readVarInt(ByteBuf buf) {
+		var value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			var b = buf.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed varint");
+	}
+}
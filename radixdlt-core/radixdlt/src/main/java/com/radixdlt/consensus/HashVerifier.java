@@ -19,8 +19,11 @@ package com.radixdlt.consensus;
 
 import com.google.common.hash.HashCode;
 import com.radixdlt.crypto.ECDSASignature;
+import com.radixdlt.crypto.ECDSAVerifier.SignedHash;
 import com.radixdlt.crypto.ECPublicKey;
 
+import java.util.Collection;
+
 /**
  * Verifies signatures against hashes.
  */
@@ -36,4 +39,14 @@ public interface HashVerifier {
 	 * @return {@code true} if the signature matches, {@code false} otherwise
 	 */
 	boolean verify(ECPublicKey pubKey, HashCode hash, ECDSASignature sig);
+
+	/**
+	 * Verify all of the specified signatures.
+	 *
+	 * @param signatures The signatures to verify along with their keys and hashes
+	 * @return {@code true} if all of the signatures match, {@code false} otherwise
+	 */
+	default boolean verifyAll(Collection<SignedHash> signatures) {
+		return signatures.stream().allMatch(s -> verify(s.getPublicKey(), s.getHash(), s.getSignature()));
+	}
 }
@@ -17,10 +17,12 @@
 
 package com.radixdlt.consensus;
 
+import com.google.common.hash.HashCode;
 import com.radixdlt.consensus.bft.PreparedVertex;
 import com.radixdlt.consensus.bft.VerifiedVertex;
 import java.util.LinkedList;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * A distributed computer which manages the computed state in a BFT.
@@ -35,4 +37,12 @@ public interface Ledger {
 	 * @return the results of executing the prepare stage
 	 */
 	Optional<PreparedVertex> prepare(LinkedList<PreparedVertex> previous, VerifiedVertex vertex);
+
+	/**
+	 * Releases anything kept for prepared vertices which have been removed from the
+	 * vertex store, such as forks pruned on commit or vertices replaced on a rebuild.
+	 *
+	 * @param vertexIds ids of the vertices remaining in the vertex store, including its root
+	 */
+	void retainPrepared(Set<HashCode> vertexIds);
 }
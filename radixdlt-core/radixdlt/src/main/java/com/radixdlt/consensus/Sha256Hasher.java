@@ -17,26 +17,61 @@
 
 package com.radixdlt.consensus;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 import com.radixdlt.DefaultSerialization;
 import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.crypto.Hasher;
 import com.radixdlt.serialization.DsonOutput;
 import com.radixdlt.serialization.Serialization;
 
+import java.util.Set;
+import java.util.function.LongConsumer;
+
 /**
  * A Hasher implementation that uses sha256 hashing algorithm.
+ * <p>
+ * Objects are serialized straight into the digest. Hashes of immutable consensus
+ * objects, which get hashed over and over while a view is processed, are memoized
+ * per instance.
  */
 public class Sha256Hasher implements Hasher {
+	private static final Set<Class<?>> MEMOIZED_CLASSES = Set.of(
+		BFTHeader.class,
+		LedgerHeader.class,
+		QuorumCertificate.class,
+		UnverifiedVertex.class,
+		VoteData.class
+	);
+	private static final long MEMOIZED_HASHES = 4096;
 
 	private final Serialization serialization;
+	private final LongConsumer hashedBytes;
+	// Weak keys are compared by identity, so equal instances do not share an entry
+	private final Cache<Object, HashCode> memoized = CacheBuilder.newBuilder()
+		.weakKeys()
+		.maximumSize(MEMOIZED_HASHES)
+		.build();
 
 	public static Sha256Hasher withDefaultSerialization() {
 		return new Sha256Hasher(DefaultSerialization.getInstance());
 	}
 
 	public Sha256Hasher(Serialization serialization) {
+		this(serialization, bytes -> { });
+	}
+
+	/**
+	 * Creates a hasher reporting the number of bytes hashed to the specified consumer.
+	 */
+	public Sha256Hasher(Serialization serialization, LongConsumer hashedBytes) {
 		this.serialization = serialization;
+		this.hashedBytes = hashedBytes;
 	}
 
 	@Override
@@ -46,11 +81,30 @@ public class Sha256Hasher implements Hasher {
 
 	@Override
 	public HashCode hash(Object o) {
-		return HashUtils.sha256(serialization.toDson(o, DsonOutput.Output.HASH));
+		if (!MEMOIZED_CLASSES.contains(o.getClass())) {
+			return hashObject(o);
+		}
+
+		var hash = memoized.getIfPresent(o);
+		if (hash == null) {
+			hash = hashObject(o);
+			memoized.put(o, hash);
+		}
+		return hash;
 	}
 
 	@Override
 	public HashCode hashBytes(byte[] bytes) {
+		hashedBytes.accept(bytes.length);
 		return HashUtils.sha256(bytes);
 	}
+
+	private HashCode hashObject(Object o) {
+		var counter = new CountingOutputStream(ByteStreams.nullOutputStream());
+		var digest = new HashingOutputStream(Hashing.sha256(), counter);
+		serialization.toDson(o, DsonOutput.Output.HASH, digest);
+		hashedBytes.accept(counter.getCount());
+		// Second round, same as HashUtils.sha256
+		return Hashing.sha256().hashBytes(digest.hash().asBytes());
+	}
 }
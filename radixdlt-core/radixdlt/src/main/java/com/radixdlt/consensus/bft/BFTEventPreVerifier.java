@@ -0,0 +1,163 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.bft;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import com.radixdlt.consensus.ConsensusEvent;
+import com.radixdlt.consensus.HashVerifier;
+import com.radixdlt.consensus.Proposal;
+import com.radixdlt.consensus.Vote;
+import com.radixdlt.consensus.epoch.EpochView;
+import com.radixdlt.consensus.epoch.EpochViewUpdate;
+import com.radixdlt.consensus.liveness.VoteTimeout;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.crypto.Hasher;
+import com.radixdlt.environment.EventProcessor;
+import com.radixdlt.environment.rx.RemoteEvent;
+import com.radixdlt.utils.ThreadFactories;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies signatures of remote votes and proposals on a worker pool before they
+ * reach the consensus thread. Events from the same sender are kept in order, events
+ * for views behind the current one are dropped without being verified and events with
+ * invalid signatures are dropped. The ordering state of a sender is released once no
+ * events were received from it for a while, so that it is not kept for every peer ever seen.
+ * <p>
+ * This does not replace {@link BFTEventVerifier}, which still checks every event
+ * against the validator set of its epoch. As {@link com.radixdlt.crypto.ECDSAVerifier}
+ * remembers recently verified signatures, the signatures verified here are not
+ * verified again on the consensus thread.
+ */
+@Singleton
+@SecurityCritical({ SecurityKind.SIG_VERIFY })
+public final class BFTEventPreVerifier {
+	private static final Logger log = LogManager.getLogger();
+	private static final long SENDER_IDLE_TIMEOUT_MS = 10_000L;
+
+	private final Hasher hasher;
+	private final HashVerifier verifier;
+	private final SystemCounters counters;
+	private final Scheduler scheduler;
+	private final long senderIdleTimeoutMs;
+	private final Scheduler idleTimeoutScheduler;
+	private final AtomicLong queueSize = new AtomicLong();
+	private volatile EpochView current = EpochView.of(0, View.genesis());
+
+	@Inject
+	public BFTEventPreVerifier(Hasher hasher, HashVerifier verifier, SystemCounters counters) {
+		this(hasher, verifier, counters, SENDER_IDLE_TIMEOUT_MS, Schedulers.computation());
+	}
+
+	BFTEventPreVerifier(
+		Hasher hasher,
+		HashVerifier verifier,
+		SystemCounters counters,
+		long senderIdleTimeoutMs,
+		Scheduler idleTimeoutScheduler
+	) {
+		this.hasher = Objects.requireNonNull(hasher);
+		this.verifier = Objects.requireNonNull(verifier);
+		this.counters = Objects.requireNonNull(counters);
+		this.scheduler = Schedulers.from(Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(),
+			ThreadFactories.daemonThreads("BFTEventPreVerifier-%d")
+		));
+		this.senderIdleTimeoutMs = senderIdleTimeoutMs;
+		this.idleTimeoutScheduler = Objects.requireNonNull(idleTimeoutScheduler);
+	}
+
+	public EventProcessor<EpochViewUpdate> epochViewUpdateEventProcessor() {
+		return update -> this.current = update.getEpochView();
+	}
+
+	public <T extends ConsensusEvent> Flowable<RemoteEvent<T>> verified(Flowable<RemoteEvent<T>> remoteEvents) {
+		return remoteEvents
+			.filter(this::isCurrent)
+			.doOnNext(e -> counters.set(CounterType.BFT_VERIFY_QUEUE_SIZE, queueSize.incrementAndGet()))
+			.groupBy(RemoteEvent::getOrigin)
+			.flatMap(fromSender -> untilIdle(fromSender).concatMapMaybe(this::verify), Integer.MAX_VALUE);
+	}
+
+	// Completing the group removes it from groupBy, a later event from the same sender starts a new one
+	private <T> Flowable<T> untilIdle(Flowable<T> fromSender) {
+		return fromSender.publish(events -> events.takeUntil(
+			events.debounce(senderIdleTimeoutMs, TimeUnit.MILLISECONDS, idleTimeoutScheduler)
+		));
+	}
+
+	private <T extends ConsensusEvent> Maybe<RemoteEvent<T>> verify(RemoteEvent<T> remoteEvent) {
+		return Maybe.fromCallable(() -> {
+			try {
+				// Consensus may have moved on while the event was queued
+				return isCurrent(remoteEvent) && hasValidSignatures(remoteEvent) ? remoteEvent : null;
+			} finally {
+				counters.set(CounterType.BFT_VERIFY_QUEUE_SIZE, queueSize.decrementAndGet());
+			}
+		}).subscribeOn(scheduler);
+	}
+
+	private boolean isCurrent(RemoteEvent<? extends ConsensusEvent> remoteEvent) {
+		var event = remoteEvent.getEvent();
+		if (EpochView.of(event.getEpoch(), event.getView()).compareTo(current) < 0) {
+			counters.increment(CounterType.BFT_VERIFY_STALE);
+			return false;
+		}
+		return true;
+	}
+
+	private boolean hasValidSignatures(RemoteEvent<? extends ConsensusEvent> remoteEvent) {
+		final var start = System.nanoTime();
+		final var event = remoteEvent.getEvent();
+		final var author = event.getAuthor();
+		final boolean valid;
+		if (event instanceof Vote) {
+			var vote = (Vote) event;
+			valid = verifier.verify(author.getKey(), vote.getHashOfData(hasher), vote.getSignature())
+				&& vote.getTimeoutSignature()
+					.map(timeoutSignature -> verifier.verify(author.getKey(), hasher.hash(VoteTimeout.of(vote)), timeoutSignature))
+					.orElse(true);
+		} else if (event instanceof Proposal) {
+			var proposal = (Proposal) event;
+			valid = verifier.verify(author.getKey(), hasher.hash(proposal.getVertex()), proposal.getSignature());
+		} else {
+			valid = true;
+		}
+		counters.add(CounterType.BFT_VERIFY_ELAPSED, (System.nanoTime() - start + 500L) / 1000L);
+		counters.increment(CounterType.BFT_VERIFY_COUNT);
+
+		if (!valid) {
+			log.info("Ignoring invalid signature from {} for {}", remoteEvent.getOrigin(), event);
+		}
+		return valid;
+	}
+}
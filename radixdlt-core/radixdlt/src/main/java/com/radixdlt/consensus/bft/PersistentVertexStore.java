@@ -17,10 +17,30 @@
 
 package com.radixdlt.consensus.bft;
 
+import java.util.Optional;
+
 /**
  * Store which saves the Vertex Store State for recovery
  * TODO: Remove this interface, integrate with RadixEngine ((RPNV1-718)
  */
 public interface PersistentVertexStore {
+	/**
+	 * Saves the whole vertex store state, replacing any previously saved state.
+	 *
+	 * @param vertexStoreState the state to save
+	 */
 	void save(VerifiedVertexStoreState vertexStoreState);
+
+	/**
+	 * Saves a change to the vertex store state, i.e. an inserted vertex and/or a new
+	 * high QC or TC. Implementations may only record the change if it applies to the
+	 * previously saved state and must otherwise save the whole state, which is what
+	 * the default implementation does.
+	 *
+	 * @param vertexStoreState the state after the change
+	 * @param insertedVertex the vertex which was inserted, if any
+	 */
+	default void saveUpdate(VerifiedVertexStoreState vertexStoreState, Optional<VerifiedVertex> insertedVertex) {
+		save(vertexStoreState);
+	}
 }
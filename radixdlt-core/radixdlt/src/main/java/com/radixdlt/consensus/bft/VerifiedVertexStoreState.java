@@ -171,6 +171,10 @@ public final class VerifiedVertexStoreState {
 		return rootHeader;
 	}
 
+	public Optional<TimeoutCertificate> getHighestTC() {
+		return highestTC;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(root, rootHeader, highQC, idToVertex, vertices, highestTC);
@@ -32,6 +32,7 @@ import com.radixdlt.environment.EventDispatcher;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Objects;
@@ -54,7 +55,8 @@ public final class VertexStore {
 	private final Hasher hasher;
 	private final Ledger ledger;
 
-	private final Map<HashCode, PreparedVertex> vertices = new HashMap<>();
+	// Kept in insertion order so that parents always come before their children
+	private final Map<HashCode, PreparedVertex> vertices = new LinkedHashMap<>();
 	private final Map<HashCode, Set<HashCode>> vertexChildren = new HashMap<>();
 
 	// These should never be null
@@ -156,6 +158,7 @@ public final class VertexStore {
 		for (VerifiedVertex vertex : vertexStoreState.getVertices()) {
 			Optional<PreparedVertex> preparedVertexMaybe = ledger.prepare(prepared, vertex);
 			if (preparedVertexMaybe.isEmpty()) {
+				releasePrepared();
 				return false;
 			}
 
@@ -175,6 +178,7 @@ public final class VertexStore {
 			Set<HashCode> siblings = vertexChildren.get(preparedVertex.getParentId());
 			siblings.add(preparedVertex.getId());
 		}
+		releasePrepared();
 
 		bftRebuildDispatcher.dispatch(BFTRebuildUpdate.create(vertexStoreState));
 		return true;
@@ -225,27 +229,14 @@ public final class VertexStore {
 		return true;
 	}
 
-	private void getChildrenVerticesList(VerifiedVertex parent, ImmutableList.Builder<VerifiedVertex> builder) {
-		Set<HashCode> childrenIds = this.vertexChildren.get(parent.getId());
-		if (childrenIds == null) {
-			return;
-		}
-
-		for (HashCode childId : childrenIds) {
-			VerifiedVertex v = vertices.get(childId).getVertex();
-			builder.add(v);
-			getChildrenVerticesList(v, builder);
-		}
-	}
-
 	private VerifiedVertexStoreState getState() {
-		// TODO: store list dynamically rather than recomputing
-		ImmutableList.Builder<VerifiedVertex> verticesBuilder = ImmutableList.builder();
-		getChildrenVerticesList(this.rootVertex, verticesBuilder);
+		ImmutableList<VerifiedVertex> verticesList = this.vertices.values().stream()
+			.map(PreparedVertex::getVertex)
+			.collect(ImmutableList.toImmutableList());
 		return VerifiedVertexStoreState.create(
 			this.highQC(),
 			this.rootVertex,
-			verticesBuilder.build(),
+			verticesList,
 			this.highestTC,
 			hasher
 		);
@@ -348,6 +339,7 @@ public final class VertexStore {
 			throw new IllegalStateException("Committing vertex not in store: " + header);
 		}
 
+		final HashCode previousRootId = this.rootVertex.getId();
 		this.rootVertex = tipVertex;
 		this.highestCommittedQC = commitQC;
 		Builder<HashCode> prunedSetBuilder = ImmutableSet.builder();
@@ -357,12 +349,24 @@ public final class VertexStore {
 			this.removeVertexAndPruneInternal(path.get(i).getId(), prev, prunedSetBuilder);
 			prev = path.get(i).getId();
 		}
+		// Forks off the previous root, such as vertices of timed out views, are not on the path
+		for (HashCode child : vertexChildren.remove(previousRootId)) {
+			if (!child.equals(prev)) {
+				this.removeVertexAndPruneInternal(child, null, prunedSetBuilder);
+			}
+		}
+		releasePrepared();
 
 		VerifiedVertexStoreState vertexStoreState = getState();
 		ImmutableSet<HashCode> pruned = prunedSetBuilder.build();
 		this.bftCommittedDispatcher.dispatch(BFTCommittedUpdate.create(pruned, path, vertexStoreState));
 	}
 
+	private void releasePrepared() {
+		// Every vertex in the store, along with the root, has an entry for its children
+		ledger.retainPrepared(ImmutableSet.copyOf(vertexChildren.keySet()));
+	}
+
 	public LinkedList<PreparedVertex> getPathFromRoot(HashCode vertexId) {
 		final LinkedList<PreparedVertex> path = new LinkedList<>();
 
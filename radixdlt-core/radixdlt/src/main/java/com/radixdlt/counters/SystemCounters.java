@@ -47,6 +47,14 @@ public interface SystemCounters {
 		BFT_VOTE_QUORUMS("bft.vote_quorums"),
 		BFT_SYNC_REQUESTS_SENT("bft.sync.requests_sent"),
 		BFT_SYNC_REQUEST_TIMEOUTS("bft.sync.request_timeouts"),
+		/** Number of remote votes and proposals whose signatures were verified ahead of consensus. */
+		BFT_VERIFY_COUNT("bft.verify.count"),
+		/** Total time spent verifying remote votes and proposals ahead of consensus, in microseconds. */
+		BFT_VERIFY_ELAPSED("bft.verify.elapsed"),
+		/** Number of remote votes and proposals waiting for signature verification. */
+		BFT_VERIFY_QUEUE_SIZE("bft.verify.queue_size"),
+		/** Number of remote votes and proposals dropped before verification for being stale. */
+		BFT_VERIFY_STALE("bft.verify.stale"),
 
 		PACEMAKER_VIEW("pacemaker.view"),
 
@@ -87,6 +95,8 @@ public interface SystemCounters {
 		// API DB metrics
 		COUNT_APIDB_QUEUE_SIZE("count.apidb.queue.size"),
 		COUNT_APIDB_FLUSH_COUNT("count.apidb.flush.count"),
+		COUNT_APIDB_REBUILD_PROCESSED("count.apidb.rebuild.processed"),
+		COUNT_APIDB_REBUILD_TARGET("count.apidb.rebuild.target"),
 
 		COUNT_APIDB_BALANCE_TOTAL("count.apidb.balance.total"),
 		COUNT_APIDB_BALANCE_READ("count.apidb.balance.read"),
@@ -163,6 +173,9 @@ public interface SystemCounters {
 		MEMPOOL_COUNT("mempool.count"),
 		MEMPOOL_MAXCOUNT("mempool.maxcount"),
 		MEMPOOL_RELAYER_SENT_COUNT("mempool.relayer_sent_count"),
+		MEMPOOL_RELAYER_SENT_BYTES("mempool.relayer_sent_bytes"),
+		MEMPOOL_RELAYER_REQUESTED_COUNT("mempool.relayer_requested_count"),
+		MEMPOOL_RELAYER_SERVED_COUNT("mempool.relayer_served_count"),
 		MEMPOOL_ADD_SUCCESS("mempool.add_success"),
 		MEMPOOL_PROPOSED_TRANSACTION("mempool.proposed_transaction"),
 		MEMPOOL_ERRORS_HOOK("mempool.errors.hook"),
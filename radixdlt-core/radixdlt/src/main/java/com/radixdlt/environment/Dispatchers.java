@@ -25,6 +25,7 @@ import com.radixdlt.consensus.bft.Self;
 import com.radixdlt.counters.SystemCounters;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -137,15 +138,46 @@ public final class Dispatchers {
 			final Set<EventProcessor<T>> onDispatch = onDispatchProcessors.stream()
 				.flatMap(p -> p.getProcessor(c).stream())
 				.collect(Collectors.toSet());
-			return (node, e) -> {
-				if (node.equals(self)) {
-					localDispatcher.dispatch(e);
-				} else {
-					remoteDispatcher.dispatch(node, e);
+			return new RemoteEventDispatcher<>() {
+				@Override
+				public void dispatch(BFTNode node, T e) {
+					if (node.equals(self)) {
+						localDispatcher.dispatch(e);
+					} else {
+						remoteDispatcher.dispatch(node, e);
+					}
+					dispatched(e);
 				}
-				onDispatch.forEach(p -> p.process(e));
-				if (counterType != null) {
-					systemCounters.increment(counterType);
+
+				@Override
+				public void dispatch(Iterable<BFTNode> nodes, T e) {
+					final var remoteNodes = new ArrayList<BFTNode>();
+					var toSelf = false;
+					var count = 0;
+					for (var node : nodes) {
+						if (node.equals(self)) {
+							toSelf = true;
+						} else {
+							remoteNodes.add(node);
+						}
+						count++;
+					}
+					if (!remoteNodes.isEmpty()) {
+						remoteDispatcher.dispatch(remoteNodes, e);
+					}
+					if (toSelf) {
+						localDispatcher.dispatch(e);
+					}
+					for (int i = 0; i < count; i++) {
+						dispatched(e);
+					}
+				}
+
+				private void dispatched(T e) {
+					onDispatch.forEach(p -> p.process(e));
+					if (counterType != null) {
+						systemCounters.increment(counterType);
+					}
 				}
 			};
 		}
@@ -27,6 +27,10 @@ import com.radixdlt.consensus.bft.BFTNode;
 public interface RemoteEventDispatcher<T> {
 	void dispatch(BFTNode receiver, T t);
 
+	/**
+	 * Dispatches the event to all of the receivers. Dispatchers which send events over
+	 * the network override this to serialize the event once for all receivers.
+	 */
 	default void dispatch(Iterable<BFTNode> receivers, T t) {
 		receivers.forEach(r -> dispatch(r, t));
 	}
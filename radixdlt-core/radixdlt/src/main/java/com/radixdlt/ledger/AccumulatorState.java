@@ -19,6 +19,7 @@ package com.radixdlt.ledger;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
 import com.google.common.hash.HashCode;
 import com.radixdlt.serialization.DsonOutput;
 import com.radixdlt.serialization.DsonOutput.Output;
@@ -43,13 +44,31 @@ public final class AccumulatorState {
 	@DsonOutput(Output.ALL)
 	private final HashCode accumulatorHash;
 
+	// Only present once accumulated into a Merkle mountain range, and then
+	// not serialized for a hash chain state
+	@JsonProperty("range_start")
+	@DsonOutput(Output.ALL)
+	private final Long rangeStart;
+
+	@JsonProperty("peaks")
+	@DsonOutput(Output.ALL)
+	private final ImmutableList<HashCode> peaks;
+
 	@JsonCreator
 	public AccumulatorState(
 		@JsonProperty("state_version") long stateVersion,
-		@JsonProperty("accumulator_hash") HashCode accumulatorHash
+		@JsonProperty("accumulator_hash") HashCode accumulatorHash,
+		@JsonProperty("range_start") Long rangeStart,
+		@JsonProperty("peaks") ImmutableList<HashCode> peaks
 	) {
 		this.stateVersion = stateVersion;
 		this.accumulatorHash = Objects.requireNonNull(accumulatorHash);
+		this.peaks = peaks == null ? ImmutableList.of() : peaks;
+		this.rangeStart = this.peaks.isEmpty() ? null : Objects.requireNonNull(rangeStart);
+	}
+
+	public AccumulatorState(long stateVersion, HashCode accumulatorHash) {
+		this(stateVersion, accumulatorHash, null, ImmutableList.of());
 	}
 
 	public long getStateVersion() {
@@ -60,9 +79,26 @@ public final class AccumulatorState {
 		return accumulatorHash;
 	}
 
+	/**
+	 * Returns the state version of the hash chain state the Merkle mountain range of this
+	 * state starts from. Only valid if {@link #getPeaks()} is not empty.
+	 */
+	public long getRangeStart() {
+		return rangeStart == null ? stateVersion : rangeStart;
+	}
+
+	/**
+	 * Returns the boundary node standing for the hash chain the Merkle mountain range of this
+	 * state starts from, followed by the peaks of the range, highest first, or an empty list
+	 * for a hash chain state.
+	 */
+	public ImmutableList<HashCode> getPeaks() {
+		return peaks;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(stateVersion, accumulatorHash);
+		return Objects.hash(stateVersion, accumulatorHash, rangeStart, peaks);
 	}
 
 	@Override
@@ -73,7 +109,9 @@ public final class AccumulatorState {
 
 		AccumulatorState other = (AccumulatorState) o;
 		return stateVersion == other.stateVersion
-			&& Objects.equals(accumulatorHash, other.accumulatorHash);
+			&& Objects.equals(accumulatorHash, other.accumulatorHash)
+			&& Objects.equals(rangeStart, other.rangeStart)
+			&& Objects.equals(peaks, other.peaks);
 	}
 
 	@Override
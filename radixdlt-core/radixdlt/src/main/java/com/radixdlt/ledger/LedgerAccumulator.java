@@ -28,4 +28,17 @@ import com.google.common.hash.HashCode;
 @FunctionalInterface
 public interface LedgerAccumulator {
 	AccumulatorState accumulate(AccumulatorState parent, HashCode hash);
+
+	/**
+	 * Accumulates a command of the specified epoch, for implementations which
+	 * change how commands are accumulated from a certain epoch onwards.
+	 *
+	 * @param parent the state to accumulate onto
+	 * @param hash the hash of the command
+	 * @param epoch the epoch the command is committed in
+	 * @return the next state
+	 */
+	default AccumulatorState accumulate(AccumulatorState parent, HashCode hash, long epoch) {
+		return accumulate(parent, hash);
+	}
 }
@@ -0,0 +1,268 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.ledger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.inject.Inject;
+import com.radixdlt.crypto.Hasher;
+import com.radixdlt.statecomputer.forks.Forks;
+import com.radixdlt.utils.Longs;
+import com.radixdlt.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Accumulator and verifier which, from the epoch of the fork enabling it, accumulates
+ * transactions into a Merkle mountain range rather than a hash chain.
+ * <p>
+ * The range starts from the last hash chain state before the fork, whose state version is
+ * the range start {@code s}. As the hash chain cannot be split into subtrees, it is only
+ * represented by a single boundary node, committing to its hash and state version, which
+ * precedes the peaks of every state of the range. The leaves of the range are transaction
+ * ids, the transaction at state version {@code v} being leaf {@code v - s - 1}, so that
+ * the heights of the peaks of a state are the set bits of {@code v - s}. The accumulator
+ * hash of a state is the hash of its boundary node and peaks.
+ * <p>
+ * Unlike with a hash chain, the inclusion of a single transaction can be proven with a
+ * logarithmic number of hashes, and large batches of transactions are verified as
+ * independent subtrees which are hashed in parallel.
+ */
+@ThreadSafe
+public final class MerkleLedgerAccumulatorAndVerifier extends SimpleLedgerAccumulatorAndVerifier {
+	// Prefixes keep the hash of a node from being mistaken for a transaction id or vice versa
+	private static final byte NODE_PREFIX = 1;
+	private static final byte PEAKS_PREFIX = 2;
+	private static final byte BOUNDARY_PREFIX = 3;
+	// Levels with fewer nodes are hashed on the calling thread
+	private static final int PARALLEL_LEVEL_SIZE = 1024;
+
+	private final Hasher hasher;
+	private final Optional<Forks> forks;
+
+	@Inject
+	public MerkleLedgerAccumulatorAndVerifier(Hasher hasher, Optional<Forks> forks) {
+		super(hasher);
+		this.hasher = Objects.requireNonNull(hasher);
+		this.forks = Objects.requireNonNull(forks);
+	}
+
+	@Override
+	public AccumulatorState accumulate(AccumulatorState parent, HashCode hash) {
+		if (parent.getPeaks().isEmpty()) {
+			return super.accumulate(parent, hash);
+		}
+
+		var peaks = new ArrayList<>(parent.getPeaks());
+		append(peaks, parent.getStateVersion() - parent.getRangeStart(), hash, 0);
+		return toState(parent.getStateVersion() + 1, parent.getRangeStart(), peaks);
+	}
+
+	@Override
+	public AccumulatorState accumulate(AccumulatorState parent, HashCode hash, long epoch) {
+		if (parent.getPeaks().isEmpty() && isMerkleEpoch(epoch)) {
+			var peaks = new ArrayList<HashCode>();
+			peaks.add(boundary(parent));
+			append(peaks, 0, hash, 0);
+			return toState(parent.getStateVersion() + 1, parent.getStateVersion(), peaks);
+		}
+
+		return accumulate(parent, hash);
+	}
+
+	@Override
+	public boolean verify(AccumulatorState start, ImmutableList<HashCode> hashes, AccumulatorState end) {
+		if (end.getPeaks().isEmpty()) {
+			return super.verify(start, hashes, end);
+		}
+
+		// A hash chain start state is the end of the epoch before the fork,
+		// which the signed end state attests to
+		var rangeStart = start.getRangeStart();
+		var peaks = new ArrayList<HashCode>();
+		if (start.getPeaks().isEmpty()) {
+			peaks.add(boundary(start));
+		} else {
+			peaks.addAll(start.getPeaks());
+		}
+		var leafCount = start.getStateVersion() - rangeStart;
+		var offset = 0;
+		while (offset < hashes.size()) {
+			// The largest subtree which fits both the remaining hashes and the current range
+			var height = Math.min(
+				31 - Integer.numberOfLeadingZeros(hashes.size() - offset),
+				leafCount == 0 ? Integer.MAX_VALUE : Long.numberOfTrailingZeros(leafCount)
+			);
+			var leaves = hashes.subList(offset, offset + (1 << height));
+			append(peaks, leafCount, subtreeLevels(leaves, height).get(height).get(0), height);
+			leafCount += leaves.size();
+			offset += leaves.size();
+		}
+
+		return end.equals(toState(rangeStart + leafCount, rangeStart, peaks));
+	}
+
+	/**
+	 * Returns the first and last state version of the transactions which are hashed into
+	 * the same peak as the transaction at the specified state version. The ids of these
+	 * transactions are required for {@link #inclusionProof(List, long, long)}. Only
+	 * transactions after the start of the range of the state can be proven.
+	 *
+	 * @param state the state to prove inclusion in
+	 * @param stateVersion the state version of the transaction
+	 * @return the range of state versions of the peak
+	 */
+	public static Pair<Long, Long> peakRange(AccumulatorState state, long stateVersion) {
+		if (state.getPeaks().isEmpty() || stateVersion <= state.getRangeStart() || stateVersion > state.getStateVersion()) {
+			throw new IllegalArgumentException(String.format("%s is not in the range of %s", stateVersion, state));
+		}
+
+		var leafCount = state.getStateVersion() - state.getRangeStart();
+		var leafIndex = stateVersion - 1;
+		var peakStart = state.getRangeStart();
+		for (var height = 63; height >= 0; height--) {
+			var peakSize = 1L << height;
+			if ((leafCount & peakSize) != 0) {
+				if (leafIndex < peakStart + peakSize) {
+					return Pair.of(peakStart + 1, peakStart + peakSize);
+				}
+				peakStart += peakSize;
+			}
+		}
+
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * Computes the proof of inclusion of a transaction, i.e. the hashes of the siblings
+	 * of the nodes on the path from the transaction to the peak it is hashed into.
+	 *
+	 * @param peakTxnIds the ids of the transactions in the range returned by {@link #peakRange}
+	 * @param firstStateVersion the state version of the first of these transactions
+	 * @param stateVersion the state version of the transaction to prove inclusion of
+	 * @return the proof, lowest sibling first
+	 */
+	public ImmutableList<HashCode> inclusionProof(List<HashCode> peakTxnIds, long firstStateVersion, long stateVersion) {
+		var height = Integer.numberOfTrailingZeros(peakTxnIds.size());
+		if (peakTxnIds.size() != 1 << height) {
+			throw new IllegalArgumentException("Not the transactions of a peak: " + peakTxnIds.size());
+		}
+
+		var index = (int) (stateVersion - firstStateVersion);
+		var levels = subtreeLevels(peakTxnIds, height);
+		var proof = ImmutableList.<HashCode>builderWithExpectedSize(height);
+		for (var level = 0; level < height; level++) {
+			proof.add(levels.get(level).get((index >> level) ^ 1));
+		}
+		return proof.build();
+	}
+
+	/**
+	 * Verifies that the transaction with the specified id is included in the specified state.
+	 *
+	 * @param state the state which includes the transaction
+	 * @param stateVersion the state version of the transaction
+	 * @param txnId the id of the transaction
+	 * @param proof the proof returned by {@link #inclusionProof(List, long, long)}
+	 * @return {@code true} if the transaction is included, {@code false} otherwise
+	 */
+	public boolean verifyInclusion(AccumulatorState state, long stateVersion, HashCode txnId, List<HashCode> proof) {
+		var leafCount = state.getStateVersion() - state.getRangeStart();
+		if (state.getPeaks().isEmpty() || stateVersion <= state.getRangeStart() || stateVersion > state.getStateVersion()
+			|| state.getPeaks().size() != 1 + Long.bitCount(leafCount)
+			|| !toState(state.getStateVersion(), state.getRangeStart(), state.getPeaks()).equals(state)) {
+			return false;
+		}
+
+		var range = peakRange(state, stateVersion);
+		var height = Long.numberOfTrailingZeros(range.getSecond() - range.getFirst() + 1);
+		if (proof.size() != height) {
+			return false;
+		}
+
+		var index = stateVersion - range.getFirst();
+		var node = txnId;
+		for (var level = 0; level < height; level++) {
+			node = ((index >> level) & 1) == 0 ? node(node, proof.get(level)) : node(proof.get(level), node);
+		}
+
+		// Peaks are ordered highest first after the boundary node, so the peak is preceded
+		// by the boundary node and one peak per higher set bit
+		var peakIndex = Long.bitCount(leafCount >>> height);
+		return state.getPeaks().get(peakIndex).equals(node);
+	}
+
+	private boolean isMerkleEpoch(long epoch) {
+		return forks.map(f -> f.get(epoch).usesMerkleAccumulator()).orElse(false);
+	}
+
+	private void append(List<HashCode> peaks, long leafCount, HashCode subtree, int height) {
+		// The range has a peak for each set bit of the leaf count, lowest peak last
+		var node = subtree;
+		for (var h = height; h < Long.SIZE && (leafCount & (1L << h)) != 0; h++) {
+			node = node(peaks.remove(peaks.size() - 1), node);
+		}
+		peaks.add(node);
+	}
+
+	private List<List<HashCode>> subtreeLevels(List<HashCode> leaves, int height) {
+		var levels = new ArrayList<List<HashCode>>(height + 1);
+		levels.add(leaves);
+		for (var level = 0; level < height; level++) {
+			var below = levels.get(level);
+			var indices = IntStream.range(0, below.size() / 2);
+			levels.add(
+				(below.size() < PARALLEL_LEVEL_SIZE ? indices : indices.parallel())
+					.mapToObj(i -> node(below.get(2 * i), below.get(2 * i + 1)))
+					.collect(Collectors.toList())
+			);
+		}
+		return levels;
+	}
+
+	private HashCode boundary(AccumulatorState chainState) {
+		var bytes = new byte[1 + Long.BYTES + hasher.bytes()];
+		bytes[0] = BOUNDARY_PREFIX;
+		Longs.copyTo(chainState.getStateVersion(), bytes, 1);
+		System.arraycopy(chainState.getAccumulatorHash().asBytes(), 0, bytes, 1 + Long.BYTES, hasher.bytes());
+		return hasher.hashBytes(bytes);
+	}
+
+	private AccumulatorState toState(long stateVersion, long rangeStart, List<HashCode> peaks) {
+		var bytes = new byte[1 + peaks.size() * hasher.bytes()];
+		bytes[0] = PEAKS_PREFIX;
+		for (int i = 0; i < peaks.size(); i++) {
+			System.arraycopy(peaks.get(i).asBytes(), 0, bytes, 1 + i * hasher.bytes(), hasher.bytes());
+		}
+		return new AccumulatorState(stateVersion, hasher.hashBytes(bytes), rangeStart, ImmutableList.copyOf(peaks));
+	}
+
+	private HashCode node(HashCode left, HashCode right) {
+		var bytes = new byte[1 + 2 * hasher.bytes()];
+		bytes[0] = NODE_PREFIX;
+		System.arraycopy(left.asBytes(), 0, bytes, 1, hasher.bytes());
+		System.arraycopy(right.asBytes(), 0, bytes, 1 + hasher.bytes(), hasher.bytes());
+		return hasher.hashBytes(bytes);
+	}
+}
@@ -19,6 +19,7 @@ package com.radixdlt.ledger;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
 import com.google.inject.Inject;
 import com.radixdlt.atom.Txn;
 import com.radixdlt.consensus.LedgerHeader;
@@ -39,12 +40,15 @@ import com.radixdlt.environment.RemoteEventProcessor;
 import com.radixdlt.mempool.MempoolAdd;
 import com.radixdlt.utils.TimeSupplier;
 import com.radixdlt.store.LastProof;
+
+import javax.annotation.Nullable;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Synchronizes execution
@@ -91,7 +95,26 @@ public final class StateComputerLedger implements Ledger, NextTxnsGenerator {
 		void addToMempool(MempoolAdd mempoolAdd, BFTNode origin);
 		List<Txn> getNextTxnsFromMempool(List<PreparedTxn> prepared);
 		StateComputerResult prepare(List<PreparedTxn> previous, VerifiedVertex vertex, long timestamp);
-		void commit(VerifiedTxnsAndProof verifiedTxnsAndProof, VerifiedVertexStoreState vertexStoreState);
+
+		/**
+		 * Releases anything kept for prepared vertices other than the given ones.
+		 *
+		 * @param vertexIds ids of the prepared vertices which may still be built upon
+		 */
+		void retainPrepared(Set<HashCode> vertexIds);
+
+		/**
+		 * Commits transactions to the state.
+		 *
+		 * @param verifiedTxnsAndProof the transactions to commit along with their proof
+		 * @param preparedTxns the prepared versions of the transactions, in the same order, if available
+		 * @param vertexStoreState the vertex store state at commit, null if committed through sync
+		 */
+		void commit(
+			VerifiedTxnsAndProof verifiedTxnsAndProof,
+			@Nullable List<PreparedTxn> preparedTxns,
+			VerifiedVertexStoreState vertexStoreState
+		);
 	}
 
 	private final Comparator<LedgerProof> headerComparator;
@@ -123,19 +146,17 @@ public final class StateComputerLedger implements Ledger, NextTxnsGenerator {
 		this.currentLedgerHeader = initialLedgerState;
 	}
 
+	// Mempool admission is not done under the ledger lock so that it does not
+	// hold up consensus, the state computer is responsible for its own consistency
 	public RemoteEventProcessor<MempoolAdd> mempoolAddRemoteEventProcessor() {
 		return (node, mempoolAdd) -> {
-			synchronized (lock) {
-				stateComputer.addToMempool(mempoolAdd, node);
-			}
+			stateComputer.addToMempool(mempoolAdd, node);
 		};
 	}
 
 	public EventProcessor<MempoolAdd> mempoolAddEventProcessor() {
 		return mempoolAdd -> {
-			synchronized (lock) {
-				stateComputer.addToMempool(mempoolAdd, null);
-			}
+			stateComputer.addToMempool(mempoolAdd, null);
 		};
 	}
 
@@ -202,7 +223,7 @@ public final class StateComputerLedger implements Ledger, NextTxnsGenerator {
 
 			AccumulatorState accumulatorState = parentHeader.getAccumulatorState();
 			for (PreparedTxn txn : result.getSuccessfulCommands()) {
-				accumulatorState = this.accumulator.accumulate(accumulatorState, txn.txn().getId().asHashCode());
+				accumulatorState = this.accumulator.accumulate(accumulatorState, txn.txn().getId().asHashCode(), parentHeader.getEpoch());
 			}
 
 			final LedgerHeader ledgerHeader = LedgerHeader.create(
@@ -221,25 +242,38 @@ public final class StateComputerLedger implements Ledger, NextTxnsGenerator {
 		}
 	}
 
+	@Override
+	public void retainPrepared(Set<HashCode> vertexIds) {
+		synchronized (lock) {
+			stateComputer.retainPrepared(vertexIds);
+		}
+	}
+
 	public EventProcessor<BFTCommittedUpdate> bftCommittedUpdateEventProcessor() {
 		return committedUpdate -> {
-			final ImmutableList<Txn> txns = committedUpdate.getCommitted().stream()
+			final ImmutableList<PreparedTxn> preparedTxns = committedUpdate.getCommitted().stream()
 				.flatMap(PreparedVertex::successfulCommands)
+				.collect(ImmutableList.toImmutableList());
+			final ImmutableList<Txn> txns = preparedTxns.stream()
 				.map(PreparedTxn::txn)
 				.collect(ImmutableList.toImmutableList());
 			var proof = committedUpdate.getVertexStoreState().getRootHeader();
 			var verifiedTxnsAndProof = VerifiedTxnsAndProof.create(txns, proof);
 
 			// TODO: Make these two atomic (RPNV1-827)
-			this.commit(verifiedTxnsAndProof, committedUpdate.getVertexStoreState());
+			this.commit(verifiedTxnsAndProof, preparedTxns, committedUpdate.getVertexStoreState());
 		};
 	}
 
 	public EventProcessor<VerifiedTxnsAndProof> syncEventProcessor() {
-		return p -> this.commit(p, null);
+		return p -> this.commit(p, null, null);
 	}
 
-	private void commit(VerifiedTxnsAndProof verifiedTxnsAndProof, VerifiedVertexStoreState vertexStoreState) {
+	private void commit(
+		VerifiedTxnsAndProof verifiedTxnsAndProof,
+		@Nullable List<PreparedTxn> preparedTxns,
+		VerifiedVertexStoreState vertexStoreState
+	) {
 		synchronized (lock) {
 			final LedgerProof nextHeader = verifiedTxnsAndProof.getProof();
 			if (headerComparator.compare(nextHeader, this.currentLedgerHeader) <= 0) {
@@ -265,9 +299,13 @@ public final class StateComputerLedger implements Ledger, NextTxnsGenerator {
 			}
 
 			var txnsAndProof = VerifiedTxnsAndProof.create(txns, verifiedTxnsAndProof.getProof());
+			// Prepared txns line up with the verified txns so the extension is always a suffix
+			var preparedExtension = preparedTxns == null
+				? null
+				: preparedTxns.subList(preparedTxns.size() - txns.size(), preparedTxns.size());
 
 			// persist
-			this.stateComputer.commit(txnsAndProof, vertexStoreState);
+			this.stateComputer.commit(txnsAndProof, preparedExtension, vertexStoreState);
 
 			// TODO: move all of the following to post-persist event handling
 			this.currentLedgerHeader = nextHeader;
@@ -17,7 +17,9 @@
 package com.radixdlt.mempool;
 
 import com.radixdlt.atom.Txn;
+import com.radixdlt.identifiers.AID;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -47,6 +49,22 @@ public interface Mempool<T> {
 	 */
 	List<Txn> getTxns(int count, List<T> seen);
 
+	/**
+	 * Checks whether the transaction with the specified id is in the local mempool.
+	 *
+	 * @param txnId the id of the transaction
+	 * @return {@code true} if the transaction is in the mempool
+	 */
+	boolean contains(AID txnId);
+
+	/**
+	 * Retrieve the transactions with the specified ids which are in the local mempool.
+	 *
+	 * @param txnIds the ids of the transactions
+	 * @return the transactions which were found, ids not in the mempool are skipped
+	 */
+	List<Txn> getTxns(Collection<AID> txnIds);
+
 	List<Txn> scanUpdateAndGet(Predicate<MempoolMetadata> predicate, Consumer<MempoolMetadata> operator);
 
 	List<Txn> committed(List<T> committed);
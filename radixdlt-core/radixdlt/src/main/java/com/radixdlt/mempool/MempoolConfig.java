@@ -27,6 +27,8 @@ public final class MempoolConfig {
 		throw new IllegalStateException("Cannot instantiate.");
 	}
 
+	public static final long DEFAULT_MAX_AGE_MS = 600_000L;
+
 	public static AbstractModule asModule(int maxSize, long throttleMs) {
 		return asModule(maxSize, throttleMs, 60000, 60000, 100);
 	}
@@ -37,15 +39,40 @@ public final class MempoolConfig {
 		long relayInitialDelay,
 		long relayRepeatDelay,
 		int relayMaxPeers
+	) {
+		return asModule(maxSize, throttleMs, relayInitialDelay, relayRepeatDelay, relayMaxPeers, DEFAULT_MAX_AGE_MS);
+	}
+
+	public static AbstractModule asModule(
+		int maxSize,
+		long throttleMs,
+		long relayInitialDelay,
+		long relayRepeatDelay,
+		int relayMaxPeers,
+		long maxAgeMs
+	) {
+		return asModule(maxSize, throttleMs, relayInitialDelay, relayRepeatDelay, relayMaxPeers, maxAgeMs, false);
+	}
+
+	public static AbstractModule asModule(
+		int maxSize,
+		long throttleMs,
+		long relayInitialDelay,
+		long relayRepeatDelay,
+		int relayMaxPeers,
+		long maxAgeMs,
+		boolean relayByAnnouncement
 	) {
 		return new AbstractModule() {
 			@Override
 			protected void configure() {
 				bindConstant().annotatedWith(MempoolMaxSize.class).to(maxSize);
+				bindConstant().annotatedWith(MempoolMaxAge.class).to(maxAgeMs);
 				bindConstant().annotatedWith(MempoolThrottleMs.class).to(throttleMs);
 				bindConstant().annotatedWith(MempoolRelayInitialDelay.class).to(relayInitialDelay);
 				bindConstant().annotatedWith(MempoolRelayRepeatDelay.class).to(relayRepeatDelay);
 				bindConstant().annotatedWith(MempoolRelayMaxPeers.class).to(relayMaxPeers);
+				bindConstant().annotatedWith(MempoolRelayByAnnouncement.class).to(relayByAnnouncement);
 			}
 		};
 	}
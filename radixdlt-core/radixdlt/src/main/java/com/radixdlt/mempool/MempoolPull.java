@@ -0,0 +1,63 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.identifiers.AID;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Request for transactions from the mempool of a peer, by id
+ */
+public final class MempoolPull {
+	private final ImmutableList<AID> txnIds;
+
+	private MempoolPull(ImmutableList<AID> txnIds) {
+		this.txnIds = txnIds;
+	}
+
+	public static MempoolPull create(Collection<AID> txnIds) {
+		return new MempoolPull(ImmutableList.copyOf(txnIds));
+	}
+
+	public ImmutableList<AID> getTxnIds() {
+		return txnIds;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(txnIds);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof MempoolPull)) {
+			return false;
+		}
+
+		MempoolPull other = (MempoolPull) o;
+		return Objects.equals(this.txnIds, other.txnIds);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{txnIds=%s}", this.getClass().getSimpleName(), this.txnIds);
+	}
+}
@@ -17,7 +17,7 @@
 
 package com.radixdlt.mempool;
 
-import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.inject.Singleton;
 import com.radixdlt.atom.Txn;
 import com.radixdlt.consensus.bft.BFTNode;
@@ -25,58 +25,94 @@ import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.counters.SystemCounters.CounterType;
 import com.radixdlt.environment.EventProcessor;
 import com.radixdlt.environment.RemoteEventDispatcher;
+import com.radixdlt.environment.RemoteEventProcessor;
+import com.radixdlt.identifiers.AID;
 import com.radixdlt.network.p2p.PeersView;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Relays commands from the local mempool to node neighbors.
+ * <p>
+ * By default commands are pushed to peers. With relay by announcement enabled, only
+ * their ids are announced and a peer pulls the commands it does not have yet from the
+ * first peer announcing them, so that each command crosses a connection about once.
+ * Announcements are answered whether or not relay by announcement is enabled locally.
+ * The ids known to each peer, either because they were relayed to or by the peer, are
+ * remembered so that they are not relayed to the peer again, except by the periodic
+ * relay of commands which stay in the mempool.
+ * <p>
+ * All state is only accessed from the mempool runner.
  */
 @Singleton
 public final class MempoolRelayer {
+	// Number of ids in a single announcement or pull
+	static final int MAX_BATCH_SIZE = 256;
+	// Number of ids remembered as known to a single peer
+	static final int MAX_KNOWN_PER_PEER = 16_384;
+	// After this, a command which was pulled but not received is pulled again from the next peer announcing it
+	static final long PULL_TIMEOUT_MS = 5_000L;
+
 	private final PeersView peersView;
-	private final RemoteEventDispatcher<MempoolAdd> remoteEventDispatcher;
+	private final RemoteEventDispatcher<MempoolAnnounce> announceDispatcher;
+	private final RemoteEventDispatcher<MempoolPull> pullDispatcher;
+	private final RemoteEventDispatcher<MempoolAdd> addDispatcher;
 	private final SystemCounters counters;
 	private final Mempool<?> mempool;
 	private final long initialDelay;
 	private final long repeatDelay;
 	private final int maxPeers;
+	private final boolean relayByAnnouncement;
+	private final Map<BFTNode, Set<AID>> knownByPeer = new HashMap<>();
+	private final Map<AID, Long> pulled = new HashMap<>();
 
 	@Inject
 	public MempoolRelayer(
 		Mempool<?> mempool,
-		RemoteEventDispatcher<MempoolAdd> remoteEventDispatcher,
+		RemoteEventDispatcher<MempoolAnnounce> announceDispatcher,
+		RemoteEventDispatcher<MempoolPull> pullDispatcher,
+		RemoteEventDispatcher<MempoolAdd> addDispatcher,
 		PeersView peersView,
 		@MempoolRelayInitialDelay long initialDelay,
 		@MempoolRelayRepeatDelay long repeatDelay,
 		@MempoolRelayMaxPeers int maxPeers,
+		@MempoolRelayByAnnouncement boolean relayByAnnouncement,
 		SystemCounters counters
 	) {
 		this.mempool = mempool;
-		this.remoteEventDispatcher = Objects.requireNonNull(remoteEventDispatcher);
+		this.announceDispatcher = Objects.requireNonNull(announceDispatcher);
+		this.pullDispatcher = Objects.requireNonNull(pullDispatcher);
+		this.addDispatcher = Objects.requireNonNull(addDispatcher);
 		this.peersView = Objects.requireNonNull(peersView);
 		this.initialDelay = initialDelay;
 		this.repeatDelay = repeatDelay;
 		this.maxPeers = maxPeers;
+		this.relayByAnnouncement = relayByAnnouncement;
 		this.counters = Objects.requireNonNull(counters);
 	}
 
 	public EventProcessor<MempoolAddSuccess> mempoolAddSuccessEventProcessor() {
 		return mempoolAddSuccess -> {
-			final var ignorePeers = mempoolAddSuccess.getOrigin()
-				.map(ImmutableList::of)
-				.orElse(ImmutableList.of());
-			relayCommands(ImmutableList.of(mempoolAddSuccess.getTxn()), ignorePeers);
+			final var txnId = mempoolAddSuccess.getTxn().getId();
+			this.pulled.remove(txnId);
+			mempoolAddSuccess.getOrigin().ifPresent(origin -> knownBy(origin).add(txnId));
+			relay(List.of(mempoolAddSuccess.getTxn()), false);
 		};
 	}
 
 	public EventProcessor<MempoolRelayTrigger> mempoolRelayTriggerEventProcessor() {
 		return ev -> {
 			final var now = System.currentTimeMillis();
+			prune(now);
 			final var maxAddTime = now - initialDelay;
 			final var txns = mempool.scanUpdateAndGet(
 				m -> m.getInserted() <= maxAddTime
@@ -85,23 +121,118 @@ public final class MempoolRelayer {
 				m -> m.setLastRelayed(now)
 			);
 			if (!txns.isEmpty()) {
-				relayCommands(txns, ImmutableList.of());
+				// Peers may have dropped commands they were told about, so relay again regardless
+				relay(txns, true);
+			}
+		};
+	}
+
+	public RemoteEventProcessor<MempoolAnnounce> mempoolAnnounceRemoteEventProcessor() {
+		return (peer, announce) -> {
+			final var now = System.currentTimeMillis();
+			final var known = knownBy(peer);
+			final var missing = new ArrayList<AID>();
+			for (var txnId : announce.getTxnIds()) {
+				known.add(txnId);
+				if (missing.size() < MAX_BATCH_SIZE && !mempool.contains(txnId) && !isPulled(txnId, now)) {
+					missing.add(txnId);
+				}
+			}
+			if (missing.isEmpty()) {
+				return;
+			}
+
+			missing.forEach(txnId -> this.pulled.put(txnId, now));
+			counters.add(CounterType.MEMPOOL_RELAYER_REQUESTED_COUNT, missing.size());
+			counters.add(CounterType.MEMPOOL_RELAYER_SENT_BYTES, (long) missing.size() * AID.BYTES);
+			this.pullDispatcher.dispatch(peer, MempoolPull.create(missing));
+		};
+	}
+
+	public RemoteEventProcessor<MempoolPull> mempoolPullRemoteEventProcessor() {
+		return (peer, pull) -> {
+			final var txnIds = pull.getTxnIds();
+			final var txns = mempool.getTxns(txnIds.subList(0, Math.min(MAX_BATCH_SIZE, txnIds.size())));
+			if (txns.isEmpty()) {
+				return;
 			}
+
+			final var known = knownBy(peer);
+			txns.forEach(txn -> known.add(txn.getId()));
+			counters.add(CounterType.MEMPOOL_RELAYER_SERVED_COUNT, txns.size());
+			counters.add(CounterType.MEMPOOL_RELAYER_SENT_BYTES, txns.stream().mapToLong(txn -> txn.getPayload().length).sum());
+			this.addDispatcher.dispatch(peer, MempoolAdd.create(txns));
 		};
 	}
 
-	private void relayCommands(List<Txn> txns, ImmutableList<BFTNode> ignorePeers) {
-		final var mempoolAddMsg = MempoolAdd.create(txns);
+	private void relay(List<Txn> txns, boolean relayAgain) {
 		final var peers = this.peersView.peers()
 			.map(PeersView.PeerInfo::bftNode)
 			.collect(Collectors.toList());
-		peers.removeAll(ignorePeers);
 		Collections.shuffle(peers);
-		peers.stream()
-			.limit(maxPeers)
-			.forEach(peer -> {
-				counters.add(CounterType.MEMPOOL_RELAYER_SENT_COUNT, txns.size());
-				this.remoteEventDispatcher.dispatch(peer, mempoolAddMsg);
-			});
+
+		// Peers which are to be sent the same commands share a single message
+		final var relays = new HashMap<List<Txn>, List<BFTNode>>();
+		var receivers = 0;
+		for (var peer : peers) {
+			if (receivers >= maxPeers) {
+				break;
+			}
+			final var known = knownBy(peer);
+			final var toRelay = relayAgain
+				? txns
+				: txns.stream().filter(txn -> !known.contains(txn.getId())).collect(Collectors.toList());
+			if (!toRelay.isEmpty()) {
+				toRelay.forEach(txn -> known.add(txn.getId()));
+				relays.computeIfAbsent(toRelay, t -> new ArrayList<>()).add(peer);
+				receivers++;
+			}
+		}
+
+		relays.forEach((toRelay, relayReceivers) -> {
+			if (relayByAnnouncement) {
+				announce(toRelay, relayReceivers);
+			} else {
+				push(toRelay, relayReceivers);
+			}
+		});
+	}
+
+	private void announce(List<Txn> txns, List<BFTNode> receivers) {
+		final var txnIds = txns.stream().map(Txn::getId).collect(Collectors.toList());
+		for (var batch : Lists.partition(txnIds, MAX_BATCH_SIZE)) {
+			counters.add(CounterType.MEMPOOL_RELAYER_SENT_COUNT, (long) batch.size() * receivers.size());
+			counters.add(CounterType.MEMPOOL_RELAYER_SENT_BYTES, (long) batch.size() * AID.BYTES * receivers.size());
+			this.announceDispatcher.dispatch(receivers, MempoolAnnounce.create(batch));
+		}
+	}
+
+	private void push(List<Txn> txns, List<BFTNode> receivers) {
+		final var payloadBytes = txns.stream().mapToLong(txn -> txn.getPayload().length).sum();
+		counters.add(CounterType.MEMPOOL_RELAYER_SENT_COUNT, (long) txns.size() * receivers.size());
+		counters.add(CounterType.MEMPOOL_RELAYER_SENT_BYTES, payloadBytes * receivers.size());
+		this.addDispatcher.dispatch(receivers, MempoolAdd.create(txns));
+	}
+
+	private boolean isPulled(AID txnId, long now) {
+		final var requested = this.pulled.get(txnId);
+		return requested != null && now < requested + PULL_TIMEOUT_MS;
+	}
+
+	private void prune(long now) {
+		final var peers = this.peersView.peers()
+			.map(PeersView.PeerInfo::bftNode)
+			.collect(Collectors.toSet());
+		this.knownByPeer.keySet().retainAll(peers);
+		this.pulled.values().removeIf(requested -> now >= requested + PULL_TIMEOUT_MS);
+	}
+
+	private Set<AID> knownBy(BFTNode peer) {
+		return this.knownByPeer.computeIfAbsent(peer, p -> Collections.newSetFromMap(new LinkedHashMap<AID, Boolean>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<AID, Boolean> eldest) {
+				return size() > MAX_KNOWN_PER_PEER;
+			}
+		}));
 	}
 }
@@ -26,6 +26,7 @@ import com.google.inject.multibindings.ProvidesIntoSet;
 import com.radixdlt.environment.EventDispatcher;
 import com.radixdlt.environment.LocalEvents;
 import com.radixdlt.environment.EventProcessorOnRunner;
+import com.radixdlt.environment.RemoteEventProcessorOnRunner;
 import com.radixdlt.environment.Runners;
 import com.radixdlt.environment.ScheduledEventProducerOnRunner;
 
@@ -60,6 +61,24 @@ public final class MempoolRelayerModule extends AbstractModule {
 		);
 	}
 
+	@ProvidesIntoSet
+	private RemoteEventProcessorOnRunner<?> mempoolAnnounceRemoteEventProcessor(MempoolRelayer mempoolRelayer) {
+		return new RemoteEventProcessorOnRunner<>(
+			Runners.MEMPOOL,
+			MempoolAnnounce.class,
+			mempoolRelayer.mempoolAnnounceRemoteEventProcessor()
+		);
+	}
+
+	@ProvidesIntoSet
+	private RemoteEventProcessorOnRunner<?> mempoolPullRemoteEventProcessor(MempoolRelayer mempoolRelayer) {
+		return new RemoteEventProcessorOnRunner<>(
+			Runners.MEMPOOL,
+			MempoolPull.class,
+			mempoolRelayer.mempoolPullRemoteEventProcessor()
+		);
+	}
+
 	@ProvidesIntoSet
 	public ScheduledEventProducerOnRunner<?> mempoolRelayTriggerEventProducer(
 		EventDispatcher<MempoolRelayTrigger> mempoolRelayTriggerEventDispatcher
@@ -18,7 +18,9 @@
 package com.radixdlt.mempool;
 
 import com.radixdlt.atom.Txn;
+import com.radixdlt.identifiers.AID;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -53,6 +55,16 @@ public class Mempools {
 				return List.of();
 			}
 
+			@Override
+			public boolean contains(AID txnId) {
+				return false;
+			}
+
+			@Override
+			public List<Txn> getTxns(Collection<AID> txnIds) {
+				return List.of();
+			}
+
 			@Override
 			public List<Txn> scanUpdateAndGet(Predicate<MempoolMetadata> predicate, Consumer<MempoolMetadata> operator) {
 				return List.of();
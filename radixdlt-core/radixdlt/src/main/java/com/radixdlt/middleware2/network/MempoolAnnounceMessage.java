@@ -0,0 +1,73 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2.network;
+
+import com.radixdlt.identifiers.AID;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.radix.network.messaging.Message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.radixdlt.serialization.DsonOutput;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.SerializerId2;
+
+@SerializerId2("message.mempool.announce")
+public final class MempoolAnnounceMessage extends Message {
+	@JsonProperty("txn_ids")
+	@DsonOutput(Output.ALL)
+	private final List<AID> txnIds;
+
+	MempoolAnnounceMessage() {
+		// Serializer only
+		this.txnIds = null;
+	}
+
+	public MempoolAnnounceMessage(List<AID> txnIds) {
+		this.txnIds = txnIds;
+	}
+
+	public List<AID> getTxnIds() {
+		return txnIds == null ? List.of() : txnIds;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{txnIds=%s}", getClass().getSimpleName(), getTxnIds());
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		MempoolAnnounceMessage that = (MempoolAnnounceMessage) o;
+		return Objects.equals(getTxnIds(), that.getTxnIds())
+				&& Objects.equals(getTimestamp(), that.getTimestamp());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(getTxnIds(), getTimestamp());
+	}
+}
@@ -17,8 +17,6 @@
 
 package com.radixdlt.middleware2.network;
 
-import org.radix.network.messaging.Message;
-
 import com.google.inject.Inject;
 import com.radixdlt.consensus.Proposal;
 import com.radixdlt.consensus.Vote;
@@ -27,7 +25,6 @@ import com.radixdlt.environment.RemoteEventDispatcher;
 import com.radixdlt.environment.rx.RemoteEvent;
 import com.radixdlt.network.messaging.MessageCentral;
 import com.radixdlt.network.messaging.MessageFromPeer;
-import com.radixdlt.network.p2p.NodeId;
 
 import java.util.Objects;
 
@@ -75,24 +72,10 @@ public final class MessageCentralBFTNetwork {
 	}
 
 	public RemoteEventDispatcher<Proposal> proposalDispatcher() {
-		return this::sendProposal;
-	}
-
-	private void sendProposal(BFTNode receiver, Proposal proposal) {
-		ConsensusEventMessage message = new ConsensusEventMessage(proposal);
-		send(message, receiver);
+		return new MessageCentralRemoteDispatcher<>(this.messageCentral, ConsensusEventMessage::new);
 	}
 
 	public RemoteEventDispatcher<Vote> voteDispatcher() {
-		return this::sendVote;
-	}
-
-	private void sendVote(BFTNode receiver, Vote vote) {
-		ConsensusEventMessage message = new ConsensusEventMessage(vote);
-		send(message, receiver);
-	}
-
-	private void send(Message message, BFTNode recipient) {
-		this.messageCentral.send(NodeId.fromPublicKey(recipient.getKey()), message);
+		return new MessageCentralRemoteDispatcher<>(this.messageCentral, ConsensusEventMessage::new);
 	}
 }
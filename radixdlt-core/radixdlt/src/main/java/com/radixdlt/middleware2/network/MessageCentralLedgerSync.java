@@ -17,6 +17,7 @@
 
 package com.radixdlt.middleware2.network;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.environment.RemoteEventDispatcher;
 import com.radixdlt.environment.rx.RemoteEvent;
@@ -70,7 +71,7 @@ public final class MessageCentralLedgerSync {
 			.map(m -> {
 				final var node = BFTNode.create(m.getSource().getPublicKey());
 				final var msg = m.getMessage();
-				return RemoteEvent.create(node, SyncRequest.create(msg.getCurrentHeader()));
+				return RemoteEvent.create(node, SyncRequest.create(msg.getCurrentHeader(), msg.getLookahead(), msg.getCheckpoint()));
 			});
 	}
 
@@ -80,7 +81,10 @@ public final class MessageCentralLedgerSync {
 			.map(m -> {
 				final var node = BFTNode.create(m.getSource().getPublicKey());
 				final var msg = m.getMessage();
-				return RemoteEvent.create(node, SyncResponse.create(msg.getCommands()));
+				return RemoteEvent.create(
+					node,
+					SyncResponse.create(msg.getCommands(), ImmutableList.copyOf(msg.getUpcomingHeaders()), msg.getCheckpoint())
+				);
 			});
 	}
 
@@ -99,7 +103,11 @@ public final class MessageCentralLedgerSync {
 	}
 
 	private void sendSyncRequest(BFTNode node, SyncRequest syncRequest) {
-		final var msg = new SyncRequestMessage(syncRequest.getHeader());
+		final var msg = new SyncRequestMessage(
+			syncRequest.getHeader(),
+			syncRequest.getLookahead(),
+			syncRequest.getCheckpoint().orElse(null)
+		);
 		this.messageCentral.send(NodeId.fromPublicKey(node.getKey()), msg);
 	}
 
@@ -108,7 +116,11 @@ public final class MessageCentralLedgerSync {
 	}
 
 	private void sendSyncResponse(BFTNode node, SyncResponse syncResponse) {
-		final var msg = new SyncResponseMessage(syncResponse.getTxnsAndProof());
+		final var msg = new SyncResponseMessage(
+			syncResponse.getTxnsAndProof(),
+			syncResponse.getUpcomingHeaders(),
+			syncResponse.getCheckpoint().orElse(null)
+		);
 		this.messageCentral.send(NodeId.fromPublicKey(node.getKey()), msg);
 	}
 
@@ -131,11 +143,9 @@ public final class MessageCentralLedgerSync {
 	}
 
 	public RemoteEventDispatcher<LedgerStatusUpdate> ledgerStatusUpdateDispatcher() {
-		return this::sendLedgerStatusUpdate;
-	}
-
-	private void sendLedgerStatusUpdate(BFTNode node, LedgerStatusUpdate ledgerStatusUpdate) {
-		final var msg = new LedgerStatusUpdateMessage(ledgerStatusUpdate.getHeader());
-		this.messageCentral.send(NodeId.fromPublicKey(node.getKey()), msg);
+		return new MessageCentralRemoteDispatcher<>(
+			this.messageCentral,
+			ledgerStatusUpdate -> new LedgerStatusUpdateMessage(ledgerStatusUpdate.getHeader())
+		);
 	}
 }
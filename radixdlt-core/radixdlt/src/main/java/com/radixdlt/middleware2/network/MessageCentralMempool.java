@@ -17,14 +17,13 @@
 
 package com.radixdlt.middleware2.network;
 
-import org.radix.network.messaging.Message;
-
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.environment.RemoteEventDispatcher;
 import com.radixdlt.environment.rx.RemoteEvent;
 import com.radixdlt.mempool.MempoolAdd;
+import com.radixdlt.mempool.MempoolAnnounce;
+import com.radixdlt.mempool.MempoolPull;
 import com.radixdlt.network.messaging.MessageCentral;
-import com.radixdlt.network.p2p.NodeId;
 
 import java.util.Objects;
 
@@ -44,14 +43,15 @@ public final class MessageCentralMempool {
 	}
 
 	public RemoteEventDispatcher<MempoolAdd> mempoolAddRemoteEventDispatcher() {
-		return (receiver, msg) -> {
-			MempoolAddMessage message = new MempoolAddMessage(msg.getTxns());
-			this.send(message, receiver);
-		};
+		return new MessageCentralRemoteDispatcher<>(this.messageCentral, msg -> new MempoolAddMessage(msg.getTxns()));
+	}
+
+	public RemoteEventDispatcher<MempoolAnnounce> mempoolAnnounceRemoteEventDispatcher() {
+		return new MessageCentralRemoteDispatcher<>(this.messageCentral, msg -> new MempoolAnnounceMessage(msg.getTxnIds()));
 	}
 
-	private void send(Message message, BFTNode recipient) {
-		this.messageCentral.send(NodeId.fromPublicKey(recipient.getKey()), message);
+	public RemoteEventDispatcher<MempoolPull> mempoolPullRemoteEventDispatcher() {
+		return new MessageCentralRemoteDispatcher<>(this.messageCentral, msg -> new MempoolPullMessage(msg.getTxnIds()));
 	}
 
 	public Flowable<RemoteEvent<MempoolAdd>> mempoolComands() {
@@ -66,4 +66,30 @@ public final class MessageCentralMempool {
 			})
 			.toFlowable(BackpressureStrategy.BUFFER);
 	}
+
+	public Flowable<RemoteEvent<MempoolAnnounce>> mempoolAnnouncements() {
+		return messageCentral
+			.messagesOf(MempoolAnnounceMessage.class)
+			.map(msg -> {
+				final BFTNode node = BFTNode.create(msg.getSource().getPublicKey());
+				return RemoteEvent.create(
+					node,
+					MempoolAnnounce.create(msg.getMessage().getTxnIds())
+				);
+			})
+			.toFlowable(BackpressureStrategy.BUFFER);
+	}
+
+	public Flowable<RemoteEvent<MempoolPull>> mempoolPulls() {
+		return messageCentral
+			.messagesOf(MempoolPullMessage.class)
+			.map(msg -> {
+				final BFTNode node = BFTNode.create(msg.getSource().getPublicKey());
+				return RemoteEvent.create(
+					node,
+					MempoolPull.create(msg.getMessage().getTxnIds())
+				);
+			})
+			.toFlowable(BackpressureStrategy.BUFFER);
+	}
 }
@@ -0,0 +1,58 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2.network;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Streams;
+import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.environment.RemoteEventDispatcher;
+import com.radixdlt.network.messaging.MessageCentral;
+import com.radixdlt.network.p2p.NodeId;
+import org.radix.network.messaging.Message;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Sends events as messages through {@link MessageCentral}. An event dispatched
+ * to multiple nodes is converted to a single message, which is serialized once.
+ *
+ * @param <T> the event class
+ */
+final class MessageCentralRemoteDispatcher<T> implements RemoteEventDispatcher<T> {
+	private final MessageCentral messageCentral;
+	private final Function<T, Message> toMessage;
+
+	MessageCentralRemoteDispatcher(MessageCentral messageCentral, Function<T, Message> toMessage) {
+		this.messageCentral = Objects.requireNonNull(messageCentral);
+		this.toMessage = Objects.requireNonNull(toMessage);
+	}
+
+	@Override
+	public void dispatch(BFTNode receiver, T t) {
+		this.messageCentral.send(NodeId.fromPublicKey(receiver.getKey()), toMessage.apply(t));
+	}
+
+	@Override
+	public void dispatch(Iterable<BFTNode> receivers, T t) {
+		final var nodeIds = Streams.stream(receivers)
+			.map(receiver -> NodeId.fromPublicKey(receiver.getKey()))
+			.collect(ImmutableList.toImmutableList());
+		this.messageCentral.broadcast(nodeIds, toMessage.apply(t));
+	}
+}
@@ -18,6 +18,7 @@
 package com.radixdlt.middleware2.network;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.DtoLedgerProof;
 import com.radixdlt.serialization.DsonOutput;
 import com.radixdlt.serialization.DsonOutput.Output;
@@ -25,6 +26,7 @@ import com.radixdlt.serialization.SerializerId2;
 import org.radix.network.messaging.Message;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Message to request for sync atoms
@@ -36,22 +38,53 @@ public final class SyncRequestMessage extends Message {
 	@DsonOutput(Output.ALL)
 	private final DtoLedgerProof currentHeader;
 
+	@JsonProperty("lookahead")
+	@DsonOutput(Output.ALL)
+	private final int lookahead;
+
+	@JsonProperty("checkpoint")
+	@DsonOutput(Output.ALL)
+	private final AccumulatorState checkpoint;
+
 	SyncRequestMessage() {
 		// Serializer only
 		this.currentHeader = null;
+		this.lookahead = 0;
+		this.checkpoint = null;
 	}
 
 	public SyncRequestMessage(DtoLedgerProof currentHeader) {
+		this(currentHeader, 0);
+	}
+
+	public SyncRequestMessage(DtoLedgerProof currentHeader, int lookahead) {
+		this(currentHeader, lookahead, null);
+	}
+
+	public SyncRequestMessage(DtoLedgerProof currentHeader, int lookahead, AccumulatorState checkpoint) {
 		this.currentHeader = currentHeader;
+		this.lookahead = lookahead;
+		this.checkpoint = checkpoint;
 	}
 
 	public DtoLedgerProof getCurrentHeader() {
 		return currentHeader;
 	}
 
+	public int getLookahead() {
+		return lookahead;
+	}
+
+	public Optional<AccumulatorState> getCheckpoint() {
+		// Not sent by older nodes
+		return Optional.ofNullable(checkpoint);
+	}
+
 	@Override
 	public String toString() {
-		return String.format("%s{current=%s}", getClass().getSimpleName(), currentHeader);
+		return String.format(
+			"%s{current=%s lookahead=%s checkpoint=%s}", getClass().getSimpleName(), currentHeader, lookahead, checkpoint
+		);
 	}
 
 	@Override
@@ -63,12 +96,14 @@ public final class SyncRequestMessage extends Message {
 			return false;
 		}
 		SyncRequestMessage that = (SyncRequestMessage) o;
-		return Objects.equals(currentHeader, that.currentHeader)
+		return lookahead == that.lookahead
+			&& Objects.equals(currentHeader, that.currentHeader)
+			&& Objects.equals(checkpoint, that.checkpoint)
 			&& Objects.equals(getTimestamp(), that.getTimestamp());
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(currentHeader, getTimestamp());
+		return Objects.hash(currentHeader, lookahead, checkpoint, getTimestamp());
 	}
 }
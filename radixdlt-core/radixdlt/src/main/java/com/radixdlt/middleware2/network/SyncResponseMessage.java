@@ -18,13 +18,17 @@
 package com.radixdlt.middleware2.network;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.ledger.DtoLedgerProof;
 import com.radixdlt.serialization.DsonOutput;
 import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.SerializerId2;
 import com.radixdlt.ledger.DtoTxnsAndProof;
 import org.radix.network.messaging.Message;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Message with sync atoms as a response to sync request
@@ -36,19 +40,48 @@ public final class SyncResponseMessage extends Message {
 	@DsonOutput(Output.ALL)
 	private final DtoTxnsAndProof commands;
 
+	@JsonProperty("upcoming")
+	@DsonOutput(Output.ALL)
+	private final List<DtoLedgerProof> upcomingHeaders;
+
+	@JsonProperty("checkpoint")
+	@DsonOutput(Output.ALL)
+	private final AccumulatorState checkpoint;
+
 	SyncResponseMessage() {
 		// Serializer only
 		this.commands = null;
+		this.upcomingHeaders = null;
+		this.checkpoint = null;
 	}
 
 	public SyncResponseMessage(DtoTxnsAndProof commands) {
+		this(commands, List.of());
+	}
+
+	public SyncResponseMessage(DtoTxnsAndProof commands, List<DtoLedgerProof> upcomingHeaders) {
+		this(commands, upcomingHeaders, null);
+	}
+
+	public SyncResponseMessage(DtoTxnsAndProof commands, List<DtoLedgerProof> upcomingHeaders, AccumulatorState checkpoint) {
 		this.commands = commands;
+		this.upcomingHeaders = upcomingHeaders;
+		this.checkpoint = checkpoint;
 	}
 
 	public DtoTxnsAndProof getCommands() {
 		return commands;
 	}
 
+	public List<DtoLedgerProof> getUpcomingHeaders() {
+		// Not sent by older nodes
+		return upcomingHeaders == null ? List.of() : upcomingHeaders;
+	}
+
+	public Optional<AccumulatorState> getCheckpoint() {
+		return Optional.ofNullable(checkpoint);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%s{commands=%s}", getClass().getSimpleName(), commands);
@@ -64,11 +97,13 @@ public final class SyncResponseMessage extends Message {
 		}
 		SyncResponseMessage that = (SyncResponseMessage) o;
 		return Objects.equals(commands, that.commands)
+				&& Objects.equals(getUpcomingHeaders(), that.getUpcomingHeaders())
+				&& Objects.equals(checkpoint, that.checkpoint)
 				&& Objects.equals(getTimestamp(), that.getTimestamp());
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(commands, getTimestamp());
+		return Objects.hash(commands, getUpcomingHeaders(), checkpoint, getTimestamp());
 	}
 }
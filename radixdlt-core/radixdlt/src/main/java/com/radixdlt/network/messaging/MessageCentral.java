@@ -18,6 +18,7 @@
 package com.radixdlt.network.messaging;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import com.radixdlt.network.p2p.NodeId;
 import io.reactivex.rxjava3.core.Observable;
@@ -38,6 +39,15 @@ public interface MessageCentral {
 	 */
 	void send(NodeId receiver, Message message);
 
+	/**
+	 * Sends a single message to multiple nodes.
+	 * The message is serialized once and the same bytes are sent to every node.
+	 *
+	 * @param receivers The nodes to send the message to
+	 * @param message The message to send
+	 */
+	void broadcast(Collection<NodeId> receivers, Message message);
+
 	/**
 	 * Returns a Flowable of inbound peer messages of specified type.
 	 * @param messageType the message type
@@ -17,9 +17,14 @@
 
 package com.radixdlt.network.messaging;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Provider;
 import com.radixdlt.network.p2p.NodeId;
 import com.radixdlt.network.p2p.PeerControl;
@@ -38,9 +43,21 @@ import com.radixdlt.counters.SystemCounters.CounterType;
 import com.radixdlt.utils.TimeSupplier;
 import com.radixdlt.serialization.Serialization;
 
+/**
+ * Messages are serialized on a single outbound processing thread, once for all of their receivers.
+ * Serialized messages are then written to the peers from a number of peer queues.
+ * Messages to the same peer always go through the same queue, so they are sent in order,
+ * while a peer which is slow to connect or to write to only holds up the peers sharing its queue.
+ * <p>
+ * Like the outbound queue, peer queues are ordered by {@link OutboundMessageEvent#comparator()},
+ * so higher priority messages such as pings overtake messages still waiting for their peer,
+ * while messages of the same priority are sent in the order they were sent or broadcast.
+ */
 final class MessageCentralImpl implements MessageCentral {
 	private static final Logger log = LogManager.getLogger();
 
+	static final int PEER_QUEUES = Math.max(2, Runtime.getRuntime().availableProcessors());
+
 	// Dependencies
 	private final SystemCounters counters;
 
@@ -59,6 +76,8 @@ final class MessageCentralImpl implements MessageCentral {
 	// Outbound message handling
 	private final SimpleBlockingQueue<OutboundMessageEvent> outboundQueue;
 	private final SimpleThreadPool<OutboundMessageEvent> outboundThreadPool;
+	private final List<SimpleBlockingQueue<PeerMessage>> peerQueues = new ArrayList<>();
+	private final List<SimpleThreadPool<PeerMessage>> peerThreadPools = new ArrayList<>();
 
 	@Inject
 	MessageCentralImpl(
@@ -105,6 +124,23 @@ final class MessageCentralImpl implements MessageCentral {
 		);
 		this.outboundThreadPool.start();
 
+		for (int i = 0; i < PEER_QUEUES; i++) {
+			final SimpleBlockingQueue<PeerMessage> peerQueue = new SimplePriorityBlockingQueue<>(
+				config.messagingOutboundQueueMax(16384),
+				Comparator.comparing(PeerMessage::event, OutboundMessageEvent.comparator())
+			);
+			final var peerThreadPool = new SimpleThreadPool<>(
+				"Outbound peer queue " + (i + 1),
+				1, // Ensure messages to a peer are sent in-order
+				peerQueue::take,
+				this::peerMessageProcessor,
+				log
+			);
+			peerThreadPool.start();
+			this.peerQueues.add(peerQueue);
+			this.peerThreadPools.add(peerThreadPool);
+		}
+
 		this.peerMessages = peerManager.messages()
 			.map(this::processInboundMessage)
 			.filter(Optional::isPresent)
@@ -147,18 +183,56 @@ final class MessageCentralImpl implements MessageCentral {
 	@Override
 	public void close() {
 		this.outboundThreadPool.stop();
+		this.peerThreadPools.forEach(SimpleThreadPool::stop);
 	}
 
 	@Override
 	public void send(NodeId receiver, Message message) {
-		final var event = new OutboundMessageEvent(receiver, message, System.nanoTime() - timeBase);
+		enqueue(new OutboundMessageEvent(receiver, message, System.nanoTime() - timeBase));
+	}
+
+	@Override
+	public void broadcast(Collection<NodeId> receivers, Message message) {
+		if (!receivers.isEmpty()) {
+			enqueue(new OutboundMessageEvent(ImmutableList.copyOf(receivers), message, System.nanoTime() - timeBase));
+		}
+	}
+
+	private void enqueue(OutboundMessageEvent event) {
 		if (!outboundQueue.offer(event) && outboundLogRateLimiter.tryAcquire()) {
-			log.error("Outbound message to {} dropped", receiver);
+			log.error("Outbound message to {} dropped", event.receivers());
 		}
 	}
 
 	private void outboundMessageProcessor(OutboundMessageEvent outbound) {
 		this.counters.set(CounterType.MESSAGES_OUTBOUND_PENDING, outboundQueue.size());
-		messageDispatcher.send(outbound);
+		final var message = outbound.message();
+		final var bytes = messageDispatcher.serialize(message);
+		for (final var receiver : outbound.receivers()) {
+			final var peerQueue = this.peerQueues.get(Math.floorMod(receiver.hashCode(), this.peerQueues.size()));
+			if (!peerQueue.offer(new PeerMessage(outbound, receiver, bytes)) && outboundLogRateLimiter.tryAcquire()) {
+				log.error("Outbound message to {} dropped", receiver);
+			}
+		}
+	}
+
+	private void peerMessageProcessor(PeerMessage peerMessage) {
+		messageDispatcher.send(peerMessage.receiver, peerMessage.event.message(), peerMessage.bytes);
+	}
+
+	private static final class PeerMessage {
+		private final OutboundMessageEvent event;
+		private final NodeId receiver;
+		private final byte[] bytes;
+
+		private PeerMessage(OutboundMessageEvent event, NodeId receiver, byte[] bytes) {
+			this.event = event;
+			this.receiver = receiver;
+			this.bytes = bytes;
+		}
+
+		private OutboundMessageEvent event() {
+			return event;
+		}
 	}
 }
@@ -68,10 +68,7 @@ class MessageDispatcher {
 		this.peerManager = Objects.requireNonNull(peerManager);
 	}
 
-	CompletableFuture<Result<Object>> send(final OutboundMessageEvent outboundMessage) {
-		final var message = outboundMessage.message();
-		final var receiver = outboundMessage.receiver();
-
+	CompletableFuture<Result<Object>> send(final NodeId receiver, final Message message, final byte[] bytes) {
 		if (timeSource.currentTime() - message.getTimestamp() > messageTtlMs) {
 			String msg = String.format("TTL for %s message to %s has expired", message.getClass().getSimpleName(), receiver);
 			log.warn(msg);
@@ -79,9 +76,7 @@ class MessageDispatcher {
 			return CompletableFuture.completedFuture(MESSAGE_EXPIRED.result());
 		}
 
-		final var bytes = serialize(message);
-
-		return peerManager.findOrCreateChannel(outboundMessage.receiver())
+		return peerManager.findOrCreateChannel(receiver)
 			.thenApply(channel -> send(channel, bytes))
 			.thenApply(this::updateStatistics)
 			.exceptionally(t -> completionException(t, receiver, message));
@@ -106,7 +101,11 @@ class MessageDispatcher {
 		return result;
 	}
 
-	private byte[] serialize(Message out) {
+	/**
+	 * Serializes and compresses the specified message, so that the same bytes
+	 * can be sent to any number of receivers.
+	 */
+	byte[] serialize(Message out) {
 		try {
 			byte[] uncompressed = serialization.toDson(out, Output.WIRE);
 			return Compress.compress(uncompressed);
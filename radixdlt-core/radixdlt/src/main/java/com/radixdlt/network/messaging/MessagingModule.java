@@ -26,13 +26,18 @@ import com.google.inject.Singleton;
 import com.google.inject.multibindings.ProvidesIntoSet;
 import com.radixdlt.consensus.Proposal;
 import com.radixdlt.consensus.Vote;
+import com.radixdlt.consensus.bft.BFTEventPreVerifier;
+import com.radixdlt.consensus.epoch.EpochViewUpdate;
 import com.radixdlt.consensus.sync.GetVerticesErrorResponse;
 import com.radixdlt.consensus.sync.GetVerticesRequest;
 import com.radixdlt.consensus.sync.GetVerticesResponse;
+import com.radixdlt.environment.EventProcessorOnDispatch;
 import com.radixdlt.environment.rx.RemoteEvent;
 import com.radixdlt.environment.rx.RxRemoteDispatcher;
 import com.radixdlt.environment.rx.RxRemoteEnvironment;
 import com.radixdlt.mempool.MempoolAdd;
+import com.radixdlt.mempool.MempoolAnnounce;
+import com.radixdlt.mempool.MempoolPull;
 import com.radixdlt.middleware2.network.GetVerticesRequestRateLimit;
 import com.radixdlt.middleware2.network.MessageCentralMempool;
 import com.radixdlt.middleware2.network.MessageCentralPeerDiscovery;
@@ -70,11 +75,26 @@ public final class MessagingModule extends AbstractModule {
 		bind(MessageCentralBFTNetwork.class).in(Scopes.SINGLETON);
 	}
 
+	@ProvidesIntoSet
+	private EventProcessorOnDispatch<?> preVerifierEpochViewUpdateProcessor(BFTEventPreVerifier preVerifier) {
+		return new EventProcessorOnDispatch<>(EpochViewUpdate.class, preVerifier.epochViewUpdateEventProcessor());
+	}
+
 	@ProvidesIntoSet
 	private RxRemoteDispatcher<?> mempoolAddDispatcher(MessageCentralMempool messageCentralMempool) {
 		return RxRemoteDispatcher.create(MempoolAdd.class, messageCentralMempool.mempoolAddRemoteEventDispatcher());
 	}
 
+	@ProvidesIntoSet
+	private RxRemoteDispatcher<?> mempoolAnnounceDispatcher(MessageCentralMempool messageCentralMempool) {
+		return RxRemoteDispatcher.create(MempoolAnnounce.class, messageCentralMempool.mempoolAnnounceRemoteEventDispatcher());
+	}
+
+	@ProvidesIntoSet
+	private RxRemoteDispatcher<?> mempoolPullDispatcher(MessageCentralMempool messageCentralMempool) {
+		return RxRemoteDispatcher.create(MempoolPull.class, messageCentralMempool.mempoolPullRemoteEventDispatcher());
+	}
+
 	@ProvidesIntoSet
 	private RxRemoteDispatcher<?> proposalDispatcher(MessageCentralBFTNetwork bftNetwork) {
 		return RxRemoteDispatcher.create(Proposal.class, bftNetwork.proposalDispatcher());
@@ -156,6 +176,7 @@ public final class MessagingModule extends AbstractModule {
 		MessageCentralMempool messageCentralMempool,
 		MessageCentralLedgerSync messageCentralLedgerSync,
 		MessageCentralBFTNetwork messageCentralBFT,
+		BFTEventPreVerifier preVerifier,
 		MessageCentralValidatorSync messageCentralBFTSync,
 		MessageCentralPeerLiveness messageCentralPeerLiveness,
 		MessageCentralPeerDiscovery messageCentralPeerDiscovery
@@ -164,9 +185,9 @@ public final class MessagingModule extends AbstractModule {
 			@Override
 			public <T> Flowable<RemoteEvent<T>> remoteEvents(Class<T> remoteEventClass) {
 				if (remoteEventClass == Vote.class) {
-					return messageCentralBFT.remoteVotes().map(m -> (RemoteEvent<T>) m);
+					return preVerifier.verified(messageCentralBFT.remoteVotes()).map(m -> (RemoteEvent<T>) m);
 				} else if (remoteEventClass == Proposal.class) {
-					return messageCentralBFT.remoteProposals().map(m -> (RemoteEvent<T>) m);
+					return preVerifier.verified(messageCentralBFT.remoteProposals()).map(m -> (RemoteEvent<T>) m);
 				} else if (remoteEventClass == GetVerticesRequest.class) {
 					return messageCentralBFTSync.requests().map(m -> (RemoteEvent<T>) m);
 				} else if (remoteEventClass == GetVerticesResponse.class) {
@@ -175,6 +196,10 @@ public final class MessagingModule extends AbstractModule {
 					return messageCentralBFTSync.errorResponses().map(m -> (RemoteEvent<T>) m);
 				} else if (remoteEventClass == MempoolAdd.class) {
 					return messageCentralMempool.mempoolComands().map(m -> (RemoteEvent<T>) m);
+				} else if (remoteEventClass == MempoolAnnounce.class) {
+					return messageCentralMempool.mempoolAnnouncements().map(m -> (RemoteEvent<T>) m);
+				} else if (remoteEventClass == MempoolPull.class) {
+					return messageCentralMempool.mempoolPulls().map(m -> (RemoteEvent<T>) m);
 				} else if (remoteEventClass == SyncRequest.class) {
 					return messageCentralLedgerSync.syncRequests().map(m -> (RemoteEvent<T>) m);
 				} else if (remoteEventClass == SyncResponse.class) {
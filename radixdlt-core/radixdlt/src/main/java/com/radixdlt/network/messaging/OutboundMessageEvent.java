@@ -26,10 +26,11 @@ import org.radix.network.messages.PeerPingMessage;
 import org.radix.network.messages.PeerPongMessage;
 import org.radix.network.messaging.Message;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 /**
- * Outbound message wrapper with priority, time and destination.
+ * Outbound message wrapper with priority, time and destinations.
  * <p>
  * Note that priority is calculated from a fixed table of priorities for
  * specific message types, and cannot be specified by the user.
@@ -51,13 +52,17 @@ public final class OutboundMessageEvent {
 
 	private final int priority;
 	private final long nanoTimeDiff;
-	private final NodeId receiver;
+	private final ImmutableList<NodeId> receivers;
 	private final Message message;
 
 	OutboundMessageEvent(NodeId receiver, Message message, long nanoTimeDiff) {
+		this(ImmutableList.of(receiver), message, nanoTimeDiff);
+	}
+
+	OutboundMessageEvent(ImmutableList<NodeId> receivers, Message message, long nanoTimeDiff) {
 		this.priority = MESSAGE_PRIORITIES.getOrDefault(message.getClass(), DEFAULT_PRIORITY);
 		this.nanoTimeDiff = nanoTimeDiff;
-		this.receiver = receiver;
+		this.receivers = receivers;
 		this.message = message;
 	}
 
@@ -81,12 +86,12 @@ public final class OutboundMessageEvent {
 	}
 
 	/**
-	 * Returns the destination of the message.
+	 * Returns the destinations of the message.
 	 *
-	 * @return the source or destination of the message.
+	 * @return the destinations of the message.
 	 */
-	public NodeId receiver() {
-		return receiver;
+	public ImmutableList<NodeId> receivers() {
+		return receivers;
 	}
 
 	/**
@@ -100,7 +105,7 @@ public final class OutboundMessageEvent {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.priority, this.nanoTimeDiff, this.receiver, this.message);
+		return Objects.hash(this.priority, this.nanoTimeDiff, this.receivers, this.message);
 	}
 
 	@Override
@@ -112,7 +117,7 @@ public final class OutboundMessageEvent {
 			OutboundMessageEvent that = (OutboundMessageEvent) obj;
 			return this.priority == that.priority
 				&& this.nanoTimeDiff == that.nanoTimeDiff
-				&& Objects.equals(this.receiver, that.receiver)
+				&& Objects.equals(this.receivers, that.receivers)
 				&& Objects.equals(this.message, that.message);
 		}
 		return false;
@@ -120,7 +125,7 @@ public final class OutboundMessageEvent {
 
 	@Override
 	public String toString() {
-		return String.format("%s[priority=%s, nanoTime=%s, receiver=%s, message=%s]",
-			getClass().getSimpleName(), priority, nanoTimeDiff, receiver, message);
+		return String.format("%s[priority=%s, nanoTime=%s, receivers=%s, message=%s]",
+			getClass().getSimpleName(), priority, nanoTimeDiff, receivers, message);
 	}
 }
\ No newline at end of file
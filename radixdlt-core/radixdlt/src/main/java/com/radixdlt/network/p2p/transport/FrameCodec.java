@@ -18,116 +18,136 @@
 package com.radixdlt.network.p2p.transport;
 
 import com.radixdlt.network.p2p.transport.handshake.Secrets;
-import org.bouncycastle.crypto.StreamCipher;
+import io.netty.buffer.ByteBuf;
 import org.bouncycastle.crypto.digests.KeccakDigest;
-import org.bouncycastle.crypto.engines.AESEngine;
-import org.bouncycastle.crypto.modes.SICBlockCipher;
-import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.crypto.params.ParametersWithIV;
 
-import java.io.ByteArrayInputStream;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.security.GeneralSecurityException;
 import java.util.Optional;
 
 /**
  * Low-level codec for encrypted communication.
+ * <p>
+ * Frames are encrypted with AES-CTR from the JDK provider, which uses the AES instructions
+ * of the CPU, and are encrypted, decrypted and hashed into the MAC in place, within the buffer
+ * they're written to and within the array they're read into.
  */
 public final class FrameCodec {
 	private static final int HEADER_SIZE = 32;
 	private static final int MAC_SIZE = 16;
-
-	private final StreamCipher enc;
-	private final StreamCipher dec;
+	private static final int BLOCK_SIZE = 16;
+	private static final byte[] PADDING = new byte[BLOCK_SIZE];
+	// BouncyCastle is the preferred provider, but doesn't make use of the AES instructions
+	private static final String CIPHER_PROVIDER = "SunJCE";
+
+	private final Cipher enc;
+	private final Cipher dec;
+	private final Cipher egressMacCipher;
+	private final Cipher ingressMacCipher;
 	private final KeccakDigest egressMac;
 	private final KeccakDigest ingressMac;
-	private final byte[] mac;
-
-	public FrameCodec(Secrets secrets) {
-		this.mac = secrets.getMac();
 
-		final var encCipher = new AESEngine();
-		enc = new SICBlockCipher(encCipher);
-		enc.init(true, new ParametersWithIV(new KeyParameter(secrets.getAes()), new byte[encCipher.getBlockSize()]));
+	// Body size of a frame whose header has been read, but whose body hasn't been received yet
+	private int pendingBodySize = -1;
 
-		final var decCipher = new AESEngine();
-		dec = new SICBlockCipher(decCipher);
-		dec.init(false, new ParametersWithIV(new KeyParameter(secrets.getAes()), new byte[decCipher.getBlockSize()]));
+	public FrameCodec(Secrets secrets) {
+		enc = streamCipher(Cipher.ENCRYPT_MODE, secrets.getAes());
+		dec = streamCipher(Cipher.DECRYPT_MODE, secrets.getAes());
+		egressMacCipher = blockCipher(secrets.getMac());
+		ingressMacCipher = blockCipher(secrets.getMac());
 
 		egressMac = secrets.getEgressMac();
 		ingressMac = secrets.getIngressMac();
 	}
 
-	public void writeFrame(byte[] frame, OutputStream out) throws IOException {
-		final var headBuffer = new byte[32];
+	/**
+	 * Returns the number of bytes an encrypted frame with a payload of the given size takes up.
+	 */
+	public static int frameSize(int payloadSize) {
+		return HEADER_SIZE + payloadSize + paddingSize(payloadSize) + MAC_SIZE;
+	}
+
+	/**
+	 * Writes the given payload as an encrypted frame.
+	 *
+	 * @param frame the payload
+	 * @param out the buffer to write the frame to, which must be backed by an array
+	 */
+	public void writeFrame(byte[] frame, ByteBuf out) throws IOException {
+		out.ensureWritable(frameSize(frame.length));
+
+		final var headBuffer = new byte[HEADER_SIZE];
 		headBuffer[0] = (byte) (frame.length >> 16);
 		headBuffer[1] = (byte) (frame.length >> 8);
 		headBuffer[2] = (byte) (frame.length);
 
-		enc.processBytes(headBuffer, 0, 16, headBuffer, 0);
-		updateMac(egressMac, headBuffer, headBuffer, 16, true);
+		update(enc, headBuffer, 0, BLOCK_SIZE, headBuffer, 0);
+		updateMac(egressMac, egressMacCipher, headBuffer, headBuffer, 16, true);
+		out.writeBytes(headBuffer);
 
-		final var buff = new byte[256];
-		out.write(headBuffer);
-		final var payloadStream = new ByteArrayInputStream(frame);
-		while (true) {
-			final var n = payloadStream.read(buff);
-			if (n <= 0) {
-				break;
-			}
-			enc.processBytes(buff, 0, n, buff, 0);
-			egressMac.update(buff, 0, n);
-			out.write(buff, 0, n);
-		}
-		final var paddingSize = 16 - (frame.length % 16);
-		final var padding = new byte[16];
-		if (paddingSize < 16) {
-			enc.processBytes(padding, 0, paddingSize, buff, 0);
-			egressMac.update(buff, 0, paddingSize);
-			out.write(buff, 0, paddingSize);
-		}
+		final var paddingSize = paddingSize(frame.length);
+		final var bodyArray = out.array();
+		final var bodyOffset = out.arrayOffset() + out.writerIndex();
+		update(enc, frame, 0, frame.length, bodyArray, bodyOffset);
+		update(enc, PADDING, 0, paddingSize, bodyArray, bodyOffset + frame.length);
+		egressMac.update(bodyArray, bodyOffset, frame.length + paddingSize);
+		out.writerIndex(out.writerIndex() + frame.length + paddingSize);
 
 		final var macBuffer = new byte[egressMac.getDigestSize()];
 		doSum(egressMac, macBuffer);
-		updateMac(egressMac, macBuffer, macBuffer, 0, true);
-		out.write(macBuffer, 0, 16);
+		updateMac(egressMac, egressMacCipher, macBuffer, macBuffer, 0, true);
+		out.writeBytes(macBuffer, 0, MAC_SIZE);
 	}
 
-	public Optional<byte[]> tryReadSingleFrame(byte[] input) throws IOException {
-		if (input.length < HEADER_SIZE) {
-			return Optional.empty();
+	/**
+	 * Reads the next frame from the given buffer if it has been received in full.
+	 * Only the bytes of frames which are read, and of the header of a partially
+	 * received frame, are consumed.
+	 *
+	 * @param in the bytes received
+	 * @return the payload of the frame, or empty if it hasn't been received in full yet
+	 */
+	public Optional<byte[]> tryReadSingleFrame(ByteBuf in) throws IOException {
+		if (pendingBodySize < 0) {
+			if (in.readableBytes() < HEADER_SIZE) {
+				return Optional.empty();
+			}
+			pendingBodySize = readHeader(in);
 		}
 
-		final var totalBodySize = readHeader(input);
-
-		if (input.length < HEADER_SIZE + totalBodySize) {
+		final var totalBodySize = pendingBodySize;
+		final var paddingSize = paddingSize(totalBodySize);
+		if (in.readableBytes() < totalBodySize + paddingSize + MAC_SIZE) {
 			return Optional.empty();
 		}
+		pendingBodySize = -1;
 
-		final var paddingSize = totalBodySize % 16 == 0 ? 0 : 16 - (totalBodySize % 16);
-		final var payloadBuffer = new byte[totalBodySize + paddingSize + MAC_SIZE];
-		System.arraycopy(input, HEADER_SIZE, payloadBuffer, 0, payloadBuffer.length);
+		final var bodyBuffer = new byte[totalBodySize];
+		final var trailerBuffer = new byte[paddingSize + MAC_SIZE];
+		in.readBytes(bodyBuffer);
+		in.readBytes(trailerBuffer);
 
-		final var frameSize = payloadBuffer.length - MAC_SIZE;
-		ingressMac.update(payloadBuffer, 0, frameSize);
-		dec.processBytes(payloadBuffer, 0, frameSize, payloadBuffer, 0);
+		ingressMac.update(bodyBuffer, 0, totalBodySize);
+		ingressMac.update(trailerBuffer, 0, paddingSize);
+		update(dec, bodyBuffer, 0, totalBodySize, bodyBuffer, 0);
+		update(dec, trailerBuffer, 0, paddingSize, trailerBuffer, 0);
 
 		final var macBuffer = new byte[ingressMac.getDigestSize()];
 		doSum(ingressMac, macBuffer);
-		updateMac(ingressMac, macBuffer, payloadBuffer, frameSize, false);
-
-		final var bodyBuffer = new byte[totalBodySize];
-		System.arraycopy(payloadBuffer, 0, bodyBuffer, 0, totalBodySize);
+		updateMac(ingressMac, ingressMacCipher, macBuffer, trailerBuffer, paddingSize, false);
 
 		return Optional.of(bodyBuffer);
 	}
 
-	private int readHeader(byte[] input) throws IOException {
-		final var headBuffer = new byte[32];
-		System.arraycopy(input, 0, headBuffer, 0, 32);
+	private int readHeader(ByteBuf in) throws IOException {
+		final var headBuffer = new byte[HEADER_SIZE];
+		in.readBytes(headBuffer);
 
-		updateMac(ingressMac, headBuffer, headBuffer, 16, false);
-		dec.processBytes(headBuffer, 0, 16, headBuffer, 0);
+		updateMac(ingressMac, ingressMacCipher, headBuffer, headBuffer, 16, false);
+		update(dec, headBuffer, 0, BLOCK_SIZE, headBuffer, 0);
 
 		int totalBodySize = headBuffer[0] & 0xFF;
 		totalBodySize = (totalBodySize << 8) + (headBuffer[1] & 0xFF);
@@ -136,10 +156,17 @@ public final class FrameCodec {
 		return totalBodySize;
 	}
 
-	private void updateMac(KeccakDigest mac, byte[] seed, byte[] out, int outOffset, boolean egress) throws IOException {
+	private void updateMac(
+		KeccakDigest mac,
+		Cipher macCipher,
+		byte[] seed,
+		byte[] out,
+		int outOffset,
+		boolean egress
+	) throws IOException {
 		final var aesBlock = new byte[mac.getDigestSize()];
 		doSum(mac, aesBlock);
-		makeMacCipher().processBlock(aesBlock, 0, aesBlock, 0);
+		update(macCipher, aesBlock, 0, BLOCK_SIZE, aesBlock, 0);
 		for (int i = 0; i < MAC_SIZE; i++) {
 			aesBlock[i] ^= seed[i];
 		}
@@ -158,10 +185,39 @@ public final class FrameCodec {
 		}
 	}
 
-	private AESEngine makeMacCipher() {
-		final var aesEngine = new AESEngine();
-		aesEngine.init(true, new KeyParameter(mac));
-		return aesEngine;
+	private static void update(Cipher cipher, byte[] in, int inOffset, int length, byte[] out, int outOffset) throws IOException {
+		if (length == 0) {
+			return;
+		}
+		try {
+			cipher.update(in, inOffset, length, out, outOffset);
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static Cipher streamCipher(int mode, byte[] key) {
+		try {
+			final var cipher = Cipher.getInstance("AES/CTR/NoPadding", CIPHER_PROVIDER);
+			cipher.init(mode, new SecretKeySpec(key, "AES"), new IvParameterSpec(new byte[BLOCK_SIZE]));
+			return cipher;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to initialize frame cipher", e);
+		}
+	}
+
+	private static Cipher blockCipher(byte[] key) {
+		try {
+			final var cipher = Cipher.getInstance("AES/ECB/NoPadding", CIPHER_PROVIDER);
+			cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+			return cipher;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to initialize MAC cipher", e);
+		}
+	}
+
+	private static int paddingSize(int payloadSize) {
+		return payloadSize % BLOCK_SIZE == 0 ? 0 : BLOCK_SIZE - (payloadSize % BLOCK_SIZE);
 	}
 
 	private void doSum(KeccakDigest mac, byte[] out) {
@@ -38,6 +38,9 @@ import com.radixdlt.networks.Addressing;
 import com.radixdlt.serialization.Serialization;
 import com.radixdlt.utils.RateCalculator;
 import com.radixdlt.utils.functional.Result;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -50,7 +53,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.bouncycastle.crypto.InvalidCipherTextException;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.security.SecureRandom;
@@ -66,7 +68,7 @@ import static com.radixdlt.network.messaging.MessagingErrors.IO_ERROR;
  * creating the frame and message codec
  * and forwarding the messages to MessageCentral.
  */
-public final class PeerChannel extends SimpleChannelInboundHandler<byte[]> {
+public final class PeerChannel extends SimpleChannelInboundHandler<ByteBuf> {
 	private static final Logger log = LogManager.getLogger();
 
 	enum ChannelState {
@@ -172,8 +174,9 @@ public final class PeerChannel extends SimpleChannelInboundHandler<byte[]> {
 		}
 	}
 
-	private void handleMessage(byte[] buf) throws IOException {
+	private void handleMessage(ByteBuf buf) throws IOException {
 		synchronized (this.lock) {
+			// The length based framing passes on exactly one frame per buffer
 			final var maybeFrame = this.frameCodec.tryReadSingleFrame(buf);
 			maybeFrame.ifPresentOrElse(
 				frame -> inboundMessageSink.onNext(InboundMessage.of(remoteNodeId, frame)),
@@ -194,12 +197,12 @@ public final class PeerChannel extends SimpleChannelInboundHandler<byte[]> {
 	}
 
 	@Override
-	public void channelRead0(ChannelHandlerContext ctx, byte[] buf) throws Exception {
+	public void channelRead0(ChannelHandlerContext ctx, ByteBuf buf) throws Exception {
 		switch (this.state) {
 			case INACTIVE:
 				throw new RuntimeException("Unexpected read on inactive channel");
 			case AUTH_HANDSHAKE:
-				this.handleHandshakeData(buf);
+				this.handleHandshakeData(ByteBufUtil.getBytes(buf));
 				break;
 			case ACTIVE:
 				this.handleMessage(buf);
@@ -243,7 +246,7 @@ public final class PeerChannel extends SimpleChannelInboundHandler<byte[]> {
 	}
 
 	private void write(byte[] data) {
-		this.nettyChannel.writeAndFlush(data);
+		this.nettyChannel.writeAndFlush(Unpooled.wrappedBuffer(data));
 	}
 
 	public Result<Object> send(byte[] data) {
@@ -251,15 +254,17 @@ public final class PeerChannel extends SimpleChannelInboundHandler<byte[]> {
 			if (this.state != ChannelState.ACTIVE) {
 				return IO_ERROR.result();
 			} else {
+				// a heap buffer, as the frame is encrypted in place
+				final var frame = this.nettyChannel.alloc().heapBuffer(FrameCodec.frameSize(data.length));
 				try {
-					final var baos = new ByteArrayOutputStream();
-					this.frameCodec.writeFrame(data, baos);
-					this.write(baos.toByteArray());
-					this.outMessagesStats.tick();
-					return Result.ok(new Object());
+					this.frameCodec.writeFrame(data, frame);
 				} catch (IOException e) {
+					frame.release();
 					return IO_ERROR.result();
 				}
+				this.nettyChannel.writeAndFlush(frame);
+				this.outMessagesStats.tick();
+				return Result.ok(new Object());
 			}
 		}
 	}
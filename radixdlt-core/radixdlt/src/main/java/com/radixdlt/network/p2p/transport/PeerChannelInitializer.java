@@ -33,8 +33,6 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
-import io.netty.handler.codec.bytes.ByteArrayDecoder;
-import io.netty.handler.codec.bytes.ByteArrayEncoder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -113,13 +111,12 @@ public final class PeerChannelInitializer extends ChannelInitializer<SocketChann
 		final int packetLength = MAX_PACKET_LENGTH + FRAME_HEADER_LENGTH;
 		final int headerLength = FRAME_HEADER_LENGTH;
 
+		// Frames are passed on as slices of the received buffers, the length prefix is written as a separate buffer.
 		// TODO(luk): get rid of length-based framing and extend FrameCodec with
 		// capability of reading partial frames and multiple frames from a single data read
 		socketChannel.pipeline()
 			.addLast("unpack", new LengthFieldBasedFrameDecoder(packetLength, 0, headerLength, 0, headerLength))
-			.addLast("bytesDecoder", new ByteArrayDecoder())
 			.addLast("handler", channel)
-			.addLast("pack", new LengthFieldPrepender(headerLength))
-			.addLast("bytesEncoder", new ByteArrayEncoder());
+			.addLast("pack", new LengthFieldPrepender(headerLength));
 	}
 }
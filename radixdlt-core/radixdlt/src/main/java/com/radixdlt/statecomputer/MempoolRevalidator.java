@@ -0,0 +1,69 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.radixdlt.atom.Txn;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.environment.EventDispatcher;
+import com.radixdlt.environment.EventProcessor;
+import com.radixdlt.ledger.LedgerUpdate;
+import com.radixdlt.mempool.MempoolMaxAge;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * Keeps the mempool fresh after every ledger update by dropping expired
+ * transactions and incrementally revalidating transactions whose read set
+ * was touched by the committed transactions.
+ */
+@Singleton
+public final class MempoolRevalidator {
+	private static final int MAX_REVALIDATIONS_PER_UPDATE = 100;
+
+	private final RadixEngineMempool mempool;
+	private final EventDispatcher<AtomsRemovedFromMempool> mempoolAtomsRemovedEventDispatcher;
+	private final SystemCounters systemCounters;
+	private final long maxAge;
+
+	@Inject
+	public MempoolRevalidator(
+		RadixEngineMempool mempool,
+		EventDispatcher<AtomsRemovedFromMempool> mempoolAtomsRemovedEventDispatcher,
+		SystemCounters systemCounters,
+		@MempoolMaxAge long maxAge
+	) {
+		this.mempool = Objects.requireNonNull(mempool);
+		this.mempoolAtomsRemovedEventDispatcher = Objects.requireNonNull(mempoolAtomsRemovedEventDispatcher);
+		this.systemCounters = Objects.requireNonNull(systemCounters);
+		this.maxAge = maxAge;
+	}
+
+	public EventProcessor<LedgerUpdate> ledgerUpdateEventProcessor() {
+		return ledgerUpdate -> {
+			var removed = new ArrayList<Txn>(mempool.expire(System.currentTimeMillis() - maxAge));
+			removed.addAll(mempool.revalidate(MAX_REVALIDATIONS_PER_UPDATE));
+			if (!removed.isEmpty()) {
+				systemCounters.set(SystemCounters.CounterType.MEMPOOL_COUNT, mempool.getCount());
+				mempoolAtomsRemovedEventDispatcher.dispatch(AtomsRemovedFromMempool.create(removed));
+			}
+		};
+	}
+}
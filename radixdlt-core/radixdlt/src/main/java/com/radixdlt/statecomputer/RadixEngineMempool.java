@@ -17,7 +17,6 @@
 
 package com.radixdlt.statecomputer;
 
-import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.radixdlt.atom.SubstateId;
@@ -35,13 +34,20 @@ import com.radixdlt.mempool.MempoolDuplicateException;
 import com.radixdlt.mempool.MempoolFullException;
 import com.radixdlt.mempool.MempoolRejectedException;
 import com.radixdlt.utils.Pair;
+import com.radixdlt.utils.UInt384;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
@@ -51,13 +57,27 @@ import java.util.stream.Collectors;
 
 /**
  * A mempool which uses internal radix engine to be more efficient.
+ * Transactions are kept in order of the fee they pay per byte so that proposals
+ * pick the highest paying transactions first and the lowest paying ones are
+ * evicted once the mempool is full.
+ * <p>
+ * Transactions which only read substates shut down by a commit are queued up
+ * to be revalidated against the new ledger state rather than being evicted.
  */
 @Singleton
 public final class RadixEngineMempool implements Mempool<REProcessedTxn> {
 	private static final Logger logger = LogManager.getLogger();
 
+	private static final Comparator<REProcessedTxn> FEE_RATE_ORDER =
+		((Comparator<REProcessedTxn>) (a, b) -> compareFeeRate(b, a))
+			.thenComparing(p -> p.getTxn().getId());
+
+	private final Object lock = new Object();
 	private final ConcurrentHashMap<AID, Pair<REProcessedTxn, MempoolMetadata>> data = new ConcurrentHashMap<>();
-	private final Map<SubstateId, Set<AID>> substateIndex = new ConcurrentHashMap<>();
+	private final TreeSet<REProcessedTxn> feeIndex = new TreeSet<>(FEE_RATE_ORDER);
+	private final Map<SubstateId, Set<AID>> substateIndex = new HashMap<>();
+	private final Set<AID> insertionOrder = new LinkedHashSet<>();
+	private final Set<AID> revalidationQueue = new LinkedHashSet<>();
 	private final RadixEngine<LedgerAndBFTProof> radixEngine;
 	private final int maxSize;
 
@@ -73,34 +93,80 @@ public final class RadixEngineMempool implements Mempool<REProcessedTxn> {
 		this.radixEngine = radixEngine;
 	}
 
+	private static int compareFeeRate(REProcessedTxn a, REProcessedTxn b) {
+		var aFee = UInt384.from(a.getFeePaid()).multiply(UInt384.from(b.getTxn().getPayload().length));
+		var bFee = UInt384.from(b.getFeePaid()).multiply(UInt384.from(a.getTxn().getPayload().length));
+		return aFee.compareTo(bFee);
+	}
+
 	@Override
 	public void add(Txn txn) throws MempoolRejectedException {
-		if (this.data.size() >= maxSize) {
-			throw new MempoolFullException(
-				String.format("Mempool full: %s of %s items", this.data.size(), maxSize)
-			);
-		}
-
 		if (this.data.containsKey(txn.getId())) {
 			throw new MempoolDuplicateException(String.format("Mempool already has command %s", txn.getId()));
 		}
 
-		final RadixEngineResult result;
-		try {
-			RadixEngine.RadixEngineBranch<LedgerAndBFTProof> checker = radixEngine.transientBranch();
-			result = checker.execute(List.of(txn));
-		} catch (RadixEngineException e) {
-			// TODO: allow missing dependency atoms to live for a certain amount of time
-			throw new MempoolRejectedException(e);
-		} finally {
-			radixEngine.deleteBranches();
+		// Insert while still speculating so that a commit racing with this admission
+		// cannot complete before the txn is indexed and evicted by committed()
+		radixEngine.speculate(checker -> {
+			final RadixEngineResult result;
+			try {
+				result = checker.execute(List.of(txn));
+			} catch (RadixEngineException e) {
+				// TODO: allow missing dependency atoms to live for a certain amount of time
+				throw new MempoolRejectedException(e);
+			}
+
+			insert(result.getProcessedTxn(), MempoolMetadata.create(System.currentTimeMillis()));
+			return result;
+		});
+	}
+
+	private void insert(REProcessedTxn processedTxn, MempoolMetadata metadata) throws MempoolRejectedException {
+		var txnId = processedTxn.getTxn().getId();
+		synchronized (lock) {
+			if (this.data.containsKey(txnId)) {
+				throw new MempoolDuplicateException(String.format("Mempool already has command %s", txnId));
+			}
+
+			if (this.data.size() >= maxSize) {
+				var lowest = feeIndex.last();
+				if (compareFeeRate(processedTxn, lowest) <= 0) {
+					throw new MempoolFullException(
+						String.format("Mempool full: %s of %s items", this.data.size(), maxSize)
+					);
+				}
+				logger.debug("Mempool full, evicting {} for higher fee txn {}", lowest.getTxn().getId(), txnId);
+				remove(lowest.getTxn().getId());
+			}
+
+			this.data.put(txnId, Pair.of(processedTxn, metadata));
+			this.feeIndex.add(processedTxn);
+			this.insertionOrder.add(txnId);
+			processedTxn.substateDependencies()
+				.forEach(substateId -> substateIndex.computeIfAbsent(substateId, id -> new HashSet<>()).add(txnId));
+		}
+	}
+
+	private Pair<REProcessedTxn, MempoolMetadata> remove(AID txnId) {
+		var removed = this.data.remove(txnId);
+		if (removed == null) {
+			return null;
 		}
 
-		var mempoolTxn = MempoolMetadata.create(System.currentTimeMillis());
-		var data = Pair.of(result.getProcessedTxn(), mempoolTxn);
-		this.data.put(txn.getId(), data);
-		result.getProcessedTxn().substateDependencies()
-			.forEach(substateId -> substateIndex.merge(substateId, Set.of(txn.getId()), Sets::union));
+		var processedTxn = removed.getFirst();
+		this.feeIndex.remove(processedTxn);
+		this.insertionOrder.remove(txnId);
+		this.revalidationQueue.remove(txnId);
+		processedTxn.substateDependencies().forEach(substateId -> {
+			var txnIds = substateIndex.get(substateId);
+			if (txnIds != null) {
+				txnIds.remove(txnId);
+				if (txnIds.isEmpty()) {
+					substateIndex.remove(substateId);
+				}
+			}
+		});
+		return removed;
 	}
 
 	@Override
@@ -110,24 +176,30 @@ public final class RadixEngineMempool implements Mempool<REProcessedTxn> {
 			.map(p -> p.getTxn().getId())
 			.collect(Collectors.toSet());
 
-		transactions.stream()
-			.flatMap(REProcessedTxn::stateUpdates)
-			.filter(REStateUpdate::isShutDown)
-			.forEach(instruction -> {
-				var substateId = instruction.getId();
-				Set<AID> txnIds = substateIndex.remove(substateId);
-				if (txnIds == null) {
-					return;
-				}
+		synchronized (lock) {
+			committedIds.forEach(this::remove);
+
+			transactions.stream()
+				.flatMap(REProcessedTxn::stateUpdates)
+				.filter(REStateUpdate::isShutDown)
+				.forEach(instruction -> {
+					var substateId = instruction.getId();
+					var txnIds = substateIndex.get(substateId);
+					if (txnIds == null) {
+						return;
+					}
 
-				for (var txnId : txnIds) {
-					var toRemove = data.remove(txnId);
-					// TODO: Cleanup
-					if (toRemove != null && !committedIds.contains(toRemove.getFirst().getTxn().getId())) {
-						removed.add(toRemove.getFirst().getTxn());
+					for (var txnId : List.copyOf(txnIds)) {
+						var processedTxn = data.get(txnId).getFirst();
+						if (shutsDown(processedTxn, substateId)) {
+							remove(txnId);
+							removed.add(processedTxn.getTxn());
+						} else {
+							revalidationQueue.add(txnId);
+						}
 					}
-				}
-			});
+				});
+		}
 
 		if (!removed.isEmpty()) {
 			logger.debug("Evicting {} txns from mempool", removed.size());
@@ -138,35 +210,118 @@ public final class RadixEngineMempool implements Mempool<REProcessedTxn> {
 
 	@Override
 	public List<Txn> getTxns(int count, List<REProcessedTxn> prepared) {
-		// TODO: Order by highest fees paid
-		var copy = new TreeSet<>(data.keySet());
-		prepared.stream()
+		var shutDown = prepared.stream()
 			.flatMap(REProcessedTxn::stateUpdates)
 			.filter(REStateUpdate::isShutDown)
-			.flatMap(i -> substateIndex.getOrDefault(i.getId(), Set.of()).stream())
-			.distinct()
-			.forEach(copy::remove);
+			.map(REStateUpdate::getId)
+			.collect(Collectors.toCollection(HashSet::new));
 
 		var txns = new ArrayList<Txn>();
 
-		for (int i = 0; i < count && !copy.isEmpty(); i++) {
-			var txId = copy.first();
-			copy.remove(txId);
-			var txnData = data.get(txId);
-			txnData.getFirst().stateUpdates()
-				.filter(REStateUpdate::isShutDown)
-				.flatMap(inst -> substateIndex.getOrDefault(inst.getId(), Set.of()).stream())
-				.distinct()
-				.forEach(copy::remove);
+		synchronized (lock) {
+			// Highest fee rate first, skipping anything which conflicts with what is already in flight
+			for (var iter = feeIndex.iterator(); iter.hasNext() && txns.size() < count;) {
+				var processedTxn = iter.next();
+				if (processedTxn.substateDependencies().anyMatch(shutDown::contains)) {
+					continue;
+				}
 
-			txns.add(txnData.getFirst().getTxn());
+				processedTxn.stateUpdates()
+					.filter(REStateUpdate::isShutDown)
+					.forEach(update -> shutDown.add(update.getId()));
+				txns.add(processedTxn.getTxn());
+			}
 		}
 
 		return txns;
 	}
 
+	@Override
+	public boolean contains(AID txnId) {
+		return this.data.containsKey(txnId);
+	}
+
+	@Override
+	public List<Txn> getTxns(Collection<AID> txnIds) {
+		return txnIds.stream()
+			.map(this.data::get)
+			.filter(Objects::nonNull)
+			.map(e -> e.getFirst().getTxn())
+			.collect(Collectors.toList());
+	}
+
+	private static boolean shutsDown(REProcessedTxn processedTxn, SubstateId substateId) {
+		return processedTxn.stateUpdates()
+			.filter(REStateUpdate::isShutDown)
+			.anyMatch(update -> update.getId().equals(substateId));
+	}
+
+	/**
+	 * Re-executes up to {@code max} transactions which are queued for revalidation
+	 * against the current ledger state and removes those which are no longer valid.
+	 *
+	 * @param max maximum number of transactions to revalidate
+	 * @return the removed transactions
+	 */
+	public List<Txn> revalidate(int max) {
+		final var toRevalidate = new ArrayList<Txn>();
+		synchronized (lock) {
+			for (Iterator<AID> iter = revalidationQueue.iterator(); iter.hasNext() && toRevalidate.size() < max;) {
+				toRevalidate.add(data.get(iter.next()).getFirst().getTxn());
+				iter.remove();
+			}
+		}
+
+		final var removed = new ArrayList<Txn>();
+		for (var txn : toRevalidate) {
+			try {
+				radixEngine.speculate(branch -> branch.execute(List.of(txn)));
+			} catch (RadixEngineException e) {
+				synchronized (lock) {
+					if (remove(txn.getId()) != null) {
+						removed.add(txn);
+					}
+				}
+			}
+		}
+
+		if (!removed.isEmpty()) {
+			logger.debug("Evicting {} txns which failed revalidation from mempool", removed.size());
+		}
+
+		return removed;
+	}
+
+	/**
+	 * Removes all transactions which were inserted before the given time.
+	 *
+	 * @param insertedBefore time in milliseconds before which transactions expire
+	 * @return the removed transactions
+	 */
+	public List<Txn> expire(long insertedBefore) {
+		final var removed = new ArrayList<Txn>();
+		synchronized (lock) {
+			for (var txnId : insertionOrder) {
+				var entry = data.get(txnId);
+				if (entry.getSecond().getInserted() >= insertedBefore) {
+					break;
+				}
+				removed.add(entry.getFirst().getTxn());
+			}
+			removed.forEach(txn -> remove(txn.getId()));
+		}
+
+		if (!removed.isEmpty()) {
+			logger.debug("Evicting {} expired txns from mempool", removed.size());
+		}
+
+		return removed;
+	}
+
 	public Set<SubstateId> getShuttingDownSubstates() {
-		return new HashSet<>(substateIndex.keySet());
+		synchronized (lock) {
+			return new HashSet<>(substateIndex.keySet());
+		}
 	}
 
 	@Override
@@ -20,6 +20,7 @@ package com.radixdlt.statecomputer;
 import com.google.common.collect.ImmutableClassToInstanceMap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
 import com.google.inject.Inject;
 import com.radixdlt.application.system.NextValidatorSetEvent;
 import com.radixdlt.atom.TxBuilderException;
@@ -52,8 +53,10 @@ import com.radixdlt.engine.RadixEngine.RadixEngineBranch;
 import com.radixdlt.engine.RadixEngineException;
 import com.radixdlt.engine.RadixEngineResult;
 import com.radixdlt.environment.EventDispatcher;
+import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.ByzantineQuorumException;
 import com.radixdlt.ledger.CommittedBadTxnException;
+import com.radixdlt.ledger.LedgerAccumulator;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.StateComputerLedger.StateComputerResult;
 import com.radixdlt.ledger.StateComputerLedger.PreparedTxn;
@@ -69,10 +72,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
@@ -84,6 +91,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 
 	private final RadixEngineMempool mempool;
 	private final RadixEngine<LedgerAndBFTProof> radixEngine;
+	private final TxnPreParser txnPreParser;
 	private final EventDispatcher<LedgerUpdate> ledgerUpdateDispatcher;
 	private final EventDispatcher<MempoolAddSuccess> mempoolAddSuccessEventDispatcher;
 	private final EventDispatcher<MempoolAddFailure> mempoolAddFailureEventDispatcher;
@@ -91,7 +99,11 @@ public final class RadixEngineStateComputer implements StateComputer {
 	private final EventDispatcher<InvalidProposedTxn> invalidProposedCommandEventDispatcher;
 	private final SystemCounters systemCounters;
 	private final Hasher hasher;
+	private final LedgerAccumulator ledgerAccumulator;
 	private final Forks forks;
+	// Branches of prepared vertices keyed by vertex id. All of them are dropped on every commit, in between
+	// commits branches of vertices which left the vertex store are pruned through retainPrepared
+	private final Map<HashCode, PreparedBranch> preparedBranches = new HashMap<>();
 
 	private ProposerElection proposerElection;
 	private View epochCeilingView;
@@ -101,6 +113,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 	public RadixEngineStateComputer(
 		ProposerElection proposerElection, // TODO: Should be able to load this directly from state
 		RadixEngine<LedgerAndBFTProof> radixEngine,
+		TxnPreParser txnPreParser,
 		Forks forks,
 		RadixEngineMempool mempool, // TODO: Move this into radixEngine
 		@EpochCeilingView View epochCeilingView, // TODO: Move this into radixEngine
@@ -111,6 +124,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 		EventDispatcher<AtomsRemovedFromMempool> mempoolAtomsRemovedEventDispatcher,
 		EventDispatcher<LedgerUpdate> ledgerUpdateDispatcher,
 		Hasher hasher,
+		LedgerAccumulator ledgerAccumulator,
 		SystemCounters systemCounters
 	) {
 		if (epochCeilingView.isGenesis()) {
@@ -118,6 +132,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 		}
 
 		this.radixEngine = Objects.requireNonNull(radixEngine);
+		this.txnPreParser = Objects.requireNonNull(txnPreParser);
 		this.forks = forks;
 		this.epochCeilingView = epochCeilingView;
 		this.maxSigsPerRound = maxSigsPerRound;
@@ -128,6 +143,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 		this.mempoolAtomsRemovedEventDispatcher = Objects.requireNonNull(mempoolAtomsRemovedEventDispatcher);
 		this.ledgerUpdateDispatcher = Objects.requireNonNull(ledgerUpdateDispatcher);
 		this.hasher = Objects.requireNonNull(hasher);
+		this.ledgerAccumulator = Objects.requireNonNull(ledgerAccumulator);
 		this.systemCounters = Objects.requireNonNull(systemCounters);
 		this.proposerElection = proposerElection;
 	}
@@ -136,15 +152,26 @@ public final class RadixEngineStateComputer implements StateComputer {
 		private final Txn txn;
 		private final REProcessedTxn processed;
 		private final PermissionLevel permissionLevel;
+		// Accumulator states of the ledger the txn was executed on and resulted in, if known
+		private final AccumulatorState parentState;
+		private final AccumulatorState state;
 
 		public RadixEngineTxn(
 			Txn txn,
 			REProcessedTxn processed,
-			PermissionLevel permissionLevel
+			PermissionLevel permissionLevel,
+			@Nullable AccumulatorState parentState,
+			@Nullable AccumulatorState state
 		) {
 			this.txn = txn;
 			this.processed = processed;
 			this.permissionLevel = permissionLevel;
+			this.parentState = parentState;
+			this.state = state;
+		}
+
+		private RadixEngineTxn withStates(AccumulatorState parentState, AccumulatorState state) {
+			return new RadixEngineTxn(txn, processed, permissionLevel, parentState, state);
 		}
 
 		REProcessedTxn processedTxn() {
@@ -159,6 +186,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 
 	@Override
 	public void addToMempool(MempoolAdd mempoolAdd, @Nullable BFTNode origin) {
+		txnPreParser.preParse(mempoolAdd.getTxns());
 		mempoolAdd.getTxns().forEach(txn -> {
 			try {
 				mempool.add(txn);
@@ -228,7 +256,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 		try {
 			// TODO: combine construct/execute
 			systemUpdate = branch.construct(systemActions).buildWithoutSignature();
-			result = branch.execute(List.of(systemUpdate), PermissionLevel.SUPER_USER);
+			result = branch.executeMetered(List.of(systemUpdate), PermissionLevel.SUPER_USER);
 		} catch (RadixEngineException | TxBuilderException e) {
 			throw new IllegalStateException(
 				String.format("Failed to execute system updates: %s", systemActions), e
@@ -237,7 +265,9 @@ public final class RadixEngineStateComputer implements StateComputer {
 		return new RadixEngineTxn(
 			systemUpdate,
 			result.getProcessedTxn(),
-			PermissionLevel.SUPER_USER
+			PermissionLevel.SUPER_USER,
+			null,
+			null
 		);
 	}
 
@@ -245,7 +275,7 @@ public final class RadixEngineStateComputer implements StateComputer {
 		BFTNode proposer,
 		RadixEngineBranch<LedgerAndBFTProof> branch,
 		List<Txn> nextTxns,
-		ImmutableList.Builder<PreparedTxn> successBuilder,
+		List<RadixEngineTxn> successes,
 		ImmutableMap.Builder<Txn, Exception> errorBuilder
 	) {
 		// TODO: This check should probably be done before getting into state computer
@@ -259,21 +289,67 @@ public final class RadixEngineStateComputer implements StateComputer {
 			var txn = nextTxns.get(i);
 			final RadixEngineResult result;
 			try {
-				result = branch.execute(List.of(txn));
+				// Metered as on commit so that the result can be committed as is
+				result = branch.executeMetered(List.of(txn), PermissionLevel.USER);
 			} catch (RadixEngineException e) {
 				errorBuilder.put(txn, e);
 				invalidProposedCommandEventDispatcher.dispatch(InvalidProposedTxn.create(proposer.getKey(), txn, e));
 				return;
 			}
 
-			var radixEngineCommand = new RadixEngineTxn(txn, result.getProcessedTxn(), PermissionLevel.USER);
-			successBuilder.add(radixEngineCommand);
+			successes.add(new RadixEngineTxn(txn, result.getProcessedTxn(), PermissionLevel.USER, null, null));
 		}
 	}
 
-	@Override
-	public StateComputerResult prepare(List<PreparedTxn> previous, VerifiedVertex vertex, long timestamp) {
-		var next = vertex.getTxns();
+	/**
+	 * Branch containing the state of the ledger after a prepared vertex, used as
+	 * the base for preparing children of that vertex without re-execution.
+	 */
+	private static final class PreparedBranch {
+		// Prepared branch this branch was created on, null if created on the engine itself
+		@Nullable
+		private final PreparedBranch parent;
+		private final RadixEngineBranch<LedgerAndBFTProof> branch;
+		// Txns executed on top of the current ledger head to get to the state of the branch
+		private final List<PreparedTxn> executed;
+
+		private PreparedBranch(
+			@Nullable PreparedBranch parent,
+			RadixEngineBranch<LedgerAndBFTProof> branch,
+			List<PreparedTxn> executed
+		) {
+			this.parent = parent;
+			this.branch = branch;
+			this.executed = executed;
+		}
+
+		private boolean isBuiltOn(PreparedBranch other) {
+			for (var p = parent; p != null; p = p.parent) {
+				if (p == other) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	@Nullable
+	private PreparedBranch parentBranchFor(List<PreparedTxn> previous, VerifiedVertex vertex) {
+		if (previous.isEmpty()) {
+			return null;
+		}
+
+		// Branches are only kept until the next commit so a parent branch is always built on
+		// the current ledger head, check that it also contains exactly the previous txns
+		var parentBranch = preparedBranches.get(vertex.getParentId());
+		return parentBranch != null && parentBranch.executed.equals(previous) ? parentBranch : null;
+	}
+
+	private RadixEngineBranch<LedgerAndBFTProof> branchFor(List<PreparedTxn> previous, @Nullable PreparedBranch parentBranch) {
+		if (parentBranch != null) {
+			return parentBranch.branch.transientBranch();
+		}
+
 		var transientBranch = this.radixEngine.transientBranch();
 		for (PreparedTxn command : previous) {
 			// TODO: fix this cast with generics. Currently the fix would become a bit too messy
@@ -288,10 +364,19 @@ public final class RadixEngineStateComputer implements StateComputer {
 					+ radixEngineCommand.processed.getTxn().getId(), e);
 			}
 		}
+		return transientBranch;
+	}
 
+	@Override
+	public StateComputerResult prepare(List<PreparedTxn> previous, VerifiedVertex vertex, long timestamp) {
+		// A vertex prepared again, such as on a vertex store rebuild, replaces the branch kept for it
+		evictPrepared(vertex.getId());
+		var next = vertex.getTxns();
+		var parentBranch = parentBranchFor(previous, vertex);
+		var transientBranch = branchFor(previous, parentBranch);
 		var systemTxn = this.executeSystemUpdate(transientBranch, vertex, timestamp);
-		final ImmutableList.Builder<PreparedTxn> successBuilder = ImmutableList.builder();
-		successBuilder.add(systemTxn);
+		var successes = new ArrayList<RadixEngineTxn>();
+		successes.add(systemTxn);
 		final ImmutableMap.Builder<Txn, Exception> exceptionBuilder = ImmutableMap.builder();
 		var nextValidatorSet = systemTxn.processedTxn().getEvents().stream()
 			.filter(NextValidatorSetEvent.class::isInstance)
@@ -303,26 +388,131 @@ public final class RadixEngineStateComputer implements StateComputer {
 			);
 		// Don't execute command if changing epochs
 		if (nextValidatorSet.isEmpty()) {
-			this.executeUserCommands(vertex.getProposer(), transientBranch, next, successBuilder, exceptionBuilder);
+			txnPreParser.preParse(next);
+			this.executeUserCommands(
+				vertex.getProposer(),
+				transientBranch,
+				next,
+				successes,
+				exceptionBuilder
+			);
+		}
+		var successfulTxns = withLedgerStates(vertex, successes);
+		var executed = ImmutableList.<PreparedTxn>builder().addAll(previous).addAll(successfulTxns).build();
+		preparedBranches.put(vertex.getId(), new PreparedBranch(parentBranch, transientBranch, executed));
+
+		return new StateComputerResult(successfulTxns, exceptionBuilder.build(), nextValidatorSet.orElse(null));
+	}
+
+	@Override
+	public void retainPrepared(Set<HashCode> vertexIds) {
+		// Commit drops every branch anyway, so this only releases branches between commits, such as
+		// forks of timed out views or vertices replaced on a vertex store rebuild
+		var removed = preparedBranches.keySet().stream()
+			.filter(vertexId -> !vertexIds.contains(vertexId))
+			.collect(Collectors.toList());
+		removed.forEach(this::evictPrepared);
+	}
+
+	// Only runs between commits, when views time out or vertices are prepared again, as commit clears all branches
+	private void evictPrepared(HashCode vertexId) {
+		var evicted = preparedBranches.remove(vertexId);
+		if (evicted == null) {
+			return;
+		}
+
+		// Branches built on the evicted branch are deleted along with it
+		preparedBranches.values().removeIf(preparedBranch -> preparedBranch.isBuiltOn(evicted));
+		if (evicted.parent == null) {
+			radixEngine.deleteBranch(evicted.branch);
+		} else {
+			evicted.parent.branch.deleteBranch(evicted.branch);
+		}
+	}
+
+	/**
+	 * Tags prepared txns with the ledger states they were executed between, accumulated
+	 * the same way as the ledger does from the state of the parent of the vertex.
+	 */
+	private ImmutableList<PreparedTxn> withLedgerStates(VerifiedVertex vertex, List<RadixEngineTxn> txns) {
+		var parentBFTHeader = vertex.getParentHeader();
+		var parentHeader = parentBFTHeader == null ? null : parentBFTHeader.getLedgerHeader();
+		if (parentHeader == null) {
+			// Without the state of the parent the txns are re-executed on commit
+			return ImmutableList.copyOf(txns);
 		}
-		this.radixEngine.deleteBranches();
 
-		return new StateComputerResult(successBuilder.build(), exceptionBuilder.build(), nextValidatorSet.orElse(null));
+		var builder = ImmutableList.<PreparedTxn>builderWithExpectedSize(txns.size());
+		var state = parentHeader.getAccumulatorState();
+		for (var txn : txns) {
+			var nextState = ledgerAccumulator.accumulate(state, txn.txn.getId().asHashCode(), parentHeader.getEpoch());
+			builder.add(txn.withStates(state, nextState));
+			state = nextState;
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Retrieves the results of the given prepared transactions if they were executed on
+	 * top of the ledger states they are committed on, in which case they do not need to
+	 * be re-executed on commit. As the committed txns are verified to lead from the
+	 * current ledger head to the committed state, the prepared txns must lead to the
+	 * same state through the same txns.
+	 */
+	private Optional<List<REProcessedTxn>> preparedResults(
+		@Nullable List<PreparedTxn> preparedTxns,
+		VerifiedTxnsAndProof verifiedTxnsAndProof
+	) {
+		var txns = verifiedTxnsAndProof.getTxns();
+		if (preparedTxns == null || preparedTxns.isEmpty() || preparedTxns.size() != txns.size()) {
+			return Optional.empty();
+		}
+
+		var processedTxns = new ArrayList<REProcessedTxn>(preparedTxns.size());
+		AccumulatorState state = null;
+		for (int i = 0; i < preparedTxns.size(); i++) {
+			var prepared = preparedTxns.get(i);
+			if (!(prepared instanceof RadixEngineTxn)) {
+				return Optional.empty();
+			}
+			var radixEngineTxn = (RadixEngineTxn) prepared;
+			if (radixEngineTxn.parentState == null
+				|| (state != null && !state.equals(radixEngineTxn.parentState))
+				|| !radixEngineTxn.txn.getId().equals(txns.get(i).getId())) {
+				return Optional.empty();
+			}
+			processedTxns.add(radixEngineTxn.processed);
+			state = radixEngineTxn.state;
+		}
+
+		if (!verifiedTxnsAndProof.getProof().getAccumulatorState().equals(state)) {
+			return Optional.empty();
+		}
+
+		return Optional.of(processedTxns);
 	}
 
 	private List<REProcessedTxn> commitInternal(
-		VerifiedTxnsAndProof verifiedTxnsAndProof, VerifiedVertexStoreState vertexStoreState
+		VerifiedTxnsAndProof verifiedTxnsAndProof,
+		@Nullable List<PreparedTxn> preparedTxns,
+		VerifiedVertexStoreState vertexStoreState
 	) {
 		var proof = verifiedTxnsAndProof.getProof();
 		var ledgerAndBFTProof = LedgerAndBFTProof.create(proof, vertexStoreState);
+		var preparedResults = preparedResults(preparedTxns, verifiedTxnsAndProof);
 
 		final RadixEngineResult result;
 		try {
-			result = this.radixEngine.execute(
-				verifiedTxnsAndProof.getTxns(),
-				ledgerAndBFTProof,
-				PermissionLevel.SUPER_USER
-			);
+			if (preparedResults.isPresent()) {
+				result = this.radixEngine.commitProcessed(preparedResults.get(), ledgerAndBFTProof);
+			} else {
+				txnPreParser.preParse(verifiedTxnsAndProof.getTxns());
+				result = this.radixEngine.execute(
+					verifiedTxnsAndProof.getTxns(),
+					ledgerAndBFTProof,
+					PermissionLevel.SUPER_USER
+				);
+			}
 		} catch (RadixEngineException e) {
 			throw new CommittedBadTxnException(verifiedTxnsAndProof, e);
 		} catch (MetadataException e) {
@@ -358,8 +548,15 @@ public final class RadixEngineStateComputer implements StateComputer {
 	}
 
 	@Override
-	public void commit(VerifiedTxnsAndProof txnsAndProof, VerifiedVertexStoreState vertexStoreState) {
-		var txCommitted = commitInternal(txnsAndProof, vertexStoreState);
+	public void commit(
+		VerifiedTxnsAndProof txnsAndProof,
+		@Nullable List<PreparedTxn> preparedTxns,
+		VerifiedVertexStoreState vertexStoreState
+	) {
+		// Prepared branches are built on the current ledger head and so become stale on commit
+		preparedBranches.clear();
+		radixEngine.deleteBranches();
+		var txCommitted = commitInternal(txnsAndProof, preparedTxns, vertexStoreState);
 
 		// TODO: refactor mempool to be less generic and make this more efficient
 		// TODO: Move this into engine
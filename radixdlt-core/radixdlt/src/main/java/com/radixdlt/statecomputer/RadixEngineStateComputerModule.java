@@ -21,7 +21,11 @@ package com.radixdlt.statecomputer;
 import com.google.inject.AbstractModule;
 import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.ProvidesIntoSet;
 import com.radixdlt.constraintmachine.REProcessedTxn;
+import com.radixdlt.environment.EventProcessorOnRunner;
+import com.radixdlt.environment.Runners;
+import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.StateComputerLedger;
 import com.radixdlt.mempool.Mempool;
 
@@ -32,4 +36,13 @@ public class RadixEngineStateComputerModule extends AbstractModule {
 		bind(new TypeLiteral<Mempool<?>>() { }).to(RadixEngineMempool.class).in(Scopes.SINGLETON);
 		bind(new TypeLiteral<Mempool<REProcessedTxn>>() { }).to(RadixEngineMempool.class).in(Scopes.SINGLETON);
 	}
+
+	@ProvidesIntoSet
+	private EventProcessorOnRunner<?> mempoolRevalidationProcessor(MempoolRevalidator mempoolRevalidator) {
+		return new EventProcessorOnRunner<>(
+			Runners.MEMPOOL,
+			LedgerUpdate.class,
+			mempoolRevalidator.ledgerUpdateEventProcessor()
+		);
+	}
 }
@@ -0,0 +1,60 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.radixdlt.atom.Txn;
+import com.radixdlt.engine.RadixEngine;
+import com.radixdlt.utils.ThreadFactories;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parses and verifies signatures of transactions on a worker pool ahead of
+ * execution so that only stateful verification runs under the engine lock.
+ */
+@Singleton
+public final class TxnPreParser {
+	private final RadixEngine<LedgerAndBFTProof> radixEngine;
+	private final ExecutorService executor;
+
+	@Inject
+	public TxnPreParser(RadixEngine<LedgerAndBFTProof> radixEngine) {
+		this.radixEngine = Objects.requireNonNull(radixEngine);
+		this.executor = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(),
+			ThreadFactories.daemonThreads("TxnPreParser-%d")
+		);
+	}
+
+	public void preParse(List<Txn> txns) {
+		if (txns.isEmpty()) {
+			return;
+		}
+		if (txns.size() == 1) {
+			// Nothing to gain from parallelism, but the txn is still parsed before taking the engine lock
+			radixEngine.preParse(txns, Runnable::run);
+		} else {
+			radixEngine.preParse(txns, executor);
+		}
+	}
+}
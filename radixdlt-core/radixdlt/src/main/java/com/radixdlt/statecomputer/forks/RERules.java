@@ -36,6 +36,7 @@ public final class RERules {
 	private final REConstructor actionConstructors;
 	private final BatchVerifier<LedgerAndBFTProof> batchVerifier;
 	private final RERulesConfig config;
+	private final boolean merkleAccumulator;
 
 	public RERules(
 		String name,
@@ -45,6 +46,19 @@ public final class RERules {
 		REConstructor actionConstructors,
 		BatchVerifier<LedgerAndBFTProof> batchVerifier,
 		RERulesConfig config
+	) {
+		this(name, parser, serialization, constraintMachineConfig, actionConstructors, batchVerifier, config, false);
+	}
+
+	private RERules(
+		String name,
+		REParser parser,
+		SubstateSerialization serialization,
+		ConstraintMachineConfig constraintMachineConfig,
+		REConstructor actionConstructors,
+		BatchVerifier<LedgerAndBFTProof> batchVerifier,
+		RERulesConfig config,
+		boolean merkleAccumulator
 	) {
 		this.name = name;
 		this.parser = parser;
@@ -53,6 +67,14 @@ public final class RERules {
 		this.actionConstructors = actionConstructors;
 		this.batchVerifier = batchVerifier;
 		this.config = config;
+		this.merkleAccumulator = merkleAccumulator;
+	}
+
+	/**
+	 * Returns the same rules, with transactions accumulated into a Merkle mountain range.
+	 */
+	public RERules withMerkleAccumulator() {
+		return new RERules(name, parser, serialization, constraintMachineConfig, actionConstructors, batchVerifier, config, true);
 	}
 
 	public String name() {
@@ -94,4 +116,8 @@ public final class RERules {
 	public RERulesConfig getConfig() {
 		return config;
 	}
+
+	public boolean usesMerkleAccumulator() {
+		return merkleAccumulator;
+	}
 }
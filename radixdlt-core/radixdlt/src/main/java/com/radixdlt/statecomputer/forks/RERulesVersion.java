@@ -167,6 +167,16 @@ public enum RERulesVersion {
 				config
 			);
 		}
+	},
+	/**
+	 * The rules of {@link #OLYMPIA_V1}, with transactions accumulated into a
+	 * Merkle mountain range so that their inclusion can be proven.
+	 */
+	OLYMPIA_V2 {
+		@Override
+		public RERules create(RERulesConfig config) {
+			return OLYMPIA_V1.create(config).withMerkleAccumulator();
+		}
 	};
 
 
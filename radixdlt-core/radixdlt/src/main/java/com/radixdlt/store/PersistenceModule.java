@@ -40,6 +40,18 @@ import java.util.Optional;
  * Module which manages persistent storage
  */
 public class PersistenceModule extends AbstractModule {
+	private static final int MINIMUM_PROOF_BLOCK_SIZE = 1000;
+
+	private final boolean blockCompressedTxnLog;
+
+	public PersistenceModule() {
+		this(false);
+	}
+
+	public PersistenceModule(boolean blockCompressedTxnLog) {
+		this.blockCompressedTxnLog = blockCompressedTxnLog;
+	}
+
 	@Override
 	protected void configure() {
 		// TODO: should be singletons?
@@ -58,7 +70,7 @@ public class PersistenceModule extends AbstractModule {
 
 	@Provides
 	StoreConfig storeConfig() {
-		return new StoreConfig(1000);
+		return new StoreConfig(MINIMUM_PROOF_BLOCK_SIZE, blockCompressedTxnLog);
 	}
 
 	@ProvidesIntoSet
@@ -69,7 +81,7 @@ public class PersistenceModule extends AbstractModule {
 	) {
 		return update -> {
 			systemCounters.increment(CounterType.PERSISTENCE_VERTEX_STORE_SAVES);
-			persistentVertexStore.save(update.getVertexStoreState());
+			persistentVertexStore.saveUpdate(update.getVertexStoreState(), Optional.empty());
 		};
 	}
 
@@ -81,7 +93,7 @@ public class PersistenceModule extends AbstractModule {
 	) {
 		return update -> {
 			systemCounters.increment(CounterType.PERSISTENCE_VERTEX_STORE_SAVES);
-			persistentVertexStore.save(update.getVertexStoreState());
+			persistentVertexStore.saveUpdate(update.getVertexStoreState(), Optional.of(update.getInserted().getVertex()));
 		};
 	}
 }
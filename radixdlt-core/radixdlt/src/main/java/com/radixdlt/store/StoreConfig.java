@@ -23,14 +23,29 @@ package com.radixdlt.store;
  */
 public final class StoreConfig {
 	private final int minimumProofBlockSize;
+	private final boolean blockCompressedTxnLog;
+
 	public StoreConfig(int minimumProofBlockSize) {
+		this(minimumProofBlockSize, false);
+	}
+
+	public StoreConfig(int minimumProofBlockSize, boolean blockCompressedTxnLog) {
 		if (minimumProofBlockSize < 1) {
 			throw new IllegalArgumentException("Proof block size must be >= 1.");
 		}
 		this.minimumProofBlockSize = minimumProofBlockSize;
+		this.blockCompressedTxnLog = blockCompressedTxnLog;
 	}
 
 	public int getMinimumProofBlockSize() {
 		return minimumProofBlockSize;
 	}
+
+	/**
+	 * Whether a newly created ledger should store transactions in blocks compressed
+	 * with a trained dictionary. Existing ledgers keep the format they were created with.
+	 */
+	public boolean isBlockCompressedTxnLog() {
+		return blockCompressedTxnLog;
+	}
 }
@@ -32,12 +32,14 @@ import com.radixdlt.constraintmachine.exceptions.VirtualSubstateAlreadyDownExcep
 import com.radixdlt.crypto.ECPublicKey;
 import com.radixdlt.engine.RadixEngineException;
 import com.radixdlt.store.ResourceStore;
+import com.radixdlt.store.CMStore;
 import com.radixdlt.utils.UInt256;
 import com.sleepycat.je.Transaction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.radixdlt.atom.CloseableCursor;
@@ -45,7 +47,9 @@ import com.radixdlt.atom.SubstateId;
 import com.radixdlt.atom.Txn;
 import com.radixdlt.application.tokens.state.TokenResource;
 import com.radixdlt.consensus.LedgerProof;
+import com.radixdlt.consensus.UnverifiedVertex;
 import com.radixdlt.consensus.bft.PersistentVertexStore;
+import com.radixdlt.consensus.bft.VerifiedVertex;
 import com.radixdlt.consensus.bft.VerifiedVertexStoreState;
 import com.radixdlt.constraintmachine.Particle;
 import com.radixdlt.constraintmachine.REStateUpdate;
@@ -65,6 +69,7 @@ import com.radixdlt.store.EngineStore;
 import com.radixdlt.store.StoreConfig;
 import com.radixdlt.store.TxnIndex;
 import com.radixdlt.store.berkeley.atom.AppendLog;
+import com.radixdlt.store.berkeley.atom.BlockCompressedAppendLog;
 import com.radixdlt.sync.CommittedReader;
 import com.radixdlt.utils.Longs;
 import com.sleepycat.je.Cursor;
@@ -80,6 +85,7 @@ import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -88,6 +94,7 @@ import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -123,8 +130,10 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 	// Metadata databases
 	private static final String TXN_ID_DB_NAME = "radix.txn_id_db";
 	private static final String VERTEX_STORE_DB_NAME = "radix.vertex_store";
+	private static final String VERTEX_STORE_UPDATES_DB_NAME = "radix.vertex_store_updates";
 	private static final String TXN_DB_NAME = "radix.txn_db";
 	private Database vertexStoreDatabase; // Write/Delete
+	private Database vertexStoreUpdatesDatabase; // Append/Delete
 	private Database proofDatabase; // Write/Delete
 	private SecondaryDatabase epochProofDatabase;
 
@@ -132,10 +141,28 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 	private static final String PROOF_DB_NAME = "radix.proof_db";
 	private static final String EPOCH_PROOF_DB_NAME = "radix.epoch_proof_db";
 	private static final String LEDGER_NAME = "radix.ledger";
+	private static final String BLOCK_LEDGER_NAME = "radix.ledger.blocks";
 	private Database txnDatabase; // Txns by state version; Append-only
 	private Database txnIdDatabase; // Txns by AID; Append-only
 	private AppendLog txnLog; //Atom data append only log
 
+	// Root and size of the saved vertex store state, including the updates appended to it.
+	// Guarded by vertexStoreLock and only replaced once the write which saved it has been committed.
+	private final ReentrantLock vertexStoreLock = new ReentrantLock();
+	private SavedVertexStore savedVertexStore;
+
+	private static final class SavedVertexStore {
+		private final HashCode root;
+		private final int size;
+		private final long nextUpdate;
+
+		private SavedVertexStore(HashCode root, int size, long nextUpdate) {
+			this.root = root;
+			this.size = size;
+			this.nextUpdate = nextUpdate;
+		}
+	}
+
 	@Inject
 	public BerkeleyLedgerEntryStore(
 		Serialization serialization,
@@ -164,6 +191,7 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		safeClose(epochProofDatabase);
 		safeClose(proofDatabase);
 
+		safeClose(vertexStoreUpdatesDatabase);
 		safeClose(vertexStoreDatabase);
 
 		if (txnLog != null) {
@@ -187,9 +215,9 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 				var value = entry();
 
 				if (txnIdDatabase.get(null, key, value, DEFAULT) == SUCCESS) {
-					var txnBytes = txnLog.read(fromByteArray(value.getData()));
+					var txn = readTxn(fromByteArray(value.getData()));
 					addBytesRead(value, key);
-					return Optional.of(Txn.create(txnBytes));
+					return Optional.of(txn);
 				}
 			} catch (Exception e) {
 				fail("Get of atom '" + aid + "' failed", e);
@@ -210,6 +238,8 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 	@Override
 	public <R> R transaction(TransactionEngineStoreConsumer<LedgerAndBFTProof, R> consumer) throws RadixEngineException {
 		var dbTxn = createTransaction();
+		var logPosition = txnLog.position();
+		var vertexStoreSave = new AtomicReference<SavedVertexStore>();
 		try {
 			var result = consumer.start(new EngineStoreInTransaction<>() {
 				@Override
@@ -220,29 +250,19 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 				@Override
 				public void storeMetadata(LedgerAndBFTProof metadata) {
 					BerkeleyLedgerEntryStore.this.storeMetadata(dbTxn, metadata);
+					metadata.vertexStoreState().ifPresent(v -> {
+						// Held until the transaction ends so no update can be appended to the state being replaced
+						if (!vertexStoreLock.isHeldByCurrentThread()) {
+							vertexStoreLock.lock();
+						}
+						vertexStoreSave.set(doSave(dbTxn, v));
+					});
 				}
 
 				@Override
 				public ByteBuffer verifyVirtualSubstate(SubstateId substateId)
 					throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
-					var parent = substateId.getVirtualParent().orElseThrow();
-
-					var parentState = BerkeleyLedgerEntryStore.this.loadSubstate(dbTxn, parent);
-					if (parentState.isEmpty()) {
-						throw new VirtualParentStateDoesNotExist(parent);
-					}
-
-					var buf = parentState.get();
-					if (buf.get() != SubstateTypeId.VIRTUAL_PARENT.id()) {
-						throw new VirtualParentStateDoesNotExist(parent);
-					}
-					buf.position(buf.position() - 1);
-
-					if (BerkeleyLedgerEntryStore.this.isVirtualDown(dbTxn, substateId)) {
-						throw new VirtualSubstateAlreadyDownException(substateId);
-					}
-
-					return buf;
+					return BerkeleyLedgerEntryStore.this.verifyVirtualSubstate(dbTxn, substateId);
 				}
 
 				@Override
@@ -260,14 +280,52 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 					return BerkeleyLedgerEntryStore.this.loadAddr(dbTxn, addr);
 				}
 			});
+			// All txns of this transaction are written to the log in one go before they are indexed
+			commitTxnLog();
 			dbTxn.commit();
+			if (vertexStoreSave.get() != null) {
+				this.savedVertexStore = vertexStoreSave.get();
+			}
 			return result;
 		} catch (Exception e) {
 			dbTxn.abort();
+			txnLog.truncate(logPosition);
 			throw e;
+		} finally {
+			if (vertexStoreLock.isHeldByCurrentThread()) {
+				vertexStoreLock.unlock();
+			}
 		}
 	}
 
+	@Override
+	public CMStore readOnlyView() {
+		// Reads outside of a transaction only see committed data and do not hold
+		// locks past each read, so no BDB transaction needs to be opened
+		return new CMStore() {
+			@Override
+			public ByteBuffer verifyVirtualSubstate(SubstateId substateId)
+				throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
+				return BerkeleyLedgerEntryStore.this.verifyVirtualSubstate(null, substateId);
+			}
+
+			@Override
+			public Optional<ByteBuffer> loadSubstate(SubstateId substateId) {
+				return BerkeleyLedgerEntryStore.this.loadSubstate(null, substateId);
+			}
+
+			@Override
+			public CloseableCursor<RawSubstateBytes> openIndexedCursor(SubstateIndex<?> index) {
+				return BerkeleyLedgerEntryStore.this.openIndexedCursor(null, index);
+			}
+
+			@Override
+			public Optional<ByteBuffer> loadResource(REAddr addr) {
+				return BerkeleyLedgerEntryStore.this.loadAddr(null, addr);
+			}
+		};
+	}
+
 	@Override
 	public CloseableCursor<RawSubstateBytes> openIndexedCursor(SubstateIndex<?> index) {
 		return BerkeleyLedgerEntryStore.this.openIndexedCursor(null, index);
@@ -287,6 +345,14 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		return Optional.of(substateBytes);
 	}
 
+	private void commitTxnLog() {
+		try {
+			txnLog.commit();
+		} catch (IOException e) {
+			throw new BerkeleyStoreException("Unable to write to atom store.", e);
+		}
+	}
+
 	private void storeTxn(Transaction dbTxn, Txn txn, List<REStateUpdate> stateUpdates) {
 		withTime(() -> doStore(dbTxn, txn, stateUpdates), CounterType.ELAPSED_BDB_LEDGER_STORE, CounterType.COUNT_BDB_LEDGER_STORE);
 	}
@@ -338,12 +404,11 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 
 			systemCounters.increment(CounterType.COUNT_BDB_LEDGER_PROOFS_ADDED);
 		}
-
-		ledgerAndBFTProof.vertexStoreState().ifPresent(v -> doSave(dbTxn, v));
 	}
 
 	public Optional<SerializedVertexStoreState> loadLastVertexStoreState() {
 		return withTime(() -> {
+			vertexStoreLock.lock();
 			try (var cursor = vertexStoreDatabase.openCursor(null, null)) {
 				var pKey = entry();
 				var value = entry();
@@ -352,30 +417,128 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 				if (status == SUCCESS) {
 					addBytesRead(value, pKey);
 					try {
-						return Optional.of(serialization.fromDson(value.getData(), SerializedVertexStoreState.class));
+						var vertexStoreState = serialization.fromDson(value.getData(), SerializedVertexStoreState.class);
+						return Optional.of(withVertexStoreUpdates(HashCode.fromBytes(pKey.getData()), vertexStoreState));
 					} catch (DeserializeException e) {
 						throw new IllegalStateException(e);
 					}
 				} else {
 					return Optional.empty();
 				}
+			} finally {
+				vertexStoreLock.unlock();
 			}
 		}, CounterType.ELAPSED_BDB_LEDGER_LAST_VERTEX, CounterType.COUNT_BDB_LEDGER_LAST_VERTEX);
 	}
 
+	private SerializedVertexStoreState withVertexStoreUpdates(
+		HashCode root,
+		SerializedVertexStoreState vertexStoreState
+	) throws DeserializeException {
+		var vertices = ImmutableList.<UnverifiedVertex>builder().addAll(vertexStoreState.getVertices());
+		var size = vertexStoreState.getVertices().size();
+		var highQC = vertexStoreState.getHighQC();
+		var highestTC = vertexStoreState.getHighestTC().orElse(null);
+		var nextUpdate = 0L;
+
+		try (var cursor = vertexStoreUpdatesDatabase.openCursor(null, null)) {
+			var key = entry();
+			var value = entry();
+			while (cursor.getNext(key, value, DEFAULT) == SUCCESS) {
+				addBytesRead(value, key);
+				var update = serialization.fromDson(value.getData(), SerializedVertexStoreUpdate.class);
+				if (update.getVertex().isPresent()) {
+					vertices.add(update.getVertex().get());
+					size++;
+				}
+				highQC = update.getHighQC();
+				highestTC = update.getHighestTC().orElse(null);
+				nextUpdate = Longs.fromByteArray(key.getData()) + 1;
+			}
+		}
+
+		this.savedVertexStore = new SavedVertexStore(root, size, nextUpdate);
+		return new SerializedVertexStoreState(highQC, vertexStoreState.getRoot(), vertices.build(), highestTC);
+	}
+
 	public void forEach(Consumer<Txn> particleConsumer) {
 		txnLog.forEach((bytes, offset) -> particleConsumer.accept(Txn.create(bytes)));
 	}
 
+	/**
+	 * Passes the committed transactions following the given state version to the consumer,
+	 * in state version order. Transactions up to the given state version are not read.
+	 */
+	public void forEach(long stateVersion, Consumer<Txn> txnConsumer) {
+		try (var atomCursor = txnDatabase.openCursor(null, null)) {
+			var key = toPKey(stateVersion + 1);
+			var atomPosData = entry();
+			var status = atomCursor.getSearchKeyRange(key, atomPosData, DEFAULT);
+			while (status == SUCCESS) {
+				var offset = fromByteArray(atomPosData.getData());
+				txnConsumer.accept(readTxn(offset));
+				status = atomCursor.getNext(key, atomPosData, DEFAULT);
+			}
+		} catch (IOException e) {
+			throw new BerkeleyStoreException("Unable to read from atom store.", e);
+		}
+	}
+
 	@Override
 	public void save(VerifiedVertexStoreState vertexStoreState) {
 		withTime(() -> {
-			var transaction = beginTransaction();
-			doSave(transaction, vertexStoreState);
-			transaction.commit();
+			vertexStoreLock.lock();
+			try {
+				var transaction = beginTransaction();
+				var saved = doSave(transaction, vertexStoreState);
+				transaction.commit();
+				this.savedVertexStore = saved;
+			} finally {
+				vertexStoreLock.unlock();
+			}
 		}, CounterType.ELAPSED_BDB_LEDGER_SAVE, CounterType.COUNT_BDB_LEDGER_SAVE);
 	}
 
+	@Override
+	public void saveUpdate(VerifiedVertexStoreState vertexStoreState, Optional<VerifiedVertex> insertedVertex) {
+		vertexStoreLock.lock();
+		try {
+			var saved = this.savedVertexStore;
+			var size = saved == null ? -1 : saved.size + (insertedVertex.isPresent() ? 1 : 0);
+			// Anything other than an insert or a QC/TC change since the last save, such as
+			// a commit which the ledger did not persist or a rebuild, requires a full save
+			if (saved == null || !vertexStoreState.getRoot().getId().equals(saved.root) || vertexStoreState.getVertices().size() != size) {
+				save(vertexStoreState);
+				return;
+			}
+
+			withTime(() -> {
+				var update = new SerializedVertexStoreUpdate(
+					insertedVertex.map(VerifiedVertex::toSerializable).orElse(null),
+					vertexStoreState.getHighQC(),
+					vertexStoreState.getHighestTC().orElse(null)
+				);
+				var transaction = beginTransaction();
+				try (var cursor = vertexStoreUpdatesDatabase.openCursor(transaction, null)) {
+					this.putNoOverwriteOrElseThrow(
+						cursor,
+						toPKey(saved.nextUpdate),
+						serializeAll(update),
+						"Store of vertex store update " + saved.nextUpdate
+					);
+				} catch (Exception e) {
+					transaction.abort();
+					fail("Store of vertex store update failed", e);
+				}
+				transaction.commit();
+
+				this.savedVertexStore = new SavedVertexStore(saved.root, size, saved.nextUpdate + 1);
+			}, CounterType.ELAPSED_BDB_LEDGER_SAVE, CounterType.COUNT_BDB_LEDGER_SAVE);
+		} finally {
+			vertexStoreLock.unlock();
+		}
+	}
+
 	private void open() {
 		var primaryConfig = buildPrimaryConfig();
 		var rriConfig = buildRriConfig();
@@ -466,9 +629,10 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 			proofDatabase = env.openDatabase(null, PROOF_DB_NAME, primaryConfig);
 			txnIdDatabase = env.openDatabase(null, TXN_ID_DB_NAME, primaryConfig);
 			vertexStoreDatabase = env.openDatabase(null, VERTEX_STORE_DB_NAME, pendingConfig);
+			vertexStoreUpdatesDatabase = env.openDatabase(null, VERTEX_STORE_UPDATES_DB_NAME, pendingConfig);
 			epochProofDatabase = env.openSecondaryDatabase(null, EPOCH_PROOF_DB_NAME, proofDatabase, buildEpochProofConfig());
 
-			txnLog = AppendLog.openCompressed(new File(env.getHome(), LEDGER_NAME).getAbsolutePath(), systemCounters);
+			txnLog = openTxnLog(env.getHome());
 		} catch (Exception e) {
 			throw new BerkeleyStoreException("Error while opening databases", e);
 		}
@@ -480,6 +644,17 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		}
 	}
 
+	private AppendLog openTxnLog(File home) throws IOException {
+		var ledgerFile = new File(home, LEDGER_NAME);
+		var blockLedgerFile = new File(home, BLOCK_LEDGER_NAME);
+		var blockLedgerTailFile = new File(home, BLOCK_LEDGER_NAME + BlockCompressedAppendLog.TAIL_SUFFIX);
+		// Offsets stored in the databases are specific to the log format, so an existing log is always kept
+		if (blockLedgerFile.length() > 0 || blockLedgerTailFile.length() > 0 || (storeConfig.isBlockCompressedTxnLog() && ledgerFile.length() == 0)) {
+			return AppendLog.openBlockCompressed(blockLedgerFile.getAbsolutePath(), systemCounters);
+		}
+		return AppendLog.openCompressed(ledgerFile.getAbsolutePath(), systemCounters);
+	}
+
 	private SecondaryConfig buildEpochProofConfig() {
 		return (SecondaryConfig) new SecondaryConfig()
 			.setKeyCreator(
@@ -552,12 +727,15 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		}
 	}
 
-	private void doSave(com.sleepycat.je.Transaction transaction, VerifiedVertexStoreState vertexStoreState) {
+	private SavedVertexStore doSave(com.sleepycat.je.Transaction transaction, VerifiedVertexStoreState vertexStoreState) {
 		var rootId = vertexStoreState.getRoot().getId();
 		var vertexKey = entry(rootId.asBytes());
 		var vertexEntry = serializeAll(vertexStoreState.toSerialized());
 
-		try (var cursor = vertexStoreDatabase.openCursor(transaction, null)) {
+		try (
+			var cursor = vertexStoreDatabase.openCursor(transaction, null);
+			var updatesCursor = vertexStoreUpdatesDatabase.openCursor(transaction, null)
+		) {
 			var status = cursor.getLast(null, null, DEFAULT);
 			if (status == SUCCESS) {
 				cursor.delete();
@@ -569,10 +747,20 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 				vertexEntry,
 				"Store of root vertex with ID " + rootId
 			);
+
+			// Updates to the previous state are included in the new state
+			var updateKey = entry();
+			var updateValue = entry();
+			updateValue.setPartial(0, 0, true);
+			while (updatesCursor.getNext(updateKey, updateValue, DEFAULT) == SUCCESS) {
+				updatesCursor.delete();
+			}
 		} catch (Exception e) {
 			transaction.abort();
 			fail("Commit of atom failed", e);
 		}
+
+		return new SavedVertexStore(rootId, vertexStoreState.getVertices().size(), 0);
 	}
 
 	private static DatabaseEntry toHeaderKey(LedgerProof header) {
@@ -870,6 +1058,17 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		}
 	}
 
+	private Txn readTxn(long offset) throws IOException {
+		var buffer = txnLog.readBuffer(offset);
+		// Chunks which are decompressed or not yet written are already backed by an array of their own
+		if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.limit() == buffer.array().length) {
+			return Txn.create(buffer.array());
+		}
+		var payload = new byte[buffer.remaining()];
+		buffer.get(payload);
+		return Txn.create(payload);
+	}
+
 	private com.sleepycat.je.Transaction beginTransaction() {
 		return dbEnv.getEnvironment().beginTransaction(null, null);
 	}
@@ -884,8 +1083,12 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 
 	@Override
 	public VerifiedTxnsAndProof getNextCommittedTxns(DtoLedgerProof start) {
-
 		long stateVersion = start.getLedgerHeader().getAccumulatorState().getStateVersion();
+		return getNextCommittedTxns(start, stateVersion, Long.MAX_VALUE);
+	}
+
+	@Override
+	public VerifiedTxnsAndProof getNextCommittedTxns(DtoLedgerProof start, long stateVersion, long maxBytes) {
 		final var startTime = System.nanoTime();
 
 		com.sleepycat.je.Transaction txn = beginTransaction();
@@ -907,19 +1110,24 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		final var atomPosData = entry();
 
 		try (var atomCursor = txnDatabase.openCursor(null, null)) {
-			int atomCount = (int) (nextHeader.getStateVersion() - stateVersion);
-			int count = 0;
+			long atomCount = nextHeader.getStateVersion() - stateVersion;
+			long count = 0;
+			long bytes = 0;
 			var atomCursorStatus = atomCursor.getSearchKeyRange(atomSearchKey, atomPosData, DEFAULT);
 			do {
 				if (atomCursorStatus != SUCCESS) {
 					throw new BerkeleyStoreException("Atom database search failure");
 				}
 				var offset = fromByteArray(atomPosData.getData());
-				var txnBytes = txnLog.read(offset);
-				txns.add(Txn.create(txnBytes));
-				atomCursorStatus = atomCursor.getNext(atomSearchKey, atomPosData, DEFAULT);
+				var txn = readTxn(offset);
+				txns.add(txn);
+				bytes += txn.getPayload().length;
 				count++;
-			} while (count < atomCount);
+				// Only move the cursor on if there's more to read
+				if (count < atomCount && bytes < maxBytes) {
+					atomCursorStatus = atomCursor.getNext(atomSearchKey, atomPosData, DEFAULT);
+				}
+			} while (count < atomCount && bytes < maxBytes);
 
 			return VerifiedTxnsAndProof.create(txns.build(), nextHeader);
 		} catch (IOException e) {
@@ -948,6 +1156,28 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		return entryToSubstate(value);
 	}
 
+	private ByteBuffer verifyVirtualSubstate(Transaction dbTxn, SubstateId substateId)
+		throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
+		var parent = substateId.getVirtualParent().orElseThrow();
+
+		var parentState = loadSubstate(dbTxn, parent);
+		if (parentState.isEmpty()) {
+			throw new VirtualParentStateDoesNotExist(parent);
+		}
+
+		var buf = parentState.get();
+		if (buf.get() != SubstateTypeId.VIRTUAL_PARENT.id()) {
+			throw new VirtualParentStateDoesNotExist(parent);
+		}
+		buf.position(buf.position() - 1);
+
+		if (isVirtualDown(dbTxn, substateId)) {
+			throw new VirtualSubstateAlreadyDownException(substateId);
+		}
+
+		return buf;
+	}
+
 	private boolean isVirtualDown(Transaction dbTxn, SubstateId substateId) {
 		var key = entry(substateId.asBytes());
 		var value = entry();
@@ -966,6 +1196,24 @@ public final class BerkeleyLedgerEntryStore implements EngineStore<LedgerAndBFTP
 		return entryToSubstate(value);
 	}
 
+	@Override
+	public List<LedgerProof> getNextProofs(long stateVersion, int limit) {
+		return withTime(() -> {
+			var proofs = new ArrayList<LedgerProof>(limit);
+			try (var proofCursor = proofDatabase.openCursor(null, null)) {
+				var pKey = toPKey(stateVersion + 1);
+				var value = entry();
+				var status = proofCursor.getSearchKeyRange(pKey, value, DEFAULT);
+				while (status == SUCCESS && proofs.size() < limit) {
+					addBytesRead(value, pKey);
+					proofs.add(deserializeOrElseFail(value.getData(), LedgerProof.class));
+					status = proofCursor.getNext(pKey, value, DEFAULT);
+				}
+			}
+			return proofs;
+		}, CounterType.ELAPSED_BDB_LEDGER_ENTRIES, CounterType.COUNT_BDB_LEDGER_ENTRIES);
+	}
+
 	@Override
 	public Optional<LedgerProof> getLastProof() {
 		return withTime(() -> {
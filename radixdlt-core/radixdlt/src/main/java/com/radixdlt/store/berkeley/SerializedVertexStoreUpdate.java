@@ -0,0 +1,105 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.radixdlt.consensus.HighQC;
+import com.radixdlt.consensus.TimeoutCertificate;
+import com.radixdlt.consensus.UnverifiedVertex;
+import com.radixdlt.serialization.DsonOutput;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.SerializerConstants;
+import com.radixdlt.serialization.SerializerDummy;
+import com.radixdlt.serialization.SerializerId2;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Change to a {@link SerializedVertexStoreState} which can be serialized.
+ * Changes are appended to the last saved state until the state is saved again.
+ */
+@SerializerId2("store.vertex_update")
+public final class SerializedVertexStoreUpdate {
+
+	@JsonProperty(SerializerConstants.SERIALIZER_NAME)
+	@DsonOutput(Output.ALL)
+	SerializerDummy serializer = SerializerDummy.DUMMY;
+
+	@JsonProperty("vertex")
+	@DsonOutput(Output.ALL)
+	private final UnverifiedVertex vertex;
+
+	@JsonProperty("high_qc")
+	@DsonOutput(Output.ALL)
+	private final HighQC highQC;
+
+	@JsonProperty("highest_tc")
+	@DsonOutput(Output.ALL)
+	private final TimeoutCertificate highestTC;
+
+	@JsonCreator
+	public SerializedVertexStoreUpdate(
+		@JsonProperty("vertex") UnverifiedVertex vertex,
+		@JsonProperty("high_qc") HighQC highQC,
+		@JsonProperty("highest_tc") TimeoutCertificate highestTC
+	) {
+		this.vertex = vertex;
+		this.highQC = Objects.requireNonNull(highQC);
+		this.highestTC = highestTC;
+	}
+
+	public Optional<UnverifiedVertex> getVertex() {
+		return Optional.ofNullable(vertex);
+	}
+
+	public HighQC getHighQC() {
+		return highQC;
+	}
+
+	public Optional<TimeoutCertificate> getHighestTC() {
+		return Optional.ofNullable(highestTC);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(vertex, highQC, highestTC);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof SerializedVertexStoreUpdate)) {
+			return false;
+		}
+
+		SerializedVertexStoreUpdate other = (SerializedVertexStoreUpdate) o;
+		return Objects.equals(this.vertex, other.vertex)
+			&& Objects.equals(this.highQC, other.highQC)
+			&& Objects.equals(this.highestTC, other.highestTC);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{vertex=%s highQC=%s highestTc=%s}",
+			this.getClass().getSimpleName(),
+			this.vertex,
+			this.highQC,
+			this.highestTC
+		);
+	}
+}
@@ -21,6 +21,7 @@ import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.utils.Pair;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.function.BiConsumer;
 
 /**
@@ -41,7 +42,36 @@ public interface AppendLog {
 	 * @throws IOException
 	 */
 	static AppendLog openCompressed(String path, SystemCounters counters) throws IOException {
-		return CompressedAppendLog.open(openSimple(path), counters);
+		return CompressedAppendLog.open(openMapped(path), counters);
+	}
+
+	/**
+	 * Open R/W append log which compresses chunks in blocks using trained dictionaries.
+	 * Chunk offsets of this log are not compatible with other log implementations. Chunks
+	 * of the block which is not full yet are stored uncompressed in a separate tail file.
+	 *
+	 * @param path log file path
+	 * @param counters system counters to use
+	 *
+	 * @return append log
+	 *
+	 * @throws IOException
+	 */
+	static AppendLog openBlockCompressed(String path, SystemCounters counters) throws IOException {
+		return BlockCompressedAppendLog.open(openMapped(path), path + BlockCompressedAppendLog.TAIL_SUFFIX, counters);
+	}
+
+	/**
+	 * Open memory mapped R/W append log.
+	 *
+	 * @param path log file path
+	 *
+	 * @return append log
+	 *
+	 * @throws IOException
+	 */
+	static AppendLog openMapped(String path) throws IOException {
+		return MappedAppendLog.open(path);
 	}
 
 	/**
@@ -98,6 +128,26 @@ public interface AppendLog {
 	 */
 	Pair<byte[], Integer> readChunk(long offset) throws IOException;
 
+	/**
+	 * Read chunk at specified position. Implementations may return a read-only view of
+	 * their storage rather than a copy, which stays valid until the log is truncated or closed.
+	 *
+	 * @param offset offset to read from
+	 *
+	 * @return buffer with the chunk data between its position and limit
+	 */
+	default ByteBuffer readBuffer(long offset) throws IOException {
+		return ByteBuffer.wrap(read(offset));
+	}
+
+	/**
+	 * Make all chunks written so far visible in the log file. Implementations which
+	 * write chunks immediately do not need to do anything.
+	 */
+	default void commit() throws IOException {
+		// Chunks are written immediately by default
+	}
+
 	/**
 	 * Force flushing data to disk.
 	 */
@@ -0,0 +1,577 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley.atom;
+
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.utils.Pair;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.radixdlt.counters.SystemCounters.CounterType.PERSISTENCE_ATOM_LOG_WRITE_BYTES;
+import static com.radixdlt.counters.SystemCounters.CounterType.PERSISTENCE_ATOM_LOG_WRITE_COMPRESSED;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Append log which groups written chunks into blocks of up to {@value #MAX_BLOCK_CHUNKS} chunks
+ * and stores every block as a single Deflate compressed chunk of the delegate log, using a preset
+ * dictionary trained on recently written chunks.
+ * <p>
+ * Offsets returned by {@link #write(byte[])} address the block by the delegate offset of its chunk
+ * in the upper bits and the index of the chunk within the block in the lowest {@value #INDEX_BITS}
+ * bits. Block chunks have the following format:
+ * <pre>
+ *     [version] [dictionary type] [dictionary] [chunk count] [chunk length 0, ..., chunk length N] [deflated chunks]
+ * </pre>
+ * The chunk lengths form the block index used to locate a chunk within the inflated block. The dictionary
+ * is either absent, embedded in the block or a reference to an earlier block which embeds it. A new dictionary
+ * is trained every {@value #BLOCKS_PER_DICTIONARY} blocks.
+ * <p>
+ * Blocks are written to the delegate log once, when they are full. Until then, committed chunks of the
+ * open block are kept uncompressed in the tail log, which starts with the delegate offset the open block
+ * will be written at. The tail is only replaced after the sealed block is committed to the delegate log,
+ * so committed chunks are always present in one of the two logs. A tail whose block is already present
+ * in the delegate log is discarded on open.
+ * <p>
+ * The tail is replaced by writing the new tail to a separate file, which is flushed and then moved over
+ * the tail file atomically, so a crash during the replacement leaves the previous tail intact.
+ */
+public final class BlockCompressedAppendLog implements AppendLog {
+	public static final String TAIL_SUFFIX = ".tail";
+	static final String REWRITE_SUFFIX = ".rewrite";
+
+	static final int INDEX_BITS = 8;
+	static final int MAX_BLOCK_CHUNKS = 1 << INDEX_BITS;
+	private static final int MAX_BLOCK_BYTES = 64 * 1024;
+	private static final int BLOCKS_PER_DICTIONARY = 1024;
+	private static final int MIN_SAMPLES_PER_DICTIONARY = 32;
+	private static final int MAX_SAMPLE_BYTES = 256 * 1024;
+	private static final int MAX_DICTIONARY_BYTES = 16 * 1024;
+	private static final int CACHED_BLOCKS = 16;
+	private static final int CACHED_DICTIONARIES = 4;
+	private static final int TAIL_HEADER_BYTES = 1 + Long.BYTES;
+
+	private static final byte VERSION = 1;
+	private static final byte NO_DICTIONARY = 0;
+	private static final byte EMBEDDED_DICTIONARY = 1;
+	private static final byte REFERENCED_DICTIONARY = 2;
+
+	private final Object lock = new Object();
+	private final AppendLog delegate;
+	private final String tailPath;
+	private final LogOpener tailOpener;
+	private final SystemCounters counters;
+	private final DictionaryTrainer trainer = new DictionaryTrainer(MAX_SAMPLE_BYTES);
+	private final Map<Long, Block> blockCache = lruCache(CACHED_BLOCKS);
+	private final Map<Long, byte[]> dictionaryCache = lruCache(CACHED_DICTIONARIES);
+
+	private long dictionaryOffset = -1;
+	private byte[] dictionary;
+	private int blocksSinceDictionary;
+
+	private final List<byte[]> openChunks = new ArrayList<>();
+	private int openBytes;
+	private long openOffset;
+
+	// Block the tail log belongs to and tail offsets of the chunks stored in it
+	private AppendLog tail;
+	private long tailOffset = -1;
+	private final List<Long> tailChunkOffsets = new ArrayList<>();
+
+	@FunctionalInterface
+	interface LogOpener {
+		AppendLog open(String path) throws IOException;
+	}
+
+	private BlockCompressedAppendLog(
+		AppendLog delegate,
+		AppendLog tail,
+		String tailPath,
+		LogOpener tailOpener,
+		SystemCounters counters
+	) {
+		this.delegate = delegate;
+		this.tail = tail;
+		this.tailPath = tailPath;
+		this.tailOpener = tailOpener;
+		this.counters = counters;
+		this.openOffset = delegate.position();
+	}
+
+	static BlockCompressedAppendLog open(AppendLog delegate, String tailPath, SystemCounters counters) throws IOException {
+		return open(delegate, tailPath, AppendLog::openMapped, counters);
+	}
+
+	static BlockCompressedAppendLog open(
+		AppendLog delegate,
+		String tailPath,
+		LogOpener tailOpener,
+		SystemCounters counters
+	) throws IOException {
+		var appendLog = new BlockCompressedAppendLog(delegate, tailOpener.open(tailPath), tailPath, tailOpener, counters);
+		appendLog.loadTail();
+		return appendLog;
+	}
+
+	private static <K, V> Map<K, V> lruCache(int maxSize) {
+		return new LinkedHashMap<>(maxSize, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	private static long address(long blockOffset, int index) {
+		return (blockOffset << INDEX_BITS) | index;
+	}
+
+	private static long blockOffset(long address) {
+		return address >>> INDEX_BITS;
+	}
+
+	private static int index(long address) {
+		return (int) (address & (MAX_BLOCK_CHUNKS - 1));
+	}
+
+	private void loadTail() {
+		var chunks = new ArrayList<byte[]>();
+		var offsets = new ArrayList<Long>();
+		tail.forEach((data, offset) -> {
+			chunks.add(data);
+			offsets.add(offset);
+		});
+
+		if (chunks.isEmpty()) {
+			return;
+		}
+
+		var header = ByteBuffer.wrap(chunks.get(0));
+		if (chunks.get(0).length != TAIL_HEADER_BYTES || header.get() != VERSION || header.getLong() != openOffset) {
+			// Either unreadable or its block was sealed before the tail could be replaced
+			tail.truncate(0);
+			return;
+		}
+
+		// Drop whatever follows the last complete chunk, the tail uses the format of the delegate logs
+		var lastIndex = chunks.size() - 1;
+		tail.truncate(offsets.get(lastIndex) + Integer.BYTES + chunks.get(lastIndex).length);
+
+		tailOffset = openOffset;
+		for (int i = 1; i < chunks.size(); i++) {
+			openChunks.add(chunks.get(i));
+			openBytes += chunks.get(i).length;
+			tailChunkOffsets.add(offsets.get(i));
+			trainer.addSample(chunks.get(i));
+		}
+	}
+
+	@Override
+	public long position() {
+		synchronized (lock) {
+			return address(openOffset, openChunks.size());
+		}
+	}
+
+	@Override
+	public long write(byte[] data) throws IOException {
+		synchronized (lock) {
+			var address = address(openOffset, openChunks.size());
+			openChunks.add(data);
+			openBytes += data.length;
+			trainer.addSample(data);
+			counters.add(PERSISTENCE_ATOM_LOG_WRITE_BYTES, data.length);
+
+			if (openChunks.size() == MAX_BLOCK_CHUNKS || openBytes >= MAX_BLOCK_BYTES) {
+				seal();
+			}
+			return address;
+		}
+	}
+
+	private void seal() throws IOException {
+		var retrain = dictionary == null
+			? trainer.sampleCount() >= MIN_SAMPLES_PER_DICTIONARY
+			: blocksSinceDictionary >= BLOCKS_PER_DICTIONARY;
+		if (retrain) {
+			dictionary = trainer.train(MAX_DICTIONARY_BYTES);
+			dictionaryOffset = openOffset;
+			blocksSinceDictionary = 0;
+		}
+		blocksSinceDictionary++;
+
+		var encoded = encodeBlock(dictionary == null ? -1 : dictionaryOffset);
+		var offset = delegate.write(encoded);
+		if (offset != openOffset) {
+			throw new IOException("Block written at " + offset + " instead of " + openOffset);
+		}
+		counters.add(PERSISTENCE_ATOM_LOG_WRITE_COMPRESSED, encoded.length);
+		blockCache.remove(openOffset);
+
+		openChunks.clear();
+		openBytes = 0;
+		openOffset = delegate.position();
+	}
+
+	private byte[] encodeBlock(long blockDictionaryOffset) {
+		var payload = new ByteArrayOutputStream(openBytes);
+		openChunks.forEach(payload::writeBytes);
+
+		var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		var out = new ByteArrayOutputStream(openBytes / 2 + 64);
+		try {
+			out.write(VERSION);
+			if (blockDictionaryOffset < 0) {
+				out.write(NO_DICTIONARY);
+			} else if (blockDictionaryOffset == openOffset) {
+				out.write(EMBEDDED_DICTIONARY);
+				out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(dictionary.length).array());
+				out.writeBytes(dictionary);
+				deflater.setDictionary(dictionary);
+			} else {
+				out.write(REFERENCED_DICTIONARY);
+				out.writeBytes(ByteBuffer.allocate(Long.BYTES).putLong(blockDictionaryOffset).array());
+				deflater.setDictionary(dictionary);
+			}
+
+			var index = ByteBuffer.allocate(Integer.BYTES * (openChunks.size() + 1)).putInt(openChunks.size());
+			openChunks.forEach(chunk -> index.putInt(chunk.length));
+			out.writeBytes(index.array());
+
+			deflater.setInput(payload.toByteArray());
+			deflater.finish();
+			var buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Override
+	public void commit() throws IOException {
+		synchronized (lock) {
+			if (tailOffset == openOffset) {
+				appendTail();
+				delegate.commit();
+			} else {
+				// Blocks sealed since the last commit must be durable before the tail they replace is dropped
+				delegate.commit();
+				rewriteTail();
+			}
+		}
+	}
+
+	private void appendTail() throws IOException {
+		if (tailChunkOffsets.size() == openChunks.size()) {
+			return;
+		}
+
+		for (int i = tailChunkOffsets.size(); i < openChunks.size(); i++) {
+			tailChunkOffsets.add(tail.write(openChunks.get(i)));
+		}
+		tail.commit();
+	}
+
+	private void rewriteTail() throws IOException {
+		// The current tail stays in place until the new one is durable
+		var rewritePath = Path.of(tailPath + REWRITE_SUFFIX);
+		Files.deleteIfExists(rewritePath);
+		var rewritten = tailOpener.open(rewritePath.toString());
+		var chunkOffsets = new ArrayList<Long>();
+		try {
+			rewritten.write(ByteBuffer.allocate(TAIL_HEADER_BYTES).put(VERSION).putLong(openOffset).array());
+			for (var chunk : openChunks) {
+				chunkOffsets.add(rewritten.write(chunk));
+			}
+			rewritten.commit();
+			rewritten.flush();
+			Files.move(rewritePath, Path.of(tailPath), ATOMIC_MOVE, REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			rewritten.close();
+			Files.deleteIfExists(rewritePath);
+			throw e;
+		}
+
+		// The open file now is the tail file, so it is kept instead of opening the tail again
+		tail.close();
+		tail = rewritten;
+		tailChunkOffsets.clear();
+		tailChunkOffsets.addAll(chunkOffsets);
+		tailOffset = openOffset;
+	}
+
+	@Override
+	public Pair<byte[], Integer> readChunk(long offset) throws IOException {
+		synchronized (lock) {
+			var blockOffset = blockOffset(offset);
+			var index = index(offset);
+			if (blockOffset == openOffset) {
+				if (index >= openChunks.size()) {
+					throw new IOException("No chunk at " + offset + ", size " + position());
+				}
+				var data = openChunks.get(index).clone();
+				return Pair.of(data, data.length);
+			}
+
+			var data = loadBlock(blockOffset).chunk(index);
+			return Pair.of(data, data.length);
+		}
+	}
+
+	private Block loadBlock(long blockOffset) throws IOException {
+		var block = blockCache.get(blockOffset);
+		if (block == null) {
+			block = decodeBlock(blockOffset, delegate.readBuffer(blockOffset));
+			blockCache.put(blockOffset, block);
+		}
+		return block;
+	}
+
+	private Block decodeBlock(long blockOffset, ByteBuffer buffer) throws IOException {
+		try {
+			var version = buffer.get();
+			if (version != VERSION) {
+				throw new IOException("Unsupported block version " + version + " at " + blockOffset);
+			}
+
+			var blockDictionaryOffset = readDictionaryOffset(blockOffset, buffer);
+			var blockDictionary = blockDictionaryOffset < 0 ? null : loadDictionary(blockDictionaryOffset);
+			var count = buffer.getInt();
+			if (count < 0 || count > MAX_BLOCK_CHUNKS) {
+				throw new IOException("Invalid chunk count " + count + " at " + blockOffset);
+			}
+			var offsets = new int[count + 1];
+			for (int i = 0; i < count; i++) {
+				offsets[i + 1] = offsets[i] + buffer.getInt();
+			}
+
+			var payload = inflate(buffer, blockDictionary, offsets[count]);
+			return new Block(payload, offsets, blockDictionaryOffset);
+		} catch (BufferUnderflowException | DataFormatException e) {
+			throw new IOException("Corrupted block at " + blockOffset, e);
+		}
+	}
+
+	private long readDictionaryOffset(long blockOffset, ByteBuffer buffer) throws IOException {
+		var type = buffer.get();
+		switch (type) {
+			case NO_DICTIONARY:
+				return -1;
+			case EMBEDDED_DICTIONARY:
+				var embedded = new byte[buffer.getInt()];
+				buffer.get(embedded);
+				dictionaryCache.put(blockOffset, embedded);
+				return blockOffset;
+			case REFERENCED_DICTIONARY:
+				return buffer.getLong();
+			default:
+				throw new IOException("Unknown dictionary type " + type + " at " + blockOffset);
+		}
+	}
+
+	private byte[] loadDictionary(long blockOffset) throws IOException {
+		var cached = dictionaryCache.get(blockOffset);
+		if (cached != null) {
+			return cached;
+		}
+
+		var buffer = delegate.readBuffer(blockOffset);
+		try {
+			buffer.get();
+			if (buffer.get() != EMBEDDED_DICTIONARY) {
+				throw new IOException("No dictionary in block at " + blockOffset);
+			}
+			var loaded = new byte[buffer.getInt()];
+			buffer.get(loaded);
+			dictionaryCache.put(blockOffset, loaded);
+			return loaded;
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Corrupted dictionary at " + blockOffset, e);
+		}
+	}
+
+	private static byte[] inflate(ByteBuffer buffer, byte[] dictionary, int length) throws DataFormatException {
+		var input = new byte[buffer.remaining()];
+		buffer.get(input);
+
+		var inflater = new Inflater(true);
+		try {
+			if (dictionary != null) {
+				inflater.setDictionary(dictionary);
+			}
+			inflater.setInput(input);
+			var payload = new byte[length];
+			var inflated = 0;
+			while (inflated < length) {
+				var len = inflater.inflate(payload, inflated, length - inflated);
+				if (len == 0 && (inflater.finished() || inflater.needsInput())) {
+					throw new DataFormatException("Got " + inflated + " bytes instead of " + length);
+				}
+				inflated += len;
+			}
+			return payload;
+		} finally {
+			inflater.end();
+		}
+	}
+
+	@Override
+	public void truncate(long position) {
+		synchronized (lock) {
+			var blockOffset = blockOffset(position);
+			var index = index(position);
+
+			if (blockOffset == openOffset) {
+				truncateOpenBlock(index);
+			} else if (blockOffset < openOffset) {
+				reopenBlock(blockOffset, index);
+			}
+
+			blockCache.keySet().removeIf(offset -> offset >= blockOffset);
+			dictionaryCache.keySet().removeIf(offset -> offset > blockOffset || (offset == blockOffset && offset != dictionaryOffset));
+		}
+	}
+
+	private void truncateOpenBlock(int index) {
+		if (index < openChunks.size()) {
+			openChunks.subList(index, openChunks.size()).clear();
+			openBytes = openChunks.stream().mapToInt(chunk -> chunk.length).sum();
+		}
+
+		if (tailOffset == openOffset && index < tailChunkOffsets.size()) {
+			tail.truncate(tailChunkOffsets.get(index));
+			tailChunkOffsets.subList(index, tailChunkOffsets.size()).clear();
+		}
+	}
+
+	private void reopenBlock(long blockOffset, int index) {
+		try {
+			var block = decodeBlock(blockOffset, delegate.readBuffer(blockOffset));
+			var chunks = new ArrayList<byte[]>();
+			for (int i = 0; i < index; i++) {
+				chunks.add(block.chunk(i));
+			}
+
+			if (block.dictionaryOffset >= 0) {
+				// An embedded dictionary is embedded again when the block is sealed at the same offset
+				dictionary = loadDictionary(block.dictionaryOffset);
+				dictionaryOffset = block.dictionaryOffset;
+			} else if (dictionaryOffset >= blockOffset) {
+				dictionary = null;
+				dictionaryOffset = -1;
+			}
+
+			openChunks.clear();
+			openChunks.addAll(chunks);
+			openBytes = chunks.stream().mapToInt(chunk -> chunk.length).sum();
+			openOffset = blockOffset;
+
+			// Chunks kept from the block are stored in the tail before the block is removed
+			rewriteTail();
+			delegate.truncate(blockOffset);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to truncate log to block at " + blockOffset, e);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		synchronized (lock) {
+			commit();
+			delegate.flush();
+			tail.flush();
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (lock) {
+			try {
+				commit();
+			} catch (IOException e) {
+				throw new RuntimeException("Error while closing log", e);
+			}
+			delegate.close();
+			tail.close();
+		}
+	}
+
+	@Override
+	public void forEach(BiConsumer<byte[], Long> chunkConsumer) {
+		synchronized (lock) {
+			var end = new boolean[1];
+			delegate.forEach((data, blockOffset) -> {
+				if (end[0]) {
+					return;
+				}
+				try {
+					var block = decodeBlock(blockOffset, ByteBuffer.wrap(data));
+					for (int i = 0; i < block.size(); i++) {
+						chunkConsumer.accept(block.chunk(i), address(blockOffset, i));
+					}
+				} catch (IOException e) {
+					end[0] = true;
+				}
+			});
+
+			for (int i = 0; i < openChunks.size(); i++) {
+				chunkConsumer.accept(openChunks.get(i).clone(), address(openOffset, i));
+			}
+		}
+	}
+
+	private static final class Block {
+		private final byte[] payload;
+		private final int[] offsets;
+		private final long dictionaryOffset;
+
+		private Block(byte[] payload, int[] offsets, long dictionaryOffset) {
+			this.payload = payload;
+			this.offsets = offsets;
+			this.dictionaryOffset = dictionaryOffset;
+		}
+
+		private int size() {
+			return offsets.length - 1;
+		}
+
+		private byte[] chunk(int index) throws IOException {
+			if (index >= size()) {
+				throw new IOException("No chunk " + index + " in block of " + size());
+			}
+			return Arrays.copyOfRange(payload, offsets[index], offsets[index + 1]);
+		}
+	}
+}
@@ -62,8 +62,14 @@ public class CompressedAppendLog implements AppendLog {
 
 	@Override
 	public Pair<byte[], Integer> readChunk(final long offset) throws IOException {
-		var result = delegate.readChunk(offset);
-		return Pair.of(Compress.uncompress(result.getFirst()), result.getSecond());
+		var compressed = delegate.readBuffer(offset);
+		var length = compressed.remaining();
+		return Pair.of(Compress.uncompress(compressed), length);
+	}
+
+	@Override
+	public void commit() throws IOException {
+		delegate.commit();
 	}
 
 	@Override
@@ -0,0 +1,132 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley.atom;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Builds preset dictionaries for Deflate out of recently written chunks.
+ * <p>
+ * The trainer keeps a bounded window of the most recent samples. Training counts in how many
+ * samples every {@value #GRAM_SIZE} byte sequence occurs, extracts the runs of bytes made of
+ * sequences shared by several samples and concatenates the best scoring runs, with the most
+ * valuable ones last so that they end up closest to the compressed data.
+ */
+final class DictionaryTrainer {
+	private static final int GRAM_SIZE = 8;
+	private static final int MIN_OCCURRENCES = 2;
+
+	private final int maxSampleBytes;
+	private final ArrayDeque<byte[]> samples = new ArrayDeque<>();
+	private int sampleBytes;
+
+	DictionaryTrainer(int maxSampleBytes) {
+		this.maxSampleBytes = maxSampleBytes;
+	}
+
+	void addSample(byte[] sample) {
+		samples.addLast(sample);
+		sampleBytes += sample.length;
+		while (sampleBytes > maxSampleBytes && samples.size() > 1) {
+			sampleBytes -= samples.removeFirst().length;
+		}
+	}
+
+	int sampleCount() {
+		return samples.size();
+	}
+
+	byte[] train(int maxDictionarySize) {
+		var occurrences = new HashMap<Long, Integer>();
+		for (var sample : samples) {
+			var seen = new HashSet<Long>();
+			for (int i = 0; i + GRAM_SIZE <= sample.length; i++) {
+				var gram = gram(sample, i);
+				if (seen.add(gram)) {
+					occurrences.merge(gram, 1, Integer::sum);
+				}
+			}
+		}
+
+		var segments = new HashMap<ByteBuffer, Long>();
+		for (var sample : samples) {
+			collectSegments(sample, occurrences, segments);
+		}
+
+		var best = new ArrayList<>(segments.entrySet());
+		best.sort(Map.Entry.<ByteBuffer, Long>comparingByValue(Comparator.reverseOrder()));
+
+		var selected = new ArrayList<ByteBuffer>();
+		var size = 0;
+		for (var entry : best) {
+			var segment = entry.getKey();
+			if (size + segment.remaining() > maxDictionarySize) {
+				continue;
+			}
+			selected.add(segment);
+			size += segment.remaining();
+		}
+
+		var dictionary = new ByteArrayOutputStream(size);
+		for (int i = selected.size() - 1; i >= 0; i--) {
+			var segment = selected.get(i);
+			dictionary.write(segment.array(), segment.arrayOffset() + segment.position(), segment.remaining());
+		}
+		return dictionary.toByteArray();
+	}
+
+	private static void collectSegments(byte[] sample, Map<Long, Integer> occurrences, Map<ByteBuffer, Long> segments) {
+		var start = -1;
+		var end = -1;
+		var score = 0L;
+		for (int i = 0; i + GRAM_SIZE <= sample.length; i++) {
+			int count = occurrences.getOrDefault(gram(sample, i), 0);
+			if (count >= MIN_OCCURRENCES) {
+				if (start < 0 || i > end) {
+					addSegment(sample, start, end, score, segments);
+					start = i;
+					score = 0;
+				}
+				end = i + GRAM_SIZE;
+				score += count;
+			}
+		}
+		addSegment(sample, start, end, score, segments);
+	}
+
+	private static void addSegment(byte[] sample, int start, int end, long score, Map<ByteBuffer, Long> segments) {
+		if (start >= 0) {
+			segments.putIfAbsent(ByteBuffer.wrap(sample, start, end - start).slice(), score);
+		}
+	}
+
+	private static long gram(byte[] data, int offset) {
+		var value = 0L;
+		for (int i = 0; i < GRAM_SIZE; i++) {
+			value = (value << 8) | (data[offset + i] & 0xFFL);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley.atom;
+
+import com.radixdlt.utils.Pair;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import static java.nio.ByteBuffer.allocate;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only log which uses the same file format as {@link SimpleAppendLog} but
+ * buffers written chunks until {@link #commit()}, which writes them with a single
+ * gathered write, and serves reads from read-only memory mapped regions of the file.
+ * <p>
+ * The file is split into fixed size regions which are mapped once they are completely
+ * written. Chunks which lie within a mapped region are returned as slices of the mapping
+ * without copying, chunks in the partially written last region or spanning two regions
+ * are read from the channel.
+ * <p>
+ * Only a limited number of recently read regions is kept mapped. Mappings are never unmapped
+ * explicitly, as returned slices may still be read after the log is truncated or closed.
+ * Mappings dropped from that set, or by truncate and close, are released by the garbage
+ * collector once no returned slice refers to them.
+ */
+public final class MappedAppendLog implements AppendLog {
+	static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+	static final int DEFAULT_MAX_MAPPED_REGIONS = 16;
+	private static final long FORCE_INTERVAL_BYTES = 16L * 1024 * 1024;
+
+	private final Object lock = new Object();
+	private final FileChannel channel;
+	private final int regionSize;
+	private final Map<Integer, MappedByteBuffer> regions;
+	private final TreeMap<Long, byte[]> pending = new TreeMap<>();
+	private long writtenPosition;
+	private long pendingBytes;
+	private long unforcedBytes;
+
+	private MappedAppendLog(FileChannel channel, int regionSize, int maxMappedRegions) throws IOException {
+		this.channel = channel;
+		this.regionSize = regionSize;
+		this.writtenPosition = channel.size();
+		this.regions = new LinkedHashMap<>(maxMappedRegions, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, MappedByteBuffer> eldest) {
+				// Slices of the mapping may still be in use, so it is left to the garbage collector
+				return size() > maxMappedRegions;
+			}
+		};
+	}
+
+	static AppendLog open(String path) throws IOException {
+		return open(path, DEFAULT_REGION_SIZE, DEFAULT_MAX_MAPPED_REGIONS);
+	}
+
+	static MappedAppendLog open(String path, int regionSize) throws IOException {
+		return open(path, regionSize, DEFAULT_MAX_MAPPED_REGIONS);
+	}
+
+	static MappedAppendLog open(String path, int regionSize, int maxMappedRegions) throws IOException {
+		var channel = FileChannel.open(Path.of(path), EnumSet.of(READ, WRITE, CREATE));
+		return new MappedAppendLog(channel, regionSize, maxMappedRegions);
+	}
+
+	@Override
+	public long write(byte[] data) {
+		synchronized (lock) {
+			var position = writtenPosition + pendingBytes;
+			pending.put(position, data);
+			pendingBytes += Integer.BYTES + data.length;
+			return position;
+		}
+	}
+
+	@Override
+	public void commit() throws IOException {
+		synchronized (lock) {
+			if (pending.isEmpty()) {
+				return;
+			}
+
+			var buffers = new ByteBuffer[pending.size() * 2];
+			var i = 0;
+			for (var data : pending.values()) {
+				buffers[i++] = allocate(Integer.BYTES).order(ByteOrder.BIG_ENDIAN).putInt(0, data.length);
+				buffers[i++] = ByteBuffer.wrap(data);
+			}
+
+			channel.position(writtenPosition);
+			var remaining = pendingBytes;
+			while (remaining > 0) {
+				var len = channel.write(buffers);
+				if (len <= 0) {
+					throw new IOException("Unable to write to log, " + remaining + " bytes left");
+				}
+				remaining -= len;
+			}
+
+			writtenPosition += pendingBytes;
+			unforcedBytes += pendingBytes;
+			pendingBytes = 0;
+			pending.clear();
+
+			if (unforcedBytes >= FORCE_INTERVAL_BYTES) {
+				channel.force(false);
+				unforcedBytes = 0;
+			}
+		}
+	}
+
+	@Override
+	public ByteBuffer readBuffer(long offset) throws IOException {
+		synchronized (lock) {
+			if (offset >= writtenPosition) {
+				var data = pending.get(offset);
+				if (data == null) {
+					throw new IOException("No chunk at " + offset + ", size " + position());
+				}
+				return ByteBuffer.wrap(data);
+			}
+
+			var region = (int) (offset / regionSize);
+			var regionStart = (long) region * regionSize;
+			var regionEnd = regionStart + regionSize;
+			if (regionEnd <= writtenPosition && offset + Integer.BYTES <= regionEnd) {
+				var mapped = regions.get(region);
+				if (mapped == null) {
+					mapped = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+					regions.put(region, mapped);
+				}
+
+				var localOffset = (int) (offset - regionStart);
+				var length = mapped.getInt(localOffset);
+				if (length < 0) {
+					throw new IOException("Invalid chunk length " + length + " at " + offset);
+				}
+				var start = localOffset + Integer.BYTES;
+				if ((long) start + length <= regionSize) {
+					return mapped.duplicate().position(start).limit(start + length).slice();
+				}
+			}
+
+			return channelRead(offset);
+		}
+	}
+
+	@Override
+	public Pair<byte[], Integer> readChunk(long offset) throws IOException {
+		var buffer = readBuffer(offset);
+		var data = new byte[buffer.remaining()];
+		buffer.get(data);
+		return Pair.of(data, data.length);
+	}
+
+	private ByteBuffer channelRead(long offset) throws IOException {
+		var sizeBuffer = checkedRead(offset, allocate(Integer.BYTES).order(ByteOrder.BIG_ENDIAN));
+		var length = sizeBuffer.getInt(0);
+		if (length < 0 || offset + Integer.BYTES + length > writtenPosition) {
+			throw new IOException("Invalid chunk length " + length + " at " + offset + ", size " + writtenPosition);
+		}
+		return checkedRead(offset + Integer.BYTES, allocate(length)).clear();
+	}
+
+	private ByteBuffer checkedRead(long offset, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			var len = channel.read(buffer, offset + buffer.position());
+			if (len < 0) {
+				throw new IOException("Got less bytes than requested: " + buffer.position() + " vs " + buffer.capacity()
+					+ " at " + offset + ", size " + writtenPosition);
+			}
+		}
+		return buffer;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		synchronized (lock) {
+			commit();
+			channel.force(true);
+			unforcedBytes = 0;
+		}
+	}
+
+	@Override
+	public long position() {
+		synchronized (lock) {
+			return writtenPosition + pendingBytes;
+		}
+	}
+
+	@Override
+	public void truncate(long position) {
+		synchronized (lock) {
+			pending.tailMap(position, true).clear();
+			pendingBytes = 0;
+			pending.forEach((offset, data) -> pendingBytes += Integer.BYTES + data.length);
+
+			if (position < writtenPosition) {
+				try {
+					channel.truncate(position);
+				} catch (IOException e) {
+					throw new IllegalStateException("Unable to truncate log", e);
+				}
+				writtenPosition = position;
+				regions.keySet().removeIf(region -> (long) (region + 1) * regionSize > position);
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (lock) {
+			try {
+				flush();
+				regions.clear();
+				channel.close();
+			} catch (IOException e) {
+				throw new RuntimeException("Error while closing log", e);
+			}
+		}
+	}
+
+	int mappedRegions() {
+		synchronized (lock) {
+			return regions.size();
+		}
+	}
+
+	@Override
+	public void forEach(BiConsumer<byte[], Long> chunkConsumer) {
+		var offset = 0L;
+		var end = position();
+		while (offset < end) {
+			try {
+				var chunk = readChunk(offset);
+				chunkConsumer.accept(chunk.getFirst(), offset);
+				offset += chunk.getSecond() + Integer.BYTES;
+			} catch (IOException exception) {
+				break;
+			}
+		}
+	}
+}
@@ -21,6 +21,7 @@ import com.radixdlt.consensus.LedgerProof;
 import com.radixdlt.ledger.DtoLedgerProof;
 import com.radixdlt.ledger.VerifiedTxnsAndProof;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,6 +32,36 @@ public interface CommittedReader {
 	Optional<LedgerProof> getEpochProof(long epoch);
 	Optional<LedgerProof> getLastProof();
 
+	/**
+	 * Retrieves the committed commands following {@code start} up to its next stored proof, resuming
+	 * after the given state version and stopping once at least {@code maxBytes} of commands have been read.
+	 * The proof returned is always the next stored proof, which may be ahead of the returned commands.
+	 * By default, the commands up to the proof are read all at once.
+	 */
+	default VerifiedTxnsAndProof getNextCommittedTxns(DtoLedgerProof start, long stateVersion, long maxBytes) {
+		final var txnsAndProof = getNextCommittedTxns(start);
+		if (txnsAndProof == null) {
+			return null;
+		}
+		final var txns = txnsAndProof.getTxns();
+		final var skip = stateVersion - start.getLedgerHeader().getAccumulatorState().getStateVersion();
+		if (skip <= 0) {
+			return txnsAndProof;
+		}
+		if (skip >= txns.size()) {
+			return null;
+		}
+		return VerifiedTxnsAndProof.create(txns.subList((int) skip, txns.size()), txnsAndProof.getProof());
+	}
+
+	/**
+	 * Retrieves up to {@code limit} stored proofs above the given state version, in order.
+	 * Readers which do not keep intermediate proofs return none.
+	 */
+	default List<LedgerProof> getNextProofs(long stateVersion, int limit) {
+		return List.of();
+	}
+
 	static CommittedReader mocked() {
 		return new CommittedReader() {
 			@Override
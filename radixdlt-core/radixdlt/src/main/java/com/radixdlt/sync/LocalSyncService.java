@@ -20,6 +20,7 @@ package com.radixdlt.sync;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.radixdlt.consensus.LedgerProof;
 import com.radixdlt.consensus.bft.BFTNode;
@@ -31,17 +32,25 @@ import com.radixdlt.environment.RemoteEventProcessor;
 import com.radixdlt.environment.ScheduledEventDispatcher;
 import com.radixdlt.network.p2p.PeersView;
 import com.radixdlt.sync.SyncState.IdleState;
+import com.radixdlt.sync.SyncState.PendingRequest;
+import com.radixdlt.sync.SyncState.RequestedRange;
 import com.radixdlt.sync.SyncState.SyncCheckState;
 import com.radixdlt.sync.SyncState.SyncingState;
 import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.ledger.DtoLedgerProof;
+import com.radixdlt.ledger.DtoTxnsAndProof;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.LedgerAccumulatorVerifier;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -94,6 +103,7 @@ public final class LocalSyncService {
 	private final RemoteSyncResponseValidatorSetVerifier validatorSetVerifier;
 	private final RemoteSyncResponseSignaturesVerifier signaturesVerifier;
 	private final LedgerAccumulatorVerifier accumulatorVerifier;
+	private final SyncVerificationExecutor verificationExecutor;
 	private final VerifiedSyncResponseSender verifiedSender;
 	private final InvalidSyncResponseSender invalidSyncedCommandsSender;
 
@@ -115,6 +125,7 @@ public final class LocalSyncService {
 		RemoteSyncResponseValidatorSetVerifier validatorSetVerifier,
 		RemoteSyncResponseSignaturesVerifier signaturesVerifier,
 		LedgerAccumulatorVerifier accumulatorVerifier,
+		SyncVerificationExecutor verificationExecutor,
 		VerifiedSyncResponseSender verifiedSender,
 		InvalidSyncResponseSender invalidSyncedCommandsSender,
 		SyncState initialState
@@ -131,6 +142,7 @@ public final class LocalSyncService {
 		this.validatorSetVerifier = Objects.requireNonNull(validatorSetVerifier);
 		this.signaturesVerifier = Objects.requireNonNull(signaturesVerifier);
 		this.accumulatorVerifier = Objects.requireNonNull(accumulatorVerifier);
+		this.verificationExecutor = Objects.requireNonNull(verificationExecutor);
 		this.verifiedSender = Objects.requireNonNull(verifiedSender);
 		this.invalidSyncedCommandsSender = Objects.requireNonNull(invalidSyncedCommandsSender);
 
@@ -309,35 +321,77 @@ public final class LocalSyncService {
 			return this.goToIdle(currentState);
 		}
 
-		if (currentState.waitingForResponse()) {
-			return currentState; // we're already waiting for a response from peer
+		final var ranges = new ArrayList<>(currentState.requestedRanges());
+		final var upcomingHeaders = new ArrayDeque<>(currentState.upcomingHeaders());
+		if (ranges.isEmpty() && upcomingHeaders.isEmpty()) {
+			ranges.add(RequestedRange.atCurrentHeader());
+		}
+		while (ranges.size() < this.syncConfig.syncRequestPipelineDepth() && !upcomingHeaders.isEmpty()) {
+			ranges.add(RequestedRange.startingAt(upcomingHeaders.poll()));
 		}
 
-		final Optional<BFTNode> peerToUse = currentState.candidatePeers().stream()
+		final var connectedPeers = currentState.candidatePeers().stream()
 			.filter(peersView::hasPeer)
-			.findFirst();
+			.collect(Collectors.toList());
+		if (connectedPeers.isEmpty()) {
+			if (currentState.waitingForResponse()) {
+				return currentState; // we're still waiting for responses from peers
+			}
+			// there's no connected peer on our candidates list, starting a fresh sync check immediately
+			return this.initSyncCheck(IdleState.init(currentState.getCurrentHeader()));
+		}
+
+		for (int i = 0; i < ranges.size(); i++) {
+			final var range = ranges.get(i);
+			if (!range.isRequested()) {
+				final var isLast = i == ranges.size() - 1 && upcomingHeaders.isEmpty();
+				final var peer = leastBusyPeer(connectedPeers, ranges);
+				ranges.set(i, this.sendSyncRequest(currentState, peer, range, isLast));
+			}
+		}
+
+		return currentState.withRequestedRanges(ImmutableList.copyOf(ranges), ImmutableList.copyOf(upcomingHeaders));
+	}
 
-		return peerToUse
-			.map(peer -> this.sendSyncRequest(currentState, peer))
-			.orElseGet(() -> {
-				// there's no connected peer on our candidates list, starting a fresh sync check immediately
-				return this.initSyncCheck(IdleState.init(currentState.getCurrentHeader()));
-			});
+	private static BFTNode leastBusyPeer(List<BFTNode> peers, List<RequestedRange> ranges) {
+		// spread consecutive ranges across peers, preferring the order of the candidates
+		return peers.stream()
+			.min(Comparator.comparingLong(peer -> ranges.stream().filter(r -> r.isWaitingForResponseFrom(peer)).count()))
+			.orElseThrow();
 	}
 
-	private SyncState sendSyncRequest(SyncingState currentState, BFTNode peer) {
+	private RequestedRange sendSyncRequest(SyncingState currentState, BFTNode peer, RequestedRange range, boolean isLast) {
 		log.trace("LocalSync: Sending sync request to {}", peer);
 
-		final var currentHeader = currentState.getCurrentHeader();
+		final var startHeader = range.getStart().orElseGet(() -> currentState.getCurrentHeader().toDto());
+		// only the last range needs to tell us where the following ranges start
+		final var lookahead = isLast && this.syncConfig.syncRequestPipelineDepth() > 1
+			? this.syncConfig.syncRequestPipelineDepth()
+			: 0;
+
+		// the checkpoint tells the peer we accept the range in chunks
+		final var checkpoint = range.getStart()
+			.map(LocalSyncService::accumulatorOf)
+			.orElseGet(() -> currentState.getCurrentHeader().getAccumulatorState());
+		final var request = SyncRequest.create(startHeader, lookahead, Optional.of(checkpoint));
+		return range.withRequest(this.dispatchSyncRequest(peer, request));
+	}
+
+	private RequestedRange requestNextChunk(BFTNode peer, RequestedRange range, SyncResponse partialResponse) {
+		log.trace("LocalSync: Requesting next chunk from {}", peer);
+
+		final var request = SyncRequest.create(partialResponse.getTxnsAndProof().getHead(), 0, partialResponse.getCheckpoint());
+		return range.withNextChunk(partialResponse, this.dispatchSyncRequest(peer, request));
+	}
 
+	private PendingRequest dispatchSyncRequest(BFTNode peer, SyncRequest request) {
 		final var requestId = requestIdCounter.incrementAndGet();
-		this.syncRequestDispatcher.dispatch(peer, SyncRequest.create(currentHeader.toDto()));
+		this.syncRequestDispatcher.dispatch(peer, request);
 		this.syncRequestTimeoutDispatcher.dispatch(
 			SyncRequestTimeout.create(peer, requestId),
 			this.syncConfig.syncRequestTimeout()
 		);
-
-		return currentState.withPendingRequest(peer, requestId);
+		return PendingRequest.create(peer, requestId);
 	}
 
 	private boolean isFullySynced(SyncState.SyncingState syncingState) {
@@ -350,7 +404,10 @@ public final class LocalSyncService {
 	private SyncState processSyncResponse(SyncingState currentState, BFTNode sender, SyncResponse syncResponse) {
 		log.trace("LocalSync: Received sync response from {}", sender);
 
-		if (!currentState.waitingForResponseFrom(sender)) {
+		final var ranges = currentState.requestedRanges();
+		final var index = rangeIndexOf(ranges, sender, syncResponse);
+
+		if (index.isEmpty()) {
 			log.warn("LocalSync: Received unexpected sync response from {}", sender);
 			return currentState;
 		}
@@ -359,38 +416,246 @@ public final class LocalSyncService {
 		if (syncResponse.getTxnsAndProof().getTxns().isEmpty()) {
 			log.warn("LocalSync: Received empty sync response from {}", sender);
 			// didn't receive any commands, remove from candidate peers and processSync
-			return this.processSync(
-				currentState
-					.clearPendingRequest()
-					.removeCandidate(sender)
-			);
-		} else if (!this.verifyResponse(syncResponse)) {
-			log.warn("LocalSync: Received invalid sync response {} from {}", syncResponse, sender);
-			// validation failed, remove from candidate peers and processSync
+			return this.processSync(this.removePeer(currentState, sender));
+		}
+
+		final var range = ranges.get(index.getAsInt());
+		final var isChunk = range.getResponse().isPresent() || syncResponse.getCheckpoint().isPresent();
+		if (isChunk && !this.verifyChunk(range, syncResponse)) {
+			log.warn("LocalSync: Received invalid sync response chunk {} from {}", syncResponse, sender);
 			invalidSyncedCommandsSender.sendInvalidSyncResponse(sender, syncResponse);
-			return this.processSync(
-				currentState
-					.clearPendingRequest()
-					.removeCandidate(sender)
-			);
+			return this.processSync(this.removePeer(currentState, sender));
+		}
+
+		final RequestedRange receivedRange;
+		if (syncResponse.getCheckpoint().isPresent()) {
+			receivedRange = this.requestNextChunk(sender, range, syncResponse);
+		} else if (range.isChunked()) {
+			receivedRange = range.withResponse(assembleChunks(range.getChunks(), syncResponse));
 		} else {
+			receivedRange = range.withResponse(syncResponse);
+		}
+		final var received = receivedRange.getResponse().orElseThrow();
+		final var newRanges = new ArrayList<>(ranges);
+		newRanges.set(index.getAsInt(), receivedRange);
+
+		var upcomingHeaders = currentState.upcomingHeaders();
+		if (this.syncConfig.syncRequestPipelineDepth() > 1
+			&& index.getAsInt() == ranges.size() - 1
+			&& upcomingHeaders.isEmpty()) {
+			upcomingHeaders = this.upcomingRangeStarts(currentState, received);
+		}
+
+		final var newState = currentState.withRequestedRanges(ImmutableList.copyOf(newRanges), upcomingHeaders);
+		if (received.getCheckpoint().isPresent()) {
+			// the rest of the range is still to come, meanwhile keep the pipeline full
+			return this.syncConfig.syncRequestPipelineDepth() > 1 ? this.processSync(newState) : newState;
+		}
+		return this.commitVerifiedRanges(newState);
+	}
+
+	/**
+	 * Finds the range the given response is for by the header it starts at, so that responses
+	 * to requests a peer has pipelined are matched even if they arrive out of order. The range at
+	 * the current header is only matched if the response starts at no other range requested from the sender.
+	 */
+	private static OptionalInt rangeIndexOf(List<RequestedRange> ranges, BFTNode sender, SyncResponse syncResponse) {
+		final var head = accumulatorOf(syncResponse.getTxnsAndProof().getHead());
+		var atCurrentHeader = OptionalInt.empty();
+		for (int i = 0; i < ranges.size(); i++) {
+			final var range = ranges.get(i);
+			if (!range.isWaitingForResponseFrom(sender)) {
+				continue;
+			}
+			if (range.getStart().isEmpty()) {
+				atCurrentHeader = OptionalInt.of(i);
+			} else if (accumulatorOf(range.getStart().get()).equals(head)) {
+				return OptionalInt.of(i);
+			}
+		}
+		return atCurrentHeader;
+	}
+
+	/**
+	 * Verifies a chunk of a range from the accumulator state the previous chunk ended at,
+	 * so that invalid commands are detected before the rest of the range is requested.
+	 */
+	private boolean verifyChunk(RequestedRange range, SyncResponse chunk) {
+		final var commandsAndProof = chunk.getTxnsAndProof();
+		final var head = accumulatorOf(commandsAndProof.getHead());
+		final var tail = accumulatorOf(commandsAndProof.getTail());
+		final var partialResponse = range.getResponse();
+		// all chunks of a range are for the same head and tail
+		final var sameRange = partialResponse
+			.map(r -> accumulatorOf(r.getTxnsAndProof().getHead()).equals(head) && accumulatorOf(r.getTxnsAndProof().getTail()).equals(tail))
+			.orElse(true);
+		final var endsBeforeTail = chunk.getCheckpoint()
+			.map(checkpoint -> checkpoint.getStateVersion() < tail.getStateVersion())
+			.orElse(true);
+		if (!sameRange || !endsBeforeTail) {
+			log.warn("Unexpected chunk head or tail");
+			return false;
+		}
+
+		final var start = partialResponse.flatMap(SyncResponse::getCheckpoint).orElse(head);
+		final var end = chunk.getCheckpoint().orElse(tail);
+		final var hashes = commandsAndProof.getTxns().stream()
+			.map(txn -> txn.getId().asHashCode())
+			.collect(ImmutableList.toImmutableList());
+		if (!this.accumulatorVerifier.verify(start, hashes, end)) {
+			log.warn("Invalid chunk accumulator");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Assembles the response of a range from its chunks, copying the commands of each chunk once.
+	 */
+	private static SyncResponse assembleChunks(List<SyncResponse> chunks, SyncResponse lastChunk) {
+		final var txns = new ArrayList<byte[]>();
+		var upcomingHeaders = ImmutableList.<DtoLedgerProof>of();
+		for (var chunk : Iterables.concat(chunks, List.of(lastChunk))) {
+			chunk.getTxnsAndProof().getTxns().forEach(txn -> txns.add(txn.getPayload()));
+			if (upcomingHeaders.isEmpty()) {
+				upcomingHeaders = chunk.getUpcomingHeaders();
+			}
+		}
+		return SyncResponse.create(
+			new DtoTxnsAndProof(txns, lastChunk.getTxnsAndProof().getHead(), lastChunk.getTxnsAndProof().getTail()),
+			upcomingHeaders,
+			Optional.empty()
+		);
+	}
+
+	/**
+	 * The headers at which the ranges following the given response start, i.e. its tail followed by the
+	 * headers it announced. Ranges are not requested ahead across epochs, as they are verified against
+	 * the validator set of the current epoch.
+	 */
+	private ImmutableList<DtoLedgerProof> upcomingRangeStarts(SyncingState currentState, SyncResponse syncResponse) {
+		final var targetVersion = currentState.getTargetHeader().getAccumulatorState().getStateVersion();
+		final var rangeStarts = ImmutableList.<DtoLedgerProof>builder();
+		var previousVersion = -1L;
+		for (var header : Iterables.concat(List.of(syncResponse.getTxnsAndProof().getTail()), syncResponse.getUpcomingHeaders())) {
+			final var ledgerHeader = header.getLedgerHeader();
+			final var version = ledgerHeader.getAccumulatorState().getStateVersion();
+			if (ledgerHeader.isEndOfEpoch() || version <= previousVersion || version >= targetVersion) {
+				break;
+			}
+			rangeStarts.add(header);
+			previousVersion = version;
+		}
+		return rangeStarts.build();
+	}
+
+	/**
+	 * Verifies the leading ranges which have received a response in parallel, then sends the verified
+	 * ones in order to be committed. The ranges following an invalid response are requested again.
+	 */
+	private SyncState commitVerifiedRanges(SyncingState currentState) {
+		final var ranges = currentState.requestedRanges();
+		final var received = new ArrayList<RequestedRange>();
+		for (var range : ranges) {
+			if (!range.isComplete()
+				|| (!received.isEmpty() && !startsAtTailOf(range, received.get(received.size() - 1)))) {
+				break;
+			}
+			received.add(range);
+		}
+
+		if (received.isEmpty()) {
+			return currentState; // still waiting for the response to the next range
+		}
+
+		final var verified = this.verificationExecutor.verifyAll(received, this::verifyRange);
+
+		var committed = 0;
+		Optional<BFTNode> invalidSender = Optional.empty();
+		for (var range : received) {
+			final var sender = range.getRequest().orElseThrow().getPeer();
+			final var syncResponse = range.getResponse().orElseThrow();
+			if (!verified.get(committed)) {
+				log.warn("LocalSync: Received invalid sync response {} from {}", syncResponse, sender);
+				invalidSyncedCommandsSender.sendInvalidSyncResponse(sender, syncResponse);
+				invalidSender = Optional.of(sender);
+				break;
+			}
+			this.verifiedSender.sendVerifiedSyncResponse(syncResponse);
+			committed++;
+		}
+
+		if (committed > 0) {
 			this.syncLedgerUpdateTimeoutDispatcher.dispatch(
 				SyncLedgerUpdateTimeout.create(),
 				1000L
 			);
-			this.verifiedSender.sendVerifiedSyncResponse(syncResponse);
-			return currentState.clearPendingRequest();
 		}
+
+		final var remainingRanges = ranges.subList(committed, ranges.size());
+		final var upcomingHeaders = currentState.upcomingHeaders();
+		final var nextStart = remainingRanges.isEmpty()
+			? upcomingHeaders.stream().findFirst()
+			: remainingRanges.get(0).getStart();
+		final var lastCommitted = committed;
+		final var linesUp = lastCommitted == 0
+			|| nextStart.map(start -> accumulatorOf(start).equals(tailOf(received.get(lastCommitted - 1)))).orElse(true);
+
+		if (invalidSender.isPresent()) {
+			// validation failed, remove from candidate peers and request what follows the committed ledger again
+			return this.processSync(
+				currentState
+					.withRequestedRanges(ImmutableList.of(), ImmutableList.of())
+					.removeCandidate(invalidSender.get())
+			);
+		} else if (!linesUp) {
+			// the ranges requested ahead were at wrong headers, continue from the ledger update
+			return currentState.withRequestedRanges(ImmutableList.of(), ImmutableList.of());
+		}
+
+		final var newState = currentState.withRequestedRanges(remainingRanges, upcomingHeaders);
+		if (this.syncConfig.syncRequestPipelineDepth() > 1 && !(remainingRanges.isEmpty() && upcomingHeaders.isEmpty())) {
+			// keep the pipeline full rather than waiting for the ledger update
+			return this.processSync(newState);
+		}
+		return newState;
 	}
 
-	private boolean verifyResponse(SyncResponse syncResponse) {
-		final var commandsAndProof = syncResponse.getTxnsAndProof();
-		final var start = commandsAndProof.getHead().getLedgerHeader().getAccumulatorState();
-		final var end = commandsAndProof.getTail().getLedgerHeader().getAccumulatorState();
-		final var hashes = commandsAndProof.getTxns().stream()
-			.map(txn -> txn.getId().asHashCode())
+	private static boolean startsAtTailOf(RequestedRange range, RequestedRange previous) {
+		return range.getStart().map(start -> accumulatorOf(start).equals(tailOf(previous))).orElse(false);
+	}
+
+	private boolean verifyRange(RequestedRange range) {
+		final var syncResponse = range.getResponse().orElseThrow();
+		final var head = accumulatorOf(syncResponse.getTxnsAndProof().getHead());
+		// the response must be for the range we asked for
+		if (range.getStart().map(start -> !accumulatorOf(start).equals(head)).orElse(false)) {
+			log.warn("Unexpected response head");
+			return false;
+		}
+		// the commands of a chunked response have already been verified chunk by chunk
+		return this.verifyResponse(syncResponse, !range.isChunked());
+	}
+
+	private static AccumulatorState accumulatorOf(DtoLedgerProof header) {
+		return header.getLedgerHeader().getAccumulatorState();
+	}
+
+	private static AccumulatorState tailOf(RequestedRange range) {
+		return accumulatorOf(range.getResponse().orElseThrow().getTxnsAndProof().getTail());
+	}
+
+	private SyncingState removePeer(SyncingState currentState, BFTNode peer) {
+		// requests still waiting on the peer are sent elsewhere
+		final var ranges = currentState.requestedRanges().stream()
+			.map(r -> r.isWaitingForResponseFrom(peer) ? r.clearRequest() : r)
 			.collect(ImmutableList.toImmutableList());
+		return currentState
+			.withRequestedRanges(ranges, currentState.upcomingHeaders())
+			.removeCandidate(peer);
+	}
 
+	private boolean verifyResponse(SyncResponse syncResponse, boolean verifyAccumulator) {
 		if (!this.validatorSetVerifier.verifyValidatorSet(syncResponse)) {
 			log.warn("Invalid validator set");
 			return false;
@@ -401,7 +666,7 @@ public final class LocalSyncService {
 			return false;
 		}
 
-		if (!this.accumulatorVerifier.verify(start, hashes, end)) {
+		if (verifyAccumulator && !this.verifyAccumulator(syncResponse)) {
 			log.warn("Invalid accumulator");
 			return false;
 		}
@@ -409,8 +674,20 @@ public final class LocalSyncService {
 		return true;
 	}
 
+	private boolean verifyAccumulator(SyncResponse syncResponse) {
+		final var commandsAndProof = syncResponse.getTxnsAndProof();
+		final var start = commandsAndProof.getHead().getLedgerHeader().getAccumulatorState();
+		final var end = commandsAndProof.getTail().getLedgerHeader().getAccumulatorState();
+		final var hashes = commandsAndProof.getTxns().stream()
+			.map(txn -> txn.getId().asHashCode())
+			.collect(ImmutableList.toImmutableList());
+		return this.accumulatorVerifier.verify(start, hashes, end);
+	}
+
 	private SyncState processSyncRequestTimeout(SyncingState currentState, SyncRequestTimeout syncRequestTimeout) {
-		final var timeoutMatchesRequest = currentState.getPendingRequest().stream()
+		final var timeoutMatchesRequest = currentState.requestedRanges().stream()
+			.filter(RequestedRange::isWaitingForResponse)
+			.flatMap(r -> r.getRequest().stream())
 			.anyMatch(pr -> pr.getRequestId() == syncRequestTimeout.getRequestId()
 				&& pr.getPeer().equals(syncRequestTimeout.getPeer())
 			);
@@ -421,11 +698,7 @@ public final class LocalSyncService {
 
 		log.trace("LocalSync: Sync request timeout from peer {}", syncRequestTimeout.getPeer());
 
-		return this.processSync(
-			currentState
-				.clearPendingRequest()
-				.removeCandidate(syncRequestTimeout.getPeer())
-		);
+		return this.processSync(this.removePeer(currentState, syncRequestTimeout.getPeer()));
 	}
 
 	private SyncState updateCurrentHeaderIfNeeded(SyncState currentState, LedgerUpdate ledgerUpdate) {
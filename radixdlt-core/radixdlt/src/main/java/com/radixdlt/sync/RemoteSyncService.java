@@ -17,6 +17,7 @@
 
 package com.radixdlt.sync;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.RateLimiter;
 import com.google.inject.Inject;
 import com.radixdlt.atom.Txn;
@@ -30,12 +31,14 @@ import com.radixdlt.environment.RemoteEventProcessor;
 import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.DtoTxnsAndProof;
 import com.radixdlt.ledger.DtoLedgerProof;
+import com.radixdlt.ledger.LedgerAccumulator;
 import com.radixdlt.ledger.VerifiedTxnsAndProof;
 import com.radixdlt.ledger.LedgerUpdate;
 
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.radixdlt.network.p2p.PeersView;
@@ -53,10 +56,15 @@ import org.apache.logging.log4j.Logger;
  */
 public final class RemoteSyncService {
 	private static final Logger log = LogManager.getLogger();
+	// Upper bound on the number of upcoming proof headers included in a single response
+	private static final int MAX_LOOKAHEAD = 16;
+	// Commands per chunk, so that a response stays well within the maximum packet length
+	static final long MAX_CHUNK_BYTES = 512L * 1024L;
 
 	private final PeersView peersView;
 	private final LocalSyncService localSyncService; // TODO: consider removing this dependency
 	private final CommittedReader committedReader;
+	private final LedgerAccumulator ledgerAccumulator;
 	private final RemoteEventDispatcher<StatusResponse> statusResponseDispatcher;
 	private final RemoteEventDispatcher<SyncResponse> syncResponseDispatcher;
 	private final RemoteEventDispatcher<LedgerStatusUpdate> statusUpdateDispatcher;
@@ -72,6 +80,7 @@ public final class RemoteSyncService {
 		PeersView peersView,
 		LocalSyncService localSyncService,
 		CommittedReader committedReader,
+		LedgerAccumulator ledgerAccumulator,
 		RemoteEventDispatcher<StatusResponse> statusResponseDispatcher,
 		RemoteEventDispatcher<SyncResponse> syncResponseDispatcher,
 		RemoteEventDispatcher<LedgerStatusUpdate> statusUpdateDispatcher,
@@ -83,6 +92,7 @@ public final class RemoteSyncService {
 		this.peersView = Objects.requireNonNull(peersView);
 		this.localSyncService = Objects.requireNonNull(localSyncService);
 		this.committedReader = Objects.requireNonNull(committedReader);
+		this.ledgerAccumulator = Objects.requireNonNull(ledgerAccumulator);
 		this.syncConfig = Objects.requireNonNull(syncConfig);
 		this.statusResponseDispatcher = Objects.requireNonNull(statusResponseDispatcher);
 		this.syncResponseDispatcher = Objects.requireNonNull(syncResponseDispatcher);
@@ -100,10 +110,10 @@ public final class RemoteSyncService {
 
 	private void processSyncRequest(BFTNode sender, SyncRequest syncRequest) {
 		final var remoteCurrentHeader = syncRequest.getHeader();
-		final var committedCommands = getCommittedCommandsForSyncRequest(remoteCurrentHeader);
+		final var committedCommands = getCommittedCommandsForSyncRequest(syncRequest);
 
 		if (committedCommands == null) {
-			log.warn("REMOTE_SYNC_REQUEST: Unable to serve sync request {} from sender {}.", remoteCurrentHeader, sender);
+			log.warn("REMOTE_SYNC_REQUEST: Unable to serve sync request {} from sender {}.", syncRequest, sender);
 			return;
 		}
 
@@ -113,20 +123,59 @@ public final class RemoteSyncService {
 			committedCommands.getProof().toDto()
 		);
 
+		final var upcomingHeaders = syncRequest.getLookahead() > 0
+			? committedReader.getNextProofs(
+					committedCommands.getProof().getStateVersion(),
+					Math.min(syncRequest.getLookahead(), MAX_LOOKAHEAD)
+				).stream()
+				.map(LedgerProof::toDto)
+				.collect(ImmutableList.toImmutableList())
+			: ImmutableList.<DtoLedgerProof>of();
+
+		final var checkpoint = syncRequest.getCheckpoint()
+			.flatMap(resumeFrom -> checkpointAfter(resumeFrom, committedCommands));
+
 		log.trace("REMOTE_SYNC_REQUEST: Sending response {} to request {} from {}", verifiable, remoteCurrentHeader, sender);
 
 		systemCounters.increment(CounterType.SYNC_REMOTE_REQUESTS_PROCESSED);
-		syncResponseDispatcher.dispatch(sender, SyncResponse.create(verifiable));
+		syncResponseDispatcher.dispatch(sender, SyncResponse.create(verifiable, upcomingHeaders, checkpoint));
 	}
 
-	private VerifiedTxnsAndProof getCommittedCommandsForSyncRequest(DtoLedgerProof startHeader) {
+	private VerifiedTxnsAndProof getCommittedCommandsForSyncRequest(SyncRequest syncRequest) {
+		final var startHeader = syncRequest.getHeader();
 		final var start = System.currentTimeMillis();
-		final var result = committedReader.getNextCommittedTxns(startHeader);
+		final VerifiedTxnsAndProof result;
+		if (syncRequest.getCheckpoint().isPresent()) {
+			// the requester accepts chunks, continuing from where the previous chunk ended
+			final var startVersion = startHeader.getLedgerHeader().getAccumulatorState().getStateVersion();
+			final var resumeVersion = syncRequest.getCheckpoint().get().getStateVersion();
+			result = resumeVersion < startVersion
+				? null
+				: committedReader.getNextCommittedTxns(startHeader, resumeVersion, MAX_CHUNK_BYTES);
+		} else {
+			result = committedReader.getNextCommittedTxns(startHeader);
+		}
 		final var finish = System.currentTimeMillis();
 		systemCounters.set(CounterType.SYNC_LAST_READ_MILLIS, finish - start);
 		return result;
 	}
 
+	/**
+	 * The accumulator state after the given commands, if they don't reach their proof.
+	 */
+	private Optional<AccumulatorState> checkpointAfter(AccumulatorState resumeFrom, VerifiedTxnsAndProof committedCommands) {
+		final var proof = committedCommands.getProof();
+		if (resumeFrom.getStateVersion() + committedCommands.getTxns().size() >= proof.getStateVersion()) {
+			return Optional.empty();
+		}
+
+		var checkpoint = resumeFrom;
+		for (var txn : committedCommands.getTxns()) {
+			checkpoint = ledgerAccumulator.accumulate(checkpoint, txn.getId().asHashCode(), proof.getEpoch());
+		}
+		return Optional.of(checkpoint);
+	}
+
 	public RemoteEventProcessor<StatusRequest> statusRequestEventProcessor() {
 		return this::processStatusRequest;
 	}
@@ -34,6 +34,21 @@ public interface SyncConfig {
 		int ledgerStatusUpdateMaxPeersToNotify,
 		double maxLedgerUpdatesRate
 	) {
+		return of(requestTimeout, syncCheckMaxPeers, syncCheckInterval, ledgerStatusUpdateMaxPeersToNotify, maxLedgerUpdatesRate, 1);
+	}
+
+	static SyncConfig of(
+		long requestTimeout,
+		int syncCheckMaxPeers,
+		long syncCheckInterval,
+		int ledgerStatusUpdateMaxPeersToNotify,
+		double maxLedgerUpdatesRate,
+		int syncRequestPipelineDepth
+	) {
+		if (syncRequestPipelineDepth < 1) {
+			throw new IllegalArgumentException("syncRequestPipelineDepth must be positive: " + syncRequestPipelineDepth);
+		}
+
 		return new SyncConfig() {
 			@Override
 			public long syncCheckReceiveStatusTimeout() {
@@ -65,6 +80,11 @@ public interface SyncConfig {
 				return maxLedgerUpdatesRate;
 			}
 
+			@Override
+			public int syncRequestPipelineDepth() {
+				return syncRequestPipelineDepth;
+			}
+
 			@Override
 			public JSONObject asJson() {
 				return new JSONObject()
@@ -107,6 +127,12 @@ public interface SyncConfig {
 	 */
 	double maxLedgerUpdatesRate();
 
+	/**
+	 * Maximum number of consecutive ledger ranges requested at the same time, spread across candidate peers.
+	 * With a value of 1, the next range is only requested once the previous one has been committed.
+	 */
+	int syncRequestPipelineDepth();
+
 	/**
 	 * Represent configuration as JSON
 	 */
@@ -23,7 +23,9 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.radixdlt.consensus.LedgerProof;
 import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.ledger.DtoLedgerProof;
 import com.radixdlt.sync.messages.remote.StatusResponse;
+import com.radixdlt.sync.messages.remote.SyncResponse;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -36,7 +38,7 @@ import static com.google.common.base.Predicates.not;
  * There are 3 possible states:
  * - idle: the service is not waiting for any response; it only processes local ledger updates and sync requests
  * - sync check: the service is waiting for StatusResponses; it also processes local messages and timeouts
- * - syncing: the service is waiting for SyncResponse; it also processes local messages and timeouts
+ * - syncing: the service is waiting for SyncResponses; it also processes local messages and timeouts
  */
 public interface SyncState {
 
@@ -226,43 +228,191 @@ public interface SyncState {
 		}
 	}
 
+	/**
+	 * A range of the ledger requested from a peer, starting at a proof header learned from an earlier
+	 * response or at the current header. Ranges requested ahead keep their response until all the ranges
+	 * before them have been verified and committed. Large ranges are received in chunks from a single peer,
+	 * the chunks received so far being kept until the last one arrives and the response is assembled.
+	 */
+	final class RequestedRange {
+		private final Optional<DtoLedgerProof> start;
+		private final Optional<PendingRequest> request;
+		private final Optional<SyncResponse> response;
+		private final boolean chunked;
+		private final ImmutableList<SyncResponse> chunks;
+
+		public static RequestedRange atCurrentHeader() {
+			return new RequestedRange(Optional.empty(), Optional.empty(), Optional.empty(), false, ImmutableList.of());
+		}
+
+		public static RequestedRange startingAt(DtoLedgerProof start) {
+			return new RequestedRange(Optional.of(start), Optional.empty(), Optional.empty(), false, ImmutableList.of());
+		}
+
+		private RequestedRange(
+			Optional<DtoLedgerProof> start,
+			Optional<PendingRequest> request,
+			Optional<SyncResponse> response,
+			boolean chunked,
+			ImmutableList<SyncResponse> chunks
+		) {
+			this.start = start;
+			this.request = request;
+			this.response = response;
+			this.chunked = chunked;
+			this.chunks = chunks;
+		}
+
+		public RequestedRange withRequest(PendingRequest newRequest) {
+			return new RequestedRange(start, Optional.of(newRequest), Optional.empty(), false, ImmutableList.of());
+		}
+
+		/**
+		 * Returns a range which has received its complete response, dropping the chunks it was assembled from.
+		 */
+		public RequestedRange withResponse(SyncResponse newResponse) {
+			return new RequestedRange(start, request, Optional.of(newResponse), chunked, ImmutableList.of());
+		}
+
+		/**
+		 * Returns a range which has received the given chunk after the earlier ones and waits for the next one.
+		 * The latest chunk is kept as the partial response.
+		 */
+		public RequestedRange withNextChunk(SyncResponse chunk, PendingRequest nextRequest) {
+			final var newChunks = ImmutableList.<SyncResponse>builderWithExpectedSize(chunks.size() + 1)
+				.addAll(chunks)
+				.add(chunk)
+				.build();
+			return new RequestedRange(start, Optional.of(nextRequest), Optional.of(chunk), true, newChunks);
+		}
+
+		public RequestedRange clearRequest() {
+			return new RequestedRange(start, Optional.empty(), Optional.empty(), false, ImmutableList.of());
+		}
+
+		/**
+		 * Gets the chunks received so far, in order, while the range waits for its next chunk.
+		 */
+		public ImmutableList<SyncResponse> getChunks() {
+			return chunks;
+		}
+
+		/**
+		 * Gets the header the range starts at, empty if it starts at the current header.
+		 */
+		public Optional<DtoLedgerProof> getStart() {
+			return start;
+		}
+
+		public Optional<PendingRequest> getRequest() {
+			return request;
+		}
+
+		public Optional<SyncResponse> getResponse() {
+			return response;
+		}
+
+		public boolean isRequested() {
+			return request.isPresent();
+		}
+
+		/**
+		 * Whether the response has been received in full, rather than only some of its chunks.
+		 */
+		public boolean isComplete() {
+			return response.map(r -> r.getCheckpoint().isEmpty()).orElse(false);
+		}
+
+		/**
+		 * Whether the response has been received in more than one chunk, each of which was verified on arrival.
+		 */
+		public boolean isChunked() {
+			return chunked;
+		}
+
+		public boolean isWaitingForResponse() {
+			return request.isPresent() && !isComplete();
+		}
+
+		public boolean isWaitingForResponseFrom(BFTNode peer) {
+			return isWaitingForResponse() && request.get().getPeer().equals(peer);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			final var that = (RequestedRange) o;
+			return chunked == that.chunked
+				&& Objects.equals(start, that.start)
+				&& Objects.equals(request, that.request)
+				&& Objects.equals(response, that.response)
+				&& Objects.equals(chunks, that.chunks);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(start, request, response, chunked, chunks);
+		}
+	}
+
 	final class SyncingState implements SyncState {
 		private final LedgerProof currentHeader;
 		private final ImmutableList<BFTNode> candidatePeers;
 		private final LedgerProof targetHeader;
-		private final Optional<PendingRequest> pendingRequest;
+		private final ImmutableList<RequestedRange> requestedRanges;
+		private final ImmutableList<DtoLedgerProof> upcomingHeaders;
 
 		public static SyncingState init(
 			LedgerProof currentHeader,
 			ImmutableList<BFTNode> candidatePeers,
 			LedgerProof targetHeader
 		) {
-			return new SyncingState(currentHeader, candidatePeers, targetHeader, Optional.empty());
+			return new SyncingState(currentHeader, candidatePeers, targetHeader, ImmutableList.of(), ImmutableList.of());
 		}
 
 		private SyncingState(
 			LedgerProof currentHeader,
 			ImmutableList<BFTNode> candidatePeers,
 			LedgerProof targetHeader,
-			Optional<PendingRequest> pendingRequest
+			ImmutableList<RequestedRange> requestedRanges,
+			ImmutableList<DtoLedgerProof> upcomingHeaders
 		) {
 			this.currentHeader = currentHeader;
 			this.candidatePeers = candidatePeers;
 			this.targetHeader = targetHeader;
-			this.pendingRequest = pendingRequest;
+			this.requestedRanges = requestedRanges;
+			this.upcomingHeaders = upcomingHeaders;
 		}
 
+		/**
+		 * Returns a SyncingState waiting for a single response from the given peer,
+		 * for the range starting at the current header.
+		 */
 		public SyncingState withPendingRequest(BFTNode peer, long requestId) {
-			return new SyncingState(
-				currentHeader,
-				candidatePeers,
-				targetHeader,
-				Optional.of(PendingRequest.create(peer, requestId))
+			return withRequestedRanges(
+				ImmutableList.of(RequestedRange.atCurrentHeader().withRequest(PendingRequest.create(peer, requestId))),
+				ImmutableList.of()
 			);
 		}
 
 		public SyncingState clearPendingRequest() {
-			return new SyncingState(currentHeader, candidatePeers, targetHeader, Optional.empty());
+			return withRequestedRanges(ImmutableList.of(), ImmutableList.of());
+		}
+
+		/**
+		 * Returns a SyncingState with the given consecutive requested ranges, followed by the given
+		 * headers at which the next ranges start.
+		 */
+		public SyncingState withRequestedRanges(
+			ImmutableList<RequestedRange> newRequestedRanges,
+			ImmutableList<DtoLedgerProof> newUpcomingHeaders
+		) {
+			return new SyncingState(currentHeader, candidatePeers, targetHeader, newRequestedRanges, newUpcomingHeaders);
 		}
 
 		public SyncingState removeCandidate(BFTNode peer) {
@@ -270,12 +420,13 @@ public interface SyncState {
 				currentHeader,
 				ImmutableList.copyOf(Collections2.filter(candidatePeers, not(equalTo(peer)))),
 				targetHeader,
-				pendingRequest
+				requestedRanges,
+				upcomingHeaders
 			);
 		}
 
 		public SyncingState withTargetHeader(LedgerProof newTargetHeader) {
-			return new SyncingState(currentHeader, candidatePeers, newTargetHeader, pendingRequest);
+			return new SyncingState(currentHeader, candidatePeers, newTargetHeader, requestedRanges, upcomingHeaders);
 		}
 
 		public SyncingState withCandidatePeers(ImmutableList<BFTNode> peers) {
@@ -288,20 +439,35 @@ public interface SyncState {
 						.build()
 					).asList(),
 				targetHeader,
-				pendingRequest
+				requestedRanges,
+				upcomingHeaders
 			);
 		}
 
 		public boolean waitingForResponse() {
-			return this.pendingRequest.isPresent();
+			return this.requestedRanges.stream().anyMatch(RequestedRange::isWaitingForResponse);
 		}
 
 		public boolean waitingForResponseFrom(BFTNode peer) {
-			return this.pendingRequest.stream().anyMatch(pr -> pr.getPeer().equals(peer));
+			return this.requestedRanges.stream().anyMatch(r -> r.isWaitingForResponseFrom(peer));
 		}
 
+		/**
+		 * Gets the first request still waiting for a response.
+		 */
 		public Optional<PendingRequest> getPendingRequest() {
-			return this.pendingRequest;
+			return this.requestedRanges.stream()
+				.filter(RequestedRange::isWaitingForResponse)
+				.findFirst()
+				.flatMap(RequestedRange::getRequest);
+		}
+
+		public ImmutableList<RequestedRange> requestedRanges() {
+			return this.requestedRanges;
+		}
+
+		public ImmutableList<DtoLedgerProof> upcomingHeaders() {
+			return this.upcomingHeaders;
 		}
 
 		public ImmutableList<BFTNode> candidatePeers() {
@@ -319,13 +485,13 @@ public interface SyncState {
 
 		@Override
 		public SyncingState withCurrentHeader(LedgerProof newCurrentHeader) {
-			return new SyncingState(newCurrentHeader, candidatePeers, targetHeader, pendingRequest);
+			return new SyncingState(newCurrentHeader, candidatePeers, targetHeader, requestedRanges, upcomingHeaders);
 		}
 
 		@Override
 		public String toString() {
-			return String.format("%s{currentHeader=%s targetHeader=%s}",
-				getClass().getSimpleName(), currentHeader, targetHeader);
+			return String.format("%s{currentHeader=%s targetHeader=%s requestedRanges=%s}",
+				getClass().getSimpleName(), currentHeader, targetHeader, requestedRanges.size());
 		}
 
 		@Override
@@ -340,12 +506,13 @@ public interface SyncState {
 			return Objects.equals(currentHeader, that.currentHeader)
 				&& Objects.equals(candidatePeers, that.candidatePeers)
 				&& Objects.equals(targetHeader, that.targetHeader)
-				&& Objects.equals(pendingRequest, that.pendingRequest);
+				&& Objects.equals(requestedRanges, that.requestedRanges)
+				&& Objects.equals(upcomingHeaders, that.upcomingHeaders);
 		}
 
 		@Override
 		public int hashCode() {
-			return Objects.hash(currentHeader, candidatePeers, targetHeader, pendingRequest);
+			return Objects.hash(currentHeader, candidatePeers, targetHeader, requestedRanges, upcomingHeaders);
 		}
 	}
 }
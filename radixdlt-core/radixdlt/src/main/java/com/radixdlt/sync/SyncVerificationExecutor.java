@@ -0,0 +1,61 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.sync;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.radixdlt.utils.ThreadFactories;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies sync responses received ahead of the ledger on a worker pool owned by
+ * the sync module, rather than on the common fork-join pool shared with the rest of the node.
+ */
+@Singleton
+public final class SyncVerificationExecutor {
+	private final ExecutorService executor;
+
+	@Inject
+	public SyncVerificationExecutor() {
+		this.executor = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(),
+			ThreadFactories.daemonThreads("SyncVerification-%d")
+		);
+	}
+
+	/**
+	 * Applies the given verification to each item and returns the results in the order of the items.
+	 */
+	public <T, R> List<R> verifyAll(List<T> items, Function<T, R> verification) {
+		// Nothing to gain from parallelism for a single item
+		if (items.size() < 2) {
+			return items.stream().map(verification).collect(Collectors.toList());
+		}
+
+		final var results = items.stream()
+			.map(item -> CompletableFuture.supplyAsync(() -> verification.apply(item), executor))
+			.collect(Collectors.toList());
+		return results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+	}
+}
@@ -17,33 +17,60 @@
 
 package com.radixdlt.sync.messages.remote;
 
+import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.DtoLedgerProof;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A request to sync up ledger state, starting at the given header.
- * The node should respond with a SyncResponse message.
+ * The node should respond with a SyncResponse message, including up to
+ * {@code lookahead} headers of the proofs following the returned commands.
+ * A request with a checkpoint accepts the commands in size-bounded chunks,
+ * and continues the range after the commands accumulated into the checkpoint.
  */
 public final class SyncRequest {
 
 	private final DtoLedgerProof header;
+	private final int lookahead;
+	private final Optional<AccumulatorState> checkpoint;
 
 	public static SyncRequest create(DtoLedgerProof header) {
-		return new SyncRequest(header);
+		return new SyncRequest(header, 0, Optional.empty());
 	}
 
-	private SyncRequest(DtoLedgerProof header) {
+	public static SyncRequest create(DtoLedgerProof header, int lookahead) {
+		return new SyncRequest(header, lookahead, Optional.empty());
+	}
+
+	public static SyncRequest create(DtoLedgerProof header, int lookahead, Optional<AccumulatorState> checkpoint) {
+		return new SyncRequest(header, lookahead, checkpoint);
+	}
+
+	private SyncRequest(DtoLedgerProof header, int lookahead, Optional<AccumulatorState> checkpoint) {
 		this.header = header;
+		this.lookahead = lookahead;
+		this.checkpoint = Objects.requireNonNull(checkpoint);
 	}
 
 	public DtoLedgerProof getHeader() {
 		return header;
 	}
 
+	public int getLookahead() {
+		return lookahead;
+	}
+
+	public Optional<AccumulatorState> getCheckpoint() {
+		return checkpoint;
+	}
+
 	@Override
 	public String toString() {
-		return String.format("%s{header=%s}", this.getClass().getSimpleName(), this.header);
+		return String.format(
+			"%s{header=%s lookahead=%s checkpoint=%s}", this.getClass().getSimpleName(), this.header, this.lookahead, this.checkpoint
+		);
 	}
 
 	@Override
@@ -55,11 +82,13 @@ public final class SyncRequest {
 			return false;
 		}
 		SyncRequest that = (SyncRequest) o;
-		return Objects.equals(header, that.header);
+		return lookahead == that.lookahead
+			&& Objects.equals(header, that.header)
+			&& Objects.equals(checkpoint, that.checkpoint);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(header);
+		return Objects.hash(header, lookahead, checkpoint);
 	}
 }
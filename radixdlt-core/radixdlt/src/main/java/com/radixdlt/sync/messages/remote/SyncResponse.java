@@ -17,32 +17,72 @@
 
 package com.radixdlt.sync.messages.remote;
 
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.ledger.DtoLedgerProof;
 import com.radixdlt.ledger.DtoTxnsAndProof;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A response to the SyncRequest message.
+ * Besides the commands, it may include the (unverified) headers of the proofs
+ * which follow the tail, so that the next ranges can be requested right away.
+ * A response with a checkpoint carries only a chunk of the commands up to the tail,
+ * the checkpoint being the accumulator state after the chunk.
  */
 public final class SyncResponse {
 
 	private final DtoTxnsAndProof commandsAndProof;
+	private final ImmutableList<DtoLedgerProof> upcomingHeaders;
+	private final Optional<AccumulatorState> checkpoint;
 
 	public static SyncResponse create(DtoTxnsAndProof commandsAndProof) {
-		return new SyncResponse(commandsAndProof);
+		return new SyncResponse(commandsAndProof, ImmutableList.of(), Optional.empty());
 	}
 
-	private SyncResponse(DtoTxnsAndProof commandsAndProof) {
+	public static SyncResponse create(DtoTxnsAndProof commandsAndProof, ImmutableList<DtoLedgerProof> upcomingHeaders) {
+		return new SyncResponse(commandsAndProof, upcomingHeaders, Optional.empty());
+	}
+
+	public static SyncResponse create(
+		DtoTxnsAndProof commandsAndProof,
+		ImmutableList<DtoLedgerProof> upcomingHeaders,
+		Optional<AccumulatorState> checkpoint
+	) {
+		return new SyncResponse(commandsAndProof, upcomingHeaders, checkpoint);
+	}
+
+	private SyncResponse(
+		DtoTxnsAndProof commandsAndProof,
+		ImmutableList<DtoLedgerProof> upcomingHeaders,
+		Optional<AccumulatorState> checkpoint
+	) {
 		this.commandsAndProof = Objects.requireNonNull(commandsAndProof);
+		this.upcomingHeaders = Objects.requireNonNull(upcomingHeaders);
+		this.checkpoint = Objects.requireNonNull(checkpoint);
 	}
 
 	public DtoTxnsAndProof getTxnsAndProof() {
 		return commandsAndProof;
 	}
 
+	public ImmutableList<DtoLedgerProof> getUpcomingHeaders() {
+		return upcomingHeaders;
+	}
+
+	/**
+	 * Gets the accumulator state after the commands of a chunk, empty if the commands reach the tail.
+	 */
+	public Optional<AccumulatorState> getCheckpoint() {
+		return checkpoint;
+	}
+
 	@Override
 	public String toString() {
-		return String.format("%s{commandsAndProof=%s}", this.getClass().getSimpleName(), commandsAndProof);
+		return String.format("%s{commandsAndProof=%s upcomingHeaders=%s checkpoint=%s}",
+			this.getClass().getSimpleName(), commandsAndProof, upcomingHeaders.size(), checkpoint);
 	}
 
 	@Override
@@ -54,11 +94,13 @@ public final class SyncResponse {
 			return false;
 		}
 		SyncResponse that = (SyncResponse) o;
-		return Objects.equals(commandsAndProof, that.commandsAndProof);
+		return Objects.equals(commandsAndProof, that.commandsAndProof)
+			&& Objects.equals(upcomingHeaders, that.upcomingHeaders)
+			&& Objects.equals(checkpoint, that.checkpoint);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(commandsAndProof);
+		return Objects.hash(commandsAndProof, upcomingHeaders, checkpoint);
 	}
 }
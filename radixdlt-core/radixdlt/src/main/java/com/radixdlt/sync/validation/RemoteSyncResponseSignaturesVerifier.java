@@ -23,8 +23,10 @@ import com.radixdlt.crypto.Hasher;
 import com.radixdlt.consensus.TimestampedECDSASignature;
 import com.radixdlt.consensus.ConsensusHasher;
 import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.crypto.ECDSAVerifier.SignedHash;
 import com.radixdlt.sync.messages.remote.SyncResponse;
 
+import java.util.ArrayList;
 import java.util.Map.Entry;
 import java.util.Objects;
 
@@ -49,16 +51,15 @@ public final class RemoteSyncResponseSignaturesVerifier {
 		var opaque = endHeader.getOpaque();
 		var header = endHeader.getLedgerHeader();
 		var signatures = endHeader.getSignatures().getSignatures();
+		var signedHashes = new ArrayList<SignedHash>(signatures.size());
 		for (Entry<BFTNode, TimestampedECDSASignature> nodeAndSignature : signatures.entrySet()) {
 			var node = nodeAndSignature.getKey();
 			var signature = nodeAndSignature.getValue();
 			final var voteDataHash = ConsensusHasher.toHash(opaque, header, signature.timestamp(), hasher);
-			if (!hashVerifier.verify(node.getKey(), voteDataHash, signature.signature())) {
-				return false;
-			}
+			signedHashes.add(SignedHash.of(node.getKey(), voteDataHash, signature.signature()));
 		}
 
-		return true;
+		return hashVerifier.verifyAll(signedHashes);
 	}
 
 }
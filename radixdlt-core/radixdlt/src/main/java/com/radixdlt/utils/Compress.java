@@ -21,9 +21,12 @@ import org.xerial.snappy.Snappy;
 import org.xerial.snappy.SnappyFramedInputStream;
 import org.xerial.snappy.SnappyFramedOutputStream;
 
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Common utility methods for compression/decompression.
@@ -64,4 +67,21 @@ public class Compress {
 		os.close();
 		return os.toByteArray();
 	}
+
+	/**
+	 * Decompresses the remaining bytes of the input buffer into output byte array
+	 * without copying the input first.
+	 *
+	 * @param input source data to decompress, consumed by this call
+	 * @return decompressed output.
+	 *
+	 * @throws IOException
+	 */
+	public static byte[] uncompress(ByteBuffer input) throws IOException {
+		var os = new ByteArrayOutputStream(input.remaining() * 2);
+		var is = new SnappyFramedInputStream(new ByteBufferBackedInputStream(input));
+		is.transferTo(os);
+		os.close();
+		return os.toByteArray();
+	}
 }
@@ -25,9 +25,11 @@ import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import com.radixdlt.consensus.HashVerifier;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.crypto.ECDSASignature;
+import com.radixdlt.crypto.ECDSAVerifier;
 import com.radixdlt.crypto.Hasher;
 import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.Serialization;
@@ -60,6 +62,13 @@ public class MockedCryptoModule extends AbstractModule {
 		};
 	}
 
+	@Provides
+	@Singleton
+	private ECDSAVerifier ecdsaVerifier() {
+		// Signatures are not verified with it, so there is nothing worth caching
+		return new ECDSAVerifier(0);
+	}
+
 	@Provides
 	private Hasher hasher(Serialization serialization, SystemCounters counters) {
 		AtomicBoolean running = new AtomicBoolean(false);
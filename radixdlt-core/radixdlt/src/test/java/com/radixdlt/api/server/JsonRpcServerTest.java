@@ -18,20 +18,26 @@
 
 package com.radixdlt.api.server;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.Test;
 
+import com.radixdlt.api.JsonRpcHandler;
 import com.radixdlt.api.JsonRpcUtil.RpcError;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import static com.radixdlt.api.JsonRpcUtil.jsonArray;
 import static com.radixdlt.api.JsonRpcUtil.jsonObject;
+import static com.radixdlt.api.JsonRpcUtil.response;
 
 public class JsonRpcServerTest {
 	@Test
 	public void when_send_json_rpc_request_with_no_id__return_json_error_response() {
-		var server = new JsonRpcServer(Map.of());
+		var server = new JsonRpcServer(Map.of(), Runnable::run);
 
 		var response = server.handle(jsonObject());
 
@@ -43,4 +49,70 @@ public class JsonRpcServerTest {
 		assertThat(response.getJSONObject("error").get("code")).isEqualTo(RpcError.INVALID_PARAMS.code());
 		assertThat(response.getJSONObject("error").getString("message")).isNotEmpty();
 	}
+
+	@Test
+	public void batch_responses_are_returned_in_request_order() {
+		var server = new JsonRpcServer(Map.of(
+			"echo", request -> response(request, request.getJSONObject("params").get("value")),
+			"fail", failing()
+		), Runnable::run);
+		var batch = jsonArray()
+			.put(call(1, "echo").put("params", jsonObject().put("value", "first")))
+			.put(call(2, "fail"))
+			.put(call(3, "unknown"))
+			.put("not a call")
+			.put(call(5, "echo").put("params", jsonObject().put("value", "last")));
+
+		var response = (JSONArray) server.handle((Object) batch);
+
+		assertThat(response.length()).isEqualTo(5);
+		assertThat(response.getJSONObject(0).getString("result")).isEqualTo("first");
+		assertThat(response.getJSONObject(1).getInt("id")).isEqualTo(2);
+		assertThat(response.getJSONObject(1).getJSONObject("error").getInt("code")).isEqualTo(RpcError.SERVER_ERROR.code());
+		assertThat(response.getJSONObject(2).getJSONObject("error").getInt("code")).isEqualTo(RpcError.METHOD_NOT_FOUND.code());
+		assertThat(response.getJSONObject(3).getJSONObject("error").getInt("code")).isEqualTo(RpcError.INVALID_REQUEST.code());
+		assertThat(response.getJSONObject(4).getString("result")).isEqualTo("last");
+	}
+
+	@Test
+	public void state_changing_calls_of_batch_are_not_run_in_parallel() {
+		var parallelCalls = new AtomicInteger();
+		var server = new JsonRpcServer(Map.of(
+			"read", request -> response(request, "read"),
+			"write", JsonRpcHandler.stateChanging(request -> response(request, "write"))
+		), command -> {
+			parallelCalls.incrementAndGet();
+			command.run();
+		});
+		var batch = jsonArray()
+			.put(call(1, "write"))
+			.put(call(2, "read"))
+			.put(call(3, "write"));
+
+		var response = (JSONArray) server.handle((Object) batch);
+
+		assertThat(parallelCalls.get()).isEqualTo(1);
+		assertThat(response.getJSONObject(0).getString("result")).isEqualTo("write");
+		assertThat(response.getJSONObject(1).getString("result")).isEqualTo("read");
+		assertThat(response.getJSONObject(2).getString("result")).isEqualTo("write");
+	}
+
+	@Test
+	public void empty_batch_is_rejected() {
+		var server = new JsonRpcServer(Map.of(), Runnable::run);
+
+		var response = (JSONObject) server.handle((Object) jsonArray());
+
+		assertThat(response.getJSONObject("error").getInt("code")).isEqualTo(RpcError.INVALID_REQUEST.code());
+	}
+
+	private static JSONObject call(int id, String method) {
+		return jsonObject().put("jsonrpc", "2.0").put("id", id).put("method", method);
+	}
+
+	private static JsonRpcHandler failing() {
+		return request -> {
+			throw new IllegalStateException("failed");
+		};
+	}
 }
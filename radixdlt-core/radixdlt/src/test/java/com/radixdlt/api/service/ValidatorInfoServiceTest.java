@@ -0,0 +1,112 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.api.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.radixdlt.atom.CloseableCursor;
+import com.radixdlt.atom.SubstateTypeId;
+import com.radixdlt.constraintmachine.REOp;
+import com.radixdlt.constraintmachine.REProcessedTxn;
+import com.radixdlt.constraintmachine.REStateUpdate;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.ledger.LedgerUpdate;
+import com.radixdlt.ledger.VerifiedTxnsAndProof;
+import com.radixdlt.networks.Addressing;
+import com.radixdlt.networks.Network;
+import com.radixdlt.statecomputer.LedgerAndBFTProof;
+import com.radixdlt.statecomputer.REOutput;
+import com.radixdlt.statecomputer.forks.Forks;
+import com.radixdlt.store.EngineStore;
+import com.radixdlt.systeminfo.InMemorySystemInfo;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ValidatorInfoServiceTest {
+	private static final int INDEX_COUNT = 6;
+
+	@SuppressWarnings("unchecked")
+	private final EngineStore<LedgerAndBFTProof> entryStore = mock(EngineStore.class);
+	private final ValidatorInfoService validatorInfoService = new ValidatorInfoService(
+		entryStore,
+		mock(Forks.class, RETURNS_DEEP_STUBS),
+		mock(InMemorySystemInfo.class, RETURNS_DEEP_STUBS),
+		Addressing.ofNetwork(Network.LOCALNET)
+	);
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		when(entryStore.openIndexedCursor(any())).thenAnswer(invocation -> mock(CloseableCursor.class));
+	}
+
+	@Test
+	public void validators_are_read_from_store_once_until_they_change() {
+		validatorInfoService.getAllValidators();
+		validatorInfoService.getValidatorsCount();
+		validatorInfoService.getValidators(10, Optional.empty()).map((cursor, list) -> list);
+
+		verify(entryStore, times(INDEX_COUNT)).openIndexedCursor(any());
+
+		validatorInfoService.ledgerUpdateProcessor().process(ledgerUpdate(SubstateTypeId.TOKENS.id()));
+		validatorInfoService.getAllValidators();
+
+		verify(entryStore, times(INDEX_COUNT)).openIndexedCursor(any());
+
+		validatorInfoService.ledgerUpdateProcessor().process(ledgerUpdate(SubstateTypeId.VALIDATOR_STAKE_DATA.id()));
+		validatorInfoService.getAllValidators();
+		validatorInfoService.getAllValidators();
+
+		verify(entryStore, times(2 * INDEX_COUNT)).openIndexedCursor(any());
+	}
+
+	@Test
+	public void unknown_validator_and_cursor_yield_no_results() {
+		var key = ECKeyPair.generateNew().getPublicKey();
+
+		assertFalse(validatorInfoService.getValidator(key).isSuccess());
+		validatorInfoService.getValidators(10, Optional.of(key))
+			.map((cursor, list) -> {
+				assertTrue(list.isEmpty());
+				assertEquals(Optional.empty(), cursor);
+				return list;
+			});
+	}
+
+	private static LedgerUpdate ledgerUpdate(byte typeByte) {
+		var stateUpdate = REStateUpdate.of(REOp.UP, null, typeByte, null, null);
+		var txn = new REProcessedTxn(null, List.of(List.of(stateUpdate)), List.of());
+		return new LedgerUpdate(
+			mock(VerifiedTxnsAndProof.class),
+			ImmutableClassToInstanceMap.of(REOutput.class, REOutput.create(List.of(txn)))
+		);
+	}
+}
@@ -46,7 +46,9 @@ import com.radixdlt.DefaultSerialization;
 import com.radixdlt.SingleNodeAndPeersDeterministicNetworkModule;
 import com.radixdlt.api.construction.TxnParser;
 import com.radixdlt.api.data.ActionType;
+import com.radixdlt.api.data.ScheduledQueueFlush;
 import com.radixdlt.api.store.ClientApiStore.BalanceType;
+import com.radixdlt.api.store.ClientApiStoreException;
 import com.radixdlt.api.store.TransactionParser;
 import com.radixdlt.atom.FixedTokenDefinition;
 import com.radixdlt.atom.MutableTokenDefinition;
@@ -62,14 +64,15 @@ import com.radixdlt.crypto.ECKeyPair;
 import com.radixdlt.crypto.ECPublicKey;
 import com.radixdlt.engine.RadixEngine;
 import com.radixdlt.engine.RadixEngineException;
-import com.radixdlt.engine.parser.REParser;
 import com.radixdlt.environment.ScheduledEventDispatcher;
 import com.radixdlt.identifiers.AID;
 import com.radixdlt.identifiers.REAddr;
 import com.radixdlt.mempool.MempoolConfig;
 import com.radixdlt.qualifier.NumPeers;
+import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.Serialization;
 import com.radixdlt.statecomputer.LedgerAndBFTProof;
+import com.radixdlt.statecomputer.REOutput;
 import com.radixdlt.statecomputer.checkpoint.MockedGenesisModule;
 import com.radixdlt.statecomputer.forks.RadixEngineForksLatestOnlyModule;
 import com.radixdlt.store.DatabaseEnvironment;
@@ -77,8 +80,13 @@ import com.radixdlt.store.DatabaseLocation;
 import com.radixdlt.store.berkeley.BerkeleyLedgerEntryStore;
 import com.radixdlt.utils.UInt256;
 import com.radixdlt.utils.UInt384;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.OperationStatus;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -92,9 +100,16 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static com.radixdlt.counters.SystemCounters.CounterType.COUNT_APIDB_REBUILD_PROCESSED;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class BerkeleyClientApiStoreTest {
@@ -123,9 +138,6 @@ public class BerkeleyClientApiStoreTest {
 	@Inject
 	private RadixEngine<LedgerAndBFTProof> engine;
 
-	@Inject
-	private REParser parser;
-
 	@Inject
 	@Self
 	private ECPublicKey self;
@@ -194,6 +206,42 @@ public class BerkeleyClientApiStoreTest {
 			.onFailureDo(() -> fail("Failure is not expected here"));
 	}
 
+	@Test
+	public void balanceChangesOfFlushedTransactionsAreMerged() throws Exception {
+		var tokenDef = prepareMutableTokenDef(TOKEN_KEYPAIR.getPublicKey(), SYMBOL);
+		var tx = engine.construct(
+			TxnConstructionRequest.create()
+				.createMutableToken(tokenDef)
+				.mint(TOKEN, TOKEN_ACCOUNT, UInt256.TEN)
+		).signAndBuild(TOKEN_KEYPAIR::sign);
+
+		var clientApiStore = prepareApiStore(tx);
+
+		for (var amount : List.of(UInt256.FOUR, UInt256.TWO)) {
+			var transfer = engine.construct(
+				TxnConstructionRequest.create()
+					.transfer(TOKEN, TOKEN_ACCOUNT, OWNER_ACCOUNT, amount)
+			).signAndBuild(TOKEN_KEYPAIR::sign);
+			var processed = engine.execute(List.of(transfer), null, PermissionLevel.SUPER_USER).getProcessedTxns();
+			clientApiStore.atomsCommittedToLedgerEventProcessor().process(REOutput.create(processed));
+		}
+		clientApiStore.queueFlushProcessor().process(ScheduledQueueFlush.create());
+
+		clientApiStore.getTokenBalances(TOKEN_ACCOUNT, BalanceType.SPENDABLE)
+			.onSuccess(list -> {
+				assertEquals(1, list.size());
+				assertEquals(UInt384.FOUR, list.get(0).getAmount());
+			})
+			.onFailureDo(() -> fail("Failure is not expected here"));
+
+		clientApiStore.getTokenBalances(OWNER_ACCOUNT, BalanceType.SPENDABLE)
+			.onSuccess(list -> {
+				assertEquals(1, list.size());
+				assertEquals(UInt384.SIX, list.get(0).getAmount());
+			})
+			.onFailureDo(() -> fail("Failure is not expected here"));
+	}
+
 	@Test
 	public void tokenSupplyIsCalculateProperlyForInitialTokenIssuance() throws Exception {
 		var tokenDef = prepareMutableTokenDef(TOKEN_KEYPAIR.getPublicKey(), SYMBOL);
@@ -322,6 +370,71 @@ public class BerkeleyClientApiStoreTest {
 			.onSuccess(entry -> assertEquals(tx.getId(), entry.getTxId()));
 	}
 
+	@Test
+	public void transactionIndexIsBackfilledForExistingDatabase() throws Exception {
+		var tokenDef = prepareMutableTokenDef(TOKEN_KEYPAIR.getPublicKey(), SYMBOL);
+		var tx = engine.construct(
+			TxnConstructionRequest.create()
+				.createMutableToken(tokenDef)
+				.mint(TOKEN, TOKEN_ACCOUNT, UInt256.TEN)
+				.transfer(TOKEN, TOKEN_ACCOUNT, OWNER_ACCOUNT, UInt256.FOUR)
+		).signAndBuild(TOKEN_KEYPAIR::sign);
+
+		prepareApiStore(tx).close();
+		// As if the database was created before the index was introduced
+		environment.getEnvironment().truncateDatabase(null, "radix.transaction_index_db", false);
+
+		var clientApiStore = createApiStore(false);
+
+		clientApiStore.getTransaction(tx.getId())
+			.onFailure(this::failWithMessage)
+			.onSuccess(entry -> assertEquals(tx.getId(), entry.getTxId()));
+		verify(ledgerStore, never()).get(any(AID.class));
+	}
+
+	@Test
+	public void legacyRecordsAreMigratedOnOpen() throws Exception {
+		var tokenDef = prepareMutableTokenDef(TOKEN_KEYPAIR.getPublicKey(), SYMBOL);
+		var tx = engine.construct(
+			TxnConstructionRequest.create()
+				.createMutableToken(tokenDef)
+				.mint(TOKEN, TOKEN_ACCOUNT, UInt256.TEN)
+				.transfer(TOKEN, TOKEN_ACCOUNT, OWNER_ACCOUNT, UInt256.FOUR)
+		).signAndBuild(TOKEN_KEYPAIR::sign);
+
+		prepareApiStore(tx).close();
+		// As if the records were stored before the record format was introduced
+		var config = new DatabaseConfig().setTransactional(true);
+		try (var progress = environment.getEnvironment().openDatabase(null, "radix.api_rebuild_progress_db", config)) {
+			progress.delete(null, new DatabaseEntry("record_format".getBytes(StandardCharsets.UTF_8)));
+		}
+		try (var history = environment.getEnvironment().openDatabase(null, "radix.executed_transactions_db", config);
+			 var cursor = history.openCursor(null, null)) {
+			var key = new DatabaseEntry();
+			var data = new DatabaseEntry();
+			while (cursor.getNext(key, data, null) == OperationStatus.SUCCESS) {
+				var entry = RecordCodec.decode(data.getData(), RecordCodec::readTxHistoryEntry).toOptional().orElseThrow();
+				cursor.putCurrent(new DatabaseEntry(serialization.toDson(entry, Output.ALL)));
+			}
+		}
+
+		var clientApiStore = createApiStore(false);
+
+		clientApiStore.getTransactionHistory(TOKEN_ACCOUNT, 10, Optional.empty())
+			.onFailure(this::failWithMessage)
+			.onSuccess(list -> assertTrue(list.stream().anyMatch(entry -> entry.getTxId().equals(tx.getId()))));
+		clientApiStore.close();
+
+		try (var history = environment.getEnvironment().openDatabase(null, "radix.executed_transactions_db", config);
+			 var cursor = history.openCursor(null, null)) {
+			var key = new DatabaseEntry();
+			var data = new DatabaseEntry();
+			while (cursor.getNext(key, data, null) == OperationStatus.SUCCESS) {
+				assertTrue(RecordCodec.isEncoded(data.getData()));
+			}
+		}
+	}
+
 	@Test
 	public void incorrectPageSizeIsRejected() throws TxBuilderException, RadixEngineException {
 		var tokenDef = prepareMutableTokenDef(TOKEN_KEYPAIR.getPublicKey(), SYMBOL);
@@ -342,8 +455,24 @@ public class BerkeleyClientApiStoreTest {
 		return prepareApiStore(tx, new HashMap<>());
 	}
 
-	@SuppressWarnings("unchecked")
 	private BerkeleyClientApiStore prepareApiStore(Txn tx, Map<AID, Txn> txMap) throws TxBuilderException, RadixEngineException {
+		//Insert necessary values on DB rebuild
+		mockLedgerTransactions(prepareLedger(tx, txMap));
+
+		return createApiStore(true);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void mockLedgerTransactions(List<Txn> transactions) {
+		doAnswer(invocation -> {
+			transactions.stream()
+				.skip(invocation.<Long>getArgument(0))
+				.forEach(invocation.<Consumer<Txn>>getArgument(1));
+			return null;
+		}).when(ledgerStore).forEach(anyLong(), any(Consumer.class));
+	}
+
+	private List<Txn> prepareLedger(Txn tx, Map<AID, Txn> txMap) throws TxBuilderException, RadixEngineException {
 		var ledgerProof = new LedgerProof(
 			HashUtils.random256(),
 			LedgerHeader.create(0, View.of(9), new AccumulatorState(3, HashUtils.zero256()), 0),
@@ -362,27 +491,85 @@ public class BerkeleyClientApiStoreTest {
 		when(ledgerStore.get(any(AID.class)))
 			.thenAnswer(invocation -> Optional.ofNullable(txMap.get(invocation.getArgument(0, AID.class))));
 
-		//Insert necessary values on DB rebuild
-		doAnswer(invocation -> {
-			transactions.forEach(invocation.<Consumer<Txn>>getArgument(0));
-			return null;
-		}).when(ledgerStore).forEach(any(Consumer.class));
+		return transactions;
+	}
+
+	private BerkeleyClientApiStore createApiStore(boolean isTest) {
+		return createApiStore(isTest, mock(SystemCounters.class));
+	}
 
+	@SuppressWarnings("unchecked")
+	private BerkeleyClientApiStore createApiStore(boolean isTest, SystemCounters systemCounters) {
 		return new BerkeleyClientApiStore(
 			environment,
-			parser,
 			txnParser,
 			ledgerStore,
 			serialization,
-			mock(SystemCounters.class),
+			systemCounters,
 			mock(ScheduledEventDispatcher.class),
 			new TransactionParser(addressing),
-			true,
+			isTest,
 			addressing,
 			mock(Forks.class)
 		);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void interruptedRebuildIsResumedOnRestart() throws Exception {
+		var tokenDef = prepareMutableTokenDef(TOKEN_KEYPAIR.getPublicKey(), SYMBOL);
+		var tx = engine.construct(
+			TxnConstructionRequest.create()
+				.createMutableToken(tokenDef)
+				.mint(TOKEN, TOKEN_ACCOUNT, UInt256.from(400))
+		).signAndBuild(TOKEN_KEYPAIR::sign);
+		var transactions = new ArrayList<>(prepareLedger(tx, new HashMap<>()));
+
+		// Enough transactions for three rebuild batches
+		for (int i = 0; i < 300; i++) {
+			var transfer = engine.construct(
+				TxnConstructionRequest.create()
+					.transfer(TOKEN, TOKEN_ACCOUNT, OWNER_ACCOUNT, UInt256.ONE)
+			).signAndBuild(TOKEN_KEYPAIR::sign);
+			engine.execute(List.of(transfer), null, PermissionLevel.SUPER_USER).getProcessedTxns()
+				.forEach(processed -> transactions.add(processed.getTxn()));
+		}
+		mockLedgerTransactions(transactions);
+
+		// Interrupt the rebuild once the second batch is committed
+		var interruptingCounters = mock(SystemCounters.class);
+		doThrow(new IllegalStateException("Interrupted rebuild"))
+			.when(interruptingCounters).set(COUNT_APIDB_REBUILD_PROCESSED, 256L);
+
+		try {
+			createApiStore(true, interruptingCounters);
+			fail("Rebuild is expected to be interrupted");
+		} catch (ClientApiStoreException e) {
+			// expected
+		}
+
+		// Not a test store, so rebuild is only run to finish the interrupted one
+		var clientApiStore = createApiStore(false);
+
+		verify(ledgerStore).forEach(eq(0L), any(Consumer.class));
+		verify(ledgerStore).forEach(eq(256L), any(Consumer.class));
+		clientApiStore.getTokenBalances(OWNER_ACCOUNT, BalanceType.SPENDABLE)
+			.onSuccess(list -> {
+				assertEquals(1, list.size());
+				assertEquals(UInt384.from(300), list.get(0).getAmount());
+			})
+			.onFailureDo(() -> fail("Failure is not expected here"));
+		clientApiStore.getTokenBalances(TOKEN_ACCOUNT, BalanceType.SPENDABLE)
+			.onSuccess(list -> {
+				assertEquals(1, list.size());
+				assertEquals(UInt384.from(100), list.get(0).getAmount());
+			})
+			.onFailureDo(() -> fail("Failure is not expected here"));
+
+		createApiStore(false);
+		verify(ledgerStore, times(2)).forEach(anyLong(), any(Consumer.class));
+	}
+
 	private void failWithMessage(com.radixdlt.utils.functional.Failure failure) {
 		fail(failure.message());
 	}
@@ -0,0 +1,133 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.api.store.berkeley;
+
+import org.junit.Test;
+
+import com.radixdlt.DefaultSerialization;
+import com.radixdlt.api.data.ActionEntry;
+import com.radixdlt.api.data.ActionType;
+import com.radixdlt.api.data.BalanceEntry;
+import com.radixdlt.api.data.TxHistoryEntry;
+import com.radixdlt.api.store.TokenDefinitionRecord;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.crypto.ECPublicKey;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.identifiers.REAddr;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.utils.UInt256;
+import com.radixdlt.utils.UInt384;
+
+import java.time.Instant;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecordCodecTest {
+	private static final ECPublicKey KEY = ECKeyPair.generateNew().getPublicKey();
+	private static final REAddr ACCT = REAddr.ofPubKeyAccount(KEY);
+	private static final REAddr TOKEN_ADDRESS = REAddr.ofHashedKey(KEY, "xrd");
+	private static final AID TX_ID = AID.from(HashUtils.random256().asBytes());
+
+	@Test
+	public void tx_history_entry_round_trips() {
+		var entry = TxHistoryEntry.create(
+			TX_ID,
+			Instant.ofEpochSecond(1621000000L, 123456789),
+			UInt256.from(100_000),
+			"hello \u00e9",
+			List.of(
+				ActionEntry.create(ActionType.TRANSFER, "from", "to", UInt256.TEN, "xrd_rb1qya85pwq"),
+				ActionEntry.create(ActionType.STAKE, "from", "validator", UInt256.ZERO, "xrd_rb1qya85pwq"),
+				ActionEntry.unknown()
+			)
+		);
+
+		var decoded = RecordCodec.decode(encode(RecordCodec.write(Unpooled.buffer(), entry)), RecordCodec::readTxHistoryEntry);
+
+		assertThat(decoded.isSuccess()).isTrue();
+		assertThat(decoded.toOptional().orElseThrow()).isEqualToComparingFieldByFieldRecursively(entry);
+	}
+
+	@Test
+	public void tx_history_entry_without_message_round_trips() {
+		var entry = TxHistoryEntry.create(TX_ID, Instant.EPOCH, UInt256.ZERO, null, List.of());
+
+		var decoded = RecordCodec.decode(encode(RecordCodec.write(Unpooled.buffer(), entry)), RecordCodec::readTxHistoryEntry);
+
+		assertThat(decoded.toOptional()).contains(entry);
+	}
+
+	@Test
+	public void balance_entries_round_trip() {
+		var balance = BalanceEntry.createBalance(ACCT, null, "xrd_rb1qya85pwq", UInt384.FIVE);
+		var stake = BalanceEntry.createBalance(ACCT, KEY, "xrd_rb1qya85pwq", UInt384.MAX_VALUE);
+		var unstake = BalanceEntry.createFull(ACCT, KEY.getCompressedBytes(), "xrd_rb1qya85pwq", UInt384.ONE, true, 42L, TX_ID);
+		var supply = BalanceEntry.createBalance(null, null, "xrd_rb1qya85pwq", UInt384.ZERO);
+
+		for (var entry : List.of(balance, stake, unstake, supply)) {
+			var decoded = RecordCodec.decode(encode(RecordCodec.write(Unpooled.buffer(), entry)), RecordCodec::readBalanceEntry);
+
+			assertThat(decoded.toOptional()).contains(entry);
+		}
+	}
+
+	@Test
+	public void token_definition_round_trips() {
+		var record = TokenDefinitionRecord.create(
+			"xrd", "Rads", TOKEN_ADDRESS, "Radix token", UInt384.EIGHT, "http://icon", "http://url", true
+		);
+
+		var decoded = RecordCodec.decode(
+			encode(RecordCodec.write(Unpooled.buffer(), record)),
+			RecordCodec::readTokenDefinitionRecord
+		);
+
+		assertThat(decoded.toOptional()).contains(record);
+	}
+
+	@Test
+	public void legacy_records_are_not_mistaken_for_encoded_ones() {
+		var serialization = DefaultSerialization.getInstance();
+		var entry = TxHistoryEntry.create(TX_ID, Instant.EPOCH, UInt256.ZERO, null, List.of());
+		var balance = BalanceEntry.createBalance(ACCT, null, "xrd_rb1qya85pwq", UInt384.FIVE);
+
+		assertThat(RecordCodec.isEncoded(serialization.toDson(entry, Output.ALL))).isFalse();
+		assertThat(RecordCodec.isEncoded(serialization.toDson(balance, Output.ALL))).isFalse();
+		assertThat(RecordCodec.isEncoded(encode(RecordCodec.write(Unpooled.buffer(), entry)))).isTrue();
+	}
+
+	@Test
+	public void truncated_record_fails_to_decode() {
+		var entry = TxHistoryEntry.create(TX_ID, Instant.EPOCH, UInt256.ZERO, "message", List.of());
+		var data = encode(RecordCodec.write(Unpooled.buffer(), entry));
+		var truncated = new byte[data.length - 1];
+		System.arraycopy(data, 0, truncated, 0, truncated.length);
+
+		assertThat(RecordCodec.decode(truncated, RecordCodec::readTxHistoryEntry).isSuccess()).isFalse();
+	}
+
+	private static byte[] encode(ByteBuf buf) {
+		return ByteBufUtil.getBytes(buf);
+	}
+}
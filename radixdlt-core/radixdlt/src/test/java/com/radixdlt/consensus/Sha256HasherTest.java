@@ -0,0 +1,66 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.radixdlt.DefaultSerialization;
+import com.radixdlt.crypto.ECDSASignature;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.Serialization;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Sha256HasherTest {
+	private final Serialization serialization = DefaultSerialization.getInstance();
+	private final AtomicLong hashedBytes = new AtomicLong();
+	private Sha256Hasher hasher;
+
+	@Before
+	public void setup() {
+		this.hasher = new Sha256Hasher(serialization, hashedBytes::addAndGet);
+	}
+
+	@Test
+	public void streamed_hash_is_the_same_as_hash_of_serialized_bytes() {
+		var header = BFTHeader.ofGenesisAncestor(LedgerHeader.mocked());
+		var signature = ECDSASignature.zeroSignature();
+
+		assertThat(hasher.hash(header)).isEqualTo(HashUtils.sha256(serialization.toDson(header, Output.HASH)));
+		assertThat(hasher.hash(signature)).isEqualTo(HashUtils.sha256(serialization.toDson(signature, Output.HASH)));
+	}
+
+	@Test
+	public void consensus_object_is_serialized_once_per_instance() {
+		var header = BFTHeader.ofGenesisAncestor(LedgerHeader.mocked());
+		var voteData = new VoteData(header, header, header);
+		var size = serialization.toDson(voteData, Output.HASH).length;
+
+		var hash = hasher.hash(voteData);
+		var memoized = hasher.hash(voteData);
+		assertThat(hashedBytes.get()).isEqualTo(size);
+
+		var equal = new VoteData(header, header, header);
+		assertThat(hasher.hash(equal)).isEqualTo(hash);
+		assertThat(memoized).isEqualTo(hash);
+		assertThat(hashedBytes.get()).isEqualTo(2L * size);
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.bft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.consensus.HashVerifier;
+import com.radixdlt.consensus.Proposal;
+import com.radixdlt.consensus.Vote;
+import com.radixdlt.consensus.epoch.EpochView;
+import com.radixdlt.consensus.epoch.EpochViewUpdate;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.counters.SystemCountersImpl;
+import com.radixdlt.crypto.ECDSASignature;
+import com.radixdlt.crypto.Hasher;
+import com.radixdlt.environment.rx.RemoteEvent;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public class BFTEventPreVerifierTest {
+	private Hasher hasher;
+	private HashVerifier verifier;
+	private SystemCounters counters;
+	private BFTEventPreVerifier preVerifier;
+
+	@Before
+	public void setup() {
+		this.hasher = mock(Hasher.class);
+		this.verifier = mock(HashVerifier.class);
+		this.counters = new SystemCountersImpl();
+		this.preVerifier = new BFTEventPreVerifier(hasher, verifier, counters);
+	}
+
+	@Test
+	public void when_signatures_are_valid__then_events_are_forwarded_in_order_per_sender() {
+		// Arrange
+		var sender = BFTNode.random();
+		var votes = new ArrayList<RemoteEvent<Vote>>();
+		for (int i = 1; i <= 100; i++) {
+			votes.add(RemoteEvent.create(sender, vote(sender, 1L, i)));
+		}
+		when(verifier.verify(any(), any(), any())).thenReturn(true);
+
+		// Act
+		var result = preVerifier.verified(Flowable.fromIterable(votes)).test();
+
+		// Assert
+		result.awaitDone(5, TimeUnit.SECONDS).assertValueSequence(votes).assertComplete();
+		assertThat(counters.get(CounterType.BFT_VERIFY_COUNT)).isEqualTo(100);
+		assertThat(counters.get(CounterType.BFT_VERIFY_QUEUE_SIZE)).isZero();
+	}
+
+	@Test
+	public void when_signature_is_invalid__then_event_is_dropped() {
+		// Arrange
+		var sender = BFTNode.random();
+		var proposal = mock(Proposal.class);
+		when(proposal.getAuthor()).thenReturn(sender);
+		when(proposal.getEpoch()).thenReturn(1L);
+		when(proposal.getView()).thenReturn(View.of(1));
+		when(proposal.getSignature()).thenReturn(mock(ECDSASignature.class));
+		when(verifier.verify(any(), any(), any())).thenReturn(false);
+
+		// Act
+		var result = preVerifier.verified(Flowable.just(RemoteEvent.create(sender, proposal))).test();
+
+		// Assert
+		result.awaitDone(5, TimeUnit.SECONDS).assertNoValues().assertComplete();
+		assertThat(counters.get(CounterType.BFT_VERIFY_COUNT)).isEqualTo(1);
+	}
+
+	@Test
+	public void when_event_is_stale__then_event_is_dropped_without_verification() {
+		// Arrange
+		var sender = BFTNode.random();
+		var epochViewUpdate = mock(EpochViewUpdate.class);
+		when(epochViewUpdate.getEpochView()).thenReturn(EpochView.of(2L, View.of(5)));
+		preVerifier.epochViewUpdateEventProcessor().process(epochViewUpdate);
+		var staleEpoch = RemoteEvent.create(sender, vote(sender, 1L, 10));
+		var staleView = RemoteEvent.create(sender, vote(sender, 2L, 4));
+		var current = RemoteEvent.create(sender, vote(sender, 2L, 5));
+		when(verifier.verify(any(), any(), any())).thenReturn(true);
+
+		// Act
+		var result = preVerifier.verified(Flowable.fromIterable(List.of(staleEpoch, staleView, current))).test();
+
+		// Assert
+		result.awaitDone(5, TimeUnit.SECONDS).assertValuesOnly(current);
+		assertThat(counters.get(CounterType.BFT_VERIFY_STALE)).isEqualTo(2);
+		verify(staleEpoch.getEvent(), never()).getHashOfData(any());
+		verify(staleView.getEvent(), never()).getHashOfData(any());
+	}
+
+	@Test
+	public void when_sender_was_idle__then_later_events_from_sender_are_still_forwarded() {
+		// Arrange
+		var idleTimeoutScheduler = new TestScheduler();
+		this.preVerifier = new BFTEventPreVerifier(hasher, verifier, counters, 1000L, idleTimeoutScheduler);
+		var sender = BFTNode.random();
+		var first = RemoteEvent.create(sender, vote(sender, 1L, 1));
+		var second = RemoteEvent.create(sender, vote(sender, 1L, 2));
+		var third = RemoteEvent.create(sender, vote(sender, 1L, 3));
+		when(verifier.verify(any(), any(), any())).thenReturn(true);
+		var remoteEvents = PublishProcessor.<RemoteEvent<Vote>>create();
+		var result = preVerifier.verified(remoteEvents).test();
+
+		// Act
+		remoteEvents.onNext(first);
+		result.awaitCount(1);
+		idleTimeoutScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+		remoteEvents.onNext(second);
+		remoteEvents.onNext(third);
+
+		// Assert
+		result.awaitCount(3).assertValuesOnly(first, second, third);
+		assertThat(counters.get(CounterType.BFT_VERIFY_QUEUE_SIZE)).isZero();
+	}
+
+	private Vote vote(BFTNode author, long epoch, long view) {
+		var vote = mock(Vote.class);
+		when(vote.getAuthor()).thenReturn(author);
+		when(vote.getEpoch()).thenReturn(epoch);
+		when(vote.getView()).thenReturn(View.of(view));
+		when(vote.getSignature()).thenReturn(mock(ECDSASignature.class));
+		when(vote.getTimeoutSignature()).thenReturn(Optional.empty());
+		return vote;
+	}
+}
@@ -48,6 +48,7 @@ import com.radixdlt.ledger.AccumulatorState;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -178,6 +179,28 @@ public class VertexStoreTest {
 		));
 	}
 
+	@Test
+	public void committing_should_release_vertices_which_timed_out_from_ledger() {
+		// Arrange
+		final List<VerifiedVertex> vertices = Stream.generate(this.nextVertex).limit(4).collect(Collectors.toList());
+		sut.insertVertex(vertices.get(0));
+		// Timed out views leave behind vertices on the root which are never certified
+		final List<VerifiedVertex> timedOut = Stream.iterate(10, i -> i + 1).limit(5)
+			.map(i -> UnverifiedVertex.create(rootQC, View.of(i), List.of(Txn.create(new byte[] {i.byteValue()})), BFTNode.random()))
+			.map(rawVertex -> new VerifiedVertex(rawVertex, hasher.hash(rawVertex)))
+			.collect(Collectors.toList());
+		timedOut.forEach(sut::insertVertex);
+		sut.insertVertex(vertices.get(1));
+		sut.insertVertex(vertices.get(2));
+
+		// Act
+		sut.addQC(vertices.get(3).getQC());
+
+		// Assert
+		verify(ledger, times(1)).retainPrepared(Set.of(vertices.get(0).getId(), vertices.get(1).getId(), vertices.get(2).getId()));
+		timedOut.forEach(vertex -> assertThat(sut.containsVertex(vertex.getId())).isFalse());
+	}
+
 	@Test
 	public void adding_a_qc_which_has_not_been_inserted_should_return_false() {
 		// Arrange
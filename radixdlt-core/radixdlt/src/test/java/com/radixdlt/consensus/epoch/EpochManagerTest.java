@@ -26,6 +26,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.google.common.hash.HashCode;
 import com.google.common.util.concurrent.RateLimiter;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
@@ -103,6 +104,7 @@ import com.radixdlt.utils.UInt256;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import org.junit.Before;
@@ -142,7 +144,16 @@ public class EpochManagerTest {
 		}
 
 		@Override
-		public void commit(VerifiedTxnsAndProof verifiedTxnsAndProof, VerifiedVertexStoreState vertexStoreState) {
+		public void retainPrepared(Set<HashCode> vertexIds) {
+			// No-op
+		}
+
+		@Override
+		public void commit(
+			VerifiedTxnsAndProof verifiedTxnsAndProof,
+			List<PreparedTxn> preparedTxns,
+			VerifiedVertexStoreState vertexStoreState
+		) {
 			// No-op
 		}
 	};
@@ -0,0 +1,180 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.radixdlt.consensus.Sha256Hasher;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.statecomputer.forks.Forks;
+import com.radixdlt.statecomputer.forks.RERules;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+public class MerkleLedgerAccumulatorAndVerifierTest {
+	private static final long FORK_EPOCH = 3;
+
+	private MerkleLedgerAccumulatorAndVerifier accumulatorAndVerifier;
+
+	@Before
+	public void setup() {
+		var hashChained = mock(RERules.class);
+		var merkle = mock(RERules.class);
+		when(merkle.usesMerkleAccumulator()).thenReturn(true);
+		var forks = new TreeMap<Long, RERules>();
+		forks.put(0L, hashChained);
+		forks.put(FORK_EPOCH, merkle);
+		accumulatorAndVerifier = new MerkleLedgerAccumulatorAndVerifier(
+			Sha256Hasher.withDefaultSerialization(),
+			Optional.of(new Forks(forks))
+		);
+	}
+
+	@Test
+	public void when_accumulate_before_fork__then_state_is_hash_chained() {
+		var start = new AccumulatorState(345, HashUtils.random256());
+
+		var next = accumulatorAndVerifier.accumulate(start, HashUtils.random256(), FORK_EPOCH - 1);
+
+		assertThat(next.getPeaks()).isEmpty();
+	}
+
+	@Test
+	public void when_accumulate_from_fork__then_state_has_boundary_and_a_peak_per_set_bit_of_range_size() {
+		var state = new AccumulatorState(345, HashUtils.random256());
+		for (int i = 0; i < 100; i++) {
+			state = accumulatorAndVerifier.accumulate(state, HashUtils.random256(), FORK_EPOCH);
+			assertThat(state.getRangeStart()).isEqualTo(345L);
+			assertThat(state.getPeaks()).hasSize(1 + Long.bitCount(state.getStateVersion() - 345));
+		}
+	}
+
+	@Test
+	public void when_verify_batches_of_any_size__then_same_as_accumulating_one_by_one() {
+		var start = accumulatorAndVerifier.accumulate(new AccumulatorState(345, HashUtils.random256()), HashUtils.random256(), FORK_EPOCH);
+		for (int size : new int[] {0, 1, 2, 3, 7, 64, 100, 2500}) {
+			var hashes = randomHashes(size);
+			var end = start;
+			for (var hash : hashes) {
+				end = accumulatorAndVerifier.accumulate(end, hash);
+			}
+
+			assertThat(accumulatorAndVerifier.verify(start, hashes, end)).isTrue();
+			assertThat(accumulatorAndVerifier.verify(start, hashes.reverse(), end)).isEqualTo(size < 2);
+		}
+	}
+
+	@Test
+	public void when_verify_from_hash_chained_start__then_range_starts_at_start() {
+		var start = new AccumulatorState(345, HashUtils.random256());
+		var hashes = randomHashes(10);
+		var end = accumulatorAndVerifier.accumulate(start, hashes.get(0), FORK_EPOCH);
+		for (var hash : hashes.subList(1, hashes.size())) {
+			end = accumulatorAndVerifier.accumulate(end, hash);
+		}
+
+		assertThat(accumulatorAndVerifier.verify(start, hashes, end)).isTrue();
+		assertThat(accumulatorAndVerifier.verifyAndGetExtension(start, hashes, h -> h, end)).hasValue(hashes);
+	}
+
+	@Test
+	public void when_prove_inclusion__then_proof_verifies_only_for_included_txn() {
+		assertInclusionProvable(0, 77);
+	}
+
+	@Test
+	public void when_prove_inclusion_from_non_zero_fork_version__then_proof_verifies_across_power_of_two_boundaries() {
+		// Range sizes cross 1, 2, 4, ..., 128 whatever the fork version
+		for (long forkVersion : new long[] {1, 3, 345, 1024, 1L << 40}) {
+			assertInclusionProvable(forkVersion, 130);
+		}
+	}
+
+	@Test
+	public void when_prove_inclusion_in_every_state__then_proof_verifies_for_every_included_txn() {
+		var forkVersion = 345L;
+		var txnIds = randomHashes(33);
+		var state = new AccumulatorState(forkVersion, HashUtils.random256());
+		for (int i = 0; i < txnIds.size(); i++) {
+			state = accumulatorAndVerifier.accumulate(state, txnIds.get(i), FORK_EPOCH);
+			for (long version = forkVersion + 1; version <= state.getStateVersion(); version++) {
+				assertProvable(state, forkVersion, txnIds, version);
+			}
+		}
+	}
+
+	@Test
+	public void when_prove_inclusion_of_txn_before_fork__then_no_peak_range() {
+		var state = accumulatorAndVerifier.accumulate(new AccumulatorState(345, HashUtils.random256()), HashUtils.random256(), FORK_EPOCH);
+
+		assertThatThrownBy(() -> MerkleLedgerAccumulatorAndVerifier.peakRange(state, 345))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThat(accumulatorAndVerifier.verifyInclusion(state, 345, HashUtils.random256(), ImmutableList.of())).isFalse();
+	}
+
+	@Test
+	public void when_ranges_start_from_different_chain_states__then_accumulator_hashes_differ() {
+		var txnId = HashUtils.random256();
+		var chainHash = HashUtils.random256();
+		var first = accumulatorAndVerifier.accumulate(new AccumulatorState(345, chainHash), txnId, FORK_EPOCH);
+		var second = accumulatorAndVerifier.accumulate(new AccumulatorState(345, HashUtils.random256()), txnId, FORK_EPOCH);
+		var third = accumulatorAndVerifier.accumulate(new AccumulatorState(344, chainHash), txnId, FORK_EPOCH);
+
+		assertThat(first.getAccumulatorHash()).isNotEqualTo(second.getAccumulatorHash());
+		assertThat(first.getAccumulatorHash()).isNotEqualTo(third.getAccumulatorHash());
+	}
+
+	private void assertInclusionProvable(long forkVersion, int count) {
+		var txnIds = randomHashes(count);
+		var state = new AccumulatorState(forkVersion, HashUtils.random256());
+		for (var txnId : txnIds) {
+			state = accumulatorAndVerifier.accumulate(state, txnId, FORK_EPOCH);
+		}
+
+		for (long version = forkVersion + 1; version <= state.getStateVersion(); version++) {
+			assertProvable(state, forkVersion, txnIds, version);
+		}
+	}
+
+	// The transaction ids of the range start with the transaction after the fork version
+	private void assertProvable(AccumulatorState state, long forkVersion, List<HashCode> txnIds, long version) {
+		var range = MerkleLedgerAccumulatorAndVerifier.peakRange(state, version);
+		var peakTxnIds = txnIds.subList((int) (range.getFirst() - forkVersion - 1), (int) (range.getSecond() - forkVersion));
+		var proof = accumulatorAndVerifier.inclusionProof(peakTxnIds, range.getFirst(), version);
+		var txnId = txnIds.get((int) (version - forkVersion - 1));
+
+		assertThat(accumulatorAndVerifier.verifyInclusion(state, version, txnId, proof)).isTrue();
+		assertThat(accumulatorAndVerifier.verifyInclusion(state, version, HashUtils.random256(), proof)).isFalse();
+	}
+
+	private static ImmutableList<HashCode> randomHashes(int count) {
+		return IntStream.range(0, count)
+			.mapToObj(i -> HashUtils.random256())
+			.collect(ImmutableList.toImmutableList());
+	}
+}
@@ -229,7 +229,7 @@ public class StateComputerLedgerTest {
 		sut.syncEventProcessor().process(verified);
 
 		// Assert
-		verify(stateComputer, never()).commit(any(), any());
+		verify(stateComputer, never()).commit(any(), any(), any());
 		verify(mempool, never()).committed(any());
 	}
 }
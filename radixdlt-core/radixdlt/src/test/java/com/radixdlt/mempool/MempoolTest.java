@@ -48,11 +48,13 @@ import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.environment.deterministic.DeterministicProcessor;
 import com.radixdlt.environment.deterministic.network.ControlledMessage;
 import com.radixdlt.environment.deterministic.network.DeterministicNetwork;
+import com.radixdlt.identifiers.AID;
 import com.radixdlt.identifiers.REAddr;
 import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.VerifiedTxnsAndProof;
 import com.radixdlt.network.p2p.PeersView;
 import com.radixdlt.qualifier.NumPeers;
+import com.radixdlt.statecomputer.RadixEngineMempool;
 import com.radixdlt.statecomputer.RadixEngineStateComputer;
 import com.radixdlt.statecomputer.checkpoint.Genesis;
 import com.radixdlt.statecomputer.checkpoint.MockedGenesisModule;
@@ -60,8 +62,12 @@ import com.radixdlt.statecomputer.forks.RadixEngineForksLatestOnlyModule;
 import com.radixdlt.store.DatabaseLocation;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -79,16 +85,19 @@ public class MempoolTest {
 	@Inject private DeterministicProcessor processor;
 	@Inject private DeterministicNetwork network;
 	@Inject private RadixEngineStateComputer stateComputer;
+	@Inject private RadixEngineMempool mempool;
 	@Inject private SystemCounters systemCounters;
 	@Inject private PeersView peersView;
 	@Inject private RERules rules;
 	@Inject @MempoolRelayInitialDelay private long initialDelay;
 	@Inject @MempoolRelayRepeatDelay private long repeatDelay;
 
+	private boolean relayByAnnouncement = false;
+
 	private Injector getInjector() {
 		return Guice.createInjector(
 			new RadixEngineForksLatestOnlyModule(RERulesConfig.testingDefault().removeSigsPerRoundLimit()),
-			MempoolConfig.asModule(10, 10, 200, 500, 10),
+			MempoolConfig.asModule(10, 10, 200, 500, 10, MempoolConfig.DEFAULT_MAX_AGE_MS, relayByAnnouncement),
 			new MainnetForkConfigsModule(),
 			new ForksModule(),
 			new SingleNodeAndPeersDeterministicNetworkModule(VALIDATOR_KEY),
@@ -191,6 +200,101 @@ public class MempoolTest {
 		assertThat(systemCounters.get(CounterType.MEMPOOL_RELAYER_SENT_COUNT)).isEqualTo(NUM_PEERS - 1);
 	}
 
+	@Test
+	public void relay_pushes_txn_only_once_to_each_peer_by_default() throws Exception {
+		// Arrange
+		getInjector().injectMembers(this);
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		var txn = createTxn(keyPair);
+
+		// Act
+		processor.handleMessage(self, MempoolAddSuccess.create(txn, getFirstPeer()), null);
+		processor.handleMessage(self, MempoolAddSuccess.create(txn, getFirstPeer()), null);
+
+		// Assert
+		assertThat(systemCounters.get(CounterType.MEMPOOL_RELAYER_SENT_COUNT)).isEqualTo(NUM_PEERS - 1);
+		assertThat(network.allMessages())
+			.extracting(ControlledMessage::message)
+			.containsExactly(MempoolAdd.create(txn));
+	}
+
+	@Test
+	public void relay_announces_txn_only_once_to_each_peer() throws Exception {
+		// Arrange
+		relayByAnnouncement = true;
+		getInjector().injectMembers(this);
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		var txn = createTxn(keyPair);
+		processor.handleMessage(getFirstPeer(), MempoolAnnounce.create(List.of(txn.getId())), null);
+		network.dropMessages(msg -> msg.message() instanceof MempoolPull);
+
+		// Act
+		processor.handleMessage(self, MempoolAddSuccess.create(txn), null);
+		processor.handleMessage(self, MempoolAddSuccess.create(txn), null);
+
+		// Assert
+		assertThat(systemCounters.get(CounterType.MEMPOOL_RELAYER_SENT_COUNT)).isEqualTo(NUM_PEERS - 1);
+		assertThat(network.allMessages())
+			.extracting(ControlledMessage::message)
+			.containsExactly(MempoolAnnounce.create(List.of(txn.getId())));
+	}
+
+	@Test
+	public void announced_txn_missing_from_mempool_is_pulled_once() throws Exception {
+		// Arrange
+		getInjector().injectMembers(this);
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		var txn = createTxn(keyPair);
+		var announce = MempoolAnnounce.create(List.of(txn.getId()));
+
+		// Act
+		processor.handleMessage(getFirstPeer(), announce, null);
+		processor.handleMessage(getFirstPeer(), announce, null);
+
+		// Assert
+		assertThat(systemCounters.get(CounterType.MEMPOOL_RELAYER_REQUESTED_COUNT)).isEqualTo(1);
+		assertThat(network.allMessages())
+			.extracting(ControlledMessage::message)
+			.containsExactly(MempoolPull.create(List.of(txn.getId())));
+	}
+
+	@Test
+	public void announced_txn_already_in_mempool_is_not_pulled() throws Exception {
+		// Arrange
+		getInjector().injectMembers(this);
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		var txn = createTxn(keyPair);
+		processor.handleMessage(self, MempoolAdd.create(txn), null);
+
+		// Act
+		processor.handleMessage(getFirstPeer(), MempoolAnnounce.create(List.of(txn.getId())), null);
+
+		// Assert
+		assertThat(systemCounters.get(CounterType.MEMPOOL_RELAYER_REQUESTED_COUNT)).isZero();
+		assertThat(network.allMessages())
+			.extracting(ControlledMessage::message)
+			.doesNotHaveAnyElementsOfTypes(MempoolPull.class);
+	}
+
+	@Test
+	public void pulled_txn_is_served_from_mempool() throws Exception {
+		// Arrange
+		getInjector().injectMembers(this);
+		ECKeyPair keyPair = ECKeyPair.generateNew();
+		var txn = createTxn(keyPair);
+		processor.handleMessage(self, MempoolAdd.create(txn), null);
+
+		// Act
+		processor.handleMessage(getFirstPeer(), MempoolPull.create(List.of(txn.getId(), AID.ZERO)), null);
+
+		// Assert
+		assertThat(systemCounters.get(CounterType.MEMPOOL_RELAYER_SERVED_COUNT)).isEqualTo(1);
+		assertThat(systemCounters.get(CounterType.MEMPOOL_RELAYER_SENT_BYTES)).isEqualTo(txn.getPayload().length);
+		assertThat(network.allMessages())
+			.filteredOn(msg -> msg.message() instanceof MempoolAdd)
+			.hasOnlyOneElementSatisfying(msg -> assertThat(msg.message()).isEqualTo(MempoolAdd.create(txn)));
+	}
+
 	@Test
 	public void add_same_command_to_mempool() throws Exception {
 		// Arrange
@@ -225,6 +329,35 @@ public class MempoolTest {
 		assertThat(systemCounters.get(CounterType.MEMPOOL_COUNT)).isEqualTo(2);
 	}
 
+	@Test
+	public void add_commands_to_mempool_concurrently() throws Exception {
+		// Arrange
+		getInjector().injectMembers(this);
+		var txns = new ArrayList<Txn>();
+		for (int i = 0; i < 8; i++) {
+			txns.add(createTxn(ECKeyPair.generateNew()));
+		}
+		var executor = Executors.newFixedThreadPool(4);
+
+		// Act
+		try {
+			var adds = txns.stream()
+				.map(txn -> (Callable<Void>) () -> {
+					mempool.add(txn);
+					return null;
+				})
+				.collect(Collectors.toList());
+			for (var result : executor.invokeAll(adds)) {
+				result.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// Assert
+		assertThat(mempool.getCount()).isEqualTo(8);
+	}
+
 	@Test
 	public void add_bad_command_to_mempool() {
 		// Arrange
@@ -250,7 +383,7 @@ public class MempoolTest {
 		when(proof.getStateVersion()).thenReturn((long) genesisTxns.getTxns().size() + 1);
 		when(proof.getView()).thenReturn(View.of(1));
 		var commandsAndProof = VerifiedTxnsAndProof.create(List.of(txn), proof);
-		stateComputer.commit(commandsAndProof, null);
+		stateComputer.commit(commandsAndProof, null, null);
 
 		// Act
 		MempoolAdd mempoolAdd = MempoolAdd.create(txn);
@@ -276,7 +409,7 @@ public class MempoolTest {
 		when(proof.getStateVersion()).thenReturn((long) genesisTxns.getTxns().size() + 1);
 		when(proof.getView()).thenReturn(View.of(1));
 		var commandsAndProof = VerifiedTxnsAndProof.create(List.of(txn2), proof);
-		stateComputer.commit(commandsAndProof, null);
+		stateComputer.commit(commandsAndProof, null, null);
 
 		// Assert
 		assertThat(systemCounters.get(CounterType.MEMPOOL_COUNT)).isEqualTo(0);
@@ -300,7 +433,7 @@ public class MempoolTest {
 		when(proof.getStateVersion()).thenReturn((long) genesisTxns.getTxns().size() + 1);
 		when(proof.getView()).thenReturn(View.of(1));
 		var commandsAndProof = VerifiedTxnsAndProof.create(List.of(txn3), proof);
-		stateComputer.commit(commandsAndProof, null);
+		stateComputer.commit(commandsAndProof, null, null);
 
 		// Assert
 		assertThat(systemCounters.get(CounterType.MEMPOOL_COUNT)).isEqualTo(0);
@@ -19,23 +19,26 @@ package com.radixdlt.mempool;
 import com.google.common.collect.Lists;
 import com.radixdlt.atom.Txn;
 import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.identifiers.AID;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Simple mempool which performs no validation and removes on commit.
  */
 public final class SimpleMempool implements Mempool<Txn> {
-	private final Set<Txn> data = new HashSet<>();
+	private final Set<Txn> data = ConcurrentHashMap.newKeySet();
 	private final SystemCounters counters;
 	private final Random random;
 	private final int maxSize;
@@ -100,6 +103,18 @@ public final class SimpleMempool implements Mempool<Txn> {
 		}
 	}
 
+	@Override
+	public boolean contains(AID txnId) {
+		return this.data.stream().anyMatch(txn -> txn.getId().equals(txnId));
+	}
+
+	@Override
+	public List<Txn> getTxns(Collection<AID> txnIds) {
+		return this.data.stream()
+			.filter(txn -> txnIds.contains(txn.getId()))
+			.collect(Collectors.toList());
+	}
+
 	@Override
 	public List<Txn> scanUpdateAndGet(Predicate<MempoolMetadata> predicate, Consumer<MempoolMetadata> operator) {
 		return List.of();
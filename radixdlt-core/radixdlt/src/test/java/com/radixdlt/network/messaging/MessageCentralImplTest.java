@@ -0,0 +1,191 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.network.messaging;
+
+import com.radixdlt.counters.SystemCountersImpl;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.network.p2p.NodeId;
+import com.radixdlt.network.p2p.PeerControl;
+import com.radixdlt.network.p2p.PeerManager;
+import com.radixdlt.network.p2p.transport.PeerChannel;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.utils.Compress;
+import com.radixdlt.utils.functional.Result;
+import io.reactivex.rxjava3.core.Observable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.radix.network.messages.GetPeersMessage;
+import org.radix.network.messages.PeerPingMessage;
+import org.radix.network.messaging.Message;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MessageCentralImplTest {
+	private final PeerManager peerManager = mock(PeerManager.class);
+	private final List<Message> messages = new CopyOnWriteArrayList<>();
+	private MessageCentralImpl messageCentral;
+
+	@Before
+	public void setUp() {
+		final var config = mock(MessageCentralConfiguration.class);
+		when(config.messagingOutboundQueueMax(anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(config.messagingTimeToLive(anyLong())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(peerManager.messages()).thenReturn(Observable.never());
+
+		// Every message is serialized to its index in the list of sent messages
+		final var serialization = mock(Serialization.class);
+		when(serialization.toDson(any(), eq(Output.WIRE)))
+			.thenAnswer(invocation -> new byte[] {(byte) indexOf(invocation.getArgument(0))});
+
+		this.messageCentral = new MessageCentralImpl(
+			config,
+			serialization,
+			peerManager,
+			System::currentTimeMillis,
+			SimplePriorityBlockingQueue::new,
+			new SystemCountersImpl(),
+			() -> mock(PeerControl.class)
+		);
+	}
+
+	@After
+	public void tearDown() {
+		this.messageCentral.close();
+	}
+
+	@Test
+	public void messages_to_a_peer_are_sent_in_order() throws Exception {
+		final var peer = node();
+		final var sent = channelFor(peer, new CountDownLatch(0));
+
+		for (int i = 0; i < 100; i++) {
+			messageCentral.send(peer, message(new GetPeersMessage()));
+		}
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(sent.poll(5, TimeUnit.SECONDS)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	public void slow_peer_does_not_hold_up_messages_to_other_peers() throws Exception {
+		// Arrange
+		final var slowPeer = node();
+		final var peer = nodeOnOtherQueueThan(slowPeer);
+		final var release = new CountDownLatch(1);
+		final var slowSent = channelFor(slowPeer, release);
+		final var sent = channelFor(peer, new CountDownLatch(0));
+
+		// Act
+		messageCentral.send(slowPeer, message(new GetPeersMessage()));
+		messageCentral.send(slowPeer, message(new GetPeersMessage()));
+		messageCentral.send(peer, message(new GetPeersMessage()));
+
+		// Assert
+		assertThat(sent.poll(5, TimeUnit.SECONDS)).isEqualTo(2);
+		assertThat(slowSent.poll(5, TimeUnit.SECONDS)).isZero();
+		assertThat(slowSent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+		release.countDown();
+		assertThat(slowSent.poll(5, TimeUnit.SECONDS)).isEqualTo(1);
+	}
+
+	@Test
+	public void higher_priority_messages_overtake_messages_waiting_for_a_peer() throws Exception {
+		// Arrange
+		final var slowPeer = node();
+		final var peer = nodeOnOtherQueueThan(slowPeer);
+		final var release = new CountDownLatch(1);
+		final var slowSent = channelFor(slowPeer, release);
+		final var sent = channelFor(peer, new CountDownLatch(0));
+		messageCentral.send(slowPeer, message(new GetPeersMessage()));
+		assertThat(slowSent.poll(5, TimeUnit.SECONDS)).isZero();
+
+		// Act
+		messageCentral.send(slowPeer, message(new GetPeersMessage()));
+		messageCentral.send(slowPeer, message(new GetPeersMessage()));
+		messageCentral.send(slowPeer, message(new PeerPingMessage()));
+		// Once this one is sent all earlier messages are queued for the slow peer
+		messageCentral.send(peer, message(new GetPeersMessage()));
+		assertThat(sent.poll(5, TimeUnit.SECONDS)).isEqualTo(4);
+		release.countDown();
+
+		// Assert
+		assertThat(slowSent.poll(5, TimeUnit.SECONDS)).isEqualTo(3);
+		assertThat(slowSent.poll(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(slowSent.poll(5, TimeUnit.SECONDS)).isEqualTo(2);
+	}
+
+	// Returns indexes of the messages sent to the peer, which are recorded before waiting for the latch
+	private BlockingQueue<Integer> channelFor(NodeId node, CountDownLatch release) {
+		final var sent = new LinkedBlockingQueue<Integer>();
+		final var channel = mock(PeerChannel.class);
+		when(channel.send(any())).thenAnswer(invocation -> {
+			sent.add((int) Compress.uncompress((byte[]) invocation.getArgument(0))[0]);
+			release.await();
+			return Result.ok(new Object());
+		});
+		when(peerManager.findOrCreateChannel(node)).thenReturn(CompletableFuture.completedFuture(channel));
+		return sent;
+	}
+
+	private Message message(Message message) {
+		messages.add(message);
+		return message;
+	}
+
+	private int indexOf(Message message) {
+		for (int i = 0; i < messages.size(); i++) {
+			if (messages.get(i) == message) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown message " + message);
+	}
+
+	private static NodeId node() {
+		return NodeId.fromPublicKey(ECKeyPair.generateNew().getPublicKey());
+	}
+
+	private static NodeId nodeOnOtherQueueThan(NodeId other) {
+		NodeId node;
+		do {
+			node = node();
+		} while (queueOf(node) == queueOf(other));
+		return node;
+	}
+
+	private static int queueOf(NodeId node) {
+		return Math.floorMod(node.hashCode(), MessageCentralImpl.PEER_QUEUES);
+	}
+}
@@ -17,9 +17,12 @@
 
 package com.radixdlt.network.messaging;
 
+import com.radixdlt.network.p2p.NodeId;
 import io.reactivex.rxjava3.subjects.PublishSubject;
 import org.radix.network.messaging.Message;
 
+import java.util.Collection;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -38,6 +41,12 @@ public class MessageCentralMockProvider {
 			return null;
 		}).when(messageCentral).send(any(), any());
 
+		doAnswer(invocation -> {
+			final Collection<NodeId> receivers = invocation.getArgument(0);
+			receivers.forEach(receiver -> messageProcessor.onNext(new MessageFromPeer<Message>(receiver, invocation.getArgument(1))));
+			return null;
+		}).when(messageCentral).broadcast(any(), any());
+
 		doAnswer(invocation ->
 			messageProcessor
 				.filter(p -> ((Class<?>) invocation.getArgument(0)).isInstance(p.getMessage()))
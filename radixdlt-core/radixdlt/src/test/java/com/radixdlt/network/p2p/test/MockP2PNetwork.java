@@ -32,6 +32,8 @@ import com.radixdlt.network.p2p.transport.PeerChannel;
 import com.radixdlt.networks.Addressing;
 import com.radixdlt.networks.Network;
 import com.radixdlt.serialization.Serialization;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.SocketChannel;
@@ -86,15 +88,17 @@ final class MockP2PNetwork {
 			serverSocketChannel
 		);
 
+		when(clientSocketChannel.alloc()).thenReturn(UnpooledByteBufAllocator.DEFAULT);
 		when(clientSocketChannel.writeAndFlush(any())).thenAnswer(inv -> {
 			final var rawData = inv.getArgument(0);
-			serverChannel.channelRead0(null, (byte[]) rawData);
+			serverChannel.channelRead0(null, (ByteBuf) rawData);
 			return null;
 		});
 
+		when(serverSocketChannel.alloc()).thenReturn(UnpooledByteBufAllocator.DEFAULT);
 		when(serverSocketChannel.writeAndFlush(any())).thenAnswer(inv -> {
 			final var rawData = inv.getArgument(0);
-			clientChannel.channelRead0(null, (byte[]) rawData);
+			clientChannel.channelRead0(null, (ByteBuf) rawData);
 			return null;
 		});
 
@@ -25,11 +25,13 @@ import com.radixdlt.network.p2p.transport.handshake.AuthHandshaker;
 import com.radixdlt.network.p2p.transport.handshake.Secrets;
 import com.radixdlt.serialization.Serialization;
 import com.radixdlt.utils.Pair;
+import io.netty.buffer.Unpooled;
 import org.junit.Test;
-import java.io.ByteArrayOutputStream;
 import java.security.SecureRandom;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public final class FrameCodecTest {
 	private final Serialization serialization = DefaultSerialization.getInstance();
@@ -55,14 +57,41 @@ public final class FrameCodecTest {
 			final var message = new byte[messageLength];
 			secureRandom.nextBytes(message);
 
-			final var baos = new ByteArrayOutputStream();
-			source.writeFrame(message, baos);
-			final var readFrame = destination.tryReadSingleFrame(baos.toByteArray());
+			final var buf = Unpooled.buffer();
+			source.writeFrame(message, buf);
+			final var readFrame = destination.tryReadSingleFrame(buf);
 
 			assertArrayEquals(message, readFrame.get());
 		}
 	}
 
+	@Test
+	public void test_frame_codec_reads_partial_and_multiple_frames() throws Exception {
+		final var secrets = agreeSecrets(ECKeyPair.generateNew(), ECKeyPair.generateNew());
+		final var source = new FrameCodec(secrets.getFirst());
+		final var destination = new FrameCodec(secrets.getSecond());
+
+		final var message1 = new byte[100];
+		final var message2 = new byte[1000];
+		secureRandom.nextBytes(message1);
+		secureRandom.nextBytes(message2);
+
+		final var written = Unpooled.buffer();
+		source.writeFrame(message1, written);
+		source.writeFrame(message2, written);
+		assertEquals(FrameCodec.frameSize(message1.length) + FrameCodec.frameSize(message2.length), written.readableBytes());
+
+		// first frame, then the header and a part of the body of the second one
+		final var received = Unpooled.buffer();
+		received.writeBytes(written, FrameCodec.frameSize(message1.length) + 40);
+		assertArrayEquals(message1, destination.tryReadSingleFrame(received).get());
+		assertFalse(destination.tryReadSingleFrame(received).isPresent());
+
+		received.writeBytes(written);
+		assertArrayEquals(message2, destination.tryReadSingleFrame(received).get());
+		assertFalse(received.isReadable());
+	}
+
 	private Pair<Secrets, Secrets> agreeSecrets(ECKeyPair nodeKey1, ECKeyPair nodeKey2) throws Exception {
 		final var handshaker1 = new AuthHandshaker(serialization, secureRandom, ECKeyOps.fromKeyPair(nodeKey1), (byte) 0x01);
 		final var handshaker2 = new AuthHandshaker(serialization, secureRandom, ECKeyOps.fromKeyPair(nodeKey2), (byte) 0x01);
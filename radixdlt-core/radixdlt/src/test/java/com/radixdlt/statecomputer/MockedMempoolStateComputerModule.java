@@ -18,6 +18,7 @@
 package com.radixdlt.statecomputer;
 
 import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.google.common.hash.HashCode;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
@@ -45,6 +46,7 @@ import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -106,7 +108,16 @@ public class MockedMempoolStateComputerModule extends AbstractModule {
 			}
 
 			@Override
-			public void commit(VerifiedTxnsAndProof txnsAndProof, VerifiedVertexStoreState vertexStoreState) {
+			public void retainPrepared(Set<HashCode> vertexIds) {
+				// Nothing is kept for prepared vertices
+			}
+
+			@Override
+			public void commit(
+				VerifiedTxnsAndProof txnsAndProof,
+				List<StateComputerLedger.PreparedTxn> preparedTxns,
+				VerifiedVertexStoreState vertexStoreState
+			) {
 				mempool.committed(txnsAndProof.getTxns());
 				counters.set(SystemCounters.CounterType.MEMPOOL_COUNT, mempool.getCount());
 
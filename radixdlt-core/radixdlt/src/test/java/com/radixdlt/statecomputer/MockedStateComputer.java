@@ -18,6 +18,7 @@
 package com.radixdlt.statecomputer;
 
 import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.google.common.hash.HashCode;
 import com.google.inject.Inject;
 import com.radixdlt.atom.Txn;
 import com.radixdlt.consensus.BFTConfiguration;
@@ -45,6 +46,7 @@ import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public final class MockedStateComputer implements StateComputer {
@@ -82,7 +84,16 @@ public final class MockedStateComputer implements StateComputer {
 	}
 
 	@Override
-	public void commit(VerifiedTxnsAndProof txnsAndProof, VerifiedVertexStoreState vertexStoreState) {
+	public void retainPrepared(Set<HashCode> vertexIds) {
+		// Nothing is kept for prepared vertices
+	}
+
+	@Override
+	public void commit(
+		VerifiedTxnsAndProof txnsAndProof,
+		List<StateComputerLedger.PreparedTxn> preparedTxns,
+		VerifiedVertexStoreState vertexStoreState
+	) {
 		var output = txnsAndProof.getProof().getNextValidatorSet().map(validatorSet -> {
 			LedgerProof header = txnsAndProof.getProof();
 			UnverifiedVertex genesisVertex = UnverifiedVertex.createGenesis(header.getRaw());
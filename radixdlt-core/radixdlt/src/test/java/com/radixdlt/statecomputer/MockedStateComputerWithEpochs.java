@@ -18,6 +18,7 @@
 package com.radixdlt.statecomputer;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
 import com.google.inject.Inject;
 import com.radixdlt.atom.Txn;
 import com.radixdlt.consensus.bft.BFTNode;
@@ -38,6 +39,7 @@ import com.radixdlt.mempool.MempoolAdd;
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -88,7 +90,16 @@ public final class MockedStateComputerWithEpochs implements StateComputer {
 	}
 
 	@Override
-	public void commit(VerifiedTxnsAndProof verifiedTxnsAndProof, VerifiedVertexStoreState vertexStoreState) {
-		this.stateComputer.commit(verifiedTxnsAndProof, vertexStoreState);
+	public void retainPrepared(Set<HashCode> vertexIds) {
+		this.stateComputer.retainPrepared(vertexIds);
+	}
+
+	@Override
+	public void commit(
+		VerifiedTxnsAndProof verifiedTxnsAndProof,
+		List<PreparedTxn> preparedTxns,
+		VerifiedVertexStoreState vertexStoreState
+	) {
+		this.stateComputer.commit(verifiedTxnsAndProof, preparedTxns, vertexStoreState);
 	}
 }
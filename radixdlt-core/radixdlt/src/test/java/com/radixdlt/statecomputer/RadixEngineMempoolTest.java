@@ -0,0 +1,237 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import com.radixdlt.atom.SubstateId;
+import com.radixdlt.atom.Txn;
+import com.radixdlt.constraintmachine.REProcessedTxn;
+import com.radixdlt.constraintmachine.REStateUpdate;
+import com.radixdlt.engine.RadixEngine;
+import com.radixdlt.engine.RadixEngineException;
+import com.radixdlt.engine.RadixEngineResult;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.mempool.MempoolFullException;
+import com.radixdlt.utils.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.radixdlt.utils.TypedMocks.rmock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RadixEngineMempoolTest {
+	private final Map<Txn, REProcessedTxn> processed = new HashMap<>();
+	private final Set<Txn> invalid = new HashSet<>();
+	private RadixEngine<LedgerAndBFTProof> radixEngine;
+	private int nextTxn = 0;
+
+	@Before
+	public void setup() throws Exception {
+		this.radixEngine = rmock(RadixEngine.class);
+		RadixEngine.RadixEngineBranch<LedgerAndBFTProof> branch = rmock(RadixEngine.RadixEngineBranch.class);
+		when(branch.execute(any())).thenAnswer(invocation -> {
+			List<Txn> txns = invocation.getArgument(0);
+			if (invalid.contains(txns.get(0))) {
+				throw mock(RadixEngineException.class);
+			}
+			return RadixEngineResult.create(List.of(processed.get(txns.get(0))), 0, 0);
+		});
+		when(radixEngine.speculate(any())).thenAnswer(
+			invocation -> invocation.<RadixEngine.SpeculativeExecution<LedgerAndBFTProof, ?, ?>>getArgument(0).execute(branch)
+		);
+	}
+
+	private Txn txn(long fee, SubstateId... shutDown) {
+		return txn(fee, List.of(shutDown), shutDown);
+	}
+
+	private Txn txn(long fee, List<SubstateId> dependencies, SubstateId... shutDown) {
+		var payload = new byte[32];
+		payload[0] = (byte) nextTxn++;
+		var txn = Txn.create(payload);
+		var processedTxn = mock(REProcessedTxn.class);
+		when(processedTxn.getTxn()).thenReturn(txn);
+		when(processedTxn.getFeePaid()).thenReturn(UInt256.from(fee));
+		when(processedTxn.substateDependencies()).thenAnswer(invocation -> dependencies.stream());
+		when(processedTxn.stateUpdates()).thenAnswer(invocation -> Stream.of(shutDown).map(substateId -> {
+			var update = mock(REStateUpdate.class);
+			when(update.getId()).thenReturn(substateId);
+			when(update.isShutDown()).thenReturn(true);
+			return update;
+		}));
+		processed.put(txn, processedTxn);
+		return txn;
+	}
+
+	private static SubstateId substate(int index) {
+		return SubstateId.ofSubstate(AID.ZERO, index);
+	}
+
+	@Test
+	public void get_txns_returns_highest_fee_rate_first() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 10);
+		var low = txn(1);
+		var high = txn(3);
+		var medium = txn(2);
+		mempool.add(low);
+		mempool.add(high);
+		mempool.add(medium);
+
+		// Act
+		var txns = mempool.getTxns(2, List.of());
+
+		// Assert
+		assertThat(txns).containsExactly(high, medium);
+	}
+
+	@Test
+	public void get_txns_skips_conflicting_txns() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 10);
+		var low = txn(1, substate(0));
+		var high = txn(2, substate(0));
+		var other = txn(0, substate(1));
+		mempool.add(low);
+		mempool.add(high);
+		mempool.add(other);
+
+		// Act
+		var txns = mempool.getTxns(3, List.of());
+
+		// Assert
+		assertThat(txns).containsExactly(high, other);
+	}
+
+	@Test
+	public void get_txns_skips_txns_conflicting_with_prepared() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 10);
+		var high = txn(2, substate(0));
+		var low = txn(1, substate(1));
+		mempool.add(high);
+		mempool.add(low);
+		var prepared = processed.get(txn(5, substate(0)));
+
+		// Act
+		var txns = mempool.getTxns(2, List.of(prepared));
+
+		// Assert
+		assertThat(txns).containsExactly(low);
+	}
+
+	@Test
+	public void full_mempool_evicts_lowest_fee_rate_txn() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 2);
+		var low = txn(1, substate(0));
+		var medium = txn(2);
+		var high = txn(3);
+		mempool.add(low);
+		mempool.add(medium);
+
+		// Act
+		mempool.add(high);
+
+		// Assert
+		assertThat(mempool.getCount()).isEqualTo(2);
+		assertThat(mempool.getTxns(2, List.of())).containsExactly(high, medium);
+		assertThat(mempool.getShuttingDownSubstates()).isEmpty();
+	}
+
+	@Test
+	public void full_mempool_rejects_txn_which_does_not_pay_more() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 1);
+		var txn = txn(2);
+		mempool.add(txn);
+
+		// Act
+		// Assert
+		assertThatThrownBy(() -> mempool.add(txn(2))).isInstanceOf(MempoolFullException.class);
+		assertThat(mempool.getTxns(1, List.of())).containsExactly(txn);
+	}
+
+	@Test
+	public void committed_evicts_txns_shutting_down_committed_substates() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 10);
+		var conflicting = txn(1, substate(0));
+		mempool.add(conflicting);
+		var committed = processed.get(txn(1, substate(0)));
+
+		// Act
+		var removed = mempool.committed(List.of(committed));
+
+		// Assert
+		assertThat(removed).containsExactly(conflicting);
+		assertThat(mempool.getCount()).isZero();
+	}
+
+	@Test
+	public void committed_queues_txns_reading_committed_substates_for_revalidation() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 10);
+		var reader = txn(1, List.of(substate(0), substate(1)), substate(1));
+		var stillValid = txn(1, List.of(substate(0), substate(2)), substate(2));
+		mempool.add(reader);
+		mempool.add(stillValid);
+		var committed = processed.get(txn(1, substate(0)));
+		var removedOnCommit = mempool.committed(List.of(committed));
+		invalid.add(reader);
+
+		// Act
+		var removed = mempool.revalidate(10);
+
+		// Assert
+		assertThat(removedOnCommit).isEmpty();
+		assertThat(removed).containsExactly(reader);
+		assertThat(mempool.getTxns(2, List.of())).containsExactly(stillValid);
+		assertThat(mempool.revalidate(10)).isEmpty();
+	}
+
+	@Test
+	public void expire_removes_txns_inserted_before_given_time() throws Exception {
+		// Arrange
+		var mempool = new RadixEngineMempool(radixEngine, 10);
+		var txn0 = txn(1, substate(0));
+		var txn1 = txn(1);
+		mempool.add(txn0);
+		mempool.add(txn1);
+
+		// Act
+		var notExpired = mempool.expire(0);
+		var expired = mempool.expire(Long.MAX_VALUE);
+
+		// Assert
+		assertThat(notExpired).isEmpty();
+		assertThat(expired).containsExactly(txn0, txn1);
+		assertThat(mempool.getCount()).isZero();
+		assertThat(mempool.getShuttingDownSubstates()).isEmpty();
+	}
+}
@@ -21,6 +21,7 @@ package com.radixdlt.statecomputer;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -61,6 +62,7 @@ import com.radixdlt.consensus.liveness.WeightedRotatingLeaders;
 import com.radixdlt.constraintmachine.exceptions.ConstraintMachineException;
 import com.radixdlt.constraintmachine.exceptions.InvalidPermissionException;
 import com.radixdlt.constraintmachine.PermissionLevel;
+import com.radixdlt.constraintmachine.REProcessedTxn;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.counters.SystemCountersImpl;
 import com.radixdlt.crypto.ECKeyPair;
@@ -74,6 +76,7 @@ import com.radixdlt.ledger.ByzantineQuorumException;
 import com.radixdlt.ledger.LedgerAccumulator;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.SimpleLedgerAccumulatorAndVerifier;
+import com.radixdlt.ledger.StateComputerLedger.PreparedTxn;
 import com.radixdlt.ledger.StateComputerLedger.StateComputerResult;
 import com.radixdlt.ledger.VerifiedTxnsAndProof;
 import com.radixdlt.mempool.MempoolAddFailure;
@@ -81,6 +84,7 @@ import com.radixdlt.mempool.MempoolAddSuccess;
 import com.radixdlt.mempool.MempoolConfig;
 import com.radixdlt.mempool.MempoolRelayTrigger;
 import com.radixdlt.serialization.Serialization;
+import com.radixdlt.statecomputer.RadixEngineStateComputer.RadixEngineTxn;
 import com.radixdlt.statecomputer.checkpoint.Genesis;
 import com.radixdlt.statecomputer.checkpoint.MockedGenesisModule;
 import com.radixdlt.statecomputer.checkpoint.RadixEngineCheckpointModule;
@@ -94,7 +98,9 @@ import com.radixdlt.sync.CommittedReader;
 import com.radixdlt.utils.TypedMocks;
 import com.radixdlt.utils.UInt256;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.assertj.core.api.Condition;
@@ -103,6 +109,7 @@ import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 
 public class RadixEngineStateComputerTest {
 	@Rule
@@ -124,6 +131,12 @@ public class RadixEngineStateComputerTest {
 	@Inject
 	private ProposerElection proposerElection;
 
+	@Inject
+	private EventDispatcher<LedgerUpdate> ledgerUpdateDispatcher;
+
+	@Inject
+	private LedgerAccumulator ledgerAccumulator;
+
 	private Serialization serialization = DefaultSerialization.getInstance();
 	private InMemoryEngineStore<LedgerAndBFTProof> engineStore;
 	private ImmutableList<ECKeyPair> registeredNodes = ImmutableList.of(
@@ -347,6 +360,178 @@ public class RadixEngineStateComputerTest {
 		);
 	}
 
+	@Test
+	public void preparing_child_vertex_should_build_on_prepared_parent() {
+		// Arrange
+		var parentId = HashUtils.random256();
+		var parent = new VerifiedVertex(
+			UnverifiedVertex.create(mock(QuorumCertificate.class), View.of(1), List.of(), proposerElection.getProposer(View.of(1))),
+			parentId
+		);
+		var parentResult = sut.prepare(ImmutableList.of(), parent, 0);
+		var qc = mock(QuorumCertificate.class);
+		var parentHeader = mock(BFTHeader.class);
+		when(parentHeader.getView()).thenReturn(View.of(1));
+		when(parentHeader.getVertexId()).thenReturn(parentId);
+		when(qc.getProposed()).thenReturn(parentHeader);
+		var child = new VerifiedVertex(
+			UnverifiedVertex.create(qc, View.of(2), List.of(), proposerElection.getProposer(View.of(2))),
+			HashUtils.random256()
+		);
+
+		// Act
+		var result = sut.prepare(parentResult.getSuccessfulCommands(), child, 0);
+
+		// Assert
+		assertThat(result.getSuccessfulCommands()).hasSize(1);
+		assertThat(result.getFailedCommands()).isEmpty();
+	}
+
+	@Test
+	public void repeated_timeouts_should_only_keep_branches_of_vertices_left_in_vertex_store() throws Exception {
+		// Arrange
+		// Every timed out view gets a new vertex on the same parent
+		var parentState = new AccumulatorState(1, HashUtils.random256());
+		var vertices = new ArrayList<VerifiedVertex>();
+		for (int i = 0; i < 10; i++) {
+			var vertex = vertexOnParentState(parentState, List.of());
+			sut.prepare(ImmutableList.of(), vertex, 0);
+			vertices.add(vertex);
+		}
+		var txn = registerCommand(ECKeyPair.generateNew());
+
+		// Act
+		sut.retainPrepared(Set.of(vertices.get(vertices.size() - 1).getId()));
+
+		// Assert
+		assertThatThrownBy(() -> radixEngine.execute(List.of(txn)))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageStartingWith("1 transient branches still exist");
+		sut.retainPrepared(Set.of());
+		assertThat(radixEngine.execute(List.of(txn)).getProcessedTxns()).hasSize(1);
+	}
+
+	@Test
+	public void evicting_prepared_vertex_should_delete_branches_built_on_it() throws Exception {
+		// Arrange
+		var parentId = HashUtils.random256();
+		var parent = new VerifiedVertex(
+			UnverifiedVertex.create(mock(QuorumCertificate.class), View.of(1), List.of(), proposerElection.getProposer(View.of(1))),
+			parentId
+		);
+		var parentResult = sut.prepare(ImmutableList.of(), parent, 0);
+		var qc = mock(QuorumCertificate.class);
+		var parentHeader = mock(BFTHeader.class);
+		when(parentHeader.getView()).thenReturn(View.of(1));
+		when(parentHeader.getVertexId()).thenReturn(parentId);
+		when(qc.getProposed()).thenReturn(parentHeader);
+		var child = new VerifiedVertex(
+			UnverifiedVertex.create(qc, View.of(2), List.of(), proposerElection.getProposer(View.of(2))),
+			HashUtils.random256()
+		);
+		sut.prepare(parentResult.getSuccessfulCommands(), child, 0);
+		var txn = registerCommand(ECKeyPair.generateNew());
+
+		// Act
+		sut.retainPrepared(Set.of(child.getId()));
+
+		// Assert
+		assertThat(radixEngine.execute(List.of(txn)).getProcessedTxns()).hasSize(1);
+	}
+
+	private VerifiedVertex vertexOnParentState(AccumulatorState parentState, List<Txn> txns) {
+		var qc = mock(QuorumCertificate.class);
+		var parentHeader = mock(BFTHeader.class);
+		when(parentHeader.getView()).thenReturn(View.of(0));
+		when(parentHeader.getLedgerHeader()).thenReturn(LedgerHeader.create(0, View.of(0), parentState, 0));
+		when(qc.getProposed()).thenReturn(parentHeader);
+		var v = UnverifiedVertex.create(qc, View.of(1), txns, proposerElection.getProposer(View.of(1)));
+		return new VerifiedVertex(v, HashUtils.random256());
+	}
+
+	private VerifiedTxnsAndProof txnsAndProof(AccumulatorState parentState, List<PreparedTxn> prepared) {
+		var state = parentState;
+		for (var txn : prepared) {
+			state = ledgerAccumulator.accumulate(state, txn.txn().getId().asHashCode());
+		}
+		var ledgerProof = new LedgerProof(
+			HashUtils.random256(),
+			LedgerHeader.create(0, View.of(1), state, 0),
+			new TimestampedECDSASignatures()
+		);
+		return VerifiedTxnsAndProof.create(
+			prepared.stream().map(PreparedTxn::txn).collect(Collectors.toList()),
+			ledgerProof
+		);
+	}
+
+	private List<REProcessedTxn> committedProcessedTxns() {
+		var captor = ArgumentCaptor.forClass(LedgerUpdate.class);
+		verify(ledgerUpdateDispatcher).dispatch(captor.capture());
+		return captor.getValue().getStateComputerOutput().getInstance(REOutput.class).getProcessedTxns();
+	}
+
+	@Test
+	public void committing_prepared_user_txn_should_reuse_prepared_results() throws Exception {
+		// Arrange
+		var parentState = new AccumulatorState(1, HashUtils.random256());
+		var vertex = vertexOnParentState(parentState, List.of(registerCommand(ECKeyPair.generateNew())));
+		var result = sut.prepare(ImmutableList.of(), vertex, 0);
+		var prepared = result.getSuccessfulCommands();
+		assertThat(result.getFailedCommands()).isEmpty();
+		assertThat(prepared).hasSize(2);
+
+		// Act
+		sut.commit(txnsAndProof(parentState, prepared), prepared, null);
+
+		// Assert
+		var committed = committedProcessedTxns();
+		assertThat(committed).hasSize(2);
+		for (int i = 0; i < prepared.size(); i++) {
+			assertThat(committed.get(i)).isSameAs(((RadixEngineTxn) prepared.get(i)).processedTxn());
+		}
+	}
+
+	@Test
+	public void committing_prepared_txns_on_another_ledger_state_should_re_execute() throws Exception {
+		// Arrange
+		var vertex = vertexOnParentState(new AccumulatorState(1, HashUtils.random256()), List.of(registerCommand(ECKeyPair.generateNew())));
+		var prepared = sut.prepare(ImmutableList.of(), vertex, 0).getSuccessfulCommands();
+		assertThat(prepared).hasSize(2);
+
+		// Act
+		sut.commit(txnsAndProof(new AccumulatorState(1, HashUtils.random256()), prepared), prepared, null);
+
+		// Assert
+		var committed = committedProcessedTxns();
+		assertThat(committed).hasSize(2);
+		for (int i = 0; i < prepared.size(); i++) {
+			var preparedTxn = ((RadixEngineTxn) prepared.get(i)).processedTxn();
+			assertThat(committed.get(i)).isNotSameAs(preparedTxn);
+			assertThat(committed.get(i).getTxn().getId()).isEqualTo(preparedTxn.getTxn().getId());
+		}
+	}
+
+	@Test
+	public void committing_prepared_txns_without_parent_state_should_re_execute() {
+		// Arrange
+		var v = UnverifiedVertex.create(
+			mock(QuorumCertificate.class),
+			View.of(1),
+			List.of(),
+			proposerElection.getProposer(View.of(1))
+		);
+		var vertex = new VerifiedVertex(v, mock(HashCode.class));
+		var prepared = sut.prepare(ImmutableList.of(), vertex, 0).getSuccessfulCommands();
+		var processed = ((RadixEngineTxn) prepared.get(0)).processedTxn();
+
+		// Act
+		sut.commit(txnsAndProof(new AccumulatorState(1, HashUtils.random256()), prepared), prepared, null);
+
+		// Assert
+		assertThat(committedProcessedTxns()).hasSize(1).first().isNotSameAs(processed);
+	}
+
 	// TODO: should catch this and log it somewhere as proof of byzantine quorum
 	@Test
 	// Note that checking upper bound view for epoch now requires additional
@@ -367,7 +552,7 @@ public class RadixEngineStateComputerTest {
 
 		// Act
 		// Assert
-		assertThatThrownBy(() -> sut.commit(commandsAndProof, null))
+		assertThatThrownBy(() -> sut.commit(commandsAndProof, null, null))
 			.isInstanceOf(ByzantineQuorumException.class);
 	}
 
@@ -390,7 +575,7 @@ public class RadixEngineStateComputerTest {
 
 		// Act
 		// Assert
-		assertThatThrownBy(() -> sut.commit(commandsAndProof, null))
+		assertThatThrownBy(() -> sut.commit(commandsAndProof, null, null))
 			.isInstanceOf(ByzantineQuorumException.class);
 	}
 
@@ -413,7 +598,7 @@ public class RadixEngineStateComputerTest {
 
 		// Act
 		// Assert
-		assertThatThrownBy(() -> sut.commit(commandsAndProof, null))
+		assertThatThrownBy(() -> sut.commit(commandsAndProof, null, null))
 			.isInstanceOf(ByzantineQuorumException.class);
 	}
 
@@ -436,7 +621,7 @@ public class RadixEngineStateComputerTest {
 
 		// Act
 		// Assert
-		assertThatThrownBy(() -> sut.commit(commandsAndProof, null))
+		assertThatThrownBy(() -> sut.commit(commandsAndProof, null, null))
 			.isInstanceOf(ByzantineQuorumException.class);
 	}
 }
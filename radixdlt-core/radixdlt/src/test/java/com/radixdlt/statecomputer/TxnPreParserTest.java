@@ -0,0 +1,85 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import com.radixdlt.atom.Txn;
+import com.radixdlt.engine.RadixEngine;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static com.radixdlt.utils.TypedMocks.rmock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TxnPreParserTest {
+	private RadixEngine<LedgerAndBFTProof> radixEngine;
+	private TxnPreParser txnPreParser;
+
+	@Before
+	public void setUp() {
+		this.radixEngine = rmock(RadixEngine.class);
+		this.txnPreParser = new TxnPreParser(radixEngine);
+	}
+
+	@Test
+	public void single_txn_is_pre_parsed_on_calling_thread() {
+		// Arrange
+		var txns = List.of(Txn.create(new byte[] {0}));
+
+		// Act
+		txnPreParser.preParse(txns);
+
+		// Assert
+		var executor = ArgumentCaptor.forClass(Executor.class);
+		verify(radixEngine).preParse(eq(txns), executor.capture());
+		var thread = new Thread[1];
+		executor.getValue().execute(() -> thread[0] = Thread.currentThread());
+		assertThat(thread[0]).isSameAs(Thread.currentThread());
+	}
+
+	@Test
+	public void multiple_txns_are_pre_parsed_on_worker_pool() throws Exception {
+		// Arrange
+		var txns = List.of(Txn.create(new byte[] {0}), Txn.create(new byte[] {1}));
+
+		// Act
+		txnPreParser.preParse(txns);
+
+		// Assert
+		var executor = ArgumentCaptor.forClass(Executor.class);
+		verify(radixEngine).preParse(eq(txns), executor.capture());
+		var thread = CompletableFuture.supplyAsync(Thread::currentThread, executor.getValue()).get(5, TimeUnit.SECONDS);
+		assertThat(thread).isNotSameAs(Thread.currentThread());
+	}
+
+	@Test
+	public void empty_batch_is_not_pre_parsed() {
+		txnPreParser.preParse(List.of());
+
+		verify(radixEngine, never()).preParse(any(), any());
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.DefaultSerialization;
+import com.radixdlt.atom.Txn;
+import com.radixdlt.consensus.HighQC;
+import com.radixdlt.consensus.LedgerHeader;
+import com.radixdlt.consensus.QuorumCertificate;
+import com.radixdlt.consensus.Sha256Hasher;
+import com.radixdlt.consensus.UnverifiedVertex;
+import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.consensus.bft.VerifiedVertex;
+import com.radixdlt.consensus.bft.VerifiedVertexStoreState;
+import com.radixdlt.consensus.bft.View;
+import com.radixdlt.counters.SystemCountersImpl;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.crypto.Hasher;
+import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.store.DatabaseEnvironment;
+import com.radixdlt.store.StoreConfig;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.OperationStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BerkeleyLedgerEntryStoreVertexStoreTest {
+	private static final LedgerHeader GENESIS_HEADER = LedgerHeader.create(
+		0, View.genesis(), new AccumulatorState(0, HashUtils.zero256()), 0
+	);
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final Hasher hasher = Sha256Hasher.withDefaultSerialization();
+	private DatabaseEnvironment environment;
+	private BerkeleyLedgerEntryStore sut;
+	private VerifiedVertex root;
+	private QuorumCertificate rootQC;
+	private final List<VerifiedVertex> vertices = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		this.root = new VerifiedVertex(UnverifiedVertex.createGenesis(GENESIS_HEADER), HashUtils.zero256());
+		this.rootQC = QuorumCertificate.ofGenesis(root, GENESIS_HEADER);
+		this.environment = new DatabaseEnvironment(folder.getRoot().getAbsolutePath(), 0);
+		this.sut = createStore();
+	}
+
+	@After
+	public void tearDown() {
+		sut.close();
+		environment.stop();
+	}
+
+	private BerkeleyLedgerEntryStore createStore() {
+		return new BerkeleyLedgerEntryStore(
+			DefaultSerialization.getInstance(),
+			environment,
+			new StoreConfig(1000),
+			new SystemCountersImpl()
+		);
+	}
+
+	private void restart() {
+		sut.close();
+		environment.stop();
+		this.environment = new DatabaseEnvironment(folder.getRoot().getAbsolutePath(), 0);
+		this.sut = createStore();
+	}
+
+	private VerifiedVertex insertVertex() {
+		var view = View.of(vertices.size() + 1L);
+		var rawVertex = UnverifiedVertex.create(rootQC, view, List.of(Txn.create(new byte[] {(byte) view.number()})), BFTNode.random());
+		var vertex = new VerifiedVertex(rawVertex, hasher.hash(rawVertex));
+		vertices.add(vertex);
+		return vertex;
+	}
+
+	private VerifiedVertexStoreState state() {
+		return VerifiedVertexStoreState.create(HighQC.from(rootQC), root, ImmutableList.copyOf(vertices), Optional.empty(), hasher);
+	}
+
+	private long updateCount() {
+		var config = new DatabaseConfig().setTransactional(true);
+		try (var updates = environment.getEnvironment().openDatabase(null, "radix.vertex_store_updates", config);
+			 var cursor = updates.openCursor(null, null)) {
+			var count = 0L;
+			while (cursor.getNext(new DatabaseEntry(), new DatabaseEntry(), null) == OperationStatus.SUCCESS) {
+				count++;
+			}
+			return count;
+		}
+	}
+
+	@Test
+	public void inserted_vertices_are_saved_as_updates_and_replayed_on_restart() {
+		sut.save(state());
+		for (int i = 0; i < 3; i++) {
+			var vertex = insertVertex();
+			sut.saveUpdate(state(), Optional.of(vertex));
+		}
+		assertThat(updateCount()).isEqualTo(3);
+
+		restart();
+
+		assertThat(sut.loadLastVertexStoreState()).contains(state().toSerialized());
+
+		// Updates continue after the replayed ones
+		var vertex = insertVertex();
+		sut.saveUpdate(state(), Optional.of(vertex));
+		assertThat(updateCount()).isEqualTo(4);
+
+		restart();
+
+		assertThat(sut.loadLastVertexStoreState()).contains(state().toSerialized());
+	}
+
+	@Test
+	public void full_save_compacts_appended_updates() {
+		sut.save(state());
+		for (int i = 0; i < 3; i++) {
+			var vertex = insertVertex();
+			sut.saveUpdate(state(), Optional.of(vertex));
+		}
+
+		sut.save(state());
+		assertThat(updateCount()).isZero();
+
+		var vertex = insertVertex();
+		sut.saveUpdate(state(), Optional.of(vertex));
+		assertThat(updateCount()).isEqualTo(1);
+
+		restart();
+
+		assertThat(sut.loadLastVertexStoreState()).contains(state().toSerialized());
+	}
+
+	@Test
+	public void update_which_does_not_extend_saved_state_falls_back_to_full_save() {
+		sut.save(state());
+		var vertex = insertVertex();
+		sut.saveUpdate(state(), Optional.of(vertex));
+		assertThat(updateCount()).isEqualTo(1);
+
+		// Two vertices were added but only one is reported as inserted
+		insertVertex();
+		var inserted = insertVertex();
+		sut.saveUpdate(state(), Optional.of(inserted));
+		assertThat(updateCount()).isZero();
+
+		restart();
+
+		assertThat(sut.loadLastVertexStoreState()).contains(state().toSerialized());
+	}
+
+	@Test
+	public void update_before_any_saved_state_falls_back_to_full_save() {
+		var vertex = insertVertex();
+		sut.saveUpdate(state(), Optional.of(vertex));
+		assertThat(updateCount()).isZero();
+
+		restart();
+
+		assertThat(sut.loadLastVertexStoreState()).contains(state().toSerialized());
+	}
+}
@@ -0,0 +1,333 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley.atom;
+
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCountersImpl;
+import com.radixdlt.utils.Pair;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+import static com.radixdlt.counters.SystemCounters.CounterType.PERSISTENCE_ATOM_LOG_WRITE_BYTES;
+import static com.radixdlt.counters.SystemCounters.CounterType.PERSISTENCE_ATOM_LOG_WRITE_COMPRESSED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+
+public class BlockCompressedAppendLogTest {
+	private static final int NUM_CHUNKS = 1000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final SystemCounters counters = new SystemCountersImpl();
+
+	@Test
+	public void written_chunks_can_be_read_before_and_after_commit() throws IOException {
+		var appendLog = AppendLog.openBlockCompressed(folder.newFile().getAbsolutePath(), counters);
+		var chunks = chunks(NUM_CHUNKS);
+
+		var offsets = writeAll(appendLog, chunks);
+		checkAll(appendLog, chunks, offsets);
+		appendLog.commit();
+
+		checkAll(appendLog, chunks, offsets);
+	}
+
+	@Test
+	public void committed_chunks_can_be_read_after_reopen() throws IOException {
+		var path = folder.newFile().getAbsolutePath();
+		var appendLog = AppendLog.openBlockCompressed(path, counters);
+		var chunks = chunks(NUM_CHUNKS);
+		var offsets = new ArrayList<Long>();
+		for (var chunk : chunks) {
+			offsets.add(appendLog.write(chunk));
+			appendLog.commit();
+		}
+		appendLog.close();
+
+		var reopened = AppendLog.openBlockCompressed(path, counters);
+
+		checkAll(reopened, chunks, offsets);
+		var read = new ArrayList<Long>();
+		reopened.forEach((data, offset) -> read.add(offset));
+		assertThat(read).isEqualTo(offsets);
+	}
+
+	@Test
+	public void truncate_to_position_inside_written_block_discards_later_chunks() throws IOException {
+		var appendLog = AppendLog.openBlockCompressed(folder.newFile().getAbsolutePath(), counters);
+		var chunks = chunks(NUM_CHUNKS);
+		var offsets = writeAll(appendLog, chunks.subList(0, 10));
+		appendLog.commit();
+		var position = appendLog.position();
+		writeAll(appendLog, chunks.subList(10, NUM_CHUNKS));
+		appendLog.commit();
+
+		appendLog.truncate(position);
+		appendLog.commit();
+
+		assertThat(appendLog.position()).isEqualTo(position);
+		checkAll(appendLog, chunks.subList(0, 10), offsets);
+		assertThatThrownBy(() -> appendLog.read(position)).isInstanceOf(IOException.class);
+		var read = new ArrayList<Long>();
+		appendLog.forEach((data, offset) -> read.add(offset));
+		assertThat(read).isEqualTo(offsets);
+
+		var next = appendLog.write(chunks.get(10));
+		appendLog.commit();
+		assertThat(next).isEqualTo(position);
+		assertArrayEquals(chunks.get(10), appendLog.read(next));
+	}
+
+	@Test
+	public void committed_chunks_survive_crash_before_sealed_block_is_committed() throws IOException {
+		var path = folder.newFile().getAbsolutePath();
+		var delegate = new FailingAppendLog(AppendLog.openMapped(path));
+		var appendLog = BlockCompressedAppendLog.open(delegate, path + BlockCompressedAppendLog.TAIL_SUFFIX, counters);
+		var chunks = chunks(NUM_CHUNKS);
+		var offsets = writeAll(appendLog, chunks.subList(0, 10));
+		appendLog.commit();
+		writeAll(appendLog, chunks.subList(10, 300));
+
+		delegate.failCommit = true;
+		assertThatThrownBy(appendLog::commit).isInstanceOf(IOException.class);
+
+		var reopened = AppendLog.openBlockCompressed(path, counters);
+		checkAll(reopened, chunks.subList(0, 10), offsets);
+		var read = new ArrayList<Long>();
+		reopened.forEach((data, offset) -> read.add(offset));
+		assertThat(read).isEqualTo(offsets);
+	}
+
+	@Test
+	public void committed_chunks_survive_crash_between_sealed_block_commit_and_tail_replacement() throws IOException {
+		var path = folder.newFile().getAbsolutePath();
+		var crash = new boolean[1];
+		var appendLog = BlockCompressedAppendLog.open(
+			AppendLog.openMapped(path), path + BlockCompressedAppendLog.TAIL_SUFFIX, failingOpener(crash), counters
+		);
+		var chunks = chunks(NUM_CHUNKS);
+		var offsets = writeAll(appendLog, chunks.subList(0, 10));
+		appendLog.commit();
+		offsets.addAll(writeAll(appendLog, chunks.subList(10, 300)));
+
+		crash[0] = true;
+		assertThatThrownBy(appendLog::commit).isInstanceOf(IOException.class);
+		assertThat(new File(path + BlockCompressedAppendLog.TAIL_SUFFIX + BlockCompressedAppendLog.REWRITE_SUFFIX)).doesNotExist();
+
+		// Only the sealed block was committed, the stale tail must not be read again
+		var sealed = BlockCompressedAppendLog.MAX_BLOCK_CHUNKS;
+		var reopened = AppendLog.openBlockCompressed(path, counters);
+		checkAll(reopened, chunks.subList(0, sealed), offsets.subList(0, sealed));
+		var read = new ArrayList<Long>();
+		reopened.forEach((data, offset) -> read.add(offset));
+		assertThat(read).isEqualTo(offsets.subList(0, sealed));
+		assertThat(reopened.position()).isEqualTo(offsets.get(sealed));
+	}
+
+	@Test
+	public void committed_chunks_survive_crash_while_tail_is_rewritten_on_truncate() throws IOException {
+		var path = folder.newFile().getAbsolutePath();
+		var crash = new boolean[1];
+		var appendLog = BlockCompressedAppendLog.open(
+			AppendLog.openMapped(path), path + BlockCompressedAppendLog.TAIL_SUFFIX, failingOpener(crash), counters
+		);
+		var chunks = chunks(NUM_CHUNKS);
+		var offsets = writeAll(appendLog, chunks.subList(0, 300));
+		appendLog.commit();
+
+		// Chunks kept from the sealed block only move to the tail if the new tail is durable
+		crash[0] = true;
+		assertThatThrownBy(() -> appendLog.truncate(offsets.get(100))).isInstanceOf(IllegalStateException.class);
+
+		var reopened = AppendLog.openBlockCompressed(path, counters);
+		checkAll(reopened, chunks.subList(0, 300), offsets);
+		var read = new ArrayList<Long>();
+		reopened.forEach((data, offset) -> read.add(offset));
+		assertThat(read).isEqualTo(offsets);
+	}
+
+	@Test
+	public void truncated_log_keeps_chunks_of_reopened_block_after_reopen() throws IOException {
+		var path = folder.newFile().getAbsolutePath();
+		var appendLog = AppendLog.openBlockCompressed(path, counters);
+		var chunks = chunks(NUM_CHUNKS);
+		var offsets = writeAll(appendLog, chunks.subList(0, 300));
+		appendLog.commit();
+
+		appendLog.truncate(offsets.get(100));
+		appendLog.close();
+
+		var reopened = AppendLog.openBlockCompressed(path, counters);
+		checkAll(reopened, chunks.subList(0, 100), offsets.subList(0, 100));
+		assertThat(reopened.position()).isEqualTo(offsets.get(100));
+	}
+
+	@Test
+	public void committing_open_block_appends_to_tail_without_writing_blocks() throws IOException {
+		var path = folder.newFile().getAbsolutePath();
+		var appendLog = AppendLog.openBlockCompressed(path, counters);
+		var chunks = chunks(10);
+		for (var chunk : chunks) {
+			appendLog.write(chunk);
+			appendLog.commit();
+		}
+
+		assertThat(new File(path).length()).isZero();
+		assertThat(counters.get(PERSISTENCE_ATOM_LOG_WRITE_COMPRESSED)).isZero();
+	}
+
+	@Test
+	public void compresses_better_than_chunk_by_chunk_compression() throws IOException {
+		var chunks = chunks(NUM_CHUNKS);
+		var blockFile = folder.newFile();
+		var blockLog = AppendLog.openBlockCompressed(blockFile.getAbsolutePath(), counters);
+		var chunkFile = folder.newFile();
+		var chunkLog = AppendLog.openCompressed(chunkFile.getAbsolutePath(), new SystemCountersImpl());
+
+		writeAll(blockLog, chunks);
+		blockLog.close();
+		writeAll(chunkLog, chunks);
+		chunkLog.close();
+
+		var tailFile = new File(blockFile.getAbsolutePath() + BlockCompressedAppendLog.TAIL_SUFFIX);
+		assertThat(blockFile.length() + tailFile.length()).isLessThan(chunkFile.length());
+		assertThat(counters.get(PERSISTENCE_ATOM_LOG_WRITE_COMPRESSED)).isEqualTo(blockFile.length() - sizeHeaders(blockFile));
+		assertThat(counters.get(PERSISTENCE_ATOM_LOG_WRITE_BYTES)).isEqualTo(chunks.stream().mapToLong(c -> c.length).sum());
+	}
+
+	private static long sizeHeaders(File file) throws IOException {
+		var count = new long[1];
+		var log = AppendLog.openSimple(file.getAbsolutePath());
+		log.forEach((data, offset) -> count[0]++);
+		log.close();
+		return count[0] * Integer.BYTES;
+	}
+
+	// Chunks sharing structure with each other the way transactions do
+	private static List<byte[]> chunks(int count) {
+		var random = new Random(12345);
+		var addresses = new ArrayList<byte[]>();
+		for (int i = 0; i < 50; i++) {
+			var address = new byte[27];
+			random.nextBytes(address);
+			addresses.add(address);
+		}
+
+		var chunks = new ArrayList<byte[]>();
+		for (int i = 0; i < count; i++) {
+			var chunk = new byte[200];
+			for (int j = 0; j < chunk.length; j += 40) {
+				chunk[j] = (byte) (j / 40);
+				System.arraycopy(addresses.get(random.nextInt(addresses.size())), 0, chunk, j + 1, 27);
+				var amount = new byte[12];
+				random.nextBytes(amount);
+				System.arraycopy(amount, 0, chunk, j + 28, 12);
+			}
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+
+	private static List<Long> writeAll(AppendLog appendLog, List<byte[]> chunks) throws IOException {
+		var offsets = new ArrayList<Long>();
+		for (var chunk : chunks) {
+			offsets.add(appendLog.write(chunk));
+		}
+		return offsets;
+	}
+
+	// Opens tail logs which fail on commit while the crash flag is set
+	private static BlockCompressedAppendLog.LogOpener failingOpener(boolean[] crash) {
+		return tailPath -> {
+			var log = new FailingAppendLog(AppendLog.openMapped(tailPath));
+			log.failCommit = crash[0];
+			return log;
+		};
+	}
+
+	private static final class FailingAppendLog implements AppendLog {
+		private final AppendLog delegate;
+		private boolean failCommit;
+
+		private FailingAppendLog(AppendLog delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public long position() {
+			return delegate.position();
+		}
+
+		@Override
+		public void truncate(long position) {
+			delegate.truncate(position);
+		}
+
+		@Override
+		public long write(byte[] data) throws IOException {
+			return delegate.write(data);
+		}
+
+		@Override
+		public Pair<byte[], Integer> readChunk(long offset) throws IOException {
+			return delegate.readChunk(offset);
+		}
+
+		@Override
+		public void commit() throws IOException {
+			if (failCommit) {
+				throw new IOException("Crash on commit");
+			}
+			delegate.commit();
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (failCommit) {
+				throw new IOException("Crash on flush");
+			}
+			delegate.flush();
+		}
+
+		@Override
+		public void close() {
+			delegate.close();
+		}
+
+		@Override
+		public void forEach(BiConsumer<byte[], Long> chunkConsumer) {
+			delegate.forEach(chunkConsumer);
+		}
+	}
+
+	private static void checkAll(AppendLog appendLog, List<byte[]> chunks, List<Long> offsets) throws IOException {
+		for (int i = 0; i < chunks.size(); i++) {
+			assertArrayEquals(chunks.get(i), appendLog.read(offsets.get(i)));
+		}
+	}
+}
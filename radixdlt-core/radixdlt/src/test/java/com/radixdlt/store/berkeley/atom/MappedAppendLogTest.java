@@ -0,0 +1,174 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley.atom;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertArrayEquals;
+
+public class MappedAppendLogTest {
+	private static final int REGION_SIZE = 16;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<byte[]> chunks = List.of(
+		new byte[]{0x01},
+		new byte[]{0x01, 0x02, 0x03, 0x04, 0x05},
+		new byte[]{0x01, 0x02, 0x03, 0x04, 0x05, 0x0C, 0x7F, -1},
+		new byte[]{0x02, 0x03},
+		new byte[20],
+		new byte[]{0x04}
+	);
+
+	@Test
+	public void uncommitted_chunks_can_be_read() throws IOException {
+		var appendLog = MappedAppendLog.open(createTempPath(), REGION_SIZE);
+
+		var offsets = writeAll(appendLog);
+
+		checkAll(appendLog, offsets);
+	}
+
+	@Test
+	public void committed_chunks_can_be_read_across_regions() throws IOException {
+		var appendLog = MappedAppendLog.open(createTempPath(), REGION_SIZE);
+		var offsets = writeAll(appendLog);
+
+		appendLog.commit();
+
+		checkAll(appendLog, offsets);
+	}
+
+	@Test
+	public void log_written_by_simple_log_can_be_read_after_reopen() throws IOException {
+		var path = createTempPath();
+		var simpleLog = AppendLog.openSimple(path);
+		var offsets = writeAll(simpleLog);
+		simpleLog.close();
+
+		var appendLog = MappedAppendLog.open(path, REGION_SIZE);
+
+		checkAll(appendLog, offsets);
+		var read = new ArrayList<Long>();
+		appendLog.forEach((data, offset) -> read.add(offset));
+		assertThat(read).isEqualTo(offsets);
+	}
+
+	@Test
+	public void truncate_discards_uncommitted_chunks() throws IOException {
+		var appendLog = MappedAppendLog.open(createTempPath(), REGION_SIZE);
+		appendLog.write(chunks.get(0));
+		appendLog.commit();
+		var position = appendLog.position();
+		appendLog.write(chunks.get(1));
+
+		appendLog.truncate(position);
+		appendLog.commit();
+
+		assertThat(appendLog.position()).isEqualTo(position);
+		assertThatThrownBy(() -> appendLog.read(position)).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	public void number_of_mapped_regions_is_limited() throws IOException {
+		var appendLog = MappedAppendLog.open(createTempPath(), REGION_SIZE, 2);
+		var offsets = new ArrayList<Long>();
+		for (int i = 0; i < 4; i++) {
+			offsets.addAll(writeAll(appendLog));
+		}
+		appendLog.commit();
+
+		for (int i = 0; i < offsets.size(); i++) {
+			assertArrayEquals(chunks.get(i % chunks.size()), appendLog.read(offsets.get(i)));
+		}
+
+		assertThat(appendLog.mappedRegions()).isEqualTo(2);
+		appendLog.close();
+		assertThat(appendLog.mappedRegions()).isZero();
+	}
+
+	@Test
+	public void chunks_read_while_log_is_truncated_stay_readable() throws Exception {
+		var appendLog = MappedAppendLog.open(createTempPath(), REGION_SIZE);
+		var offsets = new ArrayList<Long>();
+		for (int i = 0; i < 4; i++) {
+			offsets.addAll(writeAll(appendLog));
+		}
+		appendLog.commit();
+		var kept = offsets.size() / 2;
+		var position = offsets.get(kept);
+
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			var reads = executor.submit(() -> {
+				for (int round = 0; round < 200; round++) {
+					for (int i = 0; i < kept; i++) {
+						var buffer = appendLog.readBuffer(offsets.get(i));
+						Thread.yield();
+						var data = new byte[buffer.remaining()];
+						buffer.get(data);
+						assertArrayEquals(chunks.get(i % chunks.size()), data);
+					}
+				}
+				return null;
+			});
+
+			while (!reads.isDone()) {
+				appendLog.truncate(position);
+				for (int i = kept; i < offsets.size(); i++) {
+					appendLog.write(chunks.get(i % chunks.size()));
+				}
+				appendLog.commit();
+			}
+			reads.get();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		checkAll(appendLog, offsets.subList(0, chunks.size()));
+		appendLog.close();
+	}
+
+	private List<Long> writeAll(AppendLog appendLog) throws IOException {
+		var offsets = new ArrayList<Long>();
+		for (var chunk : chunks) {
+			offsets.add(appendLog.write(chunk));
+		}
+		return offsets;
+	}
+
+	private void checkAll(AppendLog appendLog, List<Long> offsets) throws IOException {
+		for (int i = 0; i < chunks.size(); i++) {
+			assertArrayEquals(chunks.get(i), appendLog.read(offsets.get(i)));
+		}
+	}
+
+	private String createTempPath() throws IOException {
+		return folder.newFile().getAbsolutePath();
+	}
+}
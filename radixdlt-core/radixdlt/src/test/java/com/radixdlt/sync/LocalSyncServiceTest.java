@@ -19,14 +19,18 @@ package com.radixdlt.sync;
 
 import static com.radixdlt.utils.TypedMocks.rmock;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.inOrder;
 
 import com.google.common.collect.ImmutableClassToInstanceMap;
 import com.google.common.collect.ImmutableList;
@@ -38,6 +42,7 @@ import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.environment.RemoteEventDispatcher;
 import com.radixdlt.environment.ScheduledEventDispatcher;
+import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.identifiers.AID;
 import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.LedgerAccumulatorVerifier;
@@ -48,6 +53,7 @@ import com.radixdlt.ledger.VerifiedTxnsAndProof;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import com.radixdlt.network.p2p.PeersView;
@@ -65,6 +71,7 @@ import com.radixdlt.sync.validation.RemoteSyncResponseSignaturesVerifier;
 import com.radixdlt.sync.validation.RemoteSyncResponseValidatorSetVerifier;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class LocalSyncServiceTest {
 	private LocalSyncService localSyncService;
@@ -115,6 +122,7 @@ public class LocalSyncServiceTest {
 			validatorSetVerifier,
 			signaturesVerifier,
 			accumulatorVerifier,
+			new SyncVerificationExecutor(),
 			verifiedSender,
 			invalidSyncedCommandsSender,
 			syncState
@@ -512,6 +520,294 @@ public class LocalSyncServiceTest {
 		assertEquals(2, ((SyncState.SyncingState) this.localSyncService.getSyncState()).candidatePeers().size());
 	}
 
+	@Test
+	public void when_pipelining_and_received_a_valid_response__then_should_request_upcoming_ranges_from_other_peers() {
+		this.syncConfig = SyncConfig.of(1000L, 10, 10000L, 10, 50, 3);
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(40L);
+
+		final var peer1 = createPeer();
+		final var peer2 = createPeer();
+		setupPeersView(peer1, peer2);
+
+		final var syncState = SyncState.SyncingState.init(
+			currentHeader, ImmutableList.of(peer1, peer2), targetHeader).withPendingRequest(peer1, 1L);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+
+		final var header20 = createDtoHeaderAtStateVersion(20L);
+		final var header30 = createDtoHeaderAtStateVersion(30L);
+		final var syncResponse = createSyncResponse(createDtoHeaderAtStateVersion(10L), header20, ImmutableList.of(header30));
+
+		this.localSyncService.syncResponseEventProcessor().process(peer1, syncResponse);
+
+		verify(verifiedSender, times(1)).sendVerifiedSyncResponse(syncResponse);
+		verify(syncRequestDispatcher, times(1))
+			.dispatch(eq(peer1), eq(SyncRequest.create(header20, 0, Optional.of(accumulatorAt(20L)))));
+		verify(syncRequestDispatcher, times(1))
+			.dispatch(eq(peer2), eq(SyncRequest.create(header30, 3, Optional.of(accumulatorAt(30L)))));
+		verifyNoMoreInteractions(syncRequestDispatcher);
+	}
+
+	@Test
+	public void when_pipelined_responses_are_received_out_of_order__then_should_send_verified_in_order() {
+		this.syncConfig = SyncConfig.of(1000L, 10, 10000L, 10, 50, 3);
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(40L);
+
+		final var peer1 = createPeer();
+		final var peer2 = createPeer();
+		setupPeersView(peer1, peer2);
+
+		final var header20 = createDtoHeaderAtStateVersion(20L);
+		final var header30 = createDtoHeaderAtStateVersion(30L);
+		final var syncState = SyncState.SyncingState.init(currentHeader, ImmutableList.of(peer1, peer2), targetHeader)
+			.withRequestedRanges(
+				ImmutableList.of(
+					SyncState.RequestedRange.startingAt(header20).withRequest(SyncState.PendingRequest.create(peer1, 1L)),
+					SyncState.RequestedRange.startingAt(header30).withRequest(SyncState.PendingRequest.create(peer2, 2L))
+				),
+				ImmutableList.of()
+			);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+
+		final var first = createSyncResponse(header20, header30, ImmutableList.of());
+		final var second = createSyncResponse(header30, createDtoHeaderAtStateVersion(40L), ImmutableList.of());
+
+		this.localSyncService.syncResponseEventProcessor().process(peer2, second);
+		verifyNoMoreInteractions(verifiedSender);
+
+		this.localSyncService.syncResponseEventProcessor().process(peer1, first);
+		final var inOrder = inOrder(verifiedSender);
+		inOrder.verify(verifiedSender).sendVerifiedSyncResponse(first);
+		inOrder.verify(verifiedSender).sendVerifiedSyncResponse(second);
+		assertFalse(((SyncState.SyncingState) this.localSyncService.getSyncState()).waitingForResponse());
+	}
+
+	@Test
+	public void when_responses_of_one_peer_are_received_out_of_order__then_should_match_them_to_ranges_by_head() {
+		this.syncConfig = SyncConfig.of(1000L, 10, 10000L, 10, 50, 3);
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(40L);
+
+		final var peer1 = createPeer();
+		setupPeersView(peer1);
+
+		final var header20 = createDtoHeaderAtStateVersion(20L);
+		final var header30 = createDtoHeaderAtStateVersion(30L);
+		final var syncState = SyncState.SyncingState.init(currentHeader, ImmutableList.of(peer1), targetHeader)
+			.withRequestedRanges(
+				ImmutableList.of(
+					SyncState.RequestedRange.startingAt(header20).withRequest(SyncState.PendingRequest.create(peer1, 1L)),
+					SyncState.RequestedRange.startingAt(header30).withRequest(SyncState.PendingRequest.create(peer1, 2L))
+				),
+				ImmutableList.of()
+			);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+
+		final var first = createSyncResponse(header20, header30, ImmutableList.of());
+		final var second = createSyncResponse(header30, createDtoHeaderAtStateVersion(40L), ImmutableList.of());
+
+		this.localSyncService.syncResponseEventProcessor().process(peer1, second);
+		verifyNoMoreInteractions(verifiedSender);
+
+		this.localSyncService.syncResponseEventProcessor().process(peer1, first);
+		final var inOrder = inOrder(verifiedSender);
+		inOrder.verify(verifiedSender).sendVerifiedSyncResponse(first);
+		inOrder.verify(verifiedSender).sendVerifiedSyncResponse(second);
+		verifyNoMoreInteractions(invalidSyncedCommandsSender);
+	}
+
+	@Test
+	public void when_response_does_not_start_at_any_requested_range__then_should_ignore_it() {
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(40L);
+
+		final var peer1 = createPeer();
+		setupPeersView(peer1);
+
+		final var header20 = createDtoHeaderAtStateVersion(20L);
+		final var syncState = SyncState.SyncingState.init(currentHeader, ImmutableList.of(peer1), targetHeader)
+			.withRequestedRanges(
+				ImmutableList.of(SyncState.RequestedRange.startingAt(header20).withRequest(SyncState.PendingRequest.create(peer1, 1L))),
+				ImmutableList.of()
+			);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+
+		final var response = createSyncResponse(createDtoHeaderAtStateVersion(25L), createDtoHeaderAtStateVersion(30L), ImmutableList.of());
+		this.localSyncService.syncResponseEventProcessor().process(peer1, response);
+
+		verifyNoMoreInteractions(verifiedSender);
+		verifyNoMoreInteractions(invalidSyncedCommandsSender);
+		assertEquals(syncState, this.localSyncService.getSyncState());
+	}
+
+	@Test
+	public void when_pipelined_range_does_not_follow_the_committed_one__then_should_drop_it_without_blaming_the_peer() {
+		this.syncConfig = SyncConfig.of(1000L, 10, 10000L, 10, 50, 3);
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(40L);
+
+		final var peer1 = createPeer();
+		final var peer2 = createPeer();
+		setupPeersView(peer1, peer2);
+
+		final var header20 = createDtoHeaderAtStateVersion(20L);
+		final var header30 = createDtoHeaderAtStateVersion(30L);
+		final var syncState = SyncState.SyncingState.init(currentHeader, ImmutableList.of(peer1, peer2), targetHeader)
+			.withRequestedRanges(
+				ImmutableList.of(
+					SyncState.RequestedRange.startingAt(header20).withRequest(SyncState.PendingRequest.create(peer1, 1L)),
+					SyncState.RequestedRange.startingAt(header30).withRequest(SyncState.PendingRequest.create(peer2, 2L))
+				),
+				ImmutableList.of()
+			);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+
+		// the first range ends before the header the second one was requested at
+		final var first = createSyncResponse(header20, createDtoHeaderAtStateVersion(25L), ImmutableList.of());
+		final var second = createSyncResponse(header30, createDtoHeaderAtStateVersion(40L), ImmutableList.of());
+
+		this.localSyncService.syncResponseEventProcessor().process(peer2, second);
+		this.localSyncService.syncResponseEventProcessor().process(peer1, first);
+
+		verify(verifiedSender, times(1)).sendVerifiedSyncResponse(first);
+		verifyNoMoreInteractions(verifiedSender);
+		verifyNoMoreInteractions(invalidSyncedCommandsSender);
+		assertTrue(((SyncState.SyncingState) this.localSyncService.getSyncState()).requestedRanges().isEmpty());
+	}
+
+	@Test
+	public void when_received_a_chunk__then_should_request_the_next_chunk_from_the_same_peer() {
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(20L);
+
+		final var peer1 = createPeer();
+		final var peer2 = createPeer();
+		setupPeersView(peer1, peer2);
+
+		final var syncState = SyncState.SyncingState.init(
+			currentHeader, ImmutableList.of(peer1, peer2), targetHeader).withPendingRequest(peer1, 1L);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+
+		final var head = createDtoHeaderAtStateVersion(10L);
+		final var tail = createDtoHeaderAtStateVersion(20L);
+		final var firstChunk = createSyncResponseChunk(head, tail, Optional.of(accumulatorAt(11L)));
+		final var lastChunk = createSyncResponseChunk(head, tail, Optional.empty());
+
+		this.localSyncService.syncResponseEventProcessor().process(peer1, firstChunk);
+
+		verify(syncRequestDispatcher, times(1)).dispatch(eq(peer1), eq(SyncRequest.create(head, 0, Optional.of(accumulatorAt(11L)))));
+		verify(accumulatorVerifier, times(1)).verify(eq(accumulatorAt(10L)), any(), eq(accumulatorAt(11L)));
+		verifyNoMoreInteractions(verifiedSender);
+
+		this.localSyncService.syncResponseEventProcessor().process(peer1, lastChunk);
+
+		final var response = ArgumentCaptor.forClass(SyncResponse.class);
+		verify(verifiedSender, times(1)).sendVerifiedSyncResponse(response.capture());
+		assertEquals(2, response.getValue().getTxnsAndProof().getTxns().size());
+		assertEquals(head, response.getValue().getTxnsAndProof().getHead());
+		assertEquals(tail, response.getValue().getTxnsAndProof().getTail());
+		// each chunk is verified once, the assembled response isn't verified again
+		verify(accumulatorVerifier, times(1)).verify(eq(accumulatorAt(11L)), any(), eq(accumulatorAt(20L)));
+		verify(accumulatorVerifier, times(2)).verify(any(), any(), any());
+	}
+
+	@Test
+	public void when_received_several_chunks__then_should_assemble_their_commands_in_order_once() {
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(20L);
+
+		final var peer1 = createPeer();
+		setupPeersView(peer1);
+
+		final var syncState = SyncState.SyncingState.init(
+			currentHeader, ImmutableList.of(peer1), targetHeader).withPendingRequest(peer1, 1L);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+
+		final var head = createDtoHeaderAtStateVersion(10L);
+		final var tail = createDtoHeaderAtStateVersion(20L);
+		for (int i = 0; i < 3; i++) {
+			final var checkpoint = i < 2 ? Optional.of(accumulatorAt(11L + i)) : Optional.<AccumulatorState>empty();
+			final var chunk = SyncResponse.create(
+				new DtoTxnsAndProof(ImmutableList.of(new byte[] {(byte) i}), head, tail), ImmutableList.of(), checkpoint
+			);
+			this.localSyncService.syncResponseEventProcessor().process(peer1, chunk);
+			if (i < 2) {
+				final var range = ((SyncState.SyncingState) this.localSyncService.getSyncState()).requestedRanges().get(0);
+				assertEquals(i + 1, range.getChunks().size());
+			}
+		}
+
+		final var response = ArgumentCaptor.forClass(SyncResponse.class);
+		verify(verifiedSender, times(1)).sendVerifiedSyncResponse(response.capture());
+		final var txns = response.getValue().getTxnsAndProof().getTxns();
+		assertEquals(3, txns.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals((byte) i, txns.get(i).getPayload()[0]);
+		}
+	}
+
+	@Test
+	public void when_received_an_invalid_chunk__then_should_drop_the_peer_and_request_the_range_elsewhere() {
+		final var currentHeader = createHeaderAtStateVersion(10L);
+		final var targetHeader = createHeaderAtStateVersion(20L);
+
+		final var peer1 = createPeer();
+		final var peer2 = createPeer();
+		setupPeersView(peer1, peer2);
+
+		final var syncState = SyncState.SyncingState.init(
+			currentHeader, ImmutableList.of(peer1, peer2), targetHeader).withPendingRequest(peer1, 1L);
+		this.setupSyncServiceWithState(syncState);
+		setupValidResponses();
+		when(accumulatorVerifier.verify(any(), any(), any())).thenReturn(false);
+
+		final var chunk = createSyncResponseChunk(
+			createDtoHeaderAtStateVersion(10L), createDtoHeaderAtStateVersion(20L), Optional.of(accumulatorAt(11L))
+		);
+
+		this.localSyncService.syncResponseEventProcessor().process(peer1, chunk);
+
+		verify(invalidSyncedCommandsSender, times(1)).sendInvalidSyncResponse(peer1, chunk);
+		verify(syncRequestDispatcher, times(1)).dispatch(eq(peer2), any());
+		verify(syncRequestDispatcher, never()).dispatch(eq(peer1), any());
+		verifyNoMoreInteractions(verifiedSender);
+		assertEquals(ImmutableList.of(peer2), ((SyncState.SyncingState) this.localSyncService.getSyncState()).candidatePeers());
+	}
+
+	private void setupValidResponses() {
+		when(validatorSetVerifier.verifyValidatorSet(any())).thenReturn(true);
+		when(signaturesVerifier.verifyResponseSignatures(any())).thenReturn(true);
+		when(accumulatorVerifier.verify(any(), any(), any())).thenReturn(true);
+	}
+
+	private SyncResponse createSyncResponse(DtoLedgerProof head, DtoLedgerProof tail, ImmutableList<DtoLedgerProof> upcoming) {
+		return SyncResponse.create(new DtoTxnsAndProof(ImmutableList.of(new byte[] {0}), head, tail), upcoming);
+	}
+
+	private SyncResponse createSyncResponseChunk(DtoLedgerProof head, DtoLedgerProof tail, Optional<AccumulatorState> checkpoint) {
+		return SyncResponse.create(new DtoTxnsAndProof(ImmutableList.of(new byte[] {0}), head, tail), ImmutableList.of(), checkpoint);
+	}
+
+	private AccumulatorState accumulatorAt(long version) {
+		return new AccumulatorState(version, HashUtils.zero256());
+	}
+
+	private DtoLedgerProof createDtoHeaderAtStateVersion(long version) {
+		final var ledgerHeader = mock(LedgerHeader.class);
+		when(ledgerHeader.getAccumulatorState()).thenReturn(accumulatorAt(version));
+		final var header = mock(DtoLedgerProof.class);
+		when(header.getLedgerHeader()).thenReturn(ledgerHeader);
+		return header;
+	}
+
 	private LedgerProof createHeaderAtStateVersion(long version) {
 		final LedgerProof header = mock(LedgerProof.class);
 		final AccumulatorState accumulatorState = mock(AccumulatorState.class);
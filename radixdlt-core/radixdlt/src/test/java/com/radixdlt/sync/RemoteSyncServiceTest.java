@@ -18,7 +18,9 @@
 package com.radixdlt.sync;
 
 import static com.radixdlt.utils.TypedMocks.rmock;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -28,6 +30,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.radixdlt.atom.Txn;
 import com.radixdlt.consensus.LedgerHeader;
 import com.radixdlt.consensus.TimestampedECDSASignatures;
 import com.radixdlt.consensus.LedgerProof;
@@ -38,6 +41,7 @@ import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.environment.RemoteEventDispatcher;
 import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.DtoLedgerProof;
+import com.radixdlt.ledger.LedgerAccumulator;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.VerifiedTxnsAndProof;
 import com.radixdlt.network.p2p.PeersView;
@@ -47,10 +51,12 @@ import com.radixdlt.sync.messages.remote.SyncRequest;
 import com.radixdlt.sync.messages.remote.SyncResponse;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class RemoteSyncServiceTest {
 
@@ -58,6 +64,7 @@ public class RemoteSyncServiceTest {
 	private PeersView peersView;
 	private LocalSyncService localSyncService;
 	private CommittedReader reader;
+	private LedgerAccumulator ledgerAccumulator;
 	private RemoteEventDispatcher<StatusResponse> statusResponseDispatcher;
 	private RemoteEventDispatcher<SyncResponse> syncResponseDispatcher;
 	private RemoteEventDispatcher<LedgerStatusUpdate> statusUpdateDispatcher;
@@ -67,6 +74,7 @@ public class RemoteSyncServiceTest {
 		this.peersView = mock(PeersView.class);
 		this.localSyncService = mock(LocalSyncService.class);
 		this.reader = mock(CommittedReader.class);
+		this.ledgerAccumulator = mock(LedgerAccumulator.class);
 		this.statusResponseDispatcher =  rmock(RemoteEventDispatcher.class);
 		this.syncResponseDispatcher =  rmock(RemoteEventDispatcher.class);
 		this.statusUpdateDispatcher =  rmock(RemoteEventDispatcher.class);
@@ -80,6 +88,7 @@ public class RemoteSyncServiceTest {
 			peersView,
 			localSyncService,
 			reader,
+			ledgerAccumulator,
 			statusResponseDispatcher,
 			syncResponseDispatcher,
 			statusUpdateDispatcher,
@@ -130,6 +139,57 @@ public class RemoteSyncServiceTest {
 		verify(syncResponseDispatcher, never()).dispatch(any(BFTNode.class), any());
 	}
 
+	@Test
+	public void when_chunked_sync_request_does_not_reach_the_proof__then_respond_with_a_checkpoint() {
+		final var header = createDtoHeaderAtStateVersion(10L);
+		final var resumeFrom = new AccumulatorState(12L, HashUtils.zero256());
+		final var afterChunk = new AccumulatorState(13L, HashUtils.zero256());
+		final var proof = mock(LedgerProof.class);
+		when(proof.getStateVersion()).thenReturn(20L);
+		when(proof.toDto()).thenReturn(createDtoHeaderAtStateVersion(20L));
+		when(reader.getNextCommittedTxns(eq(header), eq(12L), anyLong()))
+			.thenReturn(VerifiedTxnsAndProof.create(List.of(Txn.create(new byte[] {1})), proof));
+		when(ledgerAccumulator.accumulate(eq(resumeFrom), any(), anyLong())).thenReturn(afterChunk);
+
+		final var node = BFTNode.random();
+		processor.syncRequestEventProcessor().process(node, SyncRequest.create(header, 0, Optional.of(resumeFrom)));
+
+		final var response = ArgumentCaptor.forClass(SyncResponse.class);
+		verify(syncResponseDispatcher, times(1)).dispatch(eq(node), response.capture());
+		assertThat(response.getValue().getCheckpoint()).contains(afterChunk);
+		assertThat(response.getValue().getTxnsAndProof().getHead()).isEqualTo(header);
+	}
+
+	@Test
+	public void when_chunked_sync_request_reaches_the_proof__then_respond_without_a_checkpoint() {
+		final var header = createDtoHeaderAtStateVersion(10L);
+		final var resumeFrom = new AccumulatorState(19L, HashUtils.zero256());
+		final var proof = mock(LedgerProof.class);
+		when(proof.getStateVersion()).thenReturn(20L);
+		when(proof.toDto()).thenReturn(createDtoHeaderAtStateVersion(20L));
+		when(reader.getNextCommittedTxns(eq(header), eq(19L), anyLong()))
+			.thenReturn(VerifiedTxnsAndProof.create(List.of(Txn.create(new byte[] {1})), proof));
+
+		final var node = BFTNode.random();
+		processor.syncRequestEventProcessor().process(node, SyncRequest.create(header, 0, Optional.of(resumeFrom)));
+
+		final var response = ArgumentCaptor.forClass(SyncResponse.class);
+		verify(syncResponseDispatcher, times(1)).dispatch(eq(node), response.capture());
+		assertThat(response.getValue().getCheckpoint()).isEmpty();
+		verifyNoMoreInteractions(ledgerAccumulator);
+	}
+
+	@Test
+	public void when_chunked_sync_request_resumes_before_its_header__then_dont_do_anything() {
+		final var header = createDtoHeaderAtStateVersion(10L);
+		final var resumeFrom = new AccumulatorState(5L, HashUtils.zero256());
+
+		processor.syncRequestEventProcessor().process(BFTNode.random(), SyncRequest.create(header, 0, Optional.of(resumeFrom)));
+
+		verify(reader, never()).getNextCommittedTxns(any(), anyLong(), anyLong());
+		verify(syncResponseDispatcher, never()).dispatch(any(BFTNode.class), any());
+	}
+
 	@Test
 	public void when_ledger_update_but_syncing__then_dont_send_status_update() {
 		final var tail = mock(LedgerProof.class);
@@ -152,4 +212,12 @@ public class RemoteSyncServiceTest {
 		verifyNoMoreInteractions(peersView);
 		verifyNoMoreInteractions(statusUpdateDispatcher);
 	}
+
+	private DtoLedgerProof createDtoHeaderAtStateVersion(long version) {
+		final var ledgerHeader = mock(LedgerHeader.class);
+		when(ledgerHeader.getAccumulatorState()).thenReturn(new AccumulatorState(version, HashUtils.zero256()));
+		final var header = mock(DtoLedgerProof.class);
+		when(header.getLedgerHeader()).thenReturn(ledgerHeader);
+		return header;
+	}
 }
@@ -49,6 +49,10 @@ public class SyncStateTest {
         EqualsVerifier.forClass(SyncState.PendingRequest.class)
             .withPrefabValues(HashCode.class, HashUtils.random256(), HashUtils.random256())
             .verify();
+
+        EqualsVerifier.forClass(SyncState.RequestedRange.class)
+            .withPrefabValues(HashCode.class, HashUtils.random256(), HashUtils.random256())
+            .verify();
     }
 
     @Test
@@ -0,0 +1,35 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package org.radix.serialization;
+
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.middleware2.network.MempoolAnnounceMessage;
+
+import java.util.List;
+
+public class MempoolAnnounceMessageSerializeTest extends SerializeMessageObject<MempoolAnnounceMessage> {
+	public MempoolAnnounceMessageSerializeTest() {
+		super(MempoolAnnounceMessage.class, MempoolAnnounceMessageSerializeTest::get);
+	}
+
+	private static MempoolAnnounceMessage get() {
+		final var txnId = AID.from(HashUtils.random256().asBytes());
+		return new MempoolAnnounceMessage(List.of(txnId));
+	}
+}
@@ -62,8 +62,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
@@ -130,10 +134,13 @@ public final class RadixEngine<M> {
 
 	private final EngineStore<M> engineStore;
 	private final Object stateUpdateEngineLock = new Object();
+	private final ReadWriteLock speculationLock = new ReentrantReadWriteLock();
 	private final Map<Pair<Class<?>, String>, ApplicationStateReducer<?, M>> stateComputers = new HashMap<>();
 	private final List<RadixEngineBranch<M>> branches = new ArrayList<>();
+	// Signature budget left after the last metered execution
+	private int meteredSigsLeft = 0;
 
-	private REParser parser;
+	private volatile REParser parser;
 	private SubstateSerialization serialization;
 	private BatchVerifier<M> batchVerifier;
 	private REConstructor actionConstructors;
@@ -223,17 +230,22 @@ public final class RadixEngine<M> {
 		BatchVerifier<M> batchVerifier,
 		REParser parser
 	) {
-		synchronized (stateUpdateEngineLock) {
-			this.constraintMachine = new ConstraintMachine(
-				constraintMachineConfig.getProcedures(),
-				constraintMachineConfig.getDeserialization(),
-				constraintMachineConfig.getVirtualSubstateDeserialization(),
-				constraintMachineConfig.getMeter()
-			);
-			this.actionConstructors = actionToConstructorMap;
-			this.batchVerifier = batchVerifier;
-			this.parser = parser;
-			this.serialization = serialization;
+		speculationLock.writeLock().lock();
+		try {
+			synchronized (stateUpdateEngineLock) {
+				this.constraintMachine = new ConstraintMachine(
+					constraintMachineConfig.getProcedures(),
+					constraintMachineConfig.getDeserialization(),
+					constraintMachineConfig.getVirtualSubstateDeserialization(),
+					constraintMachineConfig.getMeter()
+				);
+				this.actionConstructors = actionToConstructorMap;
+				this.batchVerifier = batchVerifier;
+				this.parser = parser;
+				this.serialization = serialization;
+			}
+		} finally {
+			speculationLock.writeLock().unlock();
 		}
 	}
 
@@ -268,6 +280,7 @@ public final class RadixEngine<M> {
 
 		private void delete() {
 			deleted = true;
+			engine.deleteBranches();
 		}
 
 		private void assertNotDeleted() {
@@ -286,6 +299,16 @@ public final class RadixEngine<M> {
 			return engine.execute(txns, null, permissionLevel);
 		}
 
+		/**
+		 * Executes transactions metered the way they are on commit, that is with the signature
+		 * budget carried over from the previous metered execution on this branch, starting
+		 * without any signatures, rather than with a fresh budget for every execution.
+		 */
+		public RadixEngineResult executeMetered(List<Txn> txns, PermissionLevel permissionLevel) throws RadixEngineException {
+			assertNotDeleted();
+			return engine.executeMetered(txns, permissionLevel);
+		}
+
 		public TxBuilder construct(TxAction action) throws TxBuilderException {
 			assertNotDeleted();
 			return engine.construct(action);
@@ -295,6 +318,22 @@ public final class RadixEngine<M> {
 			assertNotDeleted();
 			return engine.construct(request);
 		}
+
+		/**
+		 * Creates a branch layered on top of the state of this branch. Once a child
+		 * branch exists this branch can no longer execute transactions.
+		 */
+		public RadixEngineBranch<M> transientBranch() {
+			assertNotDeleted();
+			return engine.transientBranch();
+		}
+
+		/**
+		 * Deletes a branch created on top of this branch along with the branches created on top of it.
+		 */
+		public void deleteBranch(RadixEngineBranch<M> branch) {
+			engine.deleteBranch(branch);
+		}
 	}
 
 	public void deleteBranches() {
@@ -304,7 +343,22 @@ public final class RadixEngine<M> {
 		}
 	}
 
+	public void deleteBranch(RadixEngineBranch<M> branch) {
+		synchronized (stateUpdateEngineLock) {
+			branch.delete();
+			branches.remove(branch);
+		}
+	}
+
 	public RadixEngineBranch<M> transientBranch() {
+		synchronized (stateUpdateEngineLock) {
+			var branch = createBranch();
+			branches.add(branch);
+			return branch;
+		}
+	}
+
+	private RadixEngineBranch<M> createBranch() {
 		synchronized (stateUpdateEngineLock) {
 			Map<Pair<Class<?>, String>, ApplicationStateReducer<?, M>> branchedStateComputers = new HashMap<>();
 			this.stateComputers.forEach((c, computer) -> {
@@ -312,7 +366,7 @@ public final class RadixEngine<M> {
 					branchedStateComputers.put(c, computer.copy());
 				}
 			});
-			RadixEngineBranch<M> branch = new RadixEngineBranch<>(
+			return new RadixEngineBranch<>(
 				this.parser,
 				this.serialization,
 				this.actionConstructors,
@@ -320,13 +374,60 @@ public final class RadixEngine<M> {
 				this.engineStore,
 				branchedStateComputers
 			);
+		}
+	}
 
-			branches.add(branch);
+	public interface SpeculativeExecution<M, R, E extends Exception> {
+		R execute(RadixEngineBranch<M> branch) throws E;
+	}
 
-			return branch;
+	/**
+	 * Runs the given execution on a throwaway transient branch of the current state.
+	 * Unlike {@link #transientBranch()} the branch is not registered with this engine, so
+	 * any number of speculative executions may run concurrently without blocking each other.
+	 * Commits to this engine wait for running speculative executions to finish so that each
+	 * of them sees a stable store. A speculative execution must not commit to this engine.
+	 *
+	 * @param execution the execution to run on the branch
+	 * @return the result of the execution
+	 */
+	public <R, E extends Exception> R speculate(SpeculativeExecution<M, R, E> execution) throws E {
+		speculationLock.readLock().lock();
+		try {
+			var branch = createBranch();
+			try {
+				return execution.execute(branch);
+			} finally {
+				branch.delete();
+			}
+		} finally {
+			speculationLock.readLock().unlock();
 		}
 	}
 
+	/**
+	 * Statelessly parses and verifies the signatures of the given transactions on the given
+	 * executor without holding the engine lock. Results are cached by the parser so that
+	 * executing these transactions afterwards only requires stateful verification.
+	 * Transactions which fail to parse are left for execution to reject.
+	 *
+	 * @param txns transactions to parse
+	 * @param executor executor to parse on
+	 */
+	public void preParse(List<Txn> txns, Executor executor) {
+		var currentParser = this.parser;
+		var futures = txns.stream()
+			.map(txn -> CompletableFuture.runAsync(() -> {
+				try {
+					currentParser.parse(txn);
+				} catch (TxnParseException e) {
+					// Will be rejected on execution
+				}
+			}, executor))
+			.toArray(CompletableFuture[]::new);
+		CompletableFuture.allOf(futures).join();
+	}
+
 	private REProcessedTxn verify(EngineStore.EngineStoreInTransaction<M> engineStoreInTransaction, Txn txn, ExecutionContext context)
 		throws AuthorizationException, TxnParseException, ConstraintMachineException {
 
@@ -362,16 +463,129 @@ public final class RadixEngine<M> {
 	 * @throws RadixEngineException on state conflict or dependency issues
 	 */
 	public RadixEngineResult execute(List<Txn> txns, M meta, PermissionLevel permissionLevel) throws RadixEngineException {
-		synchronized (stateUpdateEngineLock) {
-			if (!branches.isEmpty()) {
-				throw new IllegalStateException(
-					String.format(
-						"%s transient branches still exist. Must delete branches before storing additional atoms.",
-						branches.size()
-					)
-				);
+		speculationLock.writeLock().lock();
+		try {
+			synchronized (stateUpdateEngineLock) {
+				if (!branches.isEmpty()) {
+					throw new IllegalStateException(
+						String.format(
+							"%s transient branches still exist. Must delete branches before storing additional atoms.",
+							branches.size()
+						)
+					);
+				}
+				return engineStore.transaction(store -> executeInternal(store, txns, meta, permissionLevel));
+			}
+		} finally {
+			speculationLock.writeLock().unlock();
+		}
+	}
+
+	private RadixEngineResult executeMetered(List<Txn> txns, PermissionLevel permissionLevel) throws RadixEngineException {
+		speculationLock.writeLock().lock();
+		try {
+			synchronized (stateUpdateEngineLock) {
+				if (!branches.isEmpty()) {
+					throw new IllegalStateException(
+						String.format(
+							"%s transient branches still exist. Must delete branches before storing additional atoms.",
+							branches.size()
+						)
+					);
+				}
+				var sigsLeft = new int[] {meteredSigsLeft};
+				var result = engineStore.transaction(store -> executeInternal(store, txns, null, permissionLevel, sigsLeft));
+				// Only carried over once the transactions have been stored
+				meteredSigsLeft = sigsLeft[0];
+				return result;
+			}
+		} finally {
+			speculationLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Atomically stores transactions which have already been processed against the current
+	 * state of the store, for example in a transient branch. Parsing, signature verification
+	 * and constraint machine verification are skipped, only the resulting state updates are stored.
+	 *
+	 * @param processedTxns transactions which were processed on top of the current store state
+	 * @param meta metadata to store along with the transactions
+	 * @throws RadixEngineException on metadata failure or storage failure
+	 */
+	public RadixEngineResult commitProcessed(List<REProcessedTxn> processedTxns, M meta) throws RadixEngineException {
+		speculationLock.writeLock().lock();
+		try {
+			synchronized (stateUpdateEngineLock) {
+				if (!branches.isEmpty()) {
+					throw new IllegalStateException(
+						String.format(
+							"%s transient branches still exist. Must delete branches before storing additional atoms.",
+							branches.size()
+						)
+					);
+				}
+				return engineStore.transaction(store -> commitProcessedInternal(store, processedTxns, meta));
 			}
-			return engineStore.transaction(store -> executeInternal(store, txns, meta, permissionLevel));
+		} finally {
+			speculationLock.writeLock().unlock();
+		}
+	}
+
+	private RadixEngineResult commitProcessedInternal(
+		EngineStore.EngineStoreInTransaction<M> engineStoreInTransaction,
+		List<REProcessedTxn> processedTxns,
+		M meta
+	) throws RadixEngineException {
+		var storageStopwatch = Stopwatch.createStarted();
+		for (var processedTxn : processedTxns) {
+			storeProcessed(engineStoreInTransaction, processedTxn);
+		}
+		storeMetadata(engineStoreInTransaction, processedTxns, meta);
+		storageStopwatch.stop();
+
+		return RadixEngineResult.create(
+			processedTxns,
+			0,
+			storageStopwatch.elapsed(TimeUnit.MILLISECONDS)
+		);
+	}
+
+	private void storeProcessed(
+		EngineStore.EngineStoreInTransaction<M> engineStoreInTransaction,
+		REProcessedTxn processedTxn
+	) {
+		try {
+			engineStoreInTransaction.storeTxn(
+				processedTxn.getTxn(),
+				processedTxn.stateUpdates().collect(Collectors.toList())
+			);
+		} catch (Exception e) {
+			logger.error("Store of atom failed: " + processedTxn, e);
+			throw e;
+		}
+
+		// TODO Feature: Return updated state for some given query (e.g. for current validator set)
+		// Non-persisted computed state
+		for (var group : processedTxn.getGroupedStateUpdates()) {
+			group.forEach(update -> stateComputers.forEach((a, computer) -> computer.processStateUpdate(update)));
+		}
+	}
+
+	private void storeMetadata(
+		EngineStore.EngineStoreInTransaction<M> engineStoreInTransaction,
+		List<REProcessedTxn> processedTxns,
+		M meta
+	) throws MetadataException {
+		try {
+			batchVerifier.testMetadata(meta, processedTxns);
+		} catch (MetadataException e) {
+			logger.error("Invalid metadata: " + processedTxns);
+			throw e;
+		}
+
+		if (meta != null) {
+			engineStoreInTransaction.storeMetadata(meta);
 		}
 	}
 
@@ -381,11 +595,20 @@ public final class RadixEngine<M> {
 		M meta,
 		PermissionLevel permissionLevel
 	) throws RadixEngineException {
-		var processedTxns = new ArrayList<REProcessedTxn>();
-
 		// FIXME: This is quite the hack to increase sigsLeft for execution on noncommits (e.g. mempool)
 		// FIXME: Should probably just change metering
-		var sigsLeft = meta != null ? 0 : 1000; // Start with 0
+		var sigsLeft = new int[] {meta != null ? 0 : 1000}; // Start with 0
+		return executeInternal(engineStoreInTransaction, txns, meta, permissionLevel, sigsLeft);
+	}
+
+	private RadixEngineResult executeInternal(
+		EngineStore.EngineStoreInTransaction<M> engineStoreInTransaction,
+		List<Txn> txns,
+		M meta,
+		PermissionLevel permissionLevel,
+		int[] sigsLeft
+	) throws RadixEngineException {
+		var processedTxns = new ArrayList<REProcessedTxn>();
 		var storageStopwatch = Stopwatch.createUnstarted();
 		var verificationStopwatch = Stopwatch.createUnstarted();
 
@@ -393,7 +616,7 @@ public final class RadixEngine<M> {
 			var txn = txns.get(i);
 
 			verificationStopwatch.start();
-			var context = new ExecutionContext(txn, permissionLevel, sigsLeft, Amount.ofTokens(200).toSubunits());
+			var context = new ExecutionContext(txn, permissionLevel, sigsLeft[0], Amount.ofTokens(200).toSubunits());
 			final REProcessedTxn parsedTxn;
 			try {
 				parsedTxn = this.verify(engineStoreInTransaction, txn, context);
@@ -403,36 +626,16 @@ public final class RadixEngine<M> {
 			verificationStopwatch.stop();
 
 			// Carry sigs left to the next transaction
-			sigsLeft = context.sigsLeft();
+			sigsLeft[0] = context.sigsLeft();
 
 			storageStopwatch.start();
-			try {
-				engineStoreInTransaction.storeTxn(txn, parsedTxn.stateUpdates().collect(Collectors.toList()));
-			} catch (Exception e) {
-				logger.error("Store of atom failed: " + parsedTxn, e);
-				throw e;
-			}
+			storeProcessed(engineStoreInTransaction, parsedTxn);
 			storageStopwatch.stop();
 
-			// TODO Feature: Return updated state for some given query (e.g. for current validator set)
-			// Non-persisted computed state
-			for (var group : parsedTxn.getGroupedStateUpdates()) {
-				group.forEach(update -> stateComputers.forEach((a, computer) -> computer.processStateUpdate(update)));
-			}
-
 			processedTxns.add(parsedTxn);
 		}
 
-		try {
-			batchVerifier.testMetadata(meta, processedTxns);
-		} catch (MetadataException e) {
-			logger.error("Invalid metadata: " + processedTxns);
-			throw e;
-		}
-
-		if (meta != null) {
-			engineStoreInTransaction.storeMetadata(meta);
-		}
+		storeMetadata(engineStoreInTransaction, processedTxns, meta);
 
 		return RadixEngineResult.create(
 			processedTxns,
@@ -32,12 +32,22 @@ import com.radixdlt.crypto.HashUtils;
 import com.radixdlt.identifiers.AID;
 import com.radixdlt.utils.UInt256;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public final class REParser {
+	private static final int PARSED_TXN_CACHE_SIZE = 10_000;
+
 	private final SubstateDeserialization substateDeserialization;
+	// Parsing is stateless so results can be shared by everyone using this parser
+	private final Cache<AID, ParsedTxn> parsedTxns = CacheBuilder.newBuilder()
+		.maximumSize(PARSED_TXN_CACHE_SIZE)
+		.build();
 
 	public REParser(SubstateDeserialization substateDeserialization) {
 		this.substateDeserialization = substateDeserialization;
@@ -132,8 +142,24 @@ public final class REParser {
 		}
 	}
 
-	@SuppressWarnings("rawtypes")
+	/**
+	 * Parses a transaction and verifies its signature. Successfully parsed
+	 * transactions are cached so this may be called from multiple threads
+	 * ahead of execution.
+	 */
 	public ParsedTxn parse(Txn txn) throws TxnParseException {
+		var cached = parsedTxns.getIfPresent(txn.getId());
+		if (cached != null) {
+			return cached;
+		}
+
+		var parsedTxn = parseInternal(txn);
+		parsedTxns.put(txn.getId(), parsedTxn);
+		return parsedTxn;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private ParsedTxn parseInternal(Txn txn) throws TxnParseException {
 		UInt256 feePaid = null;
 		ECDSASignature sig = null;
 		int sigPosition = 0;
@@ -213,9 +239,6 @@ public final class REParser {
 			var hash = HashUtils.sha256(txn.getPayload(), 0, sigPosition); // This is a double hash
 			pubKey = ECPublicKey.recoverFrom(hash, sig)
 				.orElseThrow(() -> new TxnParseException(parserState, "Invalid signature"));
-			if (!pubKey.verify(hash, sig)) {
-				throw new TxnParseException(parserState, "Invalid signature");
-			}
 		} else {
 			pubKey = null;
 		}
@@ -223,7 +246,7 @@ public final class REParser {
 		return new ParsedTxn(
 			txn,
 			feePaid,
-			parserState.instructions,
+			Collections.unmodifiableList(parserState.instructions),
 			parserState.msg,
 			pubKey,
 			parserState.disableResourceAllocAndDestroy
@@ -40,6 +40,14 @@ public interface EngineStore<M> extends SubstateStore {
 	}
 	<R> R transaction(TransactionEngineStoreConsumer<M, R> consumer) throws RadixEngineException;
 
+	/**
+	 * Read only view of the current state which does not require a store transaction.
+	 * Used for speculative execution on top of this store.
+	 *
+	 * @return a read only view of the current state
+	 */
+	CMStore readOnlyView();
+
 	/**
 	 * Deterministically computes a value from a list of particles of a given type.
 	 * Must implement this until we get rid of optimistic concurrency.
@@ -53,6 +53,56 @@ public final class InMemoryEngineStore<M> implements EngineStore<M> {
 	private final Map<SubstateId, REStateUpdate> storedState = new HashMap<>();
 	private final Map<REAddr, Supplier<ByteBuffer>> addrParticles = new HashMap<>();
 	private final Map<SystemMapKey, RawSubstateBytes> maps = new HashMap<>();
+	private final CMStore readOnlyView = new CMStore() {
+		@Override
+		public ByteBuffer verifyVirtualSubstate(SubstateId substateId)
+			throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
+			synchronized (lock) {
+				var parent = substateId.getVirtualParent().orElseThrow();
+				var update = storedState.get(parent);
+				if (update == null || !(update.getParsed() instanceof VirtualParent)) {
+					throw new VirtualParentStateDoesNotExist(parent);
+				}
+
+				var inst = storedState.get(substateId);
+				if (inst != null && inst.isShutDown()) {
+					throw new VirtualSubstateAlreadyDownException(substateId);
+				}
+
+				return update.getStateBuf();
+			}
+		}
+
+		@Override
+		public Optional<ByteBuffer> loadSubstate(SubstateId substateId) {
+			synchronized (lock) {
+				var inst = storedState.get(substateId);
+				if (inst == null || !inst.isBootUp()) {
+					return Optional.empty();
+				}
+
+				return Optional.of(inst.getStateBuf());
+			}
+		}
+
+		@Override
+		public CloseableCursor<RawSubstateBytes> openIndexedCursor(SubstateIndex<?> index) {
+			return InMemoryEngineStore.this.openIndexedCursor(index);
+		}
+
+		@Override
+		public Optional<ByteBuffer> loadResource(REAddr addr) {
+			synchronized (lock) {
+				var supplier = addrParticles.get(addr);
+				return supplier == null ? Optional.empty() : Optional.of(supplier.get());
+			}
+		}
+	};
+
+	@Override
+	public CMStore readOnlyView() {
+		return readOnlyView;
+	}
 
 	@Override
 	public <R> R transaction(TransactionEngineStoreConsumer<M, R> consumer) throws RadixEngineException {
@@ -110,45 +160,22 @@ public final class InMemoryEngineStore<M> implements EngineStore<M> {
 			@Override
 			public ByteBuffer verifyVirtualSubstate(SubstateId substateId)
 				throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
-				synchronized (lock) {
-					var parent = substateId.getVirtualParent().orElseThrow();
-					var update = storedState.get(parent);
-					if (update == null || !(update.getParsed() instanceof VirtualParent)) {
-						throw new VirtualParentStateDoesNotExist(parent);
-					}
-
-					var inst = storedState.get(substateId);
-					if (inst != null && inst.isShutDown()) {
-						throw new VirtualSubstateAlreadyDownException(substateId);
-					}
-
-					return update.getStateBuf();
-				}
+				return readOnlyView.verifyVirtualSubstate(substateId);
 			}
 
 			@Override
 			public Optional<ByteBuffer> loadSubstate(SubstateId substateId) {
-				synchronized (lock) {
-					var inst = storedState.get(substateId);
-					if (inst == null || !inst.isBootUp()) {
-						return Optional.empty();
-					}
-
-					return Optional.of(inst.getStateBuf());
-				}
+				return readOnlyView.loadSubstate(substateId);
 			}
 
 			@Override
 			public CloseableCursor<RawSubstateBytes> openIndexedCursor(SubstateIndex<?> index) {
-				return InMemoryEngineStore.this.openIndexedCursor(index);
+				return readOnlyView.openIndexedCursor(index);
 			}
 
 			@Override
 			public Optional<ByteBuffer> loadResource(REAddr addr) {
-				synchronized (lock) {
-					var supplier = addrParticles.get(addr);
-					return supplier == null ? Optional.empty() : Optional.of(supplier.get());
-				}
+				return readOnlyView.loadResource(addr);
 			}
 		});
 	}
@@ -38,53 +38,82 @@ public class TransientEngineStore<M> implements EngineStore<M> {
 		throw new UnsupportedOperationException("Transient store should not require reduction.");
 	}
 
+	@Override
+	public CMStore readOnlyView() {
+		var baseStore = base.readOnlyView();
+		var tStore = transientStore.readOnlyView();
+		return new CMStore() {
+			@Override
+			public ByteBuffer verifyVirtualSubstate(SubstateId substateId)
+				throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
+				try {
+					return tStore.verifyVirtualSubstate(substateId);
+				} catch (VirtualParentStateDoesNotExist e) {
+					return baseStore.verifyVirtualSubstate(substateId);
+				}
+			}
+
+			@Override
+			public Optional<ByteBuffer> loadSubstate(SubstateId substateId) {
+				if (!transientStore.contains(substateId)) {
+					return baseStore.loadSubstate(substateId);
+				}
+
+				return tStore.loadSubstate(substateId);
+			}
+
+			@Override
+			public CloseableCursor<RawSubstateBytes> openIndexedCursor(SubstateIndex<?> index) {
+				return tStore.openIndexedCursor(index)
+					.concat(() -> baseStore.openIndexedCursor(index)
+						.filter(s -> !transientStore.contains(SubstateId.fromBytes(s.getId()))));
+			}
+
+			@Override
+			public Optional<ByteBuffer> loadResource(REAddr addr) {
+				return tStore.loadResource(addr).or(() -> baseStore.loadResource(addr));
+			}
+		};
+	}
+
 	@Override
 	public <R> R transaction(TransactionEngineStoreConsumer<M, R> consumer) throws RadixEngineException {
-		return base.transaction(baseStore ->
-			transientStore.transaction(tStore ->
-				consumer.start(new EngineStoreInTransaction<M>() {
-					@Override
-					public void storeTxn(Txn txn, List<REStateUpdate> instructions) {
-						tStore.storeTxn(txn, instructions);
-					}
-
-					@Override
-					public void storeMetadata(M metadata) {
-						// no-op
-					}
-
-					@Override
-					public ByteBuffer verifyVirtualSubstate(SubstateId substateId)
-						throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
-						try {
-							return tStore.verifyVirtualSubstate(substateId);
-						} catch (VirtualParentStateDoesNotExist e) {
-							return baseStore.verifyVirtualSubstate(substateId);
-						}
-					}
-
-					@Override
-					public Optional<ByteBuffer> loadSubstate(SubstateId substateId) {
-						if (!transientStore.contains(substateId)) {
-							return baseStore.loadSubstate(substateId);
-						}
-
-						return tStore.loadSubstate(substateId);
-					}
-
-					@Override
-					public CloseableCursor<RawSubstateBytes> openIndexedCursor(SubstateIndex<?> index) {
-						return tStore.openIndexedCursor(index)
-							.concat(() -> baseStore.openIndexedCursor(index)
-								.filter(s -> !transientStore.contains(SubstateId.fromBytes(s.getId()))));
-					}
-
-					@Override
-					public Optional<ByteBuffer> loadResource(REAddr addr) {
-						return tStore.loadResource(addr).or(() -> baseStore.loadResource(addr));
-					}
-				})
-			)
+		// Nothing gets written to the base store so a read only view of it is enough,
+		// avoiding the cost of a base store transaction for speculative execution
+		var view = readOnlyView();
+		return transientStore.transaction(tStore ->
+			consumer.start(new EngineStoreInTransaction<M>() {
+				@Override
+				public void storeTxn(Txn txn, List<REStateUpdate> instructions) {
+					tStore.storeTxn(txn, instructions);
+				}
+
+				@Override
+				public void storeMetadata(M metadata) {
+					// no-op
+				}
+
+				@Override
+				public ByteBuffer verifyVirtualSubstate(SubstateId substateId)
+					throws VirtualSubstateAlreadyDownException, VirtualParentStateDoesNotExist {
+					return view.verifyVirtualSubstate(substateId);
+				}
+
+				@Override
+				public Optional<ByteBuffer> loadSubstate(SubstateId substateId) {
+					return view.loadSubstate(substateId);
+				}
+
+				@Override
+				public CloseableCursor<RawSubstateBytes> openIndexedCursor(SubstateIndex<?> index) {
+					return view.openIndexedCursor(index);
+				}
+
+				@Override
+				public Optional<ByteBuffer> loadResource(REAddr addr) {
+					return view.loadResource(addr);
+				}
+			})
 		);
 	}
 
@@ -0,0 +1,157 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.engine.parser;
+
+import com.radixdlt.application.system.construction.CreateSystemConstructorV2;
+import com.radixdlt.application.system.scrypt.EpochUpdateConstraintScrypt;
+import com.radixdlt.application.system.scrypt.RoundUpdateConstraintScrypt;
+import com.radixdlt.application.system.scrypt.SystemConstraintScrypt;
+import com.radixdlt.application.validators.construction.RegisterValidatorConstructor;
+import com.radixdlt.application.validators.scrypt.ValidatorConstraintScryptV2;
+import com.radixdlt.application.validators.scrypt.ValidatorRegisterConstraintScrypt;
+import com.radixdlt.atom.REConstructor;
+import com.radixdlt.atom.Txn;
+import com.radixdlt.atom.actions.CreateSystem;
+import com.radixdlt.atom.actions.RegisterValidator;
+import com.radixdlt.atomos.CMAtomOS;
+import com.radixdlt.constraintmachine.ConstraintMachine;
+import com.radixdlt.constraintmachine.PermissionLevel;
+import com.radixdlt.constraintmachine.REInstruction;
+import com.radixdlt.constraintmachine.SubstateDeserialization;
+import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.engine.RadixEngine;
+import com.radixdlt.engine.parser.exceptions.TxnParseException;
+import com.radixdlt.store.InMemoryEngineStore;
+import com.radixdlt.utils.UInt256;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class REParserTest {
+	private SubstateDeserialization deserialization;
+	private REParser parser;
+	private RadixEngine<Void> engine;
+	private ExecutorService executor;
+
+	@Before
+	public void setup() throws Exception {
+		var cmAtomOS = new CMAtomOS();
+		cmAtomOS.load(new SystemConstraintScrypt(Set.of()));
+		cmAtomOS.load(new RoundUpdateConstraintScrypt(2));
+		cmAtomOS.load(new EpochUpdateConstraintScrypt(2, UInt256.NINE, 1, 1, 100));
+		cmAtomOS.load(new ValidatorConstraintScryptV2());
+		cmAtomOS.load(new ValidatorRegisterConstraintScrypt());
+		var cm = new ConstraintMachine(
+			cmAtomOS.getProcedures(),
+			cmAtomOS.buildSubstateDeserialization(),
+			cmAtomOS.buildVirtualSubstateDeserialization()
+		);
+		this.deserialization = cmAtomOS.buildSubstateDeserialization();
+		this.parser = new REParser(deserialization);
+		this.engine = new RadixEngine<>(
+			parser,
+			cmAtomOS.buildSubstateSerialization(),
+			REConstructor.newBuilder()
+				.put(RegisterValidator.class, new RegisterValidatorConstructor())
+				.put(CreateSystem.class, new CreateSystemConstructorV2())
+				.build(),
+			cm,
+			new InMemoryEngineStore<>()
+		);
+		var txn = this.engine.construct(new CreateSystem(0)).buildWithoutSignature();
+		this.engine.execute(List.of(txn), null, PermissionLevel.SYSTEM);
+		this.executor = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void teardown() {
+		this.executor.shutdownNow();
+	}
+
+	private Txn registerTxn(ECKeyPair key) throws Exception {
+		return this.engine.construct(new RegisterValidator(key.getPublicKey())).signAndBuild(key::sign);
+	}
+
+	private static Txn truncated(Txn txn) {
+		var payload = txn.getPayload();
+		return Txn.create(Arrays.copyOf(payload, payload.length - 1));
+	}
+
+	private static List<String> describe(ParsedTxn parsedTxn) {
+		return parsedTxn.instructions().stream().map(REInstruction::toString).collect(Collectors.toList());
+	}
+
+	@Test
+	public void cached_parse_should_be_equal_to_fresh_parse() throws Exception {
+		// Arrange
+		var key = ECKeyPair.generateNew();
+		var txn = registerTxn(key);
+		var parsed = parser.parse(txn);
+
+		// Act
+		var cached = parser.parse(txn);
+		var fresh = new REParser(deserialization).parse(txn);
+
+		// Assert
+		assertThat(cached).isSameAs(parsed);
+		assertThat(cached.txn()).isEqualTo(fresh.txn());
+		assertThat(cached.getSignedBy()).contains(key.getPublicKey()).isEqualTo(fresh.getSignedBy());
+		assertThat(cached.getFeePaid()).isEqualTo(fresh.getFeePaid());
+		assertThat(cached.disableResourceAllocAndDestroy()).isEqualTo(fresh.disableResourceAllocAndDestroy());
+		assertThat(cached.instructions())
+			.extracting(REInstruction::getMicroOp)
+			.containsExactlyElementsOf(fresh.instructions().stream().map(REInstruction::getMicroOp).collect(Collectors.toList()));
+		assertThat(describe(cached)).isEqualTo(describe(fresh));
+	}
+
+	@Test
+	public void invalid_txn_should_not_be_cached() throws Exception {
+		// Arrange
+		var invalid = truncated(registerTxn(ECKeyPair.generateNew()));
+		assertThatThrownBy(() -> parser.parse(invalid)).isInstanceOf(TxnParseException.class);
+
+		// Act and Assert
+		assertThatThrownBy(() -> parser.parse(invalid)).isInstanceOf(TxnParseException.class);
+	}
+
+	@Test
+	public void pre_parse_failure_should_be_reported_on_execution() throws Exception {
+		// Arrange
+		var valid = registerTxn(ECKeyPair.generateNew());
+		var invalid = truncated(registerTxn(ECKeyPair.generateNew()));
+
+		// Act
+		this.engine.preParse(List.of(valid, invalid), executor);
+
+		// Assert
+		assertThatThrownBy(() -> this.engine.execute(List.of(invalid)))
+			.hasCauseInstanceOf(TxnParseException.class);
+		assertThat(parser.parse(valid)).isSameAs(parser.parse(valid));
+		this.engine.execute(List.of(valid));
+	}
+}
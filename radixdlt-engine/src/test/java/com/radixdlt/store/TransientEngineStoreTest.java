@@ -0,0 +1,62 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ */
+
+package com.radixdlt.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.atom.SubstateId;
+import com.radixdlt.crypto.HashUtils;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.test.utils.TypedMocks;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+public class TransientEngineStoreTest {
+	private EngineStore<Object> base;
+	private CMStore baseView;
+	private TransientEngineStore<Object> sut;
+
+	@Before
+	public void setup() {
+		this.base = TypedMocks.rmock(EngineStore.class);
+		this.baseView = mock(CMStore.class);
+		when(base.readOnlyView()).thenReturn(baseView);
+		this.sut = new TransientEngineStore<>(base);
+	}
+
+	@Test
+	public void transaction_should_read_from_base_view_without_base_transaction() throws Exception {
+		var substateId = SubstateId.ofSubstate(AID.from(HashUtils.random256().asBytes()), 0);
+		var substate = ByteBuffer.wrap(new byte[] {1, 2, 3});
+		when(baseView.loadSubstate(substateId)).thenReturn(Optional.of(substate));
+
+		var result = sut.transaction(store -> store.loadSubstate(substateId));
+
+		assertThat(result).contains(substate);
+		verify(base, never()).transaction(any());
+	}
+}
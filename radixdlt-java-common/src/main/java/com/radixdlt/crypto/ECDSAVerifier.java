@@ -0,0 +1,173 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.radixdlt.SecurityCritical;
+import com.radixdlt.SecurityCritical.SecurityKind;
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies ECDSA signatures, remembering recently verified signatures and reusing
+ * precomputed tables for a set of frequently used keys, such as the keys of the
+ * current validator set.
+ * <p>
+ * BouncyCastle keeps the tables it precomputes for a point on the point instance,
+ * however keys deserialized from the network get a fresh point every time and
+ * the tables are recomputed for each verification. Keys passed to
+ * {@link #precompute(Collection)} are mapped to one warmed up point instance instead.
+ */
+@SecurityCritical({ SecurityKind.SIG_VERIFY })
+public final class ECDSAVerifier {
+	public static final long DEFAULT_CACHE_SIZE = 32_768;
+	// Below this, the cost of going parallel outweighs the gain
+	private static final int PARALLEL_BATCH_SIZE = 4;
+	private static final ECDSASignature WARM_UP_SIGNATURE = ECDSASignature.create(BigInteger.ONE, BigInteger.ONE, 0);
+
+	private final Cache<SignedHash, Boolean> verified;
+	private volatile Map<ECPublicKey, ECPoint> precomputed = Map.of();
+
+	public ECDSAVerifier(long cacheSize) {
+		this.verified = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+	}
+
+	/**
+	 * Precomputes tables for the specified keys, replacing the previously precomputed keys.
+	 * Tables already computed for keys which are still included are kept.
+	 *
+	 * @param keys The keys to precompute tables for
+	 */
+	public void precompute(Collection<ECPublicKey> keys) {
+		var current = this.precomputed;
+		var points = new HashMap<ECPublicKey, ECPoint>();
+		for (var key : keys) {
+			var point = current.get(key);
+			points.put(key, point != null ? point : warmUp(key));
+		}
+		this.precomputed = Map.copyOf(points);
+	}
+
+	/**
+	 * Verify the specified signature against the specified hash with
+	 * the specified public key.
+	 *
+	 * @param publicKey The public key to verify with
+	 * @param hash The the hash to verify
+	 * @param signature The signature to verify
+	 * @return {@code true} if the signature matches, {@code false} otherwise
+	 */
+	public boolean verify(ECPublicKey publicKey, HashCode hash, ECDSASignature signature) {
+		return signature != null && verify(SignedHash.of(publicKey, hash, signature));
+	}
+
+	/**
+	 * Verify all of the specified signatures, spreading the work over multiple threads
+	 * when there are enough signatures which were not verified recently.
+	 *
+	 * @param signatures The signatures to verify
+	 * @return {@code true} if all of the signatures match, {@code false} otherwise
+	 */
+	public boolean verifyAll(Collection<SignedHash> signatures) {
+		var pending = signatures.stream()
+			.filter(signature -> verified.getIfPresent(signature) == null)
+			.collect(Collectors.toList());
+		var stream = pending.size() < PARALLEL_BATCH_SIZE ? pending.stream() : pending.parallelStream();
+		return stream.allMatch(this::verify);
+	}
+
+	private boolean verify(SignedHash signedHash) {
+		if (verified.getIfPresent(signedHash) != null) {
+			return true;
+		}
+
+		var publicKey = signedHash.getPublicKey();
+		var point = precomputed.getOrDefault(publicKey, publicKey.getEcPoint());
+		if (!ECKeyUtils.keyHandler.verify(signedHash.getHash().asBytes(), signedHash.getSignature(), point)) {
+			return false;
+		}
+		verified.put(signedHash, Boolean.TRUE);
+		return true;
+	}
+
+	private static ECPoint warmUp(ECPublicKey key) {
+		// A point of our own, as tables are cached on whichever instance is used
+		var point = ECKeyUtils.spec().getCurve().decodePoint(key.getCompressedBytes());
+		// Verifying any signature computes and caches the tables used by later verifications
+		ECKeyUtils.keyHandler.verify(new byte[32], WARM_UP_SIGNATURE, point);
+		return point;
+	}
+
+	/**
+	 * A signature along with the key and hash it is to be verified with.
+	 */
+	public static final class SignedHash {
+		private final ECPublicKey publicKey;
+		private final HashCode hash;
+		private final ECDSASignature signature;
+
+		private SignedHash(ECPublicKey publicKey, HashCode hash, ECDSASignature signature) {
+			this.publicKey = Objects.requireNonNull(publicKey);
+			this.hash = Objects.requireNonNull(hash);
+			this.signature = Objects.requireNonNull(signature);
+		}
+
+		public static SignedHash of(ECPublicKey publicKey, HashCode hash, ECDSASignature signature) {
+			return new SignedHash(publicKey, hash, signature);
+		}
+
+		public ECPublicKey getPublicKey() {
+			return publicKey;
+		}
+
+		public HashCode getHash() {
+			return hash;
+		}
+
+		public ECDSASignature getSignature() {
+			return signature;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(publicKey, hash, signature);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof SignedHash)) {
+				return false;
+			}
+			var other = (SignedHash) o;
+			return publicKey.equals(other.publicKey) && hash.equals(other.hash) && signature.equals(other.signature);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s{key=%s hash=%s}", getClass().getSimpleName(), publicKey, hash);
+		}
+	}
+}
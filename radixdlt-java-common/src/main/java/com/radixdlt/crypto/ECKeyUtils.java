@@ -225,6 +225,12 @@ public class ECKeyUtils {
 
 	static Optional<ECPoint> recoverFromSignature(int v, BigInteger r, BigInteger s, byte[] hash) {
 		var curveN = curve.getN();
+
+		// Out of range values are rejected by verification, so a key recovered from them must not be trusted either
+		if (!isInRange(r, curveN) || !isInRange(s, curveN)) {
+			return Optional.empty();
+		}
+
 		var decompressedPoint = decompressKey(r, (v & 1) == 1);
 
 		if (decompressedPoint == null || !decompressedPoint.multiply(curveN).isInfinity()) {
@@ -322,4 +328,8 @@ public class ECKeyUtils {
 		}
 		return true;
 	}
+
+	private static boolean isInRange(BigInteger value, BigInteger curveN) {
+		return value.signum() > 0 && value.compareTo(curveN) < 0;
+	}
 }
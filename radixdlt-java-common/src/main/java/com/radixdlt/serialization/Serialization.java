@@ -30,6 +30,7 @@ import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.mapper.JacksonCborMapper;
 import com.radixdlt.serialization.mapper.JacksonJsonMapper;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Map;
@@ -142,6 +143,23 @@ public class Serialization {
 		}
 	}
 
+	/**
+	 * Write the specified object DSON encoded for the specified output mode
+	 * to the specified stream, without collecting the encoded bytes in an array.
+	 * The stream is closed once the object is written.
+	 *
+	 * @param o The object to serialize
+	 * @param output The output mode to serialize for
+	 * @param outputStream The stream to write the serialized object to
+	 */
+	public void toDson(Object o, DsonOutput.Output output, OutputStream outputStream) {
+		try {
+			dsonMapper(output).writeValue(outputStream, o);
+		} catch (IOException ex) {
+			throw new IllegalStateException(assembleMessage(o, "DSON"), ex);
+		}
+	}
+
 	/**
 	 * Convert the specified object to a JSON encoded string for the specified
 	 * output mode.
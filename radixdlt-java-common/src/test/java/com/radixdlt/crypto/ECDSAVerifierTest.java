@@ -0,0 +1,104 @@
+/*
+ * (C) Copyright 2021 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.crypto;
+
+import com.google.common.hash.HashCode;
+import com.radixdlt.TestSetupUtils;
+import com.radixdlt.crypto.ECDSAVerifier.SignedHash;
+import com.radixdlt.crypto.exception.PublicKeyException;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ECDSAVerifierTest {
+
+	@BeforeClass
+	public static void beforeClass() {
+		TestSetupUtils.installBouncyCastleProvider();
+	}
+
+	@Test
+	public void equalsContract() {
+		EqualsVerifier.forClass(SignedHash.class)
+			.withPrefabValues(ECPublicKey.class, ECKeyPair.generateNew().getPublicKey(), ECKeyPair.generateNew().getPublicKey())
+			.withPrefabValues(HashCode.class, HashUtils.random256(), HashUtils.random256())
+			.withNonnullFields("publicKey", "hash", "signature")
+			.verify();
+	}
+
+	@Test
+	public void valid_signature_is_verified_with_and_without_precomputation() throws PublicKeyException {
+		var verifier = new ECDSAVerifier(0);
+		var keyPair = ECKeyPair.generateNew();
+		var hash = HashUtils.random256();
+		var signature = keyPair.sign(hash);
+		// Deserialized as it would be from the network
+		var publicKey = ECPublicKey.fromBytes(keyPair.getPublicKey().getCompressedBytes());
+
+		assertThat(verifier.verify(publicKey, hash, signature)).isTrue();
+		verifier.precompute(List.of(keyPair.getPublicKey()));
+		assertThat(verifier.verify(publicKey, hash, signature)).isTrue();
+	}
+
+	@Test
+	public void invalid_signature_is_rejected_with_and_without_precomputation() {
+		var verifier = new ECDSAVerifier(16);
+		var keyPair = ECKeyPair.generateNew();
+		var hash = HashUtils.random256();
+		var signature = ECKeyPair.generateNew().sign(hash);
+
+		assertThat(verifier.verify(keyPair.getPublicKey(), hash, signature)).isFalse();
+		verifier.precompute(List.of(keyPair.getPublicKey()));
+		assertThat(verifier.verify(keyPair.getPublicKey(), hash, signature)).isFalse();
+		assertThat(verifier.verify(keyPair.getPublicKey(), hash, null)).isFalse();
+	}
+
+	@Test
+	public void cached_signature_is_not_mistaken_for_another_hash() {
+		var verifier = new ECDSAVerifier(16);
+		var keyPair = ECKeyPair.generateNew();
+		var hash = HashUtils.random256();
+		var signature = keyPair.sign(hash);
+
+		assertThat(verifier.verify(keyPair.getPublicKey(), hash, signature)).isTrue();
+		assertThat(verifier.verify(keyPair.getPublicKey(), HashUtils.random256(), signature)).isFalse();
+	}
+
+	@Test
+	public void batch_is_rejected_if_any_signature_is_invalid() {
+		var verifier = new ECDSAVerifier(16);
+		var batch = new ArrayList<SignedHash>();
+		for (int i = 0; i < 10; i++) {
+			var keyPair = ECKeyPair.generateNew();
+			var hash = HashUtils.random256();
+			batch.add(SignedHash.of(keyPair.getPublicKey(), hash, keyPair.sign(hash)));
+		}
+
+		assertThat(verifier.verifyAll(batch)).isTrue();
+
+		var keyPair = ECKeyPair.generateNew();
+		batch.add(SignedHash.of(keyPair.getPublicKey(), HashUtils.random256(), keyPair.sign(HashUtils.random256())));
+
+		assertThat(verifier.verifyAll(batch)).isFalse();
+	}
+}
@@ -187,4 +187,22 @@ public class ECKeyUtilsTest {
 				Assert::fail
 			));
 	}
+
+	@Test
+	public void testRecoverFromOutOfRangeSignature() throws PublicKeyException {
+		var keyPair = ECKeyPair.generateNew();
+		var hash = HashUtils.transactionIdHash("123456".getBytes());
+		var signature = ECKeyUtils.toRecoverable(keyPair.sign(hash), hash.asBytes(), keyPair.getPublicKey())
+			.toOptional()
+			.orElseThrow();
+		var r = signature.getR();
+		var s = signature.getS();
+		var v = signature.getV();
+		var n = ECKeyUtils.spec().getN();
+
+		assertTrue(ECPublicKey.recoverFrom(hash, ECDSASignature.create(r, s, v)).isPresent());
+		assertFalse(ECPublicKey.recoverFrom(hash, ECDSASignature.create(r, BigInteger.ZERO, v)).isPresent());
+		assertFalse(ECPublicKey.recoverFrom(hash, ECDSASignature.create(r, s.add(n), v)).isPresent());
+		assertFalse(ECPublicKey.recoverFrom(hash, ECDSASignature.create(r.add(n), s, v)).isPresent());
+	}
 }